@@ -23,6 +23,7 @@ include(
     "common/multi-tests",
     "common/ltl",
     "common/ltl-cli",
+    "common/benchmarks",
 
     "frontends/c-frontend",
     "frontends/petrinet-model",
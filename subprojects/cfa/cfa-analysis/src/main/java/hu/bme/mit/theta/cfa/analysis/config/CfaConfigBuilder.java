@@ -22,6 +22,7 @@ import hu.bme.mit.theta.analysis.*;
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.arg.ARG;
 import hu.bme.mit.theta.analysis.algorithm.arg.ArgBuilder;
+import hu.bme.mit.theta.analysis.algorithm.arg.ArgNode;
 import hu.bme.mit.theta.analysis.algorithm.arg.ArgNodeComparators;
 import hu.bme.mit.theta.analysis.algorithm.arg.ArgNodeComparators.ArgNodeComparator;
 import hu.bme.mit.theta.analysis.algorithm.cegar.ArgAbstractor;
@@ -38,6 +39,10 @@ import hu.bme.mit.theta.analysis.multi.MultiAnalysisSide;
 import hu.bme.mit.theta.analysis.pred.*;
 import hu.bme.mit.theta.analysis.pred.ExprSplitters.ExprSplitter;
 import hu.bme.mit.theta.analysis.pred.PredAbstractors.PredAbstractor;
+import hu.bme.mit.theta.analysis.reachedset.CoverIndex;
+import hu.bme.mit.theta.analysis.reachedset.ExplStateIndex;
+import hu.bme.mit.theta.analysis.reachedset.Partition;
+import hu.bme.mit.theta.analysis.reachedset.PredStateIndex;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.analysis.unit.UnitState;
 import hu.bme.mit.theta.analysis.waitlist.PriorityWaitlist;
@@ -73,6 +78,7 @@ public class CfaConfigBuilder {
     private int maxEnum = 0;
     private InitPrec initPrec = InitPrec.EMPTY;
     private PruneStrategy pruneStrategy = PruneStrategy.LAZY;
+    private int threads = 1;
 
     public CfaConfigBuilder(
             final Domain domain, final Refinement refinement, final SolverFactory solverFactory) {
@@ -133,6 +139,11 @@ public class CfaConfigBuilder {
         return this;
     }
 
+    public CfaConfigBuilder threads(final int threads) {
+        this.threads = threads;
+        return this;
+    }
+
     public CfaConfig<? extends State, ? extends Action, ? extends Prec> build(
             final CFA cfa, final CFA.Loc errLoc) {
         if (domain == Domain.EXPL) {
@@ -635,6 +646,11 @@ public class CfaConfigBuilder {
 
         public abstract CfaPrec<P> createInitPrec();
 
+        /** Creates the index in which the nodes that might cover an ARG node are looked up. */
+        public CoverIndex<ArgNode<CfaState<S>, CfaAction>> createCoverIndex() {
+            return Partition.of(n -> 0);
+        }
+
         public CfaLts getLts(CFA.Loc errLoc) {
             return encoding.getLts(errLoc);
         }
@@ -653,6 +669,12 @@ public class CfaConfigBuilder {
                             .waitlist(PriorityWaitlist.create(search.getComp(cfa, errLoc)))
                             .stopCriterion(refinement.getStopCriterion())
                             .logger(logger)
+                            .coverIndex(this::createCoverIndex)
+                            .parallel(
+                                    threads,
+                                    () ->
+                                            ArgBuilder.create(
+                                                    getLts(errLoc), getAnalysis(), target, true))
                             .build();
             final ArgRefiner<CfaState<S>, CfaAction, CfaPrec<P>> refiner =
                     refinement.getRefiner(this);
@@ -717,6 +739,11 @@ public class CfaConfigBuilder {
             return new VarsRefToExplPrec();
         }
 
+        @Override
+        public CoverIndex<ArgNode<CfaState<ExplState>, CfaAction>> createCoverIndex() {
+            return ExplStateIndex.create(n -> n.getState().getState());
+        }
+
         @Override
         public CfaPrec<ExplPrec> createInitPrec() {
             return switch (initPrec) {
@@ -778,6 +805,11 @@ public class CfaConfigBuilder {
             return new ItpRefToPredPrec(predSplit.splitter);
         }
 
+        @Override
+        public CoverIndex<ArgNode<CfaState<PredState>, CfaAction>> createCoverIndex() {
+            return PredStateIndex.create(n -> n.getState().getState());
+        }
+
         @Override
         public CfaPrec<PredPrec> createInitPrec() {
             return switch (initPrec) {
@@ -0,0 +1,97 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.cfa.analysis;
+
+import static hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder.Domain.EXPL;
+import static hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder.Domain.PRED_BOOL;
+import static hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder.Domain.PRED_CART;
+import static hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder.Refinement.BW_BIN_ITP;
+import static hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder.Refinement.MULTI_SEQ;
+import static hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder.Refinement.SEQ_ITP;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.analysis.config.CfaConfig;
+import hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder;
+import hu.bme.mit.theta.cfa.dsl.CfaDslManager;
+import hu.bme.mit.theta.solver.SolverFactory;
+import hu.bme.mit.theta.solver.z3legacy.Z3LegacySolverFactory;
+import java.io.FileInputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(value = Parameterized.class)
+public class CfaParallelAbstractionTest {
+
+    @Parameterized.Parameter(value = 0)
+    public String filePath;
+
+    @Parameterized.Parameter(value = 1)
+    public CfaConfigBuilder.Domain domain;
+
+    @Parameterized.Parameter(value = 2)
+    public CfaConfigBuilder.Refinement refinement;
+
+    @Parameterized.Parameter(value = 3)
+    public boolean isSafe;
+
+    @Parameterized.Parameter(value = 4)
+    public int cexLength;
+
+    @Parameterized.Parameter(value = 5)
+    public int threads;
+
+    @Parameterized.Parameters(name = "{index}: {0}, {1}, {2}, {3}, {4}, {5}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(
+                new Object[][] {
+                    {"src/test/resources/arithmetic-int.cfa", PRED_CART, SEQ_ITP, false, 13, 4},
+                    {"src/test/resources/arithmetic-int.cfa", EXPL, SEQ_ITP, false, 13, 2},
+                    {"src/test/resources/arrays.cfa", PRED_BOOL, BW_BIN_ITP, false, 8, 4},
+                    {"src/test/resources/counter5_true.cfa", PRED_BOOL, SEQ_ITP, true, 0, 4},
+                    {"src/test/resources/counter5_true.cfa", EXPL, MULTI_SEQ, true, 0, 3},
+                    {"src/test/resources/locking.cfa", PRED_CART, SEQ_ITP, true, 0, 8},
+                });
+    }
+
+    @Test
+    public void test() throws Exception {
+        final SolverFactory solverFactory = Z3LegacySolverFactory.getInstance();
+        final CFA cfa = CfaDslManager.createCfa(new FileInputStream(filePath));
+        final CfaConfig<? extends State, ? extends Action, ? extends Prec> config =
+                new CfaConfigBuilder(domain, refinement, solverFactory)
+                        .threads(threads)
+                        .build(cfa, cfa.getErrorLoc().get());
+        final SafetyResult<?, ?> result = config.check();
+        Assert.assertEquals(isSafe, result.isSafe());
+        if (result.isUnsafe()) {
+            final Trace<CfaState<ExplState>, CfaAction> trace =
+                    CfaTraceConcretizer.concretize(
+                            (Trace<CfaState<?>, CfaAction>) result.asUnsafe().getCex(),
+                            solverFactory);
+            Assert.assertEquals(cexLength, trace.length());
+        }
+    }
+}
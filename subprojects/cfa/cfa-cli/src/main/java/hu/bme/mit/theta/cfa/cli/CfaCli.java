@@ -260,6 +260,11 @@ public class CfaCli {
             description = "Strategy for pruning the ARG after refinement")
     PruneStrategy pruneStrategy = PruneStrategy.LAZY;
 
+    @Parameter(
+            names = "--abstraction-threads",
+            description = "Number of threads expanding the ARG in parallel")
+    Integer abstractionThreads = 1;
+
     @Parameter(
             names = {"--reversed"},
             description = "Reversed state space exploration")
@@ -483,6 +488,7 @@ public class CfaCli {
                     .maxEnum(maxEnum)
                     .initPrec(initPrec)
                     .pruneStrategy(pruneStrategy)
+                    .threads(abstractionThreads)
                     .logger(logger)
                     .build(cfa, errLoc);
         } catch (final Exception ex) {
@@ -19,6 +19,7 @@ import hu.bme.mit.theta.cfa.CFA;
 import hu.bme.mit.theta.cfa.dsl.gen.CfaDslLexer;
 import hu.bme.mit.theta.cfa.dsl.gen.CfaDslParser;
 import hu.bme.mit.theta.cfa.dsl.gen.CfaDslParser.SpecContext;
+import hu.bme.mit.theta.core.dsl.TwoStageParser;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -44,7 +45,7 @@ public final class CfaDslManager {
         final CommonTokenStream tokens = new CommonTokenStream(lexer);
         final CfaDslParser parser = new CfaDslParser(tokens);
 
-        final SpecContext context = parser.spec();
+        final SpecContext context = TwoStageParser.parse(parser, CfaDslParser::spec);
         final CfaSpecification specification = CfaSpecification.fromContext(context);
         final CFA cfa = specification.instantiate();
         return cfa;
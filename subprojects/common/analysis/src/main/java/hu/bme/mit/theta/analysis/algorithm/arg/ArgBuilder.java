@@ -18,8 +18,10 @@ package hu.bme.mit.theta.analysis.algorithm.arg;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import hu.bme.mit.theta.analysis.*;
+import hu.bme.mit.theta.common.Tuple2;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -84,15 +86,25 @@ public final class ArgBuilder<S extends State, A extends Action, P extends Prec>
     }
 
     public Collection<ArgNode<S, A>> expand(final ArgNode<S, A> node, final P prec) {
+        return applySuccessors(node, computeSuccessors(node, prec));
+    }
+
+    /**
+     * Computes the (action, successor state) pairs of a node that {@link #expand} would add to the
+     * ARG, without modifying the ARG. Only the node itself is read, so different nodes can be
+     * processed concurrently by different ArgBuilder instances (each having its own analysis).
+     */
+    public List<Tuple2<A, S>> computeSuccessors(final ArgNode<S, A> node, final P prec) {
         checkNotNull(node);
         checkNotNull(prec);
-        final Collection<ArgNode<S, A>> newSuccNodes = new ArrayList<>();
+        final List<Tuple2<A, S>> successors = new ArrayList<>();
         final S state = node.getState();
         final Collection<A> exploredActions =
                 node.getOutEdges().map(ArgEdge::getAction).collect(Collectors.toSet());
         final Collection<? extends A> actions =
                 lts.getEnabledActionsFor(state, exploredActions, prec);
         final TransFunc<S, ? super A, ? super P> transFunc = analysis.getTransFunc();
+        final PartialOrd<S> partialOrd = analysis.getPartialOrd();
         for (final A action : actions) {
             final Collection<? extends S> succStates = transFunc.getSuccStates(state, action, prec);
             for (final S succState : succStates) {
@@ -101,18 +113,40 @@ public final class ArgBuilder<S extends State, A extends Action, P extends Prec>
                 }
                 // Only add state if there is no covering sibling (with the same action)
                 if (node.getSuccNodes()
-                        .noneMatch(
-                                n ->
-                                        n.getInEdge().get().getAction().equals(action)
-                                                && analysis.getPartialOrd()
-                                                        .isLeq(succState, n.getState()))) {
-                    final boolean isTarget = target.test(succState);
-                    final ArgNode<S, A> newNode =
-                            node.arg.createSuccNode(node, action, succState, isTarget);
-                    newSuccNodes.add(newNode);
+                                .noneMatch(
+                                        n ->
+                                                n.getInEdge().get().getAction().equals(action)
+                                                        && partialOrd.isLeq(
+                                                                succState, n.getState()))
+                        && successors.stream()
+                                .noneMatch(
+                                        s ->
+                                                s.get1().equals(action)
+                                                        && partialOrd.isLeq(
+                                                                succState, s.get2()))) {
+                    successors.add(Tuple2.of(action, succState));
                 }
             }
         }
+        return successors;
+    }
+
+    /**
+     * Adds the successors computed by {@link #computeSuccessors} to the ARG and marks the node as
+     * expanded.
+     */
+    public Collection<ArgNode<S, A>> applySuccessors(
+            final ArgNode<S, A> node, final Collection<Tuple2<A, S>> successors) {
+        checkNotNull(node);
+        checkNotNull(successors);
+        final Collection<ArgNode<S, A>> newSuccNodes = new ArrayList<>();
+        for (final Tuple2<A, S> successor : successors) {
+            final S succState = successor.get2();
+            final boolean isTarget = target.test(succState);
+            final ArgNode<S, A> newNode =
+                    node.arg.createSuccNode(node, successor.get1(), succState, isTarget);
+            newSuccNodes.add(newNode);
+        }
         node.expanded = true;
 
         return newSuccNodes;
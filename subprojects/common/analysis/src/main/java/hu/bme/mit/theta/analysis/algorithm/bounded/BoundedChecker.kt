@@ -15,6 +15,7 @@
  */
 package hu.bme.mit.theta.analysis.algorithm.bounded
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder
 import hu.bme.mit.theta.analysis.Trace
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult
@@ -39,6 +40,12 @@ import hu.bme.mit.theta.solver.ItpSolver
 import hu.bme.mit.theta.solver.Solver
 import hu.bme.mit.theta.solver.utils.WithPushPop
 import java.util.*
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorCompletionService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
 
 /**
  * A checker for bounded model checking.
@@ -58,6 +65,12 @@ import java.util.*
  * @param indSolver The solver for induction checking in KIND.
  * @param kindEnabled A function determining whether k-induction (KIND) is enabled.
  * @param logger The logger for logging.
+ * @param needProof Whether to extract a proof (an inductive invariant) for safe results.
+ * @param concurrent Whether to run the enabled engines on separate threads, each advancing its own
+ *   bound, instead of running them one after another for each bound. K-induction only reports
+ *   safety once BMC has excluded counterexamples up to the same bound. The first conclusive result
+ *   is returned and the other engines are cancelled, although a solver call that is already
+ *   running is not interrupted.
  */
 class BoundedChecker
 @JvmOverloads
@@ -73,15 +86,14 @@ constructor(
   private val kindEnabled: (Int) -> Boolean = { indSolver != null },
   private val logger: Logger,
   private val needProof: Boolean = false,
+  private val concurrent: Boolean = false,
 ) : SafetyChecker<PredState, Trace<ExplState, ExprAction>, UnitPrec> {
 
   private val vars = monolithicExpr.vars
   private val unfoldedInitExpr =
     PathUtils.unfold(monolithicExpr.initExpr, VarIndexingFactory.indexing(0))
   private val unfoldedPropExpr = { i: VarIndexing -> PathUtils.unfold(monolithicExpr.propExpr, i) }
-  private val indices = mutableListOf(VarIndexingFactory.indexing(0))
-  private val exprs = mutableListOf<Expr<BoolType>>()
-  private var kindLastIterLookup = 0
+  private val progress = Engine.entries.associateWith { EngineProgress() }
   private var iteration = 0
 
   init {
@@ -97,6 +109,11 @@ constructor(
     val isBmcEnabled = bmcEnabled() // we don't allow per-iteration setting of bmc enabledness
     bmcSolver?.add(unfoldedInitExpr)
 
+    if (concurrent) {
+      return checkConcurrently(isBmcEnabled)
+    }
+
+    val unrolling = Unrolling()
     while (!shouldGiveUp(iteration)) {
       iteration++
       logger.write(Logger.Level.MAINSTEP, "Starting iteration $iteration\n")
@@ -110,12 +127,10 @@ constructor(
         "K-Induction needs BMC as an external substep."
       }
 
-      exprs.add(PathUtils.unfold(monolithicExpr.transExpr, indices.last()))
-
-      indices.add(indices.last().add(monolithicExpr.transOffsetIndex))
+      unrolling.extend()
 
       if (isBmcEnabled) {
-        bmc()?.let {
+        Engine.BMC.run(unrolling) { bmc(it) }?.let {
           return it
         }
       }
@@ -124,23 +139,119 @@ constructor(
         if (!isBmcEnabled) {
           error("Bad configuration: induction check should always be preceded by a BMC/SAT check")
         }
-        kind()?.let {
+        Engine.KIND.run(unrolling) { kind(it) }?.let {
           return it
         }
-        kindLastIterLookup = iteration
       }
 
       if (imcEnabled(iteration)) {
-        itp()?.let {
+        Engine.IMC.run(unrolling) { itp(it) }?.let {
           return it
         }
       }
     }
-    return SafetyResult.unknown(BoundedStatistics(iteration))
+    return SafetyResult.unknown(statistics(iteration))
+  }
+
+  /**
+   * Runs each enabled engine on its own thread with its own unrolling. BMC publishes the bound up
+   * to which it excluded counterexamples, and k-induction waits for this bound before reporting
+   * safety. Once a result is known the remaining engines are interrupted, and the call only returns
+   * after all of them have stopped.
+   */
+  private fun checkConcurrently(
+    isBmcEnabled: Boolean
+  ): SafetyResult<PredState, Trace<ExplState, ExprAction>> {
+    val bmcFrontier = DepthFrontier()
+    val engines = mutableListOf<() -> SafetyResult<PredState, Trace<ExplState, ExprAction>>?>()
+
+    if (isBmcEnabled) {
+      engines.add {
+        try {
+          runEngine(Engine.BMC, { true }, bmcFrontier) { unrolling ->
+            bmc(unrolling).also { if (it == null) bmcFrontier.advance(unrolling.depth) }
+          }
+        } finally {
+          bmcFrontier.close()
+        }
+      }
+    } else {
+      bmcFrontier.close()
+    }
+    if (indSolver != null) {
+      engines.add {
+        runEngine(Engine.KIND, kindEnabled, bmcFrontier) { unrolling ->
+          check(isBmcEnabled) {
+            "Bad configuration: induction check should always be preceded by a BMC/SAT check"
+          }
+          kind(unrolling)?.takeIf { bmcFrontier.await(unrolling.depth) }
+        }
+      }
+    }
+    if (itpSolver != null) {
+      engines.add { runEngine(Engine.IMC, imcEnabled, bmcFrontier) { unrolling -> itp(unrolling) } }
+    }
+
+    val executor =
+      Executors.newFixedThreadPool(
+        engines.size.coerceAtLeast(1),
+        ThreadFactoryBuilder().setNameFormat("bounded-engine-%d").setDaemon(true).build(),
+      )
+    try {
+      val completion =
+        ExecutorCompletionService<SafetyResult<PredState, Trace<ExplState, ExprAction>>?>(executor)
+      engines.forEach { engine -> completion.submit { engine() } }
+      repeat(engines.size) {
+        val result =
+          try {
+            completion.take().get()
+          } catch (e: ExecutionException) {
+            throw e.cause ?: e
+          }
+        if (result != null) {
+          return result
+        }
+      }
+    } finally {
+      // the losing engines still use the shared solvers, so they must stop before we return
+      bmcFrontier.close()
+      executor.shutdownNow()
+      while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {}
+    }
+    return SafetyResult.unknown(statistics(synchronized(this) { iteration }))
   }
 
-  private fun bmc(): SafetyResult<PredState, Trace<ExplState, ExprAction>>? {
+  /**
+   * Advances the bound of a single engine until it gives a conclusive result, the engine gives up,
+   * or the thread is interrupted. Bounds for which the engine is disabled are only passed once BMC
+   * has passed them, so that a disabled engine does not unroll ahead on its own.
+   */
+  private fun runEngine(
+    engine: Engine,
+    enabled: (Int) -> Boolean,
+    bmcFrontier: DepthFrontier,
+    step: (Unrolling) -> SafetyResult<PredState, Trace<ExplState, ExprAction>>?,
+  ): SafetyResult<PredState, Trace<ExplState, ExprAction>>? {
+    val unrolling = Unrolling()
+    while (!shouldGiveUp(unrolling.depth) && !Thread.currentThread().isInterrupted) {
+      unrolling.extend()
+      synchronized(this) { iteration = maxOf(iteration, unrolling.depth) }
+      if (enabled(unrolling.depth)) {
+        engine.run(unrolling, step)?.let {
+          return it
+        }
+      } else if (!bmcFrontier.await(unrolling.depth)) {
+        return null
+      }
+    }
+    return null
+  }
+
+  private fun bmc(unrolling: Unrolling): SafetyResult<PredState, Trace<ExplState, ExprAction>>? {
     val bmcSolver = this.bmcSolver!!
+    val indices = unrolling.indices
+    val exprs = unrolling.exprs
+    val iteration = unrolling.depth
     logger.write(Logger.Level.MAINSTEP, "\tStarting BMC\n")
 
     if (iteration == 1) {
@@ -148,12 +259,12 @@ constructor(
         bmcSolver.add(Not(unfoldedPropExpr(indices.first())))
 
         if (bmcSolver.check().isSat) {
-          val trace = getTrace(bmcSolver.model)
+          val trace = getTrace(bmcSolver.model, indices)
           logger.write(
             Logger.Level.MAINSTEP,
             "CeX found in the initial state (length ${trace.length()})\n",
           )
-          return SafetyResult.unsafe(trace, PredState.of(), BoundedStatistics(iteration))
+          return SafetyResult.unsafe(trace, PredState.of(), statistics(iteration))
         }
       }
     }
@@ -190,7 +301,7 @@ constructor(
           } else {
             True()
           }
-        return SafetyResult.safe(PredState.of(proof), BoundedStatistics(iteration))
+        return SafetyResult.safe(PredState.of(proof), statistics(iteration))
       }
     }
 
@@ -198,24 +309,28 @@ constructor(
       bmcSolver.add(Not(unfoldedPropExpr(indices.last())))
 
       if (bmcSolver.check().isSat) {
-        val trace = getTrace(bmcSolver.model)
+        val trace = getTrace(bmcSolver.model, indices)
         logger.write(Logger.Level.MAINSTEP, "CeX found in BMC step (length ${trace.length()})\n")
-        SafetyResult.unsafe(trace, PredState.of(), BoundedStatistics(iteration))
+        SafetyResult.unsafe(trace, PredState.of(), statistics(iteration))
       } else null
     }
   }
 
-  private fun kind(): SafetyResult<PredState, Trace<ExplState, ExprAction>>? {
+  private fun kind(unrolling: Unrolling): SafetyResult<PredState, Trace<ExplState, ExprAction>>? {
     val indSolver = this.indSolver!!
+    val indices = unrolling.indices
+    val exprs = unrolling.exprs
+    val iteration = unrolling.depth
 
     logger.write(Logger.Level.MAINSTEP, "\tStarting k-induction\n")
 
-    exprs.subList(kindLastIterLookup, exprs.size).forEach { indSolver.add(it) }
+    exprs.subList(unrolling.kindLastIterLookup, exprs.size).forEach { indSolver.add(it) }
     val allSafe = LinkedList<Expr<BoolType>>()
-    indices.subList(kindLastIterLookup, indices.size - 1).forEach {
+    indices.subList(unrolling.kindLastIterLookup, indices.size - 1).forEach {
       allSafe.add(unfoldedPropExpr(it))
     }
     indSolver.add(allSafe)
+    unrolling.kindLastIterLookup = iteration
 
     return WithPushPop(indSolver).use {
       indSolver.add(Not(unfoldedPropExpr(indices.last())))
@@ -240,13 +355,16 @@ constructor(
             True()
           }
 
-        SafetyResult.safe(PredState.of(proof), BoundedStatistics(iteration))
+        SafetyResult.safe(PredState.of(proof), statistics(iteration))
       } else null
     }
   }
 
-  private fun itp(): SafetyResult<PredState, Trace<ExplState, ExprAction>>? {
+  private fun itp(unrolling: Unrolling): SafetyResult<PredState, Trace<ExplState, ExprAction>>? {
     val itpSolver = this.itpSolver!!
+    val indices = unrolling.indices
+    val exprs = unrolling.exprs
+    val iteration = unrolling.depth
     logger.write(Logger.Level.MAINSTEP, "\tStarting IMC\n")
 
     itpSolver.push()
@@ -261,12 +379,12 @@ constructor(
         itpSolver.add(a, Not(unfoldedPropExpr(indices.first())))
 
         if (itpSolver.check().isSat) {
-          val trace = getTrace(itpSolver.model)
+          val trace = getTrace(itpSolver.model, indices)
           logger.write(
             Logger.Level.MAINSTEP,
             "CeX found in the initial state (length ${trace.length()})\n",
           )
-          return SafetyResult.unsafe(trace, PredState.of(), BoundedStatistics(iteration))
+          return SafetyResult.unsafe(trace, PredState.of(), statistics(iteration))
         }
       }
     }
@@ -310,7 +428,7 @@ constructor(
           } else {
             True()
           }
-        return SafetyResult.safe(PredState.of(proof), BoundedStatistics(iteration))
+        return SafetyResult.safe(PredState.of(proof), statistics(iteration))
       }
       itpSolver.pop()
     }
@@ -320,11 +438,11 @@ constructor(
     val status = itpSolver.check()
 
     if (status.isSat) {
-      val trace = getTrace(itpSolver.model)
+      val trace = getTrace(itpSolver.model, indices)
       logger.write(Logger.Level.MAINSTEP, "CeX found in IMC/BMC step (length ${trace.length()})\n")
       itpSolver.pop()
       itpSolver.pop()
-      return SafetyResult.unsafe(trace, PredState.of(), BoundedStatistics(iteration))
+      return SafetyResult.unsafe(trace, PredState.of(), statistics(iteration))
     }
 
     var img = unfoldedInitExpr
@@ -344,7 +462,7 @@ constructor(
         itpSolver.pop()
         return SafetyResult.safe(
           PredState.of(extractModel(img, indices.subList(0, 1))),
-          BoundedStatistics(iteration),
+          statistics(iteration),
         )
       }
       itpSolver.pop()
@@ -362,7 +480,7 @@ constructor(
     return null
   }
 
-  private fun getTrace(model: Valuation): Trace<ExplState, ExprAction> {
+  private fun getTrace(model: Valuation, indices: List<VarIndexing>): Trace<ExplState, ExprAction> {
     val stateList = LinkedList<ExplState>()
     val actionList = LinkedList<ExprAction>()
     var lastValuation: Valuation? = null
@@ -377,10 +495,7 @@ constructor(
     return Trace.of(stateList, actionList)
   }
 
-  private fun extractModel(
-    expr: Expr<BoolType>,
-    indices: List<VarIndexing> = this.indices,
-  ): Expr<BoolType> {
+  private fun extractModel(expr: Expr<BoolType>, indices: List<VarIndexing>): Expr<BoolType> {
     val consts = ExprUtils.getIndexedConstants(expr)
     val map = consts.associateWith { Var(it.name, it.type) }
     val variants =
@@ -395,4 +510,82 @@ constructor(
       )
     return And(ExprUtils.changeDecls(expr, map), variants)
   }
+
+  private fun statistics(iteration: Int): BoundedStatistics =
+    BoundedStatistics(
+      iteration,
+      progress
+        .filterValues { it.iterations > 0 }
+        .entries
+        .associate { (engine, progress) ->
+          engine.statName to EngineStatistics(progress.iterations, progress.timeNanos / 1_000_000)
+        },
+    )
+
+  private fun <T> Engine.run(unrolling: Unrolling, step: (Unrolling) -> T): T {
+    val engineProgress = progress.getValue(this)
+    val start = System.nanoTime()
+    try {
+      return step(unrolling)
+    } finally {
+      engineProgress.timeNanos += System.nanoTime() - start
+      engineProgress.iterations = unrolling.depth
+    }
+  }
+
+  private enum class Engine(val statName: String) {
+    BMC("bmc"),
+    KIND("kind"),
+    IMC("imc"),
+  }
+
+  /** Only written by the thread running the engine. */
+  private class EngineProgress {
+    @Volatile var iterations = 0
+    @Volatile var timeNanos = 0L
+  }
+
+  /** The transition relation unfolded up to the bound reached by an engine. */
+  private inner class Unrolling {
+    val indices = mutableListOf(VarIndexingFactory.indexing(0))
+    val exprs = mutableListOf<Expr<BoolType>>()
+    var kindLastIterLookup = 0
+
+    val depth: Int
+      get() = exprs.size
+
+    fun extend() {
+      exprs.add(PathUtils.unfold(monolithicExpr.transExpr, indices.last()))
+      indices.add(indices.last().add(monolithicExpr.transOffsetIndex))
+    }
+  }
+
+  /** The bound up to which counterexamples are excluded, shared between engine threads. */
+  private class DepthFrontier {
+    private val lock = ReentrantLock()
+    private val changed = lock.newCondition()
+    private var depth = 0
+    private var closed = false
+
+    fun advance(depth: Int) =
+      lock.withLock {
+        this.depth = depth
+        changed.signalAll()
+      }
+
+    fun close() =
+      lock.withLock {
+        closed = true
+        changed.signalAll()
+      }
+
+    /** Waits until the frontier reaches the given depth, returns false if it never will. */
+    fun await(depth: Int): Boolean =
+      lock.withLock {
+        while (this.depth < depth && !closed) {
+          changed.await()
+        }
+        this.depth >= depth
+      }
+  }
 }
@@ -17,9 +17,26 @@ package hu.bme.mit.theta.analysis.algorithm.bounded
 
 import hu.bme.mit.theta.analysis.algorithm.Statistics
 
-class BoundedStatistics(val iterations: Int) : Statistics() {
+/**
+ * Statistics of a bounded check.
+ *
+ * @param iterations The bound reached by the engine that concluded the check (or the highest bound
+ *   reached if the check was inconclusive).
+ * @param engines The statistics of the individual engines (e.g., bmc, kind, imc) that were run.
+ */
+class BoundedStatistics
+@JvmOverloads
+constructor(val iterations: Int, val engines: Map<String, EngineStatistics> = emptyMap()) :
+  Statistics() {
 
   init {
     addStat("iterations", this::iterations)
+    engines.forEach { (name, stats) ->
+      addStat("${name}Iterations", stats::iterations)
+      addStat("${name}TimeMs", stats::timeMs)
+    }
   }
 }
+
+/** Statistics of a single engine of a bounded check: the bound it reached and its running time. */
+data class EngineStatistics(val iterations: Int, val timeMs: Long)
@@ -17,6 +17,8 @@ package hu.bme.mit.theta.analysis.algorithm.cegar;
 
 import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.algorithm.Proof;
+import hu.bme.mit.theta.analysis.impl.PostCache;
+import java.util.Optional;
 
 /**
  * Common interface for the abstractor component. It can create an initial witness and check a
@@ -29,4 +31,9 @@ public interface Abstractor<P extends Prec, Pr extends Proof> {
 
     /** Check witness with given precision */
     AbstractorResult check(Pr witness, P prec);
+
+    /** Get the cache used for computing successors, if any */
+    default Optional<PostCache<?, ?, ?>> getPostCache() {
+        return Optional.empty();
+    }
 }
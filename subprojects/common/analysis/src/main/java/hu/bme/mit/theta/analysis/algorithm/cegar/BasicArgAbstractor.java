@@ -15,9 +15,12 @@
  */
 package hu.bme.mit.theta.analysis.algorithm.cegar;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.State;
@@ -26,18 +29,40 @@ import hu.bme.mit.theta.analysis.algorithm.arg.ArgBuilder;
 import hu.bme.mit.theta.analysis.algorithm.arg.ArgNode;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterion;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
+import hu.bme.mit.theta.analysis.impl.PostCache;
+import hu.bme.mit.theta.analysis.reachedset.CoverIndex;
+import hu.bme.mit.theta.analysis.reachedset.IndexedPartition;
 import hu.bme.mit.theta.analysis.reachedset.Partition;
 import hu.bme.mit.theta.analysis.waitlist.FifoWaitlist;
 import hu.bme.mit.theta.analysis.waitlist.Waitlist;
+import hu.bme.mit.theta.common.Tuple2;
+import hu.bme.mit.theta.common.Tuple3;
 import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.Logger.Level;
 import hu.bme.mit.theta.common.logging.NullLogger;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
-/** Basic implementation for the abstractor, relying on an ArgBuilder. */
+/**
+ * Basic implementation for the abstractor, relying on an ArgBuilder. If more than one thread is
+ * configured, the successors of the nodes are computed concurrently by worker ArgBuilders (each
+ * having its own analysis and solver), while covering and modifying the ARG is done by the calling
+ * thread.
+ */
 public class BasicArgAbstractor<S extends State, A extends Action, P extends Prec>
         implements ArgAbstractor<S, A, P> {
 
@@ -46,6 +71,13 @@ public class BasicArgAbstractor<S extends State, A extends Action, P extends Pre
     protected final Waitlist<ArgNode<S, A>> waitlist;
     protected final StopCriterion<S, A> stopCriterion;
     protected final Logger logger;
+    protected final int threads;
+    protected final Supplier<? extends ArgBuilder<S, A, P>> workerArgBuilders;
+    protected final Function<Function<? super ArgNode<S, A>, ?>, CoverIndex<ArgNode<S, A>>>
+            reachedSetFactory;
+    protected final PostCache<?, ?, ?> postCache;
+
+    private final BlockingQueue<ArgBuilder<S, A, P>> idleWorkers = new LinkedBlockingQueue<>();
 
     protected BasicArgAbstractor(
             final ArgBuilder<S, A, P> argBuilder,
@@ -53,11 +85,71 @@ public class BasicArgAbstractor<S extends State, A extends Action, P extends Pre
             final Waitlist<ArgNode<S, A>> waitlist,
             final StopCriterion<S, A> stopCriterion,
             final Logger logger) {
+        this(argBuilder, projection, waitlist, stopCriterion, logger, 1, () -> argBuilder);
+    }
+
+    protected BasicArgAbstractor(
+            final ArgBuilder<S, A, P> argBuilder,
+            final Function<? super S, ?> projection,
+            final Waitlist<ArgNode<S, A>> waitlist,
+            final StopCriterion<S, A> stopCriterion,
+            final Logger logger,
+            final int threads,
+            final Supplier<? extends ArgBuilder<S, A, P>> workerArgBuilders) {
+        this(
+                argBuilder,
+                projection,
+                waitlist,
+                stopCriterion,
+                logger,
+                threads,
+                workerArgBuilders,
+                Partition::of);
+    }
+
+    protected BasicArgAbstractor(
+            final ArgBuilder<S, A, P> argBuilder,
+            final Function<? super S, ?> projection,
+            final Waitlist<ArgNode<S, A>> waitlist,
+            final StopCriterion<S, A> stopCriterion,
+            final Logger logger,
+            final int threads,
+            final Supplier<? extends ArgBuilder<S, A, P>> workerArgBuilders,
+            final Function<Function<? super ArgNode<S, A>, ?>, CoverIndex<ArgNode<S, A>>>
+                    reachedSetFactory) {
+        this(
+                argBuilder,
+                projection,
+                waitlist,
+                stopCriterion,
+                logger,
+                threads,
+                workerArgBuilders,
+                reachedSetFactory,
+                null);
+    }
+
+    protected BasicArgAbstractor(
+            final ArgBuilder<S, A, P> argBuilder,
+            final Function<? super S, ?> projection,
+            final Waitlist<ArgNode<S, A>> waitlist,
+            final StopCriterion<S, A> stopCriterion,
+            final Logger logger,
+            final int threads,
+            final Supplier<? extends ArgBuilder<S, A, P>> workerArgBuilders,
+            final Function<Function<? super ArgNode<S, A>, ?>, CoverIndex<ArgNode<S, A>>>
+                    reachedSetFactory,
+            final PostCache<?, ?, ?> postCache) {
+        checkArgument(threads > 0, "Number of threads must be positive");
         this.argBuilder = checkNotNull(argBuilder);
         this.projection = checkNotNull(projection);
         this.waitlist = checkNotNull(waitlist);
         this.stopCriterion = checkNotNull(stopCriterion);
         this.logger = checkNotNull(logger);
+        this.threads = threads;
+        this.workerArgBuilders = checkNotNull(workerArgBuilders);
+        this.reachedSetFactory = checkNotNull(reachedSetFactory);
+        this.postCache = postCache;
     }
 
     public static <S extends State, A extends Action, P extends Prec> Builder<S, A, P> builder(
@@ -70,6 +162,11 @@ public class BasicArgAbstractor<S extends State, A extends Action, P extends Pre
         return argBuilder.createArg();
     }
 
+    @Override
+    public Optional<PostCache<?, ?, ?>> getPostCache() {
+        return Optional.ofNullable(postCache);
+    }
+
     @Override
     public AbstractorResult check(final ARG<S, A> arg, final P prec) {
         checkNotNull(arg);
@@ -92,26 +189,30 @@ public class BasicArgAbstractor<S extends State, A extends Action, P extends Pre
                 arg.getUnsafeNodes().count());
         logger.write(Level.SUBSTEP, "|  |  Building ARG...");
 
-        final Partition<ArgNode<S, A>, ?> reachedSet =
-                Partition.of(n -> projection.apply(n.getState()));
+        final CoverIndex<ArgNode<S, A>> reachedSet =
+                reachedSetFactory.apply(n -> projection.apply(n.getState()));
         waitlist.clear();
 
         reachedSet.addAll(arg.getNodes());
         waitlist.addAll(arg.getIncompleteNodes());
 
         if (!stopCriterion.canStop(arg)) {
-            while (!waitlist.isEmpty()) {
-                final ArgNode<S, A> node = waitlist.remove();
+            if (threads > 1) {
+                buildInParallel(arg, prec, reachedSet);
+            } else {
+                while (!waitlist.isEmpty()) {
+                    final ArgNode<S, A> node = waitlist.remove();
 
-                Collection<ArgNode<S, A>> newNodes = Collections.emptyList();
-                close(node, reachedSet.get(node));
-                if (!node.isSubsumed() && !node.isTarget()) {
-                    newNodes = argBuilder.expand(node, prec);
-                    reachedSet.addAll(newNodes);
-                    waitlist.addAll(newNodes);
-                }
+                    Collection<ArgNode<S, A>> newNodes = Collections.emptyList();
+                    close(node, reachedSet.get(node), prec);
+                    if (!node.isSubsumed() && !node.isTarget()) {
+                        newNodes = argBuilder.expand(node, prec);
+                        reachedSet.addAll(newNodes);
+                        waitlist.addAll(newNodes);
+                    }
 
-                if (stopCriterion.canStop(arg, newNodes)) break;
+                    if (stopCriterion.canStop(arg, newNodes)) break;
+                }
             }
         }
 
@@ -133,6 +234,110 @@ public class BasicArgAbstractor<S extends State, A extends Action, P extends Pre
         }
     }
 
+    /**
+     * Expands at most {@link #threads} nodes at the same time. Nodes are closed when they are
+     * removed from the waitlist and their successors are added to the ARG in the order they were
+     * removed, so the resulting ARG does not depend on thread scheduling.
+     */
+    private void buildInParallel(
+            final ARG<S, A> arg, final P prec, final CoverIndex<ArgNode<S, A>> reachedSet) {
+        final ExecutorService executor =
+                Executors.newFixedThreadPool(
+                        threads,
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("arg-expander-%d")
+                                .setDaemon(true)
+                                .build());
+        final Deque<Tuple3<ArgNode<S, A>, ArgBuilder<S, A, P>, Future<List<Tuple2<A, S>>>>>
+                inFlight = new ArrayDeque<>();
+        try {
+            boolean stop = false;
+            while (!stop && (!waitlist.isEmpty() || !inFlight.isEmpty())) {
+                while (!stop && inFlight.size() < threads && !waitlist.isEmpty()) {
+                    final ArgNode<S, A> node = waitlist.remove();
+                    close(node, reachedSet.get(node), prec);
+                    if (!node.isSubsumed() && !node.isTarget()) {
+                        final ArgBuilder<S, A, P> worker = acquireWorker();
+                        inFlight.add(
+                                Tuple3.of(
+                                        node,
+                                        worker,
+                                        executor.submit(
+                                                () -> computeSuccessors(worker, node, prec))));
+                    } else {
+                        stop = stopCriterion.canStop(arg, Collections.emptyList());
+                    }
+                }
+                if (!stop && !inFlight.isEmpty()) {
+                    final var head = inFlight.remove();
+                    final Collection<ArgNode<S, A>> newNodes =
+                            argBuilder.applySuccessors(head.get1(), await(head.get3()));
+                    reachedSet.addAll(newNodes);
+                    waitlist.addAll(newNodes);
+                    stop = stopCriterion.canStop(arg, newNodes);
+                }
+            }
+        } finally {
+            // Nodes that were removed from the waitlist but not expanded remain incomplete, so
+            // they are put back to the waitlist by the next check
+            for (final var pending : inFlight) {
+                if (pending.get3().cancel(false)) {
+                    idleWorkers.add(pending.get2());
+                }
+            }
+            executor.shutdown();
+            awaitTermination(executor);
+        }
+    }
+
+    private ArgBuilder<S, A, P> acquireWorker() {
+        final ArgBuilder<S, A, P> worker = idleWorkers.poll();
+        // At most as many workers are created as there are threads, as each worker in use belongs
+        // to an in-flight expansion
+        return worker != null ? worker : workerArgBuilders.get();
+    }
+
+    private List<Tuple2<A, S>> computeSuccessors(
+            final ArgBuilder<S, A, P> worker, final ArgNode<S, A> node, final P prec) {
+        try {
+            return worker.computeSuccessors(node, prec);
+        } finally {
+            idleWorkers.add(worker);
+        }
+    }
+
+    private static <T> T await(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while expanding the ARG", e);
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void awaitTermination(final ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Running expansions cannot be interrupted safely, as the solvers would be left
+                // in an inconsistent state
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Closes a node that was removed from the waitlist. Subclasses can override this if covering
+     * depends on the precision.
+     */
+    protected void close(
+            final ArgNode<S, A> node, final Collection<ArgNode<S, A>> candidates, final P prec) {
+        close(node, candidates);
+    }
+
     protected void close(final ArgNode<S, A> node, final Collection<ArgNode<S, A>> candidates) {
         if (!node.isLeaf()) {
             return;
@@ -147,7 +352,10 @@ public class BasicArgAbstractor<S extends State, A extends Action, P extends Pre
 
     @Override
     public String toString() {
-        return Utils.lispStringBuilder(getClass().getSimpleName()).add(waitlist).toString();
+        return Utils.lispStringBuilder(getClass().getSimpleName())
+                .add(waitlist)
+                .add("threads = " + threads)
+                .toString();
     }
 
     public static class Builder<S extends State, A extends Action, P extends Prec> {
@@ -156,6 +364,11 @@ public class BasicArgAbstractor<S extends State, A extends Action, P extends Pre
         protected Waitlist<ArgNode<S, A>> waitlist;
         protected StopCriterion<S, A> stopCriterion;
         protected Logger logger;
+        protected int threads;
+        protected Supplier<? extends ArgBuilder<S, A, P>> workerArgBuilders;
+        protected Function<Function<? super ArgNode<S, A>, ?>, CoverIndex<ArgNode<S, A>>>
+                reachedSetFactory;
+        protected PostCache<?, ?, ?> postCache;
 
         protected Builder(final ArgBuilder<S, A, P> argBuilder) {
             this.argBuilder = argBuilder;
@@ -163,6 +376,9 @@ public class BasicArgAbstractor<S extends State, A extends Action, P extends Pre
             this.waitlist = FifoWaitlist.create();
             this.stopCriterion = StopCriterions.firstCex();
             this.logger = NullLogger.getInstance();
+            this.threads = 1;
+            this.workerArgBuilders = () -> argBuilder;
+            this.reachedSetFactory = Partition::of;
         }
 
         public Builder<S, A, P> projection(final Function<? super S, ?> projection) {
@@ -185,9 +401,51 @@ public class BasicArgAbstractor<S extends State, A extends Action, P extends Pre
             return this;
         }
 
+        /**
+         * Expands nodes on the given number of threads. Each thread uses its own ArgBuilder
+         * obtained from the supplier, which should therefore not share solvers (or any other
+         * mutable state) with each other or with the main ArgBuilder.
+         */
+        public Builder<S, A, P> parallel(
+                final int threads,
+                final Supplier<? extends ArgBuilder<S, A, P>> workerArgBuilders) {
+            this.threads = threads;
+            this.workerArgBuilders = workerArgBuilders;
+            return this;
+        }
+
+        /**
+         * Stores the nodes of each projection class in an index created by the given supplier
+         * (e.g., {@link hu.bme.mit.theta.analysis.reachedset.PredStateIndex}), so that only the
+         * nodes that might cover a node are checked when it is closed.
+         */
+        public Builder<S, A, P> coverIndex(
+                final Supplier<? extends CoverIndex<ArgNode<S, A>>> classIndex) {
+            this.reachedSetFactory =
+                    nodeProjection -> IndexedPartition.of(nodeProjection, classIndex);
+            return this;
+        }
+
+        /**
+         * Sets the cache that the analysis of the ArgBuilders uses for computing successors (see
+         * {@link PostCache#wrap}), so that its hit rate is reported in the statistics.
+         */
+        public Builder<S, A, P> postCache(final PostCache<?, ?, ?> postCache) {
+            this.postCache = postCache;
+            return this;
+        }
+
         public BasicArgAbstractor<S, A, P> build() {
             return new BasicArgAbstractor<>(
-                    argBuilder, projection, waitlist, stopCriterion, logger);
+                    argBuilder,
+                    projection,
+                    waitlist,
+                    stopCriterion,
+                    logger,
+                    threads,
+                    workerArgBuilders,
+                    reachedSetFactory,
+                    postCache);
         }
     }
 }
@@ -23,6 +23,7 @@ import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.algorithm.Proof;
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.impl.PostCache;
 import hu.bme.mit.theta.analysis.runtimemonitor.MonitorCheckpoint;
 import hu.bme.mit.theta.analysis.utils.ProofVisualizer;
 import hu.bme.mit.theta.common.Utils;
@@ -31,6 +32,7 @@ import hu.bme.mit.theta.common.logging.Logger.Level;
 import hu.bme.mit.theta.common.logging.NullLogger;
 import hu.bme.mit.theta.common.visualization.writer.JSONWriter;
 import hu.bme.mit.theta.common.visualization.writer.WebDebuggerLogger;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -46,6 +48,7 @@ public final class CegarChecker<P extends Prec, Pr extends Proof, C extends Cex>
     private final Logger logger;
     private final Pr proof;
     private final ProofVisualizer<? super Pr> proofVisualizer;
+    private P finalPrec = null;
 
     private CegarChecker(
             final Abstractor<P, Pr> abstractor,
@@ -78,6 +81,11 @@ public final class CegarChecker<P extends Prec, Pr extends Proof, C extends Cex>
         return proof;
     }
 
+    /** Get the precision of the last iteration of the last check, if any check was run */
+    public Optional<P> getFinalPrec() {
+        return Optional.ofNullable(finalPrec);
+    }
+
     @Override
     public SafetyResult<Pr, C> check(final P initPrec) {
         logger.write(Level.INFO, "Configuration: %s%n", this);
@@ -89,6 +97,12 @@ public final class CegarChecker<P extends Prec, Pr extends Proof, C extends Cex>
         P prec = initPrec;
         int iteration = 0;
         WebDebuggerLogger wdl = WebDebuggerLogger.getInstance();
+        // The cache may outlive this check (e.g., shared between checkers), so only the queries
+        // made during this check are counted
+        final long initialPostQueries =
+                abstractor.getPostCache().map(PostCache::getQueries).orElse(0L);
+        final long initialPostCacheHits =
+                abstractor.getPostCache().map(PostCache::getHits).orElse(0L);
         do {
             ++iteration;
 
@@ -137,13 +151,18 @@ public final class CegarChecker<P extends Prec, Pr extends Proof, C extends Cex>
         } while (!abstractorResult.isSafe() && !refinerResult.isUnsafe());
 
         stopwatch.stop();
+        finalPrec = prec;
         SafetyResult<Pr, C> cegarResult = null;
         final CegarStatistics stats =
                 new CegarStatistics(
                         stopwatch.elapsed(TimeUnit.MILLISECONDS),
                         abstractorTime,
                         refinerTime,
-                        iteration);
+                        iteration,
+                        abstractor.getPostCache().map(PostCache::getQueries).orElse(0L)
+                                - initialPostQueries,
+                        abstractor.getPostCache().map(PostCache::getHits).orElse(0L)
+                                - initialPostCacheHits);
 
         assert abstractorResult.isSafe() || refinerResult.isUnsafe();
 
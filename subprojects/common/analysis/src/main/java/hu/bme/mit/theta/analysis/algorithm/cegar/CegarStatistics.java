@@ -24,19 +24,37 @@ public final class CegarStatistics extends Statistics {
     private final long abstractorTimeMs;
     private final long refinerTimeMs;
     private final int iterations;
+    private final long postQueries;
+    private final long postCacheHits;
 
     public CegarStatistics(
             final long algorithmTimeMs,
             final long abstractorTimeMs,
             final long refinerTimeMs,
             final int iterations) {
+        this(algorithmTimeMs, abstractorTimeMs, refinerTimeMs, iterations, 0, 0);
+    }
+
+    public CegarStatistics(
+            final long algorithmTimeMs,
+            final long abstractorTimeMs,
+            final long refinerTimeMs,
+            final int iterations,
+            final long postQueries,
+            final long postCacheHits) {
         this.algorithmTimeMs = algorithmTimeMs;
         this.abstractorTimeMs = abstractorTimeMs;
         this.refinerTimeMs = refinerTimeMs;
         this.iterations = iterations;
+        this.postQueries = postQueries;
+        this.postCacheHits = postCacheHits;
 
         addStat("AlgorithmTimeMs", this::getAlgorithmTimeMs);
         addStat("Iterations", this::getIterations);
+        if (postQueries > 0) {
+            addStat("PostQueries", this::getPostQueries);
+            addStat("PostCacheHitRate", this::getPostCacheHitRate);
+        }
     }
 
     public long getAlgorithmTimeMs() {
@@ -54,4 +72,17 @@ public final class CegarStatistics extends Statistics {
     public int getIterations() {
         return iterations;
     }
+
+    /** Number of successor computations that went through a post cache. */
+    public long getPostQueries() {
+        return postQueries;
+    }
+
+    public long getPostCacheHits() {
+        return postCacheHits;
+    }
+
+    public double getPostCacheHitRate() {
+        return postQueries == 0 ? 0 : (double) postCacheHits / postQueries;
+    }
 }
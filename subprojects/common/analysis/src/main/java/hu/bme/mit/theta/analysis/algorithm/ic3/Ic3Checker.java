@@ -352,6 +352,15 @@ public class Ic3Checker
 
     public Trace<ExplState, ExprAction> makeTrace(
             LinkedList<ProofObligation> forwardProofObligations) {
+        return makeTrace(monolithicExpr, solverFactory, propertyOpt, forwardProofObligations);
+    }
+
+    /** Concretizes a chain of proof obligations reaching the initial states to a trace. */
+    static Trace<ExplState, ExprAction> makeTrace(
+            MonolithicExpr monolithicExpr,
+            SolverFactory solverFactory,
+            boolean propertyOpt,
+            LinkedList<ProofObligation> forwardProofObligations) {
         var abstractStates = new ArrayList<ExprState>();
         var abstractActions = new ArrayList<ExprAction>();
         while (!forwardProofObligations.isEmpty()) {
@@ -0,0 +1,504 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.ic3;
+
+import static com.google.common.util.concurrent.Uninterruptibles.getUninterruptibly;
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Imply;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.And;
+import static hu.bme.mit.theta.core.utils.ExprUtils.getConjuncts;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.algorithm.EmptyProof;
+import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.algorithm.bounded.MonolithicExpr;
+import hu.bme.mit.theta.analysis.algorithm.bounded.MonolithicExprKt;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.common.logging.Logger;
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.model.MutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.solver.SolverFactory;
+import hu.bme.mit.theta.solver.UCSolver;
+import hu.bme.mit.theta.solver.utils.WithPushPop;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A variant of {@link Ic3Checker} that keeps its solvers incremental. The transition relation and
+ * the initial states are asserted only once, and every lemma is asserted once per solver, guarded
+ * by the activation literal of the highest frame it belongs to. The clause database of a frame
+ * thus only grows: a query on frame {@code i} activates the literals of frame {@code i} and of the
+ * frames above it (frame 0, the initial states, is activated alone), and only the constraints of
+ * the query itself are pushed and popped.
+ *
+ * <p>With more than one propagation thread, clauses are propagated to the next frame in parallel,
+ * each frame on a solver instance of its own. These solvers are kept between rounds and are only
+ * sent the lemmas learned in between. Parallel propagation works on a snapshot of the frames, so a
+ * clause is moved by at most one frame in each round.
+ */
+public class IncrementalIc3Checker
+        implements SafetyChecker<EmptyProof, Trace<ExplState, ExprAction>, UnitPrec> {
+
+    private record Lemma(Expr<BoolType> expr, int level) {}
+
+    private final MonolithicExpr monolithicExpr;
+    private final SolverFactory solverFactory;
+    private final boolean formerFramesOpt;
+    private final boolean unSatOpt;
+    private final boolean notBOpt;
+    private final boolean propagateOpt;
+    private final boolean filterOpt;
+    private final boolean propertyOpt;
+    private final int propagationThreads;
+    private final Logger logger;
+
+    private final ConstDecl<BoolType> transAct = Const("__ic3_trans", Bool());
+    private final List<ConstDecl<BoolType>> frameActs = new ArrayList<>();
+    // lemmas by the highest frame they belong to, frame 0 holds the initial states
+    private final List<Set<Expr<BoolType>>> frames = new ArrayList<>();
+    private final Map<Expr<BoolType>, Integer> levels = new HashMap<>();
+    // every assertion ever made, in order, so that solvers can catch up incrementally
+    private final List<Lemma> lemmas = new ArrayList<>();
+    private final FrameSolver frameSolver;
+    private final UCSolver solver;
+    private final List<FrameSolver> propagationSolvers = new ArrayList<>();
+    private ExecutorService executor = null;
+    private int currentFrameNumber;
+
+    public IncrementalIc3Checker(
+            MonolithicExpr monolithicExpr, SolverFactory solverFactory, Logger logger) {
+        this(monolithicExpr, solverFactory, true, true, true, true, true, true, 1, logger);
+    }
+
+    public IncrementalIc3Checker(
+            MonolithicExpr monolithicExpr,
+            SolverFactory solverFactory,
+            boolean formerFramesOpt,
+            boolean unSatOpt,
+            boolean notBOpt,
+            boolean propagateOpt,
+            boolean filterOpt,
+            boolean propertyOpt,
+            int propagationThreads,
+            Logger logger) {
+        this.monolithicExpr = monolithicExpr;
+        this.solverFactory = solverFactory;
+        this.formerFramesOpt = formerFramesOpt;
+        this.unSatOpt = unSatOpt;
+        this.notBOpt = notBOpt;
+        this.propagateOpt = propagateOpt;
+        this.filterOpt = filterOpt;
+        this.propertyOpt = propertyOpt;
+        this.propagationThreads = propagationThreads;
+        this.logger = logger;
+        currentFrameNumber = 0;
+        frameActs.add(Const("__ic3_frame_0", Bool()));
+        frames.add(new HashSet<>(getConjuncts(monolithicExpr.getInitExpr())));
+        frames.get(0).forEach(ex -> lemmas.add(new Lemma(ex, 0)));
+        frameSolver = new FrameSolver(solverFactory.createUCSolver());
+        solver = frameSolver.solver;
+    }
+
+    /** A solver holding the transition relation and the guarded lemmas. */
+    private final class FrameSolver {
+        private final UCSolver solver;
+        private int synced = 0;
+
+        private FrameSolver(final UCSolver solver) {
+            this.solver = solver;
+            for (Expr<BoolType> ex : getConjuncts(monolithicExpr.getTransExpr())) {
+                solver.track(Imply(transAct.getRef(), PathUtils.unfold(ex, 0)));
+            }
+        }
+
+        /**
+         * Opens a query on a frame, optionally followed by a transition. The lemmas learned since
+         * the last query are asserted permanently, the activation literals only for the query.
+         */
+        private WithPushPop query(final int frame, final boolean trans) {
+            for (; synced < lemmas.size(); synced++) {
+                final Lemma lemma = lemmas.get(synced);
+                solver.track(
+                        Imply(
+                                frameActs.get(lemma.level()).getRef(),
+                                PathUtils.unfold(lemma.expr(), 0)));
+            }
+            final WithPushPop wpp = new WithPushPop(solver);
+            if (trans) {
+                solver.track(transAct.getRef());
+            }
+            if (frame == 0) {
+                solver.track(frameActs.get(0).getRef());
+            } else {
+                for (int i = frame; i <= currentFrameNumber; i++) {
+                    solver.track(frameActs.get(i).getRef());
+                }
+            }
+            return wpp;
+        }
+    }
+
+    @Override
+    public SafetyResult<EmptyProof, Trace<ExplState, ExprAction>> check(UnitPrec prec) {
+        final var firstTrace = checkFirst();
+        if (firstTrace != null) {
+            return SafetyResult.unsafe(firstTrace, EmptyProof.getInstance());
+        }
+        try {
+            while (true) {
+                final Collection<Expr<BoolType>> counterExample =
+                        checkCurrentFrame(Not(monolithicExpr.getPropExpr()));
+                if (counterExample != null) {
+                    final var proofObligationsList =
+                            tryBlock(
+                                    new ProofObligation(
+                                            new HashSet<>(counterExample), currentFrameNumber));
+                    if (proofObligationsList != null) {
+                        final var trace =
+                                Ic3Checker.makeTrace(
+                                        monolithicExpr,
+                                        solverFactory,
+                                        propertyOpt,
+                                        proofObligationsList);
+                        return SafetyResult.unsafe(trace, EmptyProof.getInstance());
+                    }
+                } else if (propagate()) {
+                    return SafetyResult.safe(EmptyProof.getInstance());
+                }
+            }
+        } finally {
+            closePropagationSolvers();
+        }
+    }
+
+    private Trace<ExplState, ExprAction> checkFirst() {
+        try (var wpp = frameSolver.query(0, false)) {
+            solver.track(PathUtils.unfold(Not(monolithicExpr.getPropExpr()), 0));
+            if (solver.check().isSat()) {
+                return Trace.of(List.of(stateOf(solver.getModel(), 0)), List.of());
+            }
+        }
+        if (propertyOpt) {
+            try (var wpp = frameSolver.query(0, true)) {
+                solver.track(
+                        PathUtils.unfold(
+                                Not(monolithicExpr.getPropExpr()),
+                                monolithicExpr.getTransOffsetIndex()));
+                if (solver.check().isSat()) {
+                    final Valuation model = solver.getModel();
+                    return Trace.of(
+                            List.of(
+                                    stateOf(model, 0),
+                                    ExplState.of(
+                                            PathUtils.extractValuation(
+                                                    model,
+                                                    monolithicExpr.getTransOffsetIndex(),
+                                                    monolithicExpr.getVars()))),
+                            List.of(MonolithicExprKt.action(monolithicExpr)));
+                }
+            }
+        }
+        return null;
+    }
+
+    private ExplState stateOf(final Valuation model, final int index) {
+        return ExplState.of(PathUtils.extractValuation(model, index, monolithicExpr.getVars()));
+    }
+
+    /** Restricts a model to the variables of the current state. */
+    private MutableValuation filterModel(final Valuation model) {
+        final MutableValuation filteredModel = new MutableValuation();
+        monolithicExpr.getVars().stream()
+                .map(varDecl -> varDecl.getConstDecl(0))
+                .filter(model.toMap()::containsKey)
+                .forEach(decl -> filteredModel.put(decl, model.eval(decl).get()));
+        return filteredModel;
+    }
+
+    private Collection<Expr<BoolType>> checkCurrentFrame(Expr<BoolType> target) {
+        try (var wpp = frameSolver.query(currentFrameNumber, propertyOpt)) {
+            if (propertyOpt) {
+                solver.track(
+                        PathUtils.unfold(target, monolithicExpr.getTransOffsetIndex()));
+            } else {
+                solver.track(PathUtils.unfold(target, 0));
+            }
+            if (solver.check().isSat()) {
+                return getConjuncts(
+                        PathUtils.foldin(filterModel(solver.getModel()).toExpr(), 0));
+            } else {
+                return null;
+            }
+        }
+    }
+
+    private LinkedList<ProofObligation> tryBlock(ProofObligation mainProofObligation) {
+        final LinkedList<ProofObligation> proofObligationsQueue = new LinkedList<>();
+        proofObligationsQueue.add(mainProofObligation);
+        while (!proofObligationsQueue.isEmpty()) {
+            final ProofObligation proofObligation = proofObligationsQueue.getLast();
+            final int time = proofObligation.getTime();
+
+            if (time == 0) {
+                return proofObligationsQueue;
+            }
+
+            final Collection<Expr<BoolType>> b;
+            final Collection<Expr<BoolType>> unSatCore;
+            try (var wpp = frameSolver.query(time - 1, true)) {
+                if (notBOpt) {
+                    solver.track(
+                            PathUtils.unfold(Not(And(proofObligation.getExpressions())), 0));
+                }
+                if (time > 2 && formerFramesOpt) {
+                    solver.track(
+                            PathUtils.unfold(
+                                    Not(And(getFrame(time - 2))),
+                                    monolithicExpr.getTransOffsetIndex()));
+                }
+                proofObligation
+                        .getExpressions()
+                        .forEach(
+                                ex ->
+                                        solver.track(
+                                                PathUtils.unfold(
+                                                        ex, monolithicExpr.getTransOffsetIndex())));
+
+                if (solver.check().isSat()) {
+                    final Valuation model = solver.getModel();
+                    final MutableValuation filteredModel = filterModel(model);
+                    if (filterOpt) {
+                        for (var var : new HashSet<>(filteredModel.toMap().keySet())) {
+                            if (!(var.getType() instanceof BoolType)) {
+                                continue;
+                            }
+                            var origValue = model.eval(var).get();
+                            var negatedValue =
+                                    BoolLitExpr.of(!((BoolLitExpr) origValue).getValue());
+                            filteredModel.put(var, negatedValue);
+                            try (var wpp2 = new WithPushPop(solver)) {
+                                solver.track(PathUtils.unfold(filteredModel.toExpr(), 0));
+                                if (solver.check().isSat()) {
+                                    filteredModel.remove(var);
+                                } else {
+                                    filteredModel.put(var, origValue);
+                                }
+                            }
+                        }
+                    }
+                    b =
+                            getConjuncts(
+                                    PathUtils.foldin(
+                                            PathUtils.extractValuation(filteredModel, 0).toExpr(),
+                                            0));
+                    unSatCore = null;
+                } else {
+                    b = null;
+                    unSatCore = solver.getUnsatCore();
+                }
+            }
+            if (b == null) {
+                final Collection<Expr<BoolType>> newCore =
+                        new ArrayList<>(proofObligation.getExpressions());
+                if (unSatOpt) {
+                    for (Expr<BoolType> i : proofObligation.getExpressions()) {
+                        if (!unSatCore.contains(
+                                PathUtils.unfold(i, monolithicExpr.getTransOffsetIndex()))) {
+                            newCore.remove(i);
+                            final boolean isSat;
+                            try (var wpp = frameSolver.query(0, false)) {
+                                for (Expr<BoolType> solverex : newCore) {
+                                    solver.track(PathUtils.unfold(solverex, 0));
+                                }
+                                isSat = solver.check().isSat();
+                            }
+                            if (isSat) {
+                                newCore.add(i);
+                            }
+                        }
+                    }
+                }
+                getConjuncts(Not(And(newCore))).forEach(ex -> addLemma(ex, time));
+                proofObligationsQueue.removeLast();
+            } else {
+                proofObligationsQueue.add(new ProofObligation(new HashSet<>(b), time - 1));
+            }
+        }
+        return null;
+    }
+
+    /** Returns the clauses of a frame, i.e., the lemmas of the frame and of the ones above it. */
+    private Set<Expr<BoolType>> getFrame(final int frame) {
+        if (frame == 0) {
+            return frames.get(0);
+        }
+        final Set<Expr<BoolType>> exprs = new HashSet<>();
+        for (int i = frame; i <= currentFrameNumber; i++) {
+            exprs.addAll(frames.get(i));
+        }
+        return exprs;
+    }
+
+    /** Adds a lemma to the frames from 1 up to the given one. */
+    private void addLemma(final Expr<BoolType> expr, final int frame) {
+        final Integer level = levels.get(expr);
+        if (level != null && level >= frame) {
+            return;
+        }
+        if (level != null) {
+            frames.get(level).remove(expr);
+        }
+        frames.get(frame).add(expr);
+        levels.put(expr, frame);
+        lemmas.add(new Lemma(expr, frame));
+    }
+
+    private boolean propagate() {
+        currentFrameNumber++;
+        frameActs.add(Const("__ic3_frame_" + currentFrameNumber, Bool()));
+        frames.add(new HashSet<>());
+        if (propertyOpt) {
+            getConjuncts(monolithicExpr.getPropExpr())
+                    .forEach(ex -> addLemma(ex, currentFrameNumber));
+        }
+
+        if (propagateOpt) {
+            if (propagationThreads > 1) {
+                propagateInParallel();
+                for (int j = 1; j < currentFrameNumber; j++) {
+                    if (equalsParent(j + 1)) {
+                        return true;
+                    }
+                }
+            } else {
+                for (int j = 1; j < currentFrameNumber; j++) {
+                    for (var c : List.copyOf(frames.get(j))) {
+                        if (isPropagable(frameSolver, j, c)) {
+                            addLemma(c, j + 1);
+                        }
+                    }
+                    if (equalsParent(j + 1)) {
+                        return true;
+                    }
+                }
+            }
+        } else if (currentFrameNumber > 2 && equalsParent(currentFrameNumber - 1)) {
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isPropagable(
+            final FrameSolver propagationSolver, final int frame, final Expr<BoolType> c) {
+        try (var wpp = propagationSolver.query(frame, true)) {
+            propagationSolver.solver.track(
+                    PathUtils.unfold(Not(c), monolithicExpr.getTransOffsetIndex()));
+            return propagationSolver.solver.check().isUnsat();
+        }
+    }
+
+    private void propagateInParallel() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(propagationThreads);
+        }
+        while (propagationSolvers.size() < currentFrameNumber - 1) {
+            propagationSolvers.add(new FrameSolver(solverFactory.createUCSolver()));
+        }
+        final List<Future<List<Expr<BoolType>>>> results = new ArrayList<>();
+        for (int j = 1; j < currentFrameNumber; j++) {
+            final int frame = j;
+            final FrameSolver propagationSolver = propagationSolvers.get(j - 1);
+            final List<Expr<BoolType>> clauses = List.copyOf(frames.get(j));
+            results.add(
+                    executor.submit(
+                            () ->
+                                    clauses.stream()
+                                            .filter(c -> isPropagable(propagationSolver, frame, c))
+                                            .toList()));
+        }
+        // The workers read the lemmas and the activation literals while querying, so the frames
+        // are only changed once every worker is done
+        final List<List<Expr<BoolType>>> propagable = new ArrayList<>();
+        ExecutionException failure = null;
+        for (Future<List<Expr<BoolType>>> result : results) {
+            try {
+                propagable.add(getUninterruptibly(result));
+            } catch (final ExecutionException e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        if (failure != null) {
+            if (failure.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) failure.getCause();
+            }
+            throw new RuntimeException(failure.getCause());
+        }
+        for (int j = 1; j < currentFrameNumber; j++) {
+            final int frame = j;
+            propagable.get(j - 1).forEach(c -> addLemma(c, frame + 1));
+        }
+    }
+
+    /**
+     * Checks if a frame contains its parent, i.e., if it implies the lemmas that belong to the
+     * parent but not to the frame.
+     */
+    private boolean equalsParent(final int frame) {
+        final Set<Expr<BoolType>> difference = frames.get(frame - 1);
+        if (difference.isEmpty()) {
+            return true;
+        }
+        try (var wpp = frameSolver.query(frame, false)) {
+            solver.track(PathUtils.unfold(Not(And(difference)), 0));
+            return solver.check().isUnsat();
+        }
+    }
+
+    private void closePropagationSolvers() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        for (FrameSolver propagationSolver : propagationSolvers) {
+            try {
+                propagationSolver.solver.close();
+            } catch (final Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        propagationSolvers.clear();
+    }
+}
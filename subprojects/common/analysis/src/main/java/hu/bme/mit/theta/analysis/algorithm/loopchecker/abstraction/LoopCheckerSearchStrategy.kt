@@ -30,6 +30,7 @@ typealias NodeExpander<S, A> = (ASGNode<S, A>) -> Collection<ASGEdge<S, A>>
 enum class LoopCheckerSearchStrategy(private val strategy: ILoopCheckerSearchStrategy) {
   GDFS(GdfsSearchStrategy),
   NDFS(NdfsSearchStrategy),
+  CNDFS(CndfsSearchStrategy()),
   FULL(FullSearchStrategy);
 
   companion object {
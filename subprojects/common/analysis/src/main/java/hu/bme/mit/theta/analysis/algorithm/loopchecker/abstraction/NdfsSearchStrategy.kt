@@ -22,6 +22,13 @@ import hu.bme.mit.theta.analysis.algorithm.loopchecker.AcceptancePredicate
 import hu.bme.mit.theta.analysis.expr.ExprAction
 import hu.bme.mit.theta.analysis.expr.ExprState
 import hu.bme.mit.theta.common.logging.Logger
+import java.util.Random
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorCompletionService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
 
 object NdfsSearchStrategy : ILoopCheckerSearchStrategy {
 
@@ -31,73 +38,245 @@ object NdfsSearchStrategy : ILoopCheckerSearchStrategy {
     expand: NodeExpander<S, A>,
     logger: Logger,
   ): Collection<ASGTrace<S, A>> {
-    for (node in initNodes) {
-      for (edge in expand(node)) {
-        val result = blueSearch(edge, emptyList(), mutableSetOf(), mutableSetOf(), target, expand)
-        if (!result.isEmpty()) return result
-      }
-    }
-    return emptyList()
+    val lasso =
+      NestedDfs(target, expand, hashSetOf(), AtomicBoolean(false), null)
+        .search(initNodes)
+    lasso?.let { logFound(it, logger) }
+    return listOfNotNull(lasso)
   }
+}
+
+/**
+ * Multi-core NDFS (CNDFS): every worker runs its own nested search in a different successor order,
+ * while the red colour is shared, so that the workers prune each others' searches. The blue colour
+ * stays local to each worker, as a vertex coloured blue by another worker may still lie on an
+ * accepting cycle this worker has to close. The first worker to finish decides the result.
+ *
+ * The expansion of the ASG (and the analysis behind it) is not thread-safe, so nodes are expanded
+ * one at a time; the searches only run in parallel on the already expanded parts.
+ *
+ * A worker that was stopped because another one found a lasso returns no lasso, which does not mean
+ * that there is none, so only the results of workers that completed their search are decisive.
+ */
+class CndfsSearchStrategy
+internal constructor(
+  private val workers: Int,
+  /** Called by each worker with its result before returning it, only used by tests. */
+  private val onWorkerDone: (ASGTrace<*, *>?) -> Unit,
+) : ILoopCheckerSearchStrategy {
+
+  constructor(workers: Int = Runtime.getRuntime().availableProcessors()) : this(workers, {})
 
-  private fun <S : ExprState, A : ExprAction> redSearch(
-    seed: ASGNode<S, A>,
-    edge: ASGEdge<S, A>,
-    trace: List<ASGEdge<S, A>>,
-    redNodes: MutableSet<ASGNode<S, A>>,
+  override fun <S : ExprState, A : ExprAction> search(
+    initNodes: Collection<ASGNode<S, A>>,
     target: AcceptancePredicate<S, A>,
     expand: NodeExpander<S, A>,
-  ): List<ASGEdge<S, A>> {
-    val targetNode = edge.target
-    if (targetNode.state.isBottom) {
-      return emptyList()
-    }
-    if (targetNode == seed && trace.isNotEmpty()) {
-      return trace + edge
+    logger: Logger,
+  ): Collection<ASGTrace<S, A>> {
+    if (workers <= 1) {
+      return NdfsSearchStrategy.search(initNodes, target, expand, logger)
     }
-    if (redNodes.contains(targetNode)) {
-      return emptyList()
+    val lock = Any()
+    val lockedExpand: NodeExpander<S, A> = { node -> synchronized(lock) { expand(node).toList() } }
+    val red: MutableSet<Any> = ConcurrentHashMap.newKeySet()
+    val stop = AtomicBoolean(false)
+    val executor = Executors.newFixedThreadPool(workers)
+    try {
+      val completion = ExecutorCompletionService<WorkerResult<S, A>>(executor)
+      for (worker in 0 until workers) {
+        val random = if (worker == 0) null else Random(worker.toLong())
+        completion.submit {
+          val lasso = NestedDfs(target, lockedExpand, red, stop, random).search(initNodes)
+          // stop is only set after the lasso of the worker setting it is built
+          val result = WorkerResult(lasso, lasso != null || !stop.get())
+          onWorkerDone(lasso)
+          result
+        }
+      }
+      repeat(workers) {
+        val result =
+          try {
+            completion.take().get()
+          } catch (e: ExecutionException) {
+            throw e.cause ?: e
+          }
+        if (result.decisive) {
+          result.lasso?.let { logFound(it, logger) }
+          return listOfNotNull(result.lasso)
+        }
+      }
+      error("Every worker of CNDFS was stopped, but none of them found a lasso")
+    } finally {
+      // Workers may still be expanding the ASG, which must not change after returning
+      stop.set(true)
+      executor.shutdown()
+      while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {}
     }
-    redNodes.add(edge.target)
-    for (nextEdge in expand(targetNode)) {
-      val redSearch: List<ASGEdge<S, A>> =
-        redSearch(seed, nextEdge, trace + edge, redNodes, target, expand)
-      if (redSearch.isNotEmpty()) return redSearch
+  }
+}
+
+/**
+ * @property decisive false if the worker was stopped by another one before completing its search
+ */
+private class WorkerResult<S : ExprState, A : ExprAction>(
+  val lasso: ASGTrace<S, A>?,
+  val decisive: Boolean,
+)
+
+private fun <S : ExprState, A : ExprAction> logFound(lasso: ASGTrace<S, A>, logger: Logger) {
+  logger.write(
+    Logger.Level.SUBSTEP,
+    "Found lasso with a tail of %d and a loop of %d edges%n",
+    lasso.tail.size,
+    lasso.loop.size,
+  )
+  lasso.print(logger, Logger.Level.DETAIL)
+}
+
+/**
+ * A vertex of the nested search. Accepting edges are split in two by a virtual accepting vertex
+ * (represented by the edge itself), so that both accepting nodes and accepting edges are seeds of
+ * red searches.
+ *
+ * @property vertex the node entered, or the accepting edge crossed
+ * @property node the node entered, or the target of the accepting edge
+ * @property edge the edge of the ASG taken, or null when leaving a virtual vertex
+ */
+private class Step<S : ExprState, A : ExprAction>(
+  val vertex: Any,
+  val node: ASGNode<S, A>,
+  val edge: ASGEdge<S, A>?,
+) {
+
+  val virtual
+    get() = vertex !== node
+
+  val accepting
+    get() = virtual || node.accepting
+}
+
+private class Frame<S : ExprState, A : ExprAction>(
+  val step: Step<S, A>,
+  val successors: Iterator<Step<S, A>>,
+)
+
+/**
+ * Nested depth-first search with explicit stacks. A lasso is read off the blue and red stacks when
+ * the red search reaches a vertex on the blue stack (cyan), so traces are not copied during the
+ * search. With a single worker this is the NDFS of Schwoon and Esparza; with a shared [red] set it
+ * is a worker of CNDFS (Evangelista et al.).
+ */
+private class NestedDfs<S : ExprState, A : ExprAction>(
+  private val target: AcceptancePredicate<S, A>,
+  private val expand: NodeExpander<S, A>,
+  private val red: MutableSet<Any>,
+  private val stop: AtomicBoolean,
+  private val random: Random?,
+) {
+
+  private val blue = HashSet<Any>()
+  private val blueStack = ArrayList<Frame<S, A>>()
+  private val cyan = HashMap<Any, Int>()
+
+  fun search(initNodes: Collection<ASGNode<S, A>>): ASGTrace<S, A>? {
+    for (initNode in ordered(initNodes)) {
+      if (initNode.state.isBottom || initNode in blue || initNode in red) continue
+      val lasso = blueSearch(Step(initNode, initNode, null))
+      if (lasso != null || stop.get()) return lasso
     }
-    return emptyList()
+    return null
   }
 
-  private fun <S : ExprState, A : ExprAction> blueSearch(
-    edge: ASGEdge<S, A>,
-    trace: List<ASGEdge<S, A>>,
-    blueNodes: MutableSet<ASGNode<S, A>>,
-    redNodes: Set<ASGNode<S, A>>,
-    target: AcceptancePredicate<S, A>,
-    expand: NodeExpander<S, A>,
-  ): Collection<ASGTrace<S, A>> {
-    val targetNode = edge.target
-    if (targetNode.state.isBottom) {
-      return emptyList()
+  private fun blueSearch(root: Step<S, A>): ASGTrace<S, A>? {
+    pushBlue(root)
+    while (blueStack.isNotEmpty()) {
+      if (stop.get()) return null
+      val frame = blueStack.last()
+      if (frame.successors.hasNext()) {
+        val next = frame.successors.next()
+        if (next.vertex !in cyan && next.vertex !in blue && next.vertex !in red) {
+          pushBlue(next)
+        }
+      } else {
+        blue.add(frame.step.vertex)
+        if (frame.step.accepting) {
+          val lasso = redSearch(frame.step)
+          if (lasso != null) return lasso
+        }
+        blueStack.removeLast()
+        cyan.remove(frame.step.vertex)
+      }
     }
-    if (target.test(Pair(targetNode.state, edge.action))) {
-      // Edge source can only be null artificially, and is only used when calling other search
-      // strategies
-      val accNode = if (targetNode.accepting) targetNode else edge.source!!
-      for (outEdge in expand(edge.target)) {
-        val redSearch: List<ASGEdge<S, A>> =
-          redSearch(accNode, outEdge, trace + edge, mutableSetOf(), target, expand)
-        if (redSearch.isNotEmpty()) return setOf(ASGTrace(redSearch, accNode))
+    return null
+  }
+
+  private fun pushBlue(step: Step<S, A>) {
+    cyan[step.vertex] = blueStack.size
+    blueStack.add(Frame(step, successors(step)))
+  }
+
+  private fun redSearch(seed: Step<S, A>): ASGTrace<S, A>? {
+    val pink = hashSetOf(seed.vertex)
+    val acceptingPink = mutableListOf<Any>()
+    val redStack = arrayListOf(Frame(seed, successors(seed)))
+    while (redStack.isNotEmpty()) {
+      if (stop.get()) return null
+      val frame = redStack.last()
+      if (frame.successors.hasNext()) {
+        val next = frame.successors.next()
+        val cyanIndex = cyan[next.vertex]
+        if (cyanIndex != null) {
+          val lasso = lasso(cyanIndex, redStack, next)
+          stop.set(true)
+          return lasso
+        }
+        if (next.vertex !in pink && next.vertex !in red) {
+          pink.add(next.vertex)
+          if (next.accepting) acceptingPink.add(next.vertex)
+          redStack.add(Frame(next, successors(next)))
+        }
+      } else {
+        redStack.removeLast()
       }
     }
-    if (blueNodes.contains(targetNode)) {
-      return emptyList()
+    // Only happens with multiple workers: another worker is still processing these seeds
+    while (acceptingPink.any { it !in red }) {
+      if (stop.get()) return null
+      Thread.yield()
     }
-    blueNodes.add(edge.target)
-    for (nextEdge in expand(targetNode)) {
-      val blueSearch: Collection<ASGTrace<S, A>> =
-        blueSearch(nextEdge, trace + edge, blueNodes, redNodes, target, expand)
-      if (blueSearch.isNotEmpty()) return blueSearch
+    red.addAll(pink)
+    return null
+  }
+
+  private fun lasso(
+    cyanIndex: Int,
+    redStack: List<Frame<S, A>>,
+    last: Step<S, A>,
+  ): ASGTrace<S, A> {
+    val tail = blueStack.subList(0, cyanIndex + 1).mapNotNull { it.step.edge }
+    val loop =
+      blueStack.subList(cyanIndex + 1, blueStack.size).mapNotNull { it.step.edge } +
+        redStack.subList(1, redStack.size).mapNotNull { it.step.edge } +
+        listOfNotNull(last.edge)
+    return ASGTrace(tail, blueStack[cyanIndex].step.node, loop)
+  }
+
+  private fun successors(step: Step<S, A>): Iterator<Step<S, A>> {
+    if (step.virtual) {
+      return listOf(Step<S, A>(step.node, step.node, null)).iterator()
     }
-    return emptyList()
+    return ordered(expand(step.node))
+      .filterNot { it.target.state.isBottom }
+      .map {
+        if (!it.target.accepting && target.test(Pair(it.target.state, it.action))) {
+          Step(it, it.target, it)
+        } else {
+          Step(it.target, it.target, it)
+        }
+      }
+      .iterator()
   }
+
+  private fun <T> ordered(collection: Collection<T>): Collection<T> =
+    if (random == null) collection else collection.shuffled(random)
 }
@@ -181,6 +181,7 @@ constructor(
 
     val stateSpaceSize = MddInterpreter.calculateNonzeroCount(stateSpace)
     logger.write(Logger.Level.DETAIL, "State space size: $stateSpaceSize\n")
+    logger.write(Logger.Level.DETAIL, "%s\n", solverPool)
 
     val statistics =
       MddAnalysisStatistics(
@@ -181,6 +181,8 @@ public class MddExpressionRepresentation implements RecursiveIntObjMapView<MddNo
                     } else {
                         childNode = null;
                     }
+                } finally {
+                    solverPool.returnSolver(solver);
                 }
             }
         }
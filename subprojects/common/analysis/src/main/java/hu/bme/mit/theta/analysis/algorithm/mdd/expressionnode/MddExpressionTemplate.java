@@ -46,8 +46,6 @@ public class MddExpressionTemplate implements MddNode.Template {
     private final boolean transExpr;
     private final boolean knownSat;
 
-    private static Solver lazySolver;
-
     private static UnaryOperationCache<Expr<BoolType>, Boolean> satCache =
             new UnaryOperationCache();
 
@@ -56,11 +54,13 @@ public class MddExpressionTemplate implements MddNode.Template {
         if (cached != null) {
             return cached;
         }
-        if (lazySolver == null) lazySolver = solverPool.requestSolver();
+        final Solver solver = solverPool.requestSolver();
         boolean res;
-        try (var wpp = new WithPushPop(lazySolver)) {
-            lazySolver.add(expr);
-            res = lazySolver.check().isSat();
+        try (var wpp = new WithPushPop(solver)) {
+            solver.add(expr);
+            res = solver.check().isSat();
+        } finally {
+            solverPool.returnSolver(solver);
         }
         satCache.addToCache(expr, res);
         return res;
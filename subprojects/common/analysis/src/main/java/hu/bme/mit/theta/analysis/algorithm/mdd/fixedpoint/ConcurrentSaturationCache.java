@@ -0,0 +1,111 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.mdd.fixedpoint;
+
+import hu.bme.mit.delta.java.mdd.Cache;
+import hu.bme.mit.delta.java.mdd.MddNode;
+import hu.bme.mit.theta.analysis.algorithm.mdd.ansd.AbstractNextStateDescriptor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The saturation and relational product caches of a single variable, which can be queried and
+ * updated concurrently. Unlike the operation caches of the MDD graph, these never block, and if two
+ * threads compute the same operation, the one finishing later overwrites the (canonical, thus
+ * equal) result of the other.
+ */
+final class ConcurrentSaturationCache implements Cache {
+
+    private record SaturateKey(MddNode node, AbstractNextStateDescriptor descriptor) {}
+
+    private record RelProdKey(
+            MddNode node, AbstractNextStateDescriptor dsat, AbstractNextStateDescriptor dfire) {}
+
+    private final Map<SaturateKey, MddNode> saturateCache = new ConcurrentHashMap<>();
+    private final Map<RelProdKey, MddNode> relProdCache = new ConcurrentHashMap<>();
+    private final LongAdder queryCount = new LongAdder();
+    private final LongAdder hitCount = new LongAdder();
+
+    MddNode getSaturated(final MddNode node, final AbstractNextStateDescriptor descriptor) {
+        return count(saturateCache.get(new SaturateKey(node, descriptor)));
+    }
+
+    void addSaturated(
+            final MddNode node, final AbstractNextStateDescriptor descriptor, final MddNode result) {
+        saturateCache.put(new SaturateKey(node, descriptor), result);
+    }
+
+    MddNode getRelProd(
+            final MddNode node,
+            final AbstractNextStateDescriptor dsat,
+            final AbstractNextStateDescriptor dfire) {
+        return count(relProdCache.get(new RelProdKey(node, dsat, dfire)));
+    }
+
+    void addRelProd(
+            final MddNode node,
+            final AbstractNextStateDescriptor dsat,
+            final AbstractNextStateDescriptor dfire,
+            final MddNode result) {
+        relProdCache.put(new RelProdKey(node, dsat, dfire), result);
+    }
+
+    private MddNode count(final MddNode result) {
+        queryCount.increment();
+        if (result != null) {
+            hitCount.increment();
+        }
+        return result;
+    }
+
+    /** Removes the entries that refer to nodes that are no longer referenced in the graph. */
+    void removeUnreferenced() {
+        saturateCache
+                .entrySet()
+                .removeIf(
+                        e ->
+                                e.getKey().node().getReferenceCount() == 0
+                                        || e.getValue().getReferenceCount() == 0);
+        relProdCache
+                .entrySet()
+                .removeIf(
+                        e ->
+                                e.getKey().node().getReferenceCount() == 0
+                                        || e.getValue().getReferenceCount() == 0);
+    }
+
+    @Override
+    public void clear() {
+        saturateCache.clear();
+        relProdCache.clear();
+    }
+
+    @Override
+    public long getCacheSize() {
+        return saturateCache.size() + relProdCache.size();
+    }
+
+    @Override
+    public long getQueryCount() {
+        return queryCount.sum();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.mdd.fixedpoint;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Preconditions;
+import hu.bme.mit.delta.collections.IntObjCursor;
+import hu.bme.mit.delta.collections.IntObjMapView;
+import hu.bme.mit.delta.collections.RecursiveIntObjMapView;
+import hu.bme.mit.delta.java.mdd.*;
+import hu.bme.mit.delta.java.mdd.impl.MddStructuralTemplate;
+import hu.bme.mit.theta.analysis.algorithm.mdd.ansd.AbstractNextStateDescriptor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Generalized saturation that computes independent branches concurrently on a fork-join pool.
+ * Saturating the children of a node and the relational products of the edges fired from a node do
+ * not depend on each other, so they are forked as separate tasks. Their results are merged in the
+ * order of the edges, so the result does not depend on the scheduling.
+ *
+ * <p>The unique table and the union caches of the MDD graph are not thread-safe, so checking in
+ * nodes and computing unions is serialized on the graph, while the saturation and relational
+ * product caches are concurrent. The nodes and next state descriptors must be safe to read from
+ * multiple threads, which holds for structural nodes (e.g., the ones built for Petri nets), but
+ * not for lazily evaluated expression nodes.
+ */
+public final class ParallelSaturationProvider implements StateSpaceEnumerationProvider {
+
+    // Branches are computed sequentially if the worker already has this many tasks queued
+    private static final int SURPLUS_THRESHOLD = 3;
+
+    private final MddVariableOrder variableOrder;
+    private final RelationalProductProvider relProdProvider;
+    private final ForkJoinPool pool;
+    private final Object graphLock;
+    private final Map<MddVariable, ConcurrentSaturationCache> caches = new ConcurrentHashMap<>();
+    private final MddNode terminalZeroNode;
+
+    public ParallelSaturationProvider(final MddVariableOrder variableOrder, final int threads) {
+        this(variableOrder, new CursorRelationalProductProvider(variableOrder), threads);
+    }
+
+    public ParallelSaturationProvider(
+            final MddVariableOrder variableOrder,
+            final RelationalProductProvider relProdProvider,
+            final int threads) {
+        checkArgument(threads > 0, "Thread count must be positive");
+        this.variableOrder = variableOrder;
+        this.relProdProvider = relProdProvider;
+        this.pool = new ForkJoinPool(threads);
+        this.graphLock = variableOrder.getMddGraph();
+        this.variableOrder.getMddGraph().registerCleanupListener(this);
+        this.terminalZeroNode = variableOrder.getMddGraph().getTerminalZeroNode();
+    }
+
+    @Override
+    public MddHandle compute(
+            AbstractNextStateDescriptor.Postcondition initializer,
+            AbstractNextStateDescriptor nextStateRelation,
+            MddVariableHandle highestAffectedVariable) {
+        final MddHandle initialStates =
+                relProdProvider.compute(
+                        variableOrder.getMddGraph().getHandleForTop(),
+                        initializer,
+                        highestAffectedVariable);
+
+        MddNode result;
+
+        if (highestAffectedVariable.getVariable().isPresent()) {
+            final MddVariable variable = highestAffectedVariable.getVariable().get();
+            result = this.compute(initialStates.getNode(), nextStateRelation, variable);
+        } else {
+            result =
+                    this.computeTerminal(
+                            initialStates.getNode(),
+                            nextStateRelation,
+                            highestAffectedVariable.getMddGraph());
+        }
+
+        return highestAffectedVariable.getHandleFor(result);
+    }
+
+    @Override
+    public MddNode compute(
+            final MddNode mddNode,
+            final AbstractNextStateDescriptor nextState,
+            final MddVariable mddVariable) {
+        return pool.invoke(ForkJoinTask.adapt(() -> saturate(mddNode, nextState, mddVariable)));
+    }
+
+    @Override
+    public MddNode computeTerminal(
+            final MddNode mddNode,
+            final AbstractNextStateDescriptor nextState,
+            final MddGraph<?> mddGraph) {
+        return mddNode;
+    }
+
+    private MddNode saturate(
+            final MddNode n, final AbstractNextStateDescriptor d, final MddVariable variable) {
+        if (n.isTerminal()
+                || d == AbstractNextStateDescriptor.terminalIdentity()
+                || d == AbstractNextStateDescriptor.terminalEmpty()) {
+            return n;
+        }
+
+        final ConcurrentSaturationCache cache = cacheFor(variable);
+        final MddNode cached = cache.getSaturated(n, d);
+        if (cached != null) {
+            return cached;
+        }
+
+        final MddStateSpaceInfo stateSpaceInfo = new MddStateSpaceInfo(variable, n);
+        final MddVariable lower = variable.getLower().orElse(null);
+
+        final Branches branches = new Branches();
+        for (IntObjCursor<? extends MddNode> cFrom = n.cursor(); cFrom.moveNext(); ) {
+            final MddNode child = cFrom.value();
+            final AbstractNextStateDescriptor diagonal =
+                    d.getDiagonal(stateSpaceInfo).get(cFrom.key());
+            branches.add(cFrom.key(), () -> saturate(child, diagonal, lower));
+        }
+        MddNode nsat = branches.computeAndCheckIn(variable, null);
+
+        boolean changed;
+
+        do {
+            changed = false;
+
+            final Optional<Iterable<AbstractNextStateDescriptor>> splitNS = d.split();
+            if (splitNS.isPresent()) {
+                for (AbstractNextStateDescriptor dfire : splitNS.get()) {
+                    if (dfire.isLocallyIdentity(stateSpaceInfo)) {
+                        continue;
+                    }
+                    MddNode nfire = satFire(nsat, d, dfire, variable);
+                    nfire = union(variable, nsat, nfire);
+
+                    if (nfire != nsat) {
+                        nsat = nfire;
+                        changed = true;
+                    }
+                }
+            } else if (!d.isLocallyIdentity(stateSpaceInfo)) {
+                MddNode nfire = satFire(nsat, d, d, variable);
+                nfire = union(variable, nsat, nfire);
+
+                if (nfire != nsat) {
+                    nsat = nfire;
+                    changed = true;
+                }
+            }
+        } while (changed);
+
+        cache.addSaturated(n, d, nsat);
+        return nsat;
+    }
+
+    private MddNode satFire(
+            final MddNode n,
+            final AbstractNextStateDescriptor dsat,
+            final AbstractNextStateDescriptor dfire,
+            final MddVariable variable) {
+        if (n == terminalZeroNode || dfire == AbstractNextStateDescriptor.terminalEmpty()) {
+            return terminalZeroNode;
+        }
+
+        if (dfire == AbstractNextStateDescriptor.terminalIdentity()) {
+            return n;
+        }
+
+        final MddStateSpaceInfo stateSpaceInfo = new MddStateSpaceInfo(variable, n);
+        final MddVariable lower = variable.getLower().orElse(null);
+
+        final IntObjMapView<IntObjMapView<AbstractNextStateDescriptor>> offDiagonal =
+                dfire.getOffDiagonal(stateSpaceInfo);
+
+        final Branches branches = new Branches();
+        for (IntObjCursor<? extends MddNode> cFrom =
+                        lhsInterpreter(n, variable, offDiagonal).cursor();
+                cFrom.moveNext(); ) {
+            for (IntObjCursor<? extends AbstractNextStateDescriptor> cTo =
+                            offDiagonal.get(cFrom.key()).cursor();
+                    cTo.moveNext(); ) {
+                if (cFrom.key() == cTo.key()) {
+                    continue;
+                }
+
+                assert cFrom.value() != terminalZeroNode;
+                assert cTo.value() != AbstractNextStateDescriptor.terminalEmpty();
+
+                final MddNode from = cFrom.value();
+                final AbstractNextStateDescriptor toSat =
+                        dsat.getDiagonal(stateSpaceInfo).get(cTo.key());
+                final AbstractNextStateDescriptor toFire = cTo.value();
+                branches.add(cTo.key(), () -> relProd(from, toSat, toFire, lower));
+            }
+        }
+
+        return branches.computeAndCheckIn(variable, n);
+    }
+
+    private MddNode relProd(
+            final MddNode n,
+            final AbstractNextStateDescriptor dsat,
+            final AbstractNextStateDescriptor dfire,
+            final MddVariable variable) {
+        if (n == terminalZeroNode || dfire == AbstractNextStateDescriptor.terminalEmpty()) {
+            return terminalZeroNode;
+        }
+
+        if (dfire == AbstractNextStateDescriptor.terminalIdentity()) {
+            return n;
+        }
+
+        if (n.isTerminal() && dfire.evaluate()) {
+            return n;
+        }
+
+        final ConcurrentSaturationCache cache = cacheFor(variable);
+        final MddNode cached = cache.getRelProd(n, dsat, dfire);
+        if (cached != null) {
+            return cached;
+        }
+
+        final MddStateSpaceInfo stateSpaceInfo = new MddStateSpaceInfo(variable, n);
+        final MddVariable lower = variable.getLower().orElse(null);
+
+        final IntObjMapView<AbstractNextStateDescriptor> diagonal =
+                dfire.getDiagonal(stateSpaceInfo);
+        final IntObjMapView<IntObjMapView<AbstractNextStateDescriptor>> offDiagonal =
+                dfire.getOffDiagonal(stateSpaceInfo);
+
+        final Branches branches = new Branches();
+        for (IntObjCursor<? extends MddNode> cFrom =
+                        lhsInterpreter(n, variable, offDiagonal).cursor();
+                cFrom.moveNext(); ) {
+            final MddNode from = cFrom.value();
+
+            // Identity step
+            final AbstractNextStateDescriptor diagonalContinuation = diagonal.get(cFrom.key());
+            if (!AbstractNextStateDescriptor.isNullOrEmpty(diagonalContinuation)) {
+                final AbstractNextStateDescriptor toSat =
+                        dsat.getDiagonal(stateSpaceInfo).get(cFrom.key());
+                branches.add(
+                        cFrom.key(), () -> relProd(from, toSat, diagonalContinuation, lower));
+            }
+
+            for (IntObjCursor<? extends AbstractNextStateDescriptor> cTo =
+                            offDiagonal.get(cFrom.key()).cursor();
+                    cTo.moveNext(); ) {
+                if (cFrom.key() == cTo.key()) {
+                    continue;
+                }
+
+                assert cFrom.value() != terminalZeroNode;
+                assert cTo.value() != AbstractNextStateDescriptor.terminalEmpty();
+
+                final AbstractNextStateDescriptor toSat =
+                        dsat.getDiagonal(stateSpaceInfo).get(cTo.key());
+                final AbstractNextStateDescriptor toFire = cTo.value();
+                branches.add(cTo.key(), () -> relProd(from, toSat, toFire, lower));
+            }
+        }
+
+        MddNode ret = branches.computeAndCheckIn(variable, n);
+
+        ret = saturate(ret, dsat, variable);
+
+        cache.addRelProd(n, dsat, dfire, ret);
+        return ret;
+    }
+
+    private RecursiveIntObjMapView<? extends MddNode> lhsInterpreter(
+            final MddNode n,
+            final MddVariable variable,
+            final IntObjMapView<IntObjMapView<AbstractNextStateDescriptor>> offDiagonal) {
+        final boolean lhsSkipped = !n.isOn(variable);
+        if ((lhsSkipped || (n.defaultValue() != null && n.isEmpty())) && !variable.isBounded()) {
+            final MddNode childCandidate = lhsSkipped ? n : n.defaultValue();
+            // We use the keyset of the ANSD to trim
+            return RecursiveIntObjMapView.of(
+                    IntObjMapView.empty(childCandidate).trim(offDiagonal.keySet()));
+        } else {
+            // using the interpreter might cause a performance overhead
+            return variable.getNodeInterpreter(n);
+        }
+    }
+
+    private ConcurrentSaturationCache cacheFor(final MddVariable variable) {
+        return caches.computeIfAbsent(variable, v -> new ConcurrentSaturationCache());
+    }
+
+    private MddNode union(final MddVariable variable, final MddNode lhs, final MddNode rhs) {
+        synchronized (graphLock) {
+            return variable.union(lhs, rhs);
+        }
+    }
+
+    private MddNode unionChildren(
+            final MddNode lhs, final MddNode rhs, final MddVariable currentVariable) {
+        synchronized (graphLock) {
+            if (currentVariable.getLower().isPresent()) {
+                return currentVariable.getLower().get().union(lhs, rhs);
+            } else {
+                return currentVariable.getMddGraph().unionTerminal(lhs, rhs);
+            }
+        }
+    }
+
+    private MddNode terminalZeroToNull(MddNode node) {
+        return node == terminalZeroNode ? null : node;
+    }
+
+    /**
+     * The independent subcomputations of a node, each producing a child for an edge. They are
+     * forked if there is more than one and the pool is not saturated with tasks already.
+     */
+    private final class Branches {
+
+        private final List<Integer> keys = new ArrayList<>();
+        private final List<Supplier<MddNode>> computations = new ArrayList<>();
+
+        void add(final int key, final Supplier<MddNode> computation) {
+            keys.add(key);
+            computations.add(computation);
+        }
+
+        private List<MddNode> compute() {
+            final List<MddNode> results = new ArrayList<>(computations.size());
+            if (computations.size() < 2
+                    || !ForkJoinTask.inForkJoinPool()
+                    || ForkJoinTask.getSurplusQueuedTaskCount() > SURPLUS_THRESHOLD) {
+                for (final Supplier<MddNode> computation : computations) {
+                    results.add(computation.get());
+                }
+            } else {
+                final List<ForkJoinTask<MddNode>> tasks = new ArrayList<>(computations.size());
+                for (final Supplier<MddNode> computation : computations) {
+                    tasks.add(ForkJoinTask.adapt(computation::get));
+                }
+                ForkJoinTask.invokeAll(tasks);
+                for (final ForkJoinTask<MddNode> task : tasks) {
+                    results.add(task.join());
+                }
+            }
+            return results;
+        }
+
+        /**
+         * Computes the children, merges the ones on the same edge and checks in the node. If the
+         * children are the targets of explicit edges from {@code source}, then {@code source} must
+         * not have a default value.
+         */
+        MddNode computeAndCheckIn(final MddVariable variable, final MddNode source) {
+            final List<MddNode> results = compute();
+            final MddUnsafeTemplateBuilder templateBuilder =
+                    JavaMddFactory.getDefault().createUnsafeTemplateBuilder();
+            for (int i = 0; i < results.size(); i++) {
+                final int key = keys.get(i);
+                final MddNode result = results.get(i);
+                if (result == terminalZeroNode) {
+                    continue;
+                }
+                templateBuilder.set(
+                        key,
+                        terminalZeroToNull(
+                                unionChildren(templateBuilder.get(key), result, variable)));
+            }
+            final var template = templateBuilder.buildAndReset();
+            if (source != null && !template.isEmpty()) {
+                Preconditions.checkArgument(
+                        source.defaultValue() == null,
+                        "Default value is not supported with explicit edges");
+            }
+            synchronized (graphLock) {
+                return variable.checkInNode(MddStructuralTemplate.of(template));
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        this.variableOrder.getMddGraph().unregisterCleanupListener(this);
+        pool.shutdown();
+    }
+
+    @Override
+    public void clear() {
+        caches.values().forEach(ConcurrentSaturationCache::clear);
+    }
+
+    @Override
+    public void cleanup() {
+        caches.values().forEach(ConcurrentSaturationCache::removeUnreferenced);
+    }
+
+    @Override
+    public long getCacheSize() {
+        return caches.values().stream().mapToLong(ConcurrentSaturationCache::getCacheSize).sum();
+    }
+
+    @Override
+    public long getQueryCount() {
+        return caches.values().stream().mapToLong(ConcurrentSaturationCache::getQueryCount).sum();
+    }
+
+    @Override
+    public long getHitCount() {
+        return caches.values().stream().mapToLong(ConcurrentSaturationCache::getHitCount).sum();
+    }
+}
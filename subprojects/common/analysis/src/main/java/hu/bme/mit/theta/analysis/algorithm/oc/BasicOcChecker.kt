@@ -50,7 +50,7 @@ class BasicOcChecker<E : Event>(smtSolver: String) : OcCheckerBase<E>() {
             d.event?.let { it in disabledEvents } == true
         }
       if (firstDisabled >= 0) {
-        while (decisionStack.size > firstDisabled) decisionStack.pop()
+        while (decisionStack.size > firstDisabled) decisionStack.pop().revoke()
       }
 
       val enabledRels =
@@ -15,38 +15,94 @@
  */
 package hu.bme.mit.theta.analysis.algorithm.oc
 
-private sealed interface IArray<T> {
-  operator fun get(index: Int): T
+/**
+ * A binary relation over the indices `0 until size` (e.g., the clock ids of events) with values
+ * attached to the related pairs. The related pairs are stored as bitsets, both by rows (successors)
+ * and by columns (predecessors), and the values are stored by the subclasses.
+ *
+ * The relation can be transitively closed incrementally: [close] only touches the rows of the
+ * elements from which the new edge is reachable. Changes can be undone: after [mark] is called,
+ * every change is recorded on a trail, and [undo] reverts the relation to an earlier mark instead
+ * of keeping copies of the whole relation.
+ */
+sealed class GlobalRelationBase<T>(val size: Int) {
 
-  operator fun set(index: Int, value: T)
+  private val words = (size + 63) ushr 6
+  private val rows = Array(size) { LongArray(words) }
+  private val columns = Array(size) { LongArray(words) }
 
-  fun withIndex(): Iterable<IndexedValue<T>>
-}
+  private var trailing = false
+  private var trailPairs = IntArray(64) // (from, to) pairs of the changes
+  private val trailValues = mutableListOf<T>() // the values before the changes
+
+  protected abstract val unrelated: T
+
+  protected abstract fun isRelated(value: T): Boolean
+
+  protected abstract fun combine(value1: T, value2: T): T
 
-sealed class GlobalRelationBase<T>(private val relation: Array<out IArray<T>>) {
+  /** Returns the value of a related pair. */
+  protected abstract fun load(from: Int, to: Int): T
 
-  val size
-    get() = relation.size
+  /** Stores the value of a pair, [unrelated] if the pair is removed. */
+  protected abstract fun store(from: Int, to: Int, value: T)
 
-  operator fun get(from: Int, to: Int): T = relation[from][to]
+  abstract fun copy(): GlobalRelationBase<T>
+
+  operator fun get(from: Int, to: Int): T = if (related(from, to)) load(from, to) else unrelated
 
   operator fun set(from: Int, to: Int, value: T) {
-    relation[from][to] = value
+    if (trailing) {
+      val index = trailValues.size * 2
+      if (index == trailPairs.size) trailPairs = trailPairs.copyOf(index * 2)
+      trailPairs[index] = from
+      trailPairs[index + 1] = to
+      trailValues.add(this[from, to])
+    }
+    write(from, to, value)
   }
 
+  /** Calls [action] on the related pairs. The relation may be modified by [action]. */
   fun forEachPair(action: (Int, Int, T) -> Unit) {
-    for ((i, row) in relation.withIndex()) {
-      for ((j, value) in row.withIndex()) {
-        action(i, j, value)
-      }
+    for (from in 0 until size) {
+      forEachBit(rows[from].copyOf()) { to -> action(from, to, load(from, to)) }
     }
   }
 
-  abstract fun copy(): GlobalRelationBase<T>
+  /** Returns the elements related to [to]. */
+  fun predecessors(to: Int): List<Int> {
+    val result = mutableListOf<Int>()
+    forEachBit(columns[to]) { result.add(it) }
+    return result
+  }
 
-  protected abstract fun isRelated(value: T): Boolean
+  /** Returns the elements [from] is related to. */
+  fun successors(from: Int): List<Int> {
+    val result = mutableListOf<Int>()
+    forEachBit(rows[from]) { result.add(it) }
+    return result
+  }
 
-  protected abstract fun combine(value1: T, value2: T): T
+  /** Starts recording changes (if not yet started), and returns a mark for [undo]. */
+  fun mark(): Int {
+    trailing = true
+    return trailValues.size
+  }
+
+  /** Reverts the changes made since [mark] returned the given mark. */
+  fun undo(mark: Int) {
+    while (trailValues.size > mark) {
+      val index = trailValues.size - 1
+      write(trailPairs[index * 2], trailPairs[index * 2 + 1], trailValues.removeAt(index))
+    }
+  }
+
+  protected fun copyTo(other: GlobalRelationBase<T>) {
+    for (i in 0 until size) {
+      rows[i].copyInto(other.rows[i])
+      columns[i].copyInto(other.columns[i])
+    }
+  }
 
   fun closeNoCycle(initials: List<Triple<Int, Int, T>>) {
     check(close(initials) == null) { "Self-loop not allowed." }
@@ -54,74 +110,159 @@ sealed class GlobalRelationBase<T>(private val relation: Array<out IArray<T>>) {
 
   fun close(from: Int, to: Int, value: T) = close(listOf(Triple(from, to, value)))
 
+  /**
+   * Adds the given pairs and closes the relation transitively.
+   *
+   * @return the value of a cycle (self-loop) the new pairs would create, or null if there is none
+   */
   fun close(initials: List<Triple<Int, Int, T>>): T? {
     for ((from, to, value) in initials) {
       if (from == to) return value
     }
-    val toClose = initials.toMutableList()
-    while (toClose.isNotEmpty()) {
-      val (from, to, value) = toClose.removeFirst()
-      check(from != to)
-      if (isRelated(relation[from][to])) continue
-
-      relation[from][to] = value
-      for ((other, otherValue) in relation[to].withIndex()) {
-        if (isRelated(otherValue) && !isRelated(relation[from][other])) {
-          // to -> other, not from -> other
-          val combined = combine(value, otherValue)
-          if (from == other) return combined // cycle (self-loop) found
-          toClose.add(Triple(from, other, combined))
-        }
+    for ((from, to, value) in initials) {
+      closePair(from, to, value)?.let {
+        return it
       }
-      for ((other, otherValues) in relation.withIndex()) {
-        if (isRelated(otherValues[from]) && !isRelated(relation[other][to])) {
-          // other -> from, not other -> to
-          val combined = combine(value, otherValues[from])
-          if (other == to) return combined // cycle (self-loop) found
-          toClose.add(Triple(other, to, combined))
-        }
+    }
+    return null
+  }
+
+  @Suppress("UNCHECKED_CAST")
+  private fun closePair(from: Int, to: Int, value: T): T? {
+    if (related(from, to)) return null
+
+    // to -> target, with the values of these paths
+    val targets = LongArray(words)
+    val targetValues = HashMap<Int, T>()
+    setBit(targets, to)
+    val targetQueue = ArrayDeque(listOf(to))
+    while (targetQueue.isNotEmpty()) {
+      val current = targetQueue.removeFirst()
+      forEachNewBit(rows[current], targets) { target ->
+        val pathValue = load(current, target)
+        targetValues[target] =
+          if (current == to) pathValue else combine(targetValues[current] as T, pathValue)
+        if (target == from) return combine(value, targetValues[target] as T) // cycle found
+        setBit(targets, target)
+        targetQueue.add(target)
+      }
+    }
+
+    // source -> from -> to, with the values of these paths
+    val sources = LongArray(words)
+    val sourceValues = HashMap<Int, T>()
+    setBit(sources, from)
+    sourceValues[from] = value
+    val sourceQueue = ArrayDeque(listOf(from))
+    while (sourceQueue.isNotEmpty()) {
+      val current = sourceQueue.removeFirst()
+      forEachNewBit(columns[current], sources) { source ->
+        sourceValues[source] = combine(sourceValues[current] as T, load(source, current))
+        setBit(sources, source)
+        sourceQueue.add(source)
+      }
+    }
+
+    for ((source, sourceValue) in sourceValues) {
+      forEachNewBit(targets, rows[source]) { target ->
+        this[source, target] =
+          if (target == to) sourceValue else combine(sourceValue, targetValues[target] as T)
       }
     }
     return null
   }
+
+  private fun related(from: Int, to: Int) = rows[from][to ushr 6] and (1L shl to) != 0L
+
+  private fun write(from: Int, to: Int, value: T) {
+    if (isRelated(value)) {
+      setBit(rows[from], to)
+      setBit(columns[to], from)
+    } else {
+      rows[from][to ushr 6] = rows[from][to ushr 6] and (1L shl to).inv()
+      columns[to][from ushr 6] = columns[to][from ushr 6] and (1L shl from).inv()
+    }
+    store(from, to, value)
+  }
 }
 
-private class GenericArrayHolder<T>(private val array: Array<T>) : IArray<T> {
-  override fun get(index: Int) = array[index]
+private fun setBit(bits: LongArray, index: Int) {
+  bits[index ushr 6] = bits[index ushr 6] or (1L shl index)
+}
 
-  override fun withIndex() = array.withIndex()
+private inline fun forEachBit(bits: LongArray, action: (Int) -> Unit) {
+  for (word in bits.indices) {
+    var remaining = bits[word]
+    while (remaining != 0L) {
+      action((word shl 6) + java.lang.Long.numberOfTrailingZeros(remaining))
+      remaining = remaining and (remaining - 1)
+    }
+  }
+}
 
-  override fun set(index: Int, value: T) = array.set(index, value)
+/** Calls [action] on the bits set in [bits] but not in [known] (as they were before the call). */
+private inline fun forEachNewBit(bits: LongArray, known: LongArray, action: (Int) -> Unit) {
+  for (word in bits.indices) {
+    var remaining = bits[word] and known[word].inv()
+    while (remaining != 0L) {
+      action((word shl 6) + java.lang.Long.numberOfTrailingZeros(remaining))
+      remaining = remaining and (remaining - 1)
+    }
+  }
 }
 
-private class BooleanArrayHolder(private val array: BooleanArray) : IArray<Boolean> {
-  override fun get(index: Int) = array[index]
+/** A relation with the reasons of the related pairs, which are stored sparsely by rows. */
+class GlobalRelation(size: Int) : GlobalRelationBase<Reason?>(size) {
 
-  override fun withIndex() = array.withIndex()
+  private val reasons = arrayOfNulls<HashMap<Int, Reason>>(size)
 
-  override fun set(index: Int, value: Boolean) = array.set(index, value)
-}
+  constructor(size: Int, default: (Pair<Int, Int>) -> Reason?) : this(size) {
+    for (i in 0 until size) {
+      for (j in 0 until size) {
+        default(i to j)?.let { this[i, j] = it }
+      }
+    }
+  }
 
-class GlobalRelation(size: Int, default: (Pair<Int, Int>) -> Reason?) :
-  GlobalRelationBase<Reason?>(
-    Array(size) { i -> GenericArrayHolder(Array(size) { j -> default(i to j) }) }
-  ) {
+  override val unrelated: Reason? = null
 
-  override fun copy() = GlobalRelation(size) { (i, j) -> this[i, j] }
+  override fun copy() =
+    GlobalRelation(size).also { copy ->
+      copyTo(copy)
+      reasons.forEachIndexed { i, row -> copy.reasons[i] = row?.let(::HashMap) }
+    }
 
   override fun isRelated(value: Reason?) = value != null
 
   override fun combine(value1: Reason?, value2: Reason?) = value1!! and value2!!
+
+  override fun load(from: Int, to: Int) = reasons[from]?.get(to)
+
+  override fun store(from: Int, to: Int, value: Reason?) {
+    if (value == null) reasons[from]?.remove(to)
+    else (reasons[from] ?: HashMap<Int, Reason>().also { reasons[from] = it })[to] = value
+  }
 }
 
-class BooleanGlobalRelation(size: Int, default: (Pair<Int, Int>) -> Boolean) :
-  GlobalRelationBase<Boolean>(
-    Array(size) { i -> BooleanArrayHolder(BooleanArray(size) { j -> default(i to j) }) }
-  ) {
+class BooleanGlobalRelation(size: Int) : GlobalRelationBase<Boolean>(size) {
 
-  override fun copy() = BooleanGlobalRelation(size) { (i, j) -> this[i, j] }
+  constructor(size: Int, default: (Pair<Int, Int>) -> Boolean) : this(size) {
+    for (i in 0 until size) {
+      for (j in 0 until size) {
+        if (default(i to j)) this[i, j] = true
+      }
+    }
+  }
+
+  override val unrelated = false
+
+  override fun copy() = BooleanGlobalRelation(size).also { copyTo(it) }
 
   override fun isRelated(value: Boolean) = value
 
   override fun combine(value1: Boolean, value2: Boolean) = value1 || value2
+
+  override fun load(from: Int, to: Int) = true
+
+  override fun store(from: Int, to: Int, value: Boolean) {}
 }
@@ -104,11 +104,7 @@ class IDLOcChecker<E : Event>(smtSolver: String, private val isSc: Boolean = fal
     hbVars = Array(Event.clkSize) { arrayOfNulls(Event.clkSize) }
 
     // PPO
-    ppos.forEachPair { i, j, enabled ->
-      if (enabled) {
-        addHb(null, i, j)
-      }
-    }
+    ppos.forEachPair { i, j, _ -> addHb(null, i, j) }
     pos.forEach {
       if (it.from.clkId == it.to.clkId) {
         addHb(null, it.from, it.to)
@@ -181,7 +177,7 @@ class IDLOcChecker<E : Event>(smtSolver: String, private val isSc: Boolean = fal
 
   override fun getHappensBefore(): GlobalRelation {
     val model = solver.model.toMap()
-    val rels = GlobalRelation(Event.clkSize) { null }
+    val rels = GlobalRelation(Event.clkSize)
     events.forEach { e1 ->
       events.forEach { e2 ->
         if (e1.clkId != e2.clkId) {
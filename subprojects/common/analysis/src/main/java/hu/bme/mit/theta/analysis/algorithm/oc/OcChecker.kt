@@ -20,9 +20,6 @@ import hu.bme.mit.theta.core.type.booltype.BoolExprs.*
 import hu.bme.mit.theta.solver.Solver
 import hu.bme.mit.theta.solver.SolverStatus
 
-internal inline fun <reified T> Array<Array<T?>>.copy(): Array<Array<T?>> =
-  Array(size) { i -> Array(size) { j -> this[i][j] } }
-
 /**
  * This is an interface of an ordering consistency checker for concurrent systems (e.g., concurrent
  * programs).
@@ -154,15 +151,19 @@ abstract class OcCheckerBase<E : Event> : OcChecker<E>() {
     return unassignedWss
   }
 
-  protected fun getInitialRels(ppos: BooleanGlobalRelation) =
-    GlobalRelation(ppos.size) { (i, j) -> if (ppos[i, j]) PoReason else null }
+  protected fun getInitialRels(ppos: BooleanGlobalRelation): GlobalRelation {
+    val rels = GlobalRelation(ppos.size)
+    ppos.forEachPair { i, j, _ -> rels[i, j] = PoReason }
+    return rels
+  }
 }
 
 /**
  * Represents the known value of an important element for ordering consistency checking. Such an
  * important element is either a relation (being enabled) or an event (being enabled - having a
- * guard that evaluates to true). The fix relations (closed by theory axioms) and the solver
- * decision stack level are also stored.
+ * guard that evaluates to true). The fix relations (closed by theory axioms) are shared by the
+ * assignments: an assignment stores the trail mark of the relations at its creation, so the
+ * relations derived since then can be undone when the assignment is revoked.
  */
 open class OcAssignment<E : Event>
 internal constructor(
@@ -171,9 +172,14 @@ internal constructor(
   val event: E? = null,
 ) {
 
-  internal constructor(rels: GlobalRelation, e: E) : this(rels.copy(), event = e)
+  private val mark = rels.mark()
+
+  internal constructor(rels: GlobalRelation, e: E) : this(rels, event = e)
+
+  internal constructor(rels: GlobalRelation, r: Relation<E>) : this(rels, relation = r)
 
-  internal constructor(rels: GlobalRelation, r: Relation<E>) : this(rels.copy(), relation = r)
+  /** Reverts the relations to their state before this assignment. */
+  internal fun revoke() = rels.undo(mark)
 
   override fun toString() = "OcAssignment(${relation ?: event})"
 }
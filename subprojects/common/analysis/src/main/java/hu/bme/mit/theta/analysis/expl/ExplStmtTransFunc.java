@@ -24,6 +24,7 @@ import hu.bme.mit.theta.analysis.TransFunc;
 import hu.bme.mit.theta.analysis.expl.StmtApplier.ApplyResult;
 import hu.bme.mit.theta.analysis.expr.ExprStates;
 import hu.bme.mit.theta.analysis.expr.StmtAction;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.MutableValuation;
 import hu.bme.mit.theta.core.stmt.Stmt;
 import hu.bme.mit.theta.core.type.Expr;
@@ -35,6 +36,8 @@ import hu.bme.mit.theta.core.utils.indexings.VarIndexingFactory;
 import hu.bme.mit.theta.solver.Solver;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public final class ExplStmtTransFunc implements TransFunc<ExplState, StmtAction, ExplPrec> {
 
@@ -52,6 +55,20 @@ public final class ExplStmtTransFunc implements TransFunc<ExplState, StmtAction,
         return new ExplStmtTransFunc(solver, maxSuccToEnumerate);
     }
 
+    /**
+     * Key for caching the successors of this transfer function in a {@link
+     * hu.bme.mit.theta.analysis.impl.PostCache}. Successors only depend on the variables of the
+     * precision that appear in the state or in the action, so refining the precision with other
+     * variables does not invalidate them.
+     */
+    public static Object postCacheKey(
+            final ExplState state, final StmtAction action, final ExplPrec prec) {
+        final Set<VarDecl<?>> actionVars = StmtUtils.getVars(action.getStmts());
+        return prec.getVars().stream()
+                .filter(var -> actionVars.contains(var) || state.eval(var).isPresent())
+                .collect(Collectors.toSet());
+    }
+
     @Override
     public Collection<ExplState> getSuccStates(
             final ExplState state, final StmtAction action, final ExplPrec prec) {
@@ -15,8 +15,12 @@
  */
 package hu.bme.mit.theta.analysis.expr.refinement;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.Trace;
 import hu.bme.mit.theta.analysis.algorithm.arg.ARG;
@@ -29,41 +33,56 @@ import hu.bme.mit.theta.analysis.expr.ExprState;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.Logger.Level;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+/**
+ * Refiner checking every counterexample of the ARG. If more than one thread is configured, the
+ * traces are checked concurrently by worker checkers (each having its own solver), but the results
+ * are processed in the order of the counterexamples, so the refinement does not depend on thread
+ * scheduling.
+ *
+ * <p>Equal traces are checked only once, and share the result of the check.
+ */
 public final class MultiExprTraceRefiner<
                 S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation>
         implements ArgRefiner<S, A, P> {
 
-    private final ExprTraceChecker<R> exprTraceChecker;
     private final PrecRefiner<S, A, P, R> precRefiner;
     private final PruneStrategy pruneStrategy;
     private final NodePruner<S, A> nodePruner;
     private final Logger logger;
+    private final int threads;
+    private final Supplier<? extends ExprTraceChecker<R>> workerCheckers;
 
-    private MultiExprTraceRefiner(
-            final ExprTraceChecker<R> exprTraceChecker,
-            final PrecRefiner<S, A, P, R> precRefiner,
-            final PruneStrategy pruneStrategy,
-            final Logger logger) {
-        this.exprTraceChecker = checkNotNull(exprTraceChecker);
-        this.precRefiner = checkNotNull(precRefiner);
-        this.pruneStrategy = checkNotNull(pruneStrategy);
-        this.nodePruner = ARG::prune;
-        this.logger = checkNotNull(logger);
-    }
+    private final BlockingQueue<ExprTraceChecker<R>> idleCheckers = new LinkedBlockingQueue<>();
 
     private MultiExprTraceRefiner(
             final ExprTraceChecker<R> exprTraceChecker,
             final PrecRefiner<S, A, P, R> precRefiner,
             final PruneStrategy pruneStrategy,
             final Logger logger,
-            final NodePruner<S, A> nodePruner) {
-        this.exprTraceChecker = checkNotNull(exprTraceChecker);
+            final NodePruner<S, A> nodePruner,
+            final int threads,
+            final Supplier<? extends ExprTraceChecker<R>> workerCheckers) {
+        checkArgument(threads >= 1, "At least one thread is required");
+        this.idleCheckers.add(checkNotNull(exprTraceChecker));
         this.precRefiner = checkNotNull(precRefiner);
         this.pruneStrategy = checkNotNull(pruneStrategy);
         this.nodePruner = checkNotNull(nodePruner);
         this.logger = checkNotNull(logger);
+        this.threads = threads;
+        this.workerCheckers = checkNotNull(workerCheckers);
     }
 
     public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation>
@@ -72,7 +91,7 @@ public final class MultiExprTraceRefiner<
                     final PrecRefiner<S, A, P, R> precRefiner,
                     final PruneStrategy pruneStrategy,
                     final Logger logger) {
-        return new MultiExprTraceRefiner<>(exprTraceChecker, precRefiner, pruneStrategy, logger);
+        return create(exprTraceChecker, precRefiner, pruneStrategy, logger, ARG::prune);
     }
 
     public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation>
@@ -82,8 +101,55 @@ public final class MultiExprTraceRefiner<
                     final PruneStrategy pruneStrategy,
                     final Logger logger,
                     final NodePruner<S, A> nodePruner) {
+        return create(
+                exprTraceChecker,
+                precRefiner,
+                pruneStrategy,
+                logger,
+                nodePruner,
+                1,
+                () -> exprTraceChecker);
+    }
+
+    /**
+     * Creates a refiner checking the traces on the given number of threads. The worker checkers
+     * must not share solvers with each other or with the given checker.
+     */
+    public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation>
+            MultiExprTraceRefiner<S, A, P, R> create(
+                    final ExprTraceChecker<R> exprTraceChecker,
+                    final PrecRefiner<S, A, P, R> precRefiner,
+                    final PruneStrategy pruneStrategy,
+                    final Logger logger,
+                    final int threads,
+                    final Supplier<? extends ExprTraceChecker<R>> workerCheckers) {
+        return create(
+                exprTraceChecker,
+                precRefiner,
+                pruneStrategy,
+                logger,
+                ARG::prune,
+                threads,
+                workerCheckers);
+    }
+
+    public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation>
+            MultiExprTraceRefiner<S, A, P, R> create(
+                    final ExprTraceChecker<R> exprTraceChecker,
+                    final PrecRefiner<S, A, P, R> precRefiner,
+                    final PruneStrategy pruneStrategy,
+                    final Logger logger,
+                    final NodePruner<S, A> nodePruner,
+                    final int threads,
+                    final Supplier<? extends ExprTraceChecker<R>> workerCheckers) {
         return new MultiExprTraceRefiner<>(
-                exprTraceChecker, precRefiner, pruneStrategy, logger, nodePruner);
+                exprTraceChecker,
+                precRefiner,
+                pruneStrategy,
+                logger,
+                nodePruner,
+                threads,
+                workerCheckers);
     }
 
     @Override
@@ -100,75 +166,121 @@ public final class MultiExprTraceRefiner<
         assert !traces.isEmpty() : "No counterexample in ARG";
 
         logger.write(Level.SUBSTEP, "|  |  Checking traces...");
-        final List<ExprTraceStatus<R>> cexStatuses = new ArrayList<>(traces.size());
-        for (final Trace<S, A> trace : traces) {
-            final ExprTraceStatus<R> status = exprTraceChecker.check(trace);
-            cexStatuses.add(status);
-            if (status.isFeasible()) {
-                break;
-            }
-        }
-
-        if (cexStatuses.stream().anyMatch(ExprTraceStatus::isFeasible)) {
-            logger.write(Level.SUBSTEP, "done, result: found feasible%n");
-            return RefinerResult.unsafe(
-                    traces.get(
-                            cexStatuses.indexOf(
-                                    cexStatuses.stream()
-                                            .filter(ExprTraceStatus::isFeasible)
-                                            .findFirst()
-                                            .get())));
-        } else {
-            assert cexStatuses.size() == cexs.size();
-            logger.write(Level.SUBSTEP, "done, result: all infeasible%n");
-            final List<R> refutations =
-                    cexStatuses.stream().map(s -> s.asInfeasible().getRefutation()).toList();
-            assert refutations.size() == cexs.size();
-
-            final List<ArgNode<S, A>> nodesToPrune = new ArrayList<>(traces.size());
-            final List<Boolean> skip = new ArrayList<>(traces.size());
+        final List<R> refutations = new ArrayList<>(traces.size());
+        final List<ArgNode<S, A>> nodesToPrune = new ArrayList<>(traces.size());
+        final Map<Trace<S, A>, Future<ExprTraceStatus<R>>> checks = new HashMap<>();
+        final ExecutorService executor =
+                threads > 1
+                        ? Executors.newFixedThreadPool(
+                                threads,
+                                new ThreadFactoryBuilder()
+                                        .setNameFormat("cex-checker-%d")
+                                        .setDaemon(true)
+                                        .build())
+                        : null;
+        try {
             for (int i = 0; i < traces.size(); ++i) {
-                nodesToPrune.add(cexs.get(i).node(refutations.get(i).getPruneIndex()));
-                skip.add(false);
-            }
-            assert nodesToPrune.size() == cexs.size();
-            assert skip.size() == cexs.size();
+                // Checks are started ahead of the trace being processed, one for each thread
+                for (int j = i; j < Math.min(i + threads, traces.size()); ++j) {
+                    checks.computeIfAbsent(traces.get(j), trace -> startCheck(executor, trace));
+                }
 
-            for (int i = 0; i < nodesToPrune.size(); ++i) {
-                final ArgNode<S, A> node = nodesToPrune.get(i);
-                if (node.properAncestors().anyMatch(nodesToPrune::contains)) {
-                    skip.set(i, true);
+                final ExprTraceStatus<R> status = await(checks.get(traces.get(i)));
+                if (status.isFeasible()) {
+                    logger.write(Level.SUBSTEP, "done, result: found feasible%n");
+                    return RefinerResult.unsafe(traces.get(i));
                 }
+                final R refutation = status.asInfeasible().getRefutation();
+                refutations.add(refutation);
+                nodesToPrune.add(cexs.get(i).node(refutation.getPruneIndex()));
+            }
+        } finally {
+            checks.values().forEach(check -> check.cancel(false));
+            if (executor != null) {
+                executor.shutdown();
+                awaitTermination(executor);
             }
+        }
 
-            assert skip.stream().anyMatch(b -> b.equals(false));
+        logger.write(Level.SUBSTEP, "done, result: all infeasible%n");
+        assert refutations.size() == cexs.size();
 
-            P refinedPrec = prec;
-            for (int i = 0; i < refutations.size(); ++i) {
-                if (!skip.get(i)) {
-                    refinedPrec =
-                            precRefiner.refine(refinedPrec, traces.get(i), refutations.get(i));
-                }
+        final List<Boolean> skip = new ArrayList<>(nodesToPrune.size());
+        for (final ArgNode<S, A> node : nodesToPrune) {
+            skip.add(node.properAncestors().anyMatch(nodesToPrune::contains));
+        }
+
+        assert skip.stream().anyMatch(b -> b.equals(false));
+
+        P refinedPrec = prec;
+        for (int i = 0; i < refutations.size(); ++i) {
+            if (!skip.get(i)) {
+                refinedPrec = precRefiner.refine(refinedPrec, traces.get(i), refutations.get(i));
             }
+        }
 
-            switch (pruneStrategy) {
-                case LAZY:
-                    logger.write(Level.SUBSTEP, "|  |  Pruning (lazy)...");
-                    for (int i = 0; i < nodesToPrune.size(); ++i) {
-                        if (!skip.get(i)) {
-                            nodePruner.prune(arg, nodesToPrune.get(i));
-                        }
+        switch (pruneStrategy) {
+            case LAZY:
+                logger.write(Level.SUBSTEP, "|  |  Pruning (lazy)...");
+                for (int i = 0; i < nodesToPrune.size(); ++i) {
+                    if (!skip.get(i)) {
+                        nodePruner.prune(arg, nodesToPrune.get(i));
                     }
-                    break;
-                case FULL:
-                    logger.write(Level.SUBSTEP, "|  |  Pruning (full)...");
-                    arg.pruneAll();
-                    break;
-                default:
-                    throw new UnsupportedOperationException("Unsupported pruning strategy");
+                }
+                break;
+            case FULL:
+                logger.write(Level.SUBSTEP, "|  |  Pruning (full)...");
+                arg.pruneAll();
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported pruning strategy");
+        }
+        logger.write(Level.SUBSTEP, "done%n");
+        return RefinerResult.spurious(refinedPrec);
+    }
+
+    private Future<ExprTraceStatus<R>> startCheck(
+            final ExecutorService executor, final Trace<S, A> trace) {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(check(trace));
+        }
+        return executor.submit(() -> check(trace));
+    }
+
+    private ExprTraceStatus<R> check(final Trace<S, A> trace) {
+        ExprTraceChecker<R> checker = idleCheckers.poll();
+        // At most as many checkers are created as there are threads, as each checker in use
+        // belongs to a running check
+        if (checker == null) {
+            checker = workerCheckers.get();
+        }
+        try {
+            return checker.check(trace);
+        } finally {
+            idleCheckers.add(checker);
+        }
+    }
+
+    private static <T> T await(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking traces", e);
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void awaitTermination(final ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Running checks cannot be interrupted safely, as the solvers would be left in an
+                // inconsistent state
             }
-            logger.write(Level.SUBSTEP, "done%n");
-            return RefinerResult.spurious(refinedPrec);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 }
@@ -0,0 +1,138 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Analysis;
+import hu.bme.mit.theta.analysis.InitFunc;
+import hu.bme.mit.theta.analysis.PartialOrd;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.TransFunc;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache for the results of transfer functions, keyed by the state, the action and the part of the
+ * precision that the successors depend on. The cache can be shared between the transfer functions
+ * of the different threads (e.g., the worker ArgBuilders of a parallel abstractor) and between the
+ * iterations of a CEGAR loop.
+ *
+ * <p>By default the whole precision is part of the key, so results are only reused with the same
+ * precision. If the successors of a state only depend on a part of the precision (see {@link
+ * PrecKey}), refining the precision does not invalidate the successors that do not depend on the
+ * refined part. Subtrees of the ARG pruned by a refinement are then rebuilt from the cache instead
+ * of querying the solver again for each unaffected successor.
+ */
+public final class PostCache<S extends State, A extends Action, P extends Prec> {
+
+    /**
+     * Maps a precision to the part of it that the successors of a state with a given action depend
+     * on. Two precisions with equal keys must yield the same successors.
+     */
+    @FunctionalInterface
+    public interface PrecKey<S, A, P> {
+        Object of(S state, A action, P prec);
+    }
+
+    private record Key(Object state, Object action, Object prec) {}
+
+    private final PrecKey<? super S, ? super A, ? super P> precKey;
+    private final Map<Key, List<S>> cache = new ConcurrentHashMap<>();
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    private PostCache(final PrecKey<? super S, ? super A, ? super P> precKey) {
+        this.precKey = checkNotNull(precKey);
+    }
+
+    public static <S extends State, A extends Action, P extends Prec> PostCache<S, A, P> create() {
+        return create((state, action, prec) -> prec);
+    }
+
+    public static <S extends State, A extends Action, P extends Prec> PostCache<S, A, P> create(
+            final PrecKey<? super S, ? super A, ? super P> precKey) {
+        return new PostCache<>(precKey);
+    }
+
+    /** Wraps a transfer function so that its results are stored in (and taken from) this cache. */
+    public TransFunc<S, A, P> wrap(final TransFunc<S, ? super A, ? super P> transFunc) {
+        checkNotNull(transFunc);
+        return (state, action, prec) -> getSuccStates(transFunc, state, action, prec);
+    }
+
+    /** Wraps the transfer function of an analysis, see {@link #wrap(TransFunc)}. */
+    public Analysis<S, A, P> wrap(final Analysis<S, ? super A, ? super P> analysis) {
+        checkNotNull(analysis);
+        final TransFunc<S, A, P> transFunc = wrap(analysis.getTransFunc());
+        return new Analysis<>() {
+            @Override
+            public PartialOrd<S> getPartialOrd() {
+                return analysis.getPartialOrd();
+            }
+
+            @Override
+            public InitFunc<S, P> getInitFunc() {
+                return analysis.getInitFunc()::getInitStates;
+            }
+
+            @Override
+            public TransFunc<S, A, P> getTransFunc() {
+                return transFunc;
+            }
+        };
+    }
+
+    private Collection<? extends S> getSuccStates(
+            final TransFunc<S, ? super A, ? super P> transFunc,
+            final S state,
+            final A action,
+            final P prec) {
+        queries.increment();
+        final Key key = new Key(state, action, precKey.of(state, action, prec));
+        final List<S> cached = cache.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        // Concurrent misses of the same key are computed by each thread (with its own solver)
+        // instead of blocking each other, they yield the same successors anyway
+        final List<S> succStates = List.copyOf(transFunc.getSuccStates(state, action, prec));
+        cache.putIfAbsent(key, succStates);
+        return succStates;
+    }
+
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+}
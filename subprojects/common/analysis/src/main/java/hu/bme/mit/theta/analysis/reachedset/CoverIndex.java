@@ -0,0 +1,39 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.reachedset;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * A collection of elements that can be queried for the elements that might cover a given element.
+ * Implementations may return a superset of the actual coverers, but must not omit any of them.
+ */
+public interface CoverIndex<T> {
+
+    void add(T elem);
+
+    default void addAll(final Iterable<? extends T> elems) {
+        elems.forEach(this::add);
+    }
+
+    default void addAll(final Stream<? extends T> elems) {
+        elems.forEach(this::add);
+    }
+
+    /** Returns the elements that might cover the given element, in the order they were added. */
+    Collection<T> get(T elem);
+}
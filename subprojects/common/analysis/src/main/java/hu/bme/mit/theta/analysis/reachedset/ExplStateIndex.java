@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.common.container.Containers;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.type.LitExpr;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cover index for elements with an {@link ExplState}. For each variable the index keeps a bitset
+ * of the element positions that assign a value to it, and one for each assigned value. A lookup
+ * discards every element that assigns a variable differently from (or that is unassigned in) the
+ * looked up state, so the result is exactly the set of covering elements.
+ */
+public final class ExplStateIndex<T> implements CoverIndex<T> {
+
+    private final Function<? super T, ? extends ExplState> stateOf;
+    private final List<T> elems;
+    private final Map<Decl<?>, BitSet> assigned;
+    private final Map<Decl<?>, Map<LitExpr<?>, BitSet>> values;
+    private final BitSet bottoms;
+
+    private ExplStateIndex(final Function<? super T, ? extends ExplState> stateOf) {
+        this.stateOf = checkNotNull(stateOf);
+        elems = new ArrayList<>();
+        assigned = Containers.createMap();
+        values = Containers.createMap();
+        bottoms = new BitSet();
+    }
+
+    public static <T> ExplStateIndex<T> create(
+            final Function<? super T, ? extends ExplState> stateOf) {
+        return new ExplStateIndex<>(stateOf);
+    }
+
+    @Override
+    public void add(final T elem) {
+        checkNotNull(elem);
+        final ExplState state = stateOf.apply(elem);
+        final int pos = elems.size();
+        elems.add(elem);
+        if (state.isBottom()) {
+            bottoms.set(pos);
+            return;
+        }
+        for (final var entry : state.toMap().entrySet()) {
+            assigned.computeIfAbsent(entry.getKey(), d -> new BitSet()).set(pos);
+            values.computeIfAbsent(entry.getKey(), d -> Containers.createMap())
+                    .computeIfAbsent(entry.getValue(), v -> new BitSet())
+                    .set(pos);
+        }
+    }
+
+    @Override
+    public Collection<T> get(final T elem) {
+        checkNotNull(elem);
+        final ExplState state = stateOf.apply(elem);
+        if (state.isBottom()) {
+            return new ArrayList<>(elems);
+        }
+        final Map<Decl<?>, LitExpr<?>> val = state.toMap();
+        final BitSet excluded = (BitSet) bottoms.clone();
+        for (final var entry : assigned.entrySet()) {
+            final LitExpr<?> value = val.get(entry.getKey());
+            final BitSet mismatching = (BitSet) entry.getValue().clone();
+            if (value != null) {
+                final BitSet matching = values.get(entry.getKey()).get(value);
+                if (matching != null) {
+                    mismatching.andNot(matching);
+                }
+            }
+            excluded.or(mismatching);
+        }
+        final List<T> candidates = new ArrayList<>();
+        for (int i = excluded.nextClearBit(0); i < elems.size(); i = excluded.nextClearBit(i + 1)) {
+            candidates.add(elems.get(i));
+        }
+        return candidates;
+    }
+}
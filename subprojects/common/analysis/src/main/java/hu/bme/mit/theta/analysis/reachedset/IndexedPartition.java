@@ -0,0 +1,65 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import hu.bme.mit.theta.common.container.Containers;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Partition} that stores the elements of each class in a separate {@link CoverIndex}
+ * instead of a list, so that lookups within a class are not linear in the size of the class.
+ */
+public final class IndexedPartition<T, K> implements CoverIndex<T> {
+
+    private final Function<? super T, ? extends K> projection;
+    private final Supplier<? extends CoverIndex<T>> indexFactory;
+    private final Map<K, CoverIndex<T>> classes;
+
+    private IndexedPartition(
+            final Function<? super T, ? extends K> projection,
+            final Supplier<? extends CoverIndex<T>> indexFactory) {
+        this.projection = checkNotNull(projection);
+        this.indexFactory = checkNotNull(indexFactory);
+        classes = Containers.createMap();
+    }
+
+    public static <T, K> IndexedPartition<T, K> of(
+            final Function<? super T, ? extends K> projection,
+            final Supplier<? extends CoverIndex<T>> indexFactory) {
+        return new IndexedPartition<>(projection, indexFactory);
+    }
+
+    @Override
+    public void add(final T elem) {
+        checkNotNull(elem);
+        final K key = projection.apply(elem);
+        classes.computeIfAbsent(key, k -> indexFactory.get()).add(elem);
+    }
+
+    @Override
+    public Collection<T> get(final T elem) {
+        checkNotNull(elem);
+        final K key = projection.apply(elem);
+        final CoverIndex<T> index = classes.get(key);
+        return index == null ? Collections.emptyList() : index.get(elem);
+    }
+}
@@ -26,7 +26,7 @@ import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
-public final class Partition<T, K> {
+public final class Partition<T, K> implements CoverIndex<T> {
 
     private final Function<? super T, ? extends K> projection;
     private final Map<K, List<T>> classes;
@@ -40,6 +40,7 @@ public final class Partition<T, K> {
         return new Partition<>(projection);
     }
 
+    @Override
     public void add(final T elem) {
         checkNotNull(elem);
         final K key = projection.apply(elem);
@@ -47,14 +48,17 @@ public final class Partition<T, K> {
         partition.add(elem);
     }
 
+    @Override
     public void addAll(final Iterable<? extends T> elems) {
         elems.forEach(this::add);
     }
 
+    @Override
     public void addAll(final Stream<? extends T> elems) {
         elems.forEach(this::add);
     }
 
+    @Override
     public List<T> get(final T elem) {
         checkNotNull(elem);
         final K key = projection.apply(elem);
@@ -0,0 +1,118 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import hu.bme.mit.theta.analysis.pred.PredState;
+import hu.bme.mit.theta.common.container.Containers;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.booltype.NotExpr;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cover index for elements with a {@link PredState}. Each predicate of a state is split into an
+ * atom and a polarity, and the index keeps a bitset of element positions for each literal. A
+ * stored element is discarded from the candidates of a lookup if it contains the negation of a
+ * literal of the looked up state, since such an element can only cover a bottom state. Bottom
+ * states may be covered by any element, and bottom elements may only cover bottom states.
+ */
+public final class PredStateIndex<T> implements CoverIndex<T> {
+
+    private final Function<? super T, ? extends PredState> stateOf;
+    private final List<T> elems;
+    private final Map<Expr<BoolType>, Integer> atoms;
+    private final List<BitSet> positive;
+    private final List<BitSet> negative;
+    private final BitSet bottoms;
+
+    private PredStateIndex(final Function<? super T, ? extends PredState> stateOf) {
+        this.stateOf = checkNotNull(stateOf);
+        elems = new ArrayList<>();
+        atoms = Containers.createMap();
+        positive = new ArrayList<>();
+        negative = new ArrayList<>();
+        bottoms = new BitSet();
+    }
+
+    public static <T> PredStateIndex<T> create(
+            final Function<? super T, ? extends PredState> stateOf) {
+        return new PredStateIndex<>(stateOf);
+    }
+
+    @Override
+    public void add(final T elem) {
+        checkNotNull(elem);
+        final PredState state = stateOf.apply(elem);
+        final int pos = elems.size();
+        elems.add(elem);
+        if (state.isBottom()) {
+            bottoms.set(pos);
+            return;
+        }
+        for (final Expr<BoolType> pred : state.getPreds()) {
+            if (pred instanceof NotExpr not) {
+                negative.get(intern(not.getOp())).set(pos);
+            } else {
+                positive.get(intern(pred)).set(pos);
+            }
+        }
+    }
+
+    @Override
+    public Collection<T> get(final T elem) {
+        checkNotNull(elem);
+        final PredState state = stateOf.apply(elem);
+        if (state.isBottom()) {
+            return new ArrayList<>(elems);
+        }
+        final BitSet excluded = (BitSet) bottoms.clone();
+        for (final Expr<BoolType> pred : state.getPreds()) {
+            if (pred instanceof NotExpr not) {
+                final Integer atom = atoms.get(not.getOp());
+                if (atom != null) {
+                    excluded.or(positive.get(atom));
+                }
+            } else {
+                final Integer atom = atoms.get(pred);
+                if (atom != null) {
+                    excluded.or(negative.get(atom));
+                }
+            }
+        }
+        final List<T> candidates = new ArrayList<>();
+        for (int i = excluded.nextClearBit(0); i < elems.size(); i = excluded.nextClearBit(i + 1)) {
+            candidates.add(elems.get(i));
+        }
+        return candidates;
+    }
+
+    private int intern(final Expr<BoolType> atom) {
+        return atoms.computeIfAbsent(
+                atom,
+                a -> {
+                    positive.add(new BitSet());
+                    negative.add(new BitSet());
+                    return positive.size() - 1;
+                });
+    }
+}
@@ -22,16 +22,23 @@ import static hu.bme.mit.theta.analysis.zone.DiffBounds.Leq;
 import static hu.bme.mit.theta.analysis.zone.DiffBounds.Lt;
 import static hu.bme.mit.theta.analysis.zone.DiffBounds.add;
 import static hu.bme.mit.theta.analysis.zone.DiffBounds.asString;
-import static java.lang.Math.min;
 
-import hu.bme.mit.theta.common.IntMatrix;
 import java.util.Arrays;
 import java.util.function.IntBinaryOperator;
 
+/**
+ * A difference bound matrix over clocks {@code 0..nClocks}, where clock 0 is the zero clock. The
+ * bounds are stored row-major in a flat array, so the bound of {@code x - y} is at index {@code x *
+ * size() + y}. Operations iterate over the array directly, hoisting the row offsets and the bounds
+ * that are constant in the inner loops.
+ */
 final class BasicDbm {
 
+    private static final int INF = Inf();
+
     private final int nClocks;
-    private final IntMatrix matrix;
+    private final int size;
+    private final int[] matrix;
 
     ////
 
@@ -39,13 +46,21 @@ final class BasicDbm {
         checkArgument(size > 0, "Zero sized DBM");
         checkNotNull(values);
         this.nClocks = size - 1;
-        matrix = IntMatrix.create(size, size);
+        this.size = size;
+        matrix = new int[size * size];
         fill(values);
     }
 
     BasicDbm(final BasicDbm dbm) {
         this.nClocks = dbm.nClocks;
-        this.matrix = IntMatrix.copyOf(dbm.matrix);
+        this.size = dbm.size;
+        this.matrix = dbm.matrix.clone();
+    }
+
+    private BasicDbm(final int size, final int[] matrix) {
+        this.nClocks = size - 1;
+        this.size = size;
+        this.matrix = matrix;
     }
 
     ////
@@ -61,63 +76,122 @@ final class BasicDbm {
         }
     }
 
+    /** Returns the bound-wise minimum of two DBMs of the same size. The result is not closed. */
+    static BasicDbm min(final BasicDbm dbm1, final BasicDbm dbm2) {
+        checkArgument(dbm1.size == dbm2.size, "DBMs have different size");
+        final int[] result = new int[dbm1.matrix.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Math.min(dbm1.matrix[i], dbm2.matrix[i]);
+        }
+        return new BasicDbm(dbm1.size, result);
+    }
+
+    /** Returns the bound-wise maximum of two DBMs of the same size. */
+    static BasicDbm max(final BasicDbm dbm1, final BasicDbm dbm2) {
+        checkArgument(dbm1.size == dbm2.size, "DBMs have different size");
+        final int[] result = new int[dbm1.matrix.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Math.max(dbm1.matrix[i], dbm2.matrix[i]);
+        }
+        return new BasicDbm(dbm1.size, result);
+    }
+
     ////
 
     int get(final int x, final int y) {
         checkArgument(isClock(x));
         checkArgument(isClock(y));
-        return matrix.get(x, y);
+        return matrix[x * size + y];
     }
 
     void set(final int x, final int y, final int b) {
         checkArgument(isClock(x));
         checkArgument(isClock(y));
-        matrix.set(x, y, b);
+        matrix[x * size + y] = b;
     }
 
     void fill(final IntBinaryOperator values) {
         checkNotNull(values);
-        matrix.fill(values);
+        for (int i = 0; i < size; i++) {
+            final int row = i * size;
+            for (int j = 0; j < size; j++) {
+                matrix[row + j] = values.applyAsInt(i, j);
+            }
+        }
     }
 
     ////
 
     public int size() {
-        return nClocks + 1;
+        return size;
     }
 
     ////
 
     public boolean isConsistent() {
-        return matrix.get(0, 0) > 0;
+        return matrix[0] > 0;
     }
 
     public boolean isSatisfied(final int x, final int y, final int b) {
         checkArgument(isClock(x));
         checkArgument(isClock(y));
-        return add(matrix.get(y, x), b) >= Leq(0);
+        return add(matrix[y * size + x], b) >= Leq(0);
     }
 
     public boolean constrains(final int x) {
         checkArgument(isClock(x));
+        final int row = x * size;
         for (int i = 0; i <= nClocks; i++) {
-            if (matrix.get(x, i) < defaultBound(x, i)) {
+            if (matrix[row + i] < defaultBound(x, i)) {
                 return true;
             }
 
-            if (matrix.get(i, x) < defaultBound(i, x)) {
+            if (matrix[i * size + x] < defaultBound(i, x)) {
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Returns true if every bound of this DBM is at most the corresponding bound of the other DBM.
+     * The comparison of a row is branch-free, so that it can be vectorized by the JIT compiler.
+     */
+    public boolean isLeq(final BasicDbm that) {
+        checkArgument(this.size == that.size, "DBMs have different size");
+        final int[] a = this.matrix;
+        final int[] b = that.matrix;
+        for (int row = 0; row < a.length; row += size) {
+            boolean leq = true;
+            for (int j = row; j < row + size; j++) {
+                leq &= a[j] <= b[j];
+            }
+            if (!leq) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public DbmRelation getRelation(final BasicDbm that) {
+        checkArgument(this.size == that.size, "DBMs have different size");
+        final int[] a = this.matrix;
+        final int[] b = that.matrix;
+        boolean leq = true;
+        boolean geq = true;
+        for (int i = 0; i < a.length; i++) {
+            leq &= a[i] <= b[i];
+            geq &= a[i] >= b[i];
+        }
+        return DbmRelation.create(leq, geq);
+    }
+
     ////
 
     public void up() {
         if (isConsistent()) {
             for (int i = 1; i <= nClocks; i++) {
-                matrix.set(i, 0, Inf());
+                matrix[i * size] = INF;
             }
             assert isClosed();
         }
@@ -125,9 +199,7 @@ final class BasicDbm {
 
     public void down() {
         if (isConsistent()) {
-            for (int i = 1; i <= nClocks; i++) {
-                matrix.set(0, i, Inf());
-            }
+            Arrays.fill(matrix, 1, size, INF);
             assert isClosed();
         }
     }
@@ -140,21 +212,11 @@ final class BasicDbm {
             // do nothing
 
         } else if (!isSatisfied(x, y, b)) {
-            matrix.set(0, 0, Leq(-1));
+            matrix[0] = Leq(-1);
 
-        } else if (b < matrix.get(x, y)) {
-            matrix.set(x, y, b);
-
-            for (int i = 0; i <= nClocks; i++) {
-                for (int j = 0; j <= nClocks; j++) {
-                    if (add(matrix.get(i, x), matrix.get(x, j)) < matrix.get(i, j)) {
-                        matrix.set(i, j, add(matrix.get(i, x), matrix.get(x, j)));
-                    }
-                    if (add(matrix.get(i, y), matrix.get(y, j)) < matrix.get(i, j)) {
-                        matrix.set(i, j, add(matrix.get(i, y), matrix.get(y, j)));
-                    }
-                }
-            }
+        } else if (b < matrix[x * size + y]) {
+            matrix[x * size + y] = b;
+            tighten(x, y);
         }
         assert !isConsistent() || isClosed();
     }
@@ -166,37 +228,56 @@ final class BasicDbm {
 
         for (int k = 1; k <= nClocks; k++) {
             if (!isSatisfied(0, k, Leq(0))) {
-                matrix.set(0, 0, Leq(-1));
+                matrix[0] = Leq(-1);
                 return;
             }
 
-            if (Leq(0) < matrix.get(0, k)) {
-                matrix.set(0, k, Leq(0));
+            if (Leq(0) < matrix[k]) {
+                matrix[k] = Leq(0);
+                tighten(0, k);
+            }
+        }
 
-                for (int i = 0; i <= nClocks; i++) {
-                    for (int j = 0; j <= nClocks; j++) {
-                        if (add(matrix.get(i, 0), matrix.get(0, j)) < matrix.get(i, j)) {
-                            matrix.set(i, j, add(matrix.get(i, 0), matrix.get(0, j)));
-                        }
-                        if (add(matrix.get(i, k), matrix.get(k, j)) < matrix.get(i, j)) {
-                            matrix.set(i, j, add(matrix.get(i, k), matrix.get(k, j)));
-                        }
+        assert !isConsistent() || isClosed();
+    }
+
+    /**
+     * Restores the closure of a closed and consistent DBM after the bound of {@code x - y} has been
+     * tightened without making the DBM inconsistent. Every shortest path that changes goes through
+     * the new edge, so a single pass over the matrix suffices. Column {@code x} and row {@code y}
+     * are not changed by the pass, as the cycle through the new edge is not negative.
+     */
+    private void tighten(final int x, final int y) {
+        final int b = matrix[x * size + y];
+        final int rowY = y * size;
+        for (int i = 0; i <= nClocks; i++) {
+            final int row = i * size;
+            final int ix = matrix[row + x];
+            if (ix == INF) {
+                continue;
+            }
+            final int iy = add(ix, b);
+            for (int j = 0; j <= nClocks; j++) {
+                final int yj = matrix[rowY + j];
+                if (yj != INF) {
+                    final int newBound = iy + yj - ((iy | yj) & 1);
+                    if (newBound < matrix[row + j]) {
+                        matrix[row + j] = newBound;
                     }
                 }
             }
         }
-
-        assert !isConsistent() || isClosed();
     }
 
     public void free(final int x) {
         checkArgument(isNonZeroClock(x));
 
         if (isConsistent()) {
+            final int row = x * size;
             for (int i = 0; i <= nClocks; i++) {
                 if (i != x) {
-                    matrix.set(x, i, Inf());
-                    matrix.set(i, x, Inf());
+                    matrix[row + i] = INF;
+                    matrix[i * size + x] = INF;
                 }
             }
             assert isClosed();
@@ -211,9 +292,10 @@ final class BasicDbm {
         checkArgument(isNonZeroClock(x));
 
         if (isConsistent()) {
+            final int row = x * size;
             for (int i = 0; i <= nClocks; i++) {
-                matrix.set(x, i, add(Leq(m), matrix.get(0, i)));
-                matrix.set(i, x, add(matrix.get(i, 0), Leq(-m)));
+                matrix[row + i] = add(Leq(m), matrix[i]);
+                matrix[i * size + x] = add(matrix[i * size], Leq(-m));
             }
 
             assert isClosed();
@@ -223,24 +305,27 @@ final class BasicDbm {
     public void copy(final int x, final int y) {
         checkArgument(isNonZeroClock(y));
 
+        final int rowX = x * size;
+        final int rowY = y * size;
         for (int i = 0; i <= nClocks; i++) {
             if (i != x) {
-                matrix.set(x, i, matrix.get(y, i));
-                matrix.set(i, x, matrix.get(i, y));
+                matrix[rowX + i] = matrix[rowY + i];
+                matrix[i * size + x] = matrix[i * size + y];
             }
         }
-        matrix.set(x, y, Leq(0));
-        matrix.set(y, x, Leq(0));
+        matrix[rowX + y] = Leq(0);
+        matrix[rowY + x] = Leq(0);
         assert isClosed();
     }
 
     public void shift(final int x, final int m) {
         checkArgument(isNonZeroClock(x));
 
+        final int row = x * size;
         for (int i = 0; i <= nClocks; i++) {
             if (i != x) {
-                matrix.set(x, i, add(matrix.get(x, i), Leq(m)));
-                matrix.set(i, x, add(matrix.get(i, x), Leq(-m)));
+                matrix[row + i] = add(matrix[row + i], Leq(m));
+                matrix[i * size + x] = add(matrix[i * size + x], Leq(-m));
             }
         }
         assert isClosed();
@@ -251,12 +336,15 @@ final class BasicDbm {
         checkArgument(k.length == nClocks + 1);
 
         for (int i = 0; i <= nClocks; i++) {
+            final int row = i * size;
+            final int upper = Leq(k[i]);
             for (int j = 0; j <= nClocks; j++) {
-                if (matrix.get(i, j) != Inf()) {
-                    if (matrix.get(i, j) > Leq(k[i])) {
-                        matrix.set(i, j, Inf());
-                    } else if (matrix.get(i, j) < Lt(-k[j])) {
-                        matrix.set(i, j, Lt(-k[j]));
+                final int b = matrix[row + j];
+                if (b != INF) {
+                    if (b > upper) {
+                        matrix[row + j] = INF;
+                    } else if (b < Lt(-k[j])) {
+                        matrix[row + j] = Lt(-k[j]);
                     }
                 }
             }
@@ -266,33 +354,46 @@ final class BasicDbm {
 
     void close() {
         for (int k = 0; k <= nClocks; k++) {
+            final int rowK = k * size;
             for (int i = 0; i <= nClocks; i++) {
+                final int row = i * size;
+                final int ik = matrix[row + k];
+                if (ik == INF) {
+                    continue;
+                }
                 for (int j = 0; j <= nClocks; j++) {
-                    final int newBound =
-                            min(matrix.get(i, j), add(matrix.get(i, k), matrix.get(k, j)));
-                    if (i == j && newBound < Leq(0)) {
-                        matrix.set(0, 0, Leq(-1));
-                        return;
-                    } else {
-                        matrix.set(i, j, newBound);
+                    final int kj = matrix[rowK + j];
+                    if (kj != INF) {
+                        final int newBound = ik + kj - ((ik | kj) & 1);
+                        if (newBound < matrix[row + j]) {
+                            matrix[row + j] = newBound;
+                        }
                     }
                 }
+                if (matrix[row + i] < Leq(0)) {
+                    matrix[0] = Leq(-1);
+                    return;
+                }
             }
         }
         assert isClosed();
     }
 
     int[] closeItp() {
-        final IntMatrix next = IntMatrix.create(nClocks + 1, nClocks + 1);
-        next.fill((x, y) -> y);
+        final int[] next = new int[size * size];
+        for (int i = 0; i < next.length; i++) {
+            next[i] = i % size;
+        }
 
         for (int k = 0; k <= nClocks; k++) {
+            final int rowK = k * size;
             for (int i = 0; i <= nClocks; i++) {
+                final int row = i * size;
                 for (int j = 0; j <= nClocks; j++) {
-                    final int newBound = add(matrix.get(i, k), matrix.get(k, j));
-                    if (newBound < matrix.get(i, j)) {
-                        matrix.set(i, j, newBound);
-                        next.set(i, j, next.get(i, k));
+                    final int newBound = add(matrix[row + k], matrix[rowK + j]);
+                    if (newBound < matrix[row + j]) {
+                        matrix[row + j] = newBound;
+                        next[row + j] = next[row + k];
                         if (i == j && newBound < Leq(0)) {
                             final int[] cycle = path(next, i, j);
                             return cycle;
@@ -305,14 +406,14 @@ final class BasicDbm {
         throw new IllegalStateException();
     }
 
-    private int[] path(final IntMatrix next, final int u, final int v) {
+    private int[] path(final int[] next, final int u, final int v) {
         final int[] path = new int[nClocks + 2];
 
         int w = u;
         path[0] = w;
         int i = 1;
         do {
-            w = next.get(w, v);
+            w = next[w * size + v];
             path[i] = w;
             i++;
         } while (w != v);
@@ -322,9 +423,10 @@ final class BasicDbm {
 
     boolean isClosed() {
         for (int i = 0; i <= nClocks; i++) {
+            final int row = i * size;
             for (int j = 0; j <= nClocks; j++) {
                 for (int k = 0; k <= nClocks; k++) {
-                    if (matrix.get(i, j) > add(matrix.get(i, k), matrix.get(k, j))) {
+                    if (matrix[row + j] > add(matrix[row + k], matrix[k * size + j])) {
                         return false;
                     }
                 }
@@ -352,7 +454,7 @@ final class BasicDbm {
         final StringBuilder sb = new StringBuilder();
         for (int i = 0; i <= nClocks; i++) {
             for (int j = 0; j <= nClocks; j++) {
-                sb.append(String.format("%-12s", asString(matrix.get(i, j))));
+                sb.append(String.format("%-12s", asString(matrix[i * size + j])));
             }
             sb.append(System.lineSeparator());
         }
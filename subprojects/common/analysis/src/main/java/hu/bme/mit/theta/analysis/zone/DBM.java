@@ -28,9 +28,9 @@ import hu.bme.mit.theta.core.clock.op.*;
 import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.type.rattype.RatType;
 import java.util.*;
-import java.util.function.BiFunction;
 import java.util.function.IntBinaryOperator;
 import java.util.function.IntConsumer;
+import java.util.function.ToIntBiFunction;
 import java.util.stream.Collectors;
 
 final class DBM {
@@ -55,15 +55,13 @@ final class DBM {
         this.dbm = dbm;
     }
 
-    // TODO replace BiFunction by IntBiFunction
     private DBM(
             final DbmSignature signature,
-            final BiFunction<? super VarDecl<RatType>, ? super VarDecl<RatType>, ? extends Integer>
-                    values) {
+            final ToIntBiFunction<? super VarDecl<RatType>, ? super VarDecl<RatType>> values) {
         this(
                 signature,
                 (final int x, final int y) -> {
-                    return values.apply(signature.getVar(x), signature.getVar(y));
+                    return values.applyAsInt(signature.getVar(x), signature.getVar(y));
                 });
     }
 
@@ -85,7 +83,7 @@ final class DBM {
                     if (bound != defaultBound(x, y)) {
                         final int newBound = negate(bound);
                         final DbmSignature newSignature = DbmSignature.over(Arrays.asList(x, y));
-                        final BiFunction<VarDecl<RatType>, VarDecl<RatType>, Integer> newValues =
+                        final ToIntBiFunction<VarDecl<RatType>, VarDecl<RatType>> newValues =
                                 (c1, c2) -> (c1 == y && c2 == x) ? newBound : defaultBound(c1, c2);
                         final DBM newDBM = new DBM(newSignature, newValues);
                         result.add(newDBM);
@@ -129,8 +127,14 @@ final class DBM {
         checkNotNull(dbm1);
         checkNotNull(dbm2);
 
+        if (dbm1.hasSameSignatureAs(dbm2)) {
+            final DBM result = new DBM(dbm1.signature, BasicDbm.min(dbm1.dbm, dbm2.dbm));
+            result.close();
+            return result;
+        }
+
         final DbmSignature signature = DbmSignature.union(dbm1.signature, dbm2.signature);
-        final BiFunction<VarDecl<RatType>, VarDecl<RatType>, Integer> values =
+        final ToIntBiFunction<VarDecl<RatType>, VarDecl<RatType>> values =
                 (x, y) -> {
                     final int bound1 = dbm1.getOrDefault(x, y);
                     final int bound2 = dbm2.getOrDefault(x, y);
@@ -147,8 +151,12 @@ final class DBM {
         checkNotNull(dbm1);
         checkNotNull(dbm2);
 
+        if (dbm1.hasSameSignatureAs(dbm2)) {
+            return new DBM(dbm1.signature, BasicDbm.max(dbm1.dbm, dbm2.dbm));
+        }
+
         final DbmSignature signature = DbmSignature.union(dbm1.signature, dbm2.signature);
-        final BiFunction<VarDecl<RatType>, VarDecl<RatType>, Integer> values =
+        final ToIntBiFunction<VarDecl<RatType>, VarDecl<RatType>> values =
                 (x, y) -> {
                     final int bound1 = dbm1.getOrDefault(x, y);
                     final int bound2 = dbm2.getOrDefault(x, y);
@@ -179,7 +187,7 @@ final class DBM {
         assert dbmB.isClosed();
 
         final DbmSignature interpolantSignature = interpolantSignature(dbmA, dbmB);
-        final BiFunction<VarDecl<RatType>, VarDecl<RatType>, Integer> values =
+        final ToIntBiFunction<VarDecl<RatType>, VarDecl<RatType>> values =
                 (x, y) -> {
                     final int bound1 = dbmA.get(x, y);
                     final int bound2 = dbmB.get(x, y);
@@ -249,7 +257,7 @@ final class DBM {
         assert dbmB.isClosed();
 
         final DbmSignature interpolantSignature = interpolantSignature(dbmA, dbmB);
-        final BiFunction<VarDecl<RatType>, VarDecl<RatType>, Integer> values =
+        final ToIntBiFunction<VarDecl<RatType>, VarDecl<RatType>> values =
                 (x, y) -> {
                     final int bound1 = dbmA.get(x, y);
                     final int bound2 = dbmB.get(x, y);
@@ -355,6 +363,10 @@ final class DBM {
     }
 
     public DbmRelation getRelation(final DBM that) {
+        if (hasSameSignatureAs(that)) {
+            return this.dbm.getRelation(that.dbm);
+        }
+
         final Set<VarDecl<RatType>> vars =
                 Sets.union(this.signature.toSet(), that.signature.toSet());
 
@@ -371,6 +383,10 @@ final class DBM {
     }
 
     public boolean isLeq(final DBM that) {
+        if (hasSameSignatureAs(that)) {
+            return this.dbm.isLeq(that.dbm);
+        }
+
         final Set<VarDecl<RatType>> vars =
                 Sets.union(this.signature.toSet(), that.signature.toSet());
 
@@ -574,6 +590,11 @@ final class DBM {
 
     ////
 
+    private boolean hasSameSignatureAs(final DBM that) {
+        return this.signature == that.signature
+                || this.signature.toList().equals(that.signature.toList());
+    }
+
     private boolean tracks(final VarDecl<RatType> varDecl) {
         checkNotNull(varDecl);
         return signature.contains(varDecl);
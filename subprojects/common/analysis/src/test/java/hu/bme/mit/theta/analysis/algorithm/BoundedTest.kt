@@ -92,4 +92,40 @@ class BoundedTest {
     val safetyResult: SafetyResult<*, *> = checker.check()
     Assert.assertTrue(safetyResult.isSafe())
   }
+
+  @Test
+  fun testConcurrentBoundedUnsafe() {
+    val solver = Z3LegacySolverFactory.getInstance().createSolver()
+    val itpSolver = Z3LegacySolverFactory.getInstance().createItpSolver()
+    val indSolver = Z3LegacySolverFactory.getInstance().createSolver()
+    val checker: BoundedChecker =
+      BoundedChecker(
+        monolithicExpr = unsafeMonolithicExpr!!,
+        bmcSolver = solver,
+        itpSolver = itpSolver,
+        indSolver = indSolver,
+        logger = ConsoleLogger(Logger.Level.VERBOSE),
+        concurrent = true,
+      )
+    val safetyResult: SafetyResult<*, *> = checker.check()
+    Assert.assertTrue(safetyResult.isUnsafe())
+  }
+
+  @Test
+  fun testConcurrentBoundedSafe() {
+    val solver = Z3LegacySolverFactory.getInstance().createSolver()
+    val itpSolver = Z3LegacySolverFactory.getInstance().createItpSolver()
+    val indSolver = Z3LegacySolverFactory.getInstance().createSolver()
+    val checker: BoundedChecker =
+      BoundedChecker(
+        monolithicExpr = safeMonolithicExpr!!,
+        bmcSolver = solver,
+        itpSolver = itpSolver,
+        indSolver = indSolver,
+        logger = ConsoleLogger(Logger.Level.VERBOSE),
+        concurrent = true,
+      )
+    val safetyResult: SafetyResult<*, *> = checker.check()
+    Assert.assertTrue(safetyResult.isSafe())
+  }
 }
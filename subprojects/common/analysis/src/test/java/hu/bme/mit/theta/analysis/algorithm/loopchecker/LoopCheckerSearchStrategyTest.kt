@@ -0,0 +1,153 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.loopchecker
+
+import hu.bme.mit.theta.analysis.algorithm.asg.ASG
+import hu.bme.mit.theta.analysis.algorithm.asg.ASGEdge
+import hu.bme.mit.theta.analysis.algorithm.asg.ASGNode
+import hu.bme.mit.theta.analysis.algorithm.asg.ASGTrace
+import hu.bme.mit.theta.analysis.algorithm.loopchecker.abstraction.CndfsSearchStrategy
+import hu.bme.mit.theta.analysis.algorithm.loopchecker.abstraction.ILoopCheckerSearchStrategy
+import hu.bme.mit.theta.analysis.algorithm.loopchecker.abstraction.NdfsSearchStrategy
+import hu.bme.mit.theta.analysis.algorithm.loopchecker.abstraction.NodeExpander
+import hu.bme.mit.theta.analysis.expl.ExplState
+import hu.bme.mit.theta.analysis.expr.ExprAction
+import hu.bme.mit.theta.common.logging.NullLogger
+import hu.bme.mit.theta.core.decl.Decls.Var
+import hu.bme.mit.theta.core.model.ImmutableValuation
+import hu.bme.mit.theta.core.type.booltype.BoolExprs.True
+import hu.bme.mit.theta.core.type.inttype.IntExprs.Int
+import hu.bme.mit.theta.core.type.inttype.IntType
+import hu.bme.mit.theta.core.utils.indexings.VarIndexingFactory
+import java.util.Random
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Checks the nested search strategies on random graphs against a naive reference, which looks for
+ * an accepting cycle reachable from the initial node using the transitive closure of the graph.
+ */
+class LoopCheckerSearchStrategyTest {
+
+  private val size = 12
+  private val rounds = 300
+
+  private class TestAction(val accepting: Boolean) : ExprAction {
+    override fun toExpr() = True()
+
+    override fun nextIndexing() = VarIndexingFactory.indexing(0)
+  }
+
+  private class TestGraph(random: Random, size: Int) {
+    val states =
+      (0 until size).map { ExplState.of(ImmutableValuation.builder().put(x, Int(it)).build()) }
+    val acceptingStates = states.filter { random.nextInt(6) == 0 }.toSet()
+    val edges =
+      (0 until size).map {
+        (0 until size)
+          .filter { random.nextInt(size) < 2 }
+          .map { target -> target to TestAction(random.nextInt(8) == 0) }
+      }
+
+    fun hasAcceptingCycle(edgeAcceptance: Boolean): Boolean {
+      val reach = Array(states.size) { BooleanArray(states.size) }
+      edges.forEachIndexed { source, out -> out.forEach { reach[source][it.first] = true } }
+      for (k in states.indices) {
+        for (i in states.indices) {
+          if (reach[i][k]) for (j in states.indices) reach[i][j] = reach[i][j] || reach[k][j]
+        }
+      }
+      val reachable = { i: Int -> i == 0 || reach[0][i] }
+      return if (edgeAcceptance) {
+        edges.withIndex().any { (source, out) ->
+          reachable(source) &&
+            out.any { (target, action) ->
+              action.accepting && (target == source || reach[target][source])
+            }
+        }
+      } else {
+        states.indices.any { reachable(it) && states[it] in acceptingStates && reach[it][it] }
+      }
+    }
+
+    companion object {
+      private val x = Var("x", IntType.getInstance())
+    }
+  }
+
+  private fun check(strategy: ILoopCheckerSearchStrategy, seed: Long, rounds: Int = this.rounds) {
+    val random = Random(seed)
+    repeat(rounds) { round ->
+      val graph = TestGraph(random, size)
+      val edgeAcceptance = round % 2 == 1
+      val acceptance =
+        if (edgeAcceptance) {
+          AcceptancePredicate<ExplState, TestAction>(null) { it!!.accepting }
+        } else {
+          AcceptancePredicate<ExplState, TestAction>({ it in graph.acceptingStates })
+        }
+      val asg = ASG(acceptance)
+      asg.initialise(listOf(graph.states[0]))
+      val expand: NodeExpander<ExplState, TestAction> = { node ->
+        if (!node.expanded) {
+          node.expanded = true
+          graph.edges[graph.states.indexOf(node.state)].forEach { (target, action) ->
+            val targetNode = asg.getOrCreateNode(graph.states[target])
+            asg.drawEdge(node, targetNode, action, acceptance.test(Pair(targetNode.state, action)))
+          }
+        }
+        node.outEdges
+      }
+
+      val lassos = strategy.search(asg.initNodes, acceptance, expand, NullLogger.getInstance())
+      assertEquals(graph.hasAcceptingCycle(edgeAcceptance), lassos.isNotEmpty())
+      lassos.forEach { assertLasso(it, asg.initNodes.first()) }
+    }
+  }
+
+  private fun assertLasso(lasso: ASGTrace<ExplState, TestAction>, init: ASGNode<*, *>) {
+    assertConnected(init, lasso.tail, lasso.honda)
+    assertTrue(lasso.loop.isNotEmpty())
+    assertConnected(lasso.honda, lasso.loop, lasso.honda)
+    assertTrue(lasso.loop.any { it.accepting || it.target.accepting })
+  }
+
+  private fun assertConnected(from: ASGNode<*, *>, edges: List<ASGEdge<*, *>>, to: ASGNode<*, *>) {
+    var node = from
+    for (edge in edges) {
+      assertTrue(edge.source === node)
+      node = edge.target
+    }
+    assertTrue(node === to)
+  }
+
+  @Test
+  fun testNdfs() {
+    check(NdfsSearchStrategy, 0)
+  }
+
+  @Test
+  fun testCndfs() {
+    check(CndfsSearchStrategy(4), 1)
+  }
+
+  @Test
+  fun testCndfsFinderReturnsLast() {
+    // The workers stopped by the one finding a lasso complete first, and must not decide the result
+    check(CndfsSearchStrategy(4) { lasso -> if (lasso != null) Thread.sleep(20) }, 2, 60)
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.oc
+
+import java.util.Random
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Checks the incremental closure of [GlobalRelationBase] against a naive reference, which
+ * recomputes the transitive closure of all added pairs from scratch.
+ */
+class GlobalRelationTest {
+
+  private val size = 70 // more than a single word per row
+
+  private fun referenceClosure(pairs: List<Pair<Int, Int>>): Array<BooleanArray> {
+    val matrix = Array(size) { BooleanArray(size) }
+    pairs.forEach { (i, j) -> matrix[i][j] = true }
+    for (k in 0 until size) {
+      for (i in 0 until size) {
+        if (matrix[i][k]) for (j in 0 until size) matrix[i][j] = matrix[i][j] || matrix[k][j]
+      }
+    }
+    return matrix
+  }
+
+  private fun assertEquivalent(expected: Array<BooleanArray>, actual: BooleanGlobalRelation) {
+    for (i in 0 until size) {
+      for (j in 0 until size) {
+        assertEquals("[$i, $j]", expected[i][j], actual[i, j])
+      }
+      assertEquals((0 until size).filter { expected[i][it] }, actual.successors(i))
+      assertEquals((0 until size).filter { expected[it][i] }, actual.predecessors(i))
+    }
+  }
+
+  @Test
+  fun testIncrementalClose() {
+    val random = Random(0)
+    repeat(20) {
+      val relation = BooleanGlobalRelation(size)
+      val pairs = mutableListOf<Pair<Int, Int>>()
+      repeat(100) {
+        // edges only go forward, so there are no cycles
+        val from = random.nextInt(size - 1)
+        val to = from + 1 + random.nextInt(size - from - 1)
+        relation.closeNoCycle(listOf(Triple(from, to, true)))
+        pairs.add(from to to)
+      }
+      assertEquivalent(referenceClosure(pairs), relation)
+    }
+  }
+
+  @Test
+  fun testCycle() {
+    val relation = GlobalRelation(size)
+    assertNull(relation.close(1, 2, PoReason))
+    assertNull(relation.close(2, 65, UndetailedReason))
+    assertNotNull(relation[1, 65])
+    assertNotNull(relation.close(65, 1, PoReason))
+    assertNull(relation[65, 1])
+    assertNotNull(relation.close(3, 3, PoReason))
+  }
+
+  @Test
+  fun testUndo() {
+    val random = Random(1)
+    val relation = GlobalRelation(size)
+    val pairs = mutableListOf<Pair<Int, Int>>()
+    val marks = mutableListOf<Pair<Int, Int>>() // trail mark and the number of pairs added before
+    repeat(200) {
+      if (marks.isNotEmpty() && random.nextInt(4) == 0) {
+        val (mark, count) = marks.removeAt(random.nextInt(marks.size))
+        marks.removeIf { it.first > mark }
+        relation.undo(mark)
+        while (pairs.size > count) pairs.removeAt(pairs.size - 1)
+      } else {
+        marks.add(relation.mark() to pairs.size)
+        val from = random.nextInt(size - 1)
+        val to = from + 1 + random.nextInt(size - from - 1)
+        assertNull(relation.close(from, to, PoReason))
+        pairs.add(from to to)
+      }
+
+      val expected = referenceClosure(pairs)
+      for (i in 0 until size) {
+        for (j in 0 until size) {
+          assertEquals("[$i, $j]", expected[i][j], relation[i, j] != null)
+        }
+      }
+      val copy = relation.copy()
+      relation.forEachPair { i, j, reason -> assertTrue(copy[i, j] == reason) }
+    }
+  }
+}
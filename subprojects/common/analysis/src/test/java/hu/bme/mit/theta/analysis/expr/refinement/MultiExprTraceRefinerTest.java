@@ -0,0 +1,208 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.algorithm.arg.ARG;
+import hu.bme.mit.theta.analysis.algorithm.arg.ArgNode;
+import hu.bme.mit.theta.analysis.algorithm.cegar.RefinerResult;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
+import hu.bme.mit.theta.analysis.stubs.PrecStub;
+import hu.bme.mit.theta.common.logging.NullLogger;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.indexings.VarIndexing;
+import hu.bme.mit.theta.core.utils.indexings.VarIndexingFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class MultiExprTraceRefinerTest {
+
+    private static final VarDecl<IntType> X = Var("x", IntType.getInstance());
+    private static final ExprAction ACTION =
+            new ExprAction() {
+                @Override
+                public Expr<BoolType> toExpr() {
+                    return True();
+                }
+
+                @Override
+                public VarIndexing nextIndexing() {
+                    return VarIndexingFactory.indexing(0);
+                }
+            };
+
+    private record PruneIndex(int index) implements Refutation {
+        @Override
+        public int getPruneIndex() {
+            return index;
+        }
+    }
+
+    private static ExplState state(final int value) {
+        return ExplState.of(ImmutableValuation.builder().put(X, Int(value)).build());
+    }
+
+    private static int value(final ExplState state) {
+        return Integer.parseInt(state.getVal().eval(X).orElseThrow().toString());
+    }
+
+    /**
+     * Creates an ARG with an initial node, eight children of it (with values 1 to 8) and two
+     * targets below each child (with values 100 + child and 200 + child). A ninth child has the
+     * same state as the eighth one, and one target with an equal state to the first target of the
+     * eighth child.
+     */
+    private static ARG<ExplState, ExprAction> createArg() {
+        final ARG<ExplState, ExprAction> arg = ARG.create(ExplState::equals);
+        final ArgNode<ExplState, ExprAction> init = arg.createInitNode(state(0), false);
+        for (int child = 1; child <= 8; child++) {
+            final ArgNode<ExplState, ExprAction> node =
+                    arg.createSuccNode(init, ACTION, state(child), false);
+            arg.createSuccNode(node, ACTION, state(100 + child), true);
+            arg.createSuccNode(node, ACTION, state(200 + child), true);
+        }
+        final ArgNode<ExplState, ExprAction> duplicate =
+                arg.createSuccNode(init, ACTION, state(8), false);
+        arg.createSuccNode(duplicate, ACTION, state(108), true);
+        return arg;
+    }
+
+    /**
+     * A checker refuting traces through even children at the target. Traces through 1 and 5 are
+     * refuted at the child, traces through 3 and 7 at the child for the first target and at the
+     * target for the second one. Traces through the given children are feasible.
+     */
+    private static ExprTraceChecker<PruneIndex> checker(
+            final Set<Integer> feasibleChildren, final List<Trace<?, ?>> checked) {
+        return trace -> {
+            synchronized (checked) {
+                checked.add(trace);
+            }
+            final int child = value((ExplState) trace.getState(1));
+            try {
+                // Later traces finish first, so the order of completion differs from the order of
+                // the counterexamples
+                Thread.sleep(20 - 2L * child);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            if (feasibleChildren.contains(child)) {
+                return ExprTraceStatus.feasible(
+                        Trace.of(List.of(ImmutableValuation.empty()), List.of()));
+            }
+            final boolean secondTarget = value((ExplState) trace.getState(2)) >= 200;
+            final boolean atChild = child % 4 == 1 || child % 4 == 3 && !secondTarget;
+            return ExprTraceStatus.infeasible(new PruneIndex(atChild ? 1 : 2));
+        };
+    }
+
+    private static List<Integer> targetValues(final List<Trace<ExplState, ExprAction>> traces) {
+        return traces.stream().map(trace -> value(trace.getState(2))).toList();
+    }
+
+    private record Outcome(
+            List<Integer> refinedTargets, List<Integer> remainingNodes, int checks, int workers) {}
+
+    private static Outcome refine(final int threads) {
+        final ARG<ExplState, ExprAction> arg = createArg();
+        final List<Trace<?, ?>> checked = new ArrayList<>();
+        final List<Trace<ExplState, ExprAction>> refined = new ArrayList<>();
+        final AtomicInteger workers = new AtomicInteger();
+        final MultiExprTraceRefiner<ExplState, ExprAction, PrecStub, PruneIndex> refiner =
+                MultiExprTraceRefiner.create(
+                        checker(Set.of(), checked),
+                        (prec, trace, refutation) -> {
+                            refined.add(trace);
+                            return prec;
+                        },
+                        PruneStrategy.LAZY,
+                        NullLogger.getInstance(),
+                        threads,
+                        () -> {
+                            workers.incrementAndGet();
+                            return checker(Set.of(), checked);
+                        });
+
+        final RefinerResult<PrecStub, Trace<ExplState, ExprAction>> result =
+                refiner.refine(arg, new PrecStub());
+
+        assertTrue(result.isSpurious());
+        final List<Integer> remaining =
+                arg.getNodes().map(node -> value(node.getState())).sorted().toList();
+        return new Outcome(targetValues(refined), remaining, checked.size(), workers.get());
+    }
+
+    @Test
+    public void testSequential() {
+        final Outcome outcome = refine(1);
+        // Both refutations pruning the same child are applied, but the second target of 3 and 7 is
+        // skipped, as it is below the pruned child
+        assertEquals(
+                List.of(101, 201, 102, 202, 103, 104, 204, 105, 205, 106, 206, 107, 108, 208, 108),
+                outcome.refinedTargets());
+        // Odd children are pruned with their targets, even children lose their targets
+        assertEquals(List.of(0, 2, 4, 6, 8, 8), outcome.remainingNodes());
+        // Every trace is checked, except the duplicate, which reuses the result of the eighth child
+        assertEquals(16, outcome.checks());
+        assertEquals(0, outcome.workers());
+    }
+
+    @Test
+    public void testParallelIsDeterministic() {
+        final Outcome expected = refine(1);
+        for (int threads = 2; threads <= 6; threads++) {
+            final Outcome outcome = refine(threads);
+            assertEquals(expected.refinedTargets(), outcome.refinedTargets());
+            assertEquals(expected.remainingNodes(), outcome.remainingNodes());
+            assertEquals(expected.checks(), outcome.checks());
+            assertTrue(outcome.workers() < threads);
+        }
+    }
+
+    @Test
+    public void testFirstFeasibleInOrder() {
+        final ARG<ExplState, ExprAction> arg = createArg();
+        final List<Trace<?, ?>> checked = new ArrayList<>();
+        final MultiExprTraceRefiner<ExplState, ExprAction, PrecStub, PruneIndex> refiner =
+                MultiExprTraceRefiner.create(
+                        checker(Set.of(4, 7), checked),
+                        (prec, trace, refutation) -> prec,
+                        PruneStrategy.LAZY,
+                        NullLogger.getInstance(),
+                        4,
+                        () -> checker(Set.of(4, 7), checked));
+
+        final RefinerResult<PrecStub, Trace<ExplState, ExprAction>> result =
+                refiner.refine(arg, new PrecStub());
+
+        assertTrue(result.isUnsafe());
+        assertEquals(104, value(result.asUnsafe().getCex().getState(2)));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.impl;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+
+import hu.bme.mit.theta.analysis.TransFunc;
+import hu.bme.mit.theta.analysis.expl.ExplPrec;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.expl.ExplStmtTransFunc;
+import hu.bme.mit.theta.analysis.expr.StmtAction;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.stmt.Stmts;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.solver.z3legacy.Z3LegacySolverFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PostCacheTest {
+
+    private final VarDecl<IntType> x = Var("x", Int());
+    private final VarDecl<IntType> y = Var("y", Int());
+    private final VarDecl<IntType> z = Var("z", Int());
+
+    private final ExplStmtTransFunc explTransFunc =
+            ExplStmtTransFunc.create(Z3LegacySolverFactory.getInstance().createSolver(), 0);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final TransFunc<ExplState, StmtAction, ExplPrec> countingTransFunc =
+            (state, action, prec) -> {
+                calls.incrementAndGet();
+                return explTransFunc.getSuccStates(state, action, prec);
+            };
+
+    private final ExplState state =
+            ExplState.of(ImmutableValuation.builder().put(x, Int(1)).build());
+    private final StmtAction action =
+            new BasicStmtAction(Stmts.Assign(y, Add(x.getRef(), Int(1))));
+
+    @Test
+    public void testSamePrec() {
+        final PostCache<ExplState, StmtAction, ExplPrec> cache = PostCache.create();
+        final TransFunc<ExplState, StmtAction, ExplPrec> transFunc = cache.wrap(countingTransFunc);
+        final ExplPrec prec = ExplPrec.of(Set.of(x));
+
+        Assert.assertEquals(
+                transFunc.getSuccStates(state, action, prec),
+                transFunc.getSuccStates(state, action, prec));
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(2, cache.getQueries());
+        Assert.assertEquals(1, cache.getHits());
+
+        transFunc.getSuccStates(state, action, ExplPrec.of(Set.of(x, z)));
+        Assert.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testExplPrecKey() {
+        final PostCache<ExplState, StmtAction, ExplPrec> cache =
+                PostCache.create(ExplStmtTransFunc::postCacheKey);
+        final TransFunc<ExplState, StmtAction, ExplPrec> transFunc = cache.wrap(countingTransFunc);
+
+        final var succStates = transFunc.getSuccStates(state, action, ExplPrec.of(Set.of(x)));
+        // z does not appear in the state or the action
+        Assert.assertEquals(
+                succStates, transFunc.getSuccStates(state, action, ExplPrec.of(Set.of(x, z))));
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(1, cache.getHits());
+
+        // y appears in the action, so the successors can change
+        Assert.assertNotEquals(
+                succStates, transFunc.getSuccStates(state, action, ExplPrec.of(Set.of(x, y))));
+        Assert.assertEquals(2, calls.get());
+    }
+
+    private static final class BasicStmtAction extends StmtAction {
+
+        private final Stmt stmt;
+
+        public BasicStmtAction(final Stmt stmt) {
+            this.stmt = stmt;
+        }
+
+        @Override
+        public List<Stmt> getStmts() {
+            return Collections.singletonList(stmt);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.reachedset;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Gt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+
+import hu.bme.mit.theta.analysis.pred.PredOrd;
+import hu.bme.mit.theta.analysis.pred.PredState;
+import hu.bme.mit.theta.core.decl.Decls;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.solver.z3legacy.Z3LegacySolverFactory;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PredStateIndexTest {
+
+    private final VarDecl<IntType> VX = Decls.Var("x", Int());
+
+    private final Expr<BoolType> p = Gt(VX.getRef(), Int(0));
+    private final Expr<BoolType> q = Lt(VX.getRef(), Int(5));
+
+    private final PredState sb = PredState.bottom();
+    private final PredState st = PredState.of();
+    private final PredState s1 = PredState.of(p);
+    private final PredState s2 = PredState.of(Not(p));
+    private final PredState s3 = PredState.of(List.of(p, q));
+    private final PredState s4 = PredState.of(List.of(p, Not(q)));
+    private final PredState s5 = PredState.of(List.of(Not(p), q));
+
+    private final List<PredState> states = List.of(sb, st, s1, s2, s3, s4, s5);
+
+    @Test
+    public void testCoverersIncluded() {
+        final PredOrd ord = PredOrd.create(Z3LegacySolverFactory.getInstance().createSolver());
+        final PredStateIndex<PredState> index = PredStateIndex.create(s -> s);
+        index.addAll(states);
+        for (final PredState state : states) {
+            final List<PredState> candidates = List.copyOf(index.get(state));
+            for (final PredState other : states) {
+                if (ord.isLeq(state, other)) {
+                    Assert.assertTrue(candidates.contains(other));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConflictingExcluded() {
+        final PredStateIndex<PredState> index = PredStateIndex.create(s -> s);
+        index.addAll(states);
+        Assert.assertEquals(List.of(st, s1, s3), List.copyOf(index.get(s3)));
+        Assert.assertEquals(List.of(st, s2, s5), List.copyOf(index.get(s2)));
+        Assert.assertEquals(List.of(st, s1, s2, s3, s4, s5), List.copyOf(index.get(st)));
+        Assert.assertEquals(states, List.copyOf(index.get(sb)));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.zone;
+
+import static hu.bme.mit.theta.analysis.zone.DiffBounds.Bound;
+import static hu.bme.mit.theta.analysis.zone.DiffBounds.Leq;
+import static hu.bme.mit.theta.analysis.zone.DiffBounds.add;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Checks the operations of {@link BasicDbm} against a naive reference, which applies every
+ * constraint to a plain matrix and recomputes the closure from scratch.
+ */
+public class BasicDbmTest {
+
+    private static final int CLOCKS = 6;
+    private static final int ROUNDS = 200;
+
+    private static final class ReferenceDbm {
+        private final int[][] matrix = new int[CLOCKS + 1][CLOCKS + 1];
+        private boolean consistent = true;
+
+        ReferenceDbm() {
+            for (int i = 0; i <= CLOCKS; i++) {
+                for (int j = 0; j <= CLOCKS; j++) {
+                    matrix[i][j] = BasicDbm.defaultBound(i, j);
+                }
+            }
+        }
+
+        void and(final int x, final int y, final int b) {
+            if (consistent) {
+                matrix[x][y] = Math.min(matrix[x][y], b);
+                close();
+            }
+        }
+
+        void nonnegative() {
+            for (int k = 1; k <= CLOCKS; k++) {
+                and(0, k, Leq(0));
+            }
+        }
+
+        private void close() {
+            for (int k = 0; k <= CLOCKS; k++) {
+                for (int i = 0; i <= CLOCKS; i++) {
+                    for (int j = 0; j <= CLOCKS; j++) {
+                        matrix[i][j] = Math.min(matrix[i][j], add(matrix[i][k], matrix[k][j]));
+                    }
+                }
+            }
+            for (int i = 0; i <= CLOCKS; i++) {
+                consistent &= matrix[i][i] >= Leq(0);
+            }
+        }
+    }
+
+    private static int randomBound(final Random random) {
+        return Bound(random.nextInt(41) - 20, random.nextBoolean());
+    }
+
+    private static void assertEquivalent(final ReferenceDbm expected, final BasicDbm actual) {
+        assertEquals(expected.consistent, actual.isConsistent());
+        if (expected.consistent) {
+            for (int i = 0; i <= CLOCKS; i++) {
+                for (int j = 0; j <= CLOCKS; j++) {
+                    assertEquals(expected.matrix[i][j], actual.get(i, j));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIncrementalAnd() {
+        final Random random = new Random(0);
+        for (int round = 0; round < ROUNDS; round++) {
+            final ReferenceDbm expected = new ReferenceDbm();
+            final BasicDbm actual = new BasicDbm(CLOCKS + 1, BasicDbm::defaultBound);
+            actual.nonnegative();
+            expected.nonnegative();
+            for (int step = 0; step < 8 && expected.consistent; step++) {
+                final int x = random.nextInt(CLOCKS + 1);
+                final int y = random.nextInt(CLOCKS + 1);
+                final int b = randomBound(random);
+                expected.and(x, y, b);
+                actual.and(x, y, b);
+                assertEquivalent(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testClose() {
+        final Random random = new Random(1);
+        for (int round = 0; round < ROUNDS; round++) {
+            final ReferenceDbm expected = new ReferenceDbm();
+            final BasicDbm actual = new BasicDbm(CLOCKS + 1, BasicDbm::defaultBound);
+            for (int step = 0; step < 10; step++) {
+                final int x = random.nextInt(CLOCKS + 1);
+                final int y = random.nextInt(CLOCKS + 1);
+                final int b = randomBound(random);
+                if (x != y) {
+                    expected.matrix[x][y] = Math.min(expected.matrix[x][y], b);
+                    actual.set(x, y, Math.min(actual.get(x, y), b));
+                }
+            }
+            expected.close();
+            actual.close();
+            assertEquivalent(expected, actual);
+        }
+    }
+
+    @Test
+    public void testRelations() {
+        final Random random = new Random(2);
+        for (int round = 0; round < ROUNDS; round++) {
+            final BasicDbm dbm1 = new BasicDbm(CLOCKS + 1, BasicDbm::defaultBound);
+            final BasicDbm dbm2 = new BasicDbm(CLOCKS + 1, BasicDbm::defaultBound);
+            for (int step = 0; step < 3; step++) {
+                dbm1.and(random.nextInt(CLOCKS + 1), random.nextInt(CLOCKS + 1), Leq(step));
+                dbm2.and(random.nextInt(CLOCKS + 1), random.nextInt(CLOCKS + 1), Leq(step));
+            }
+
+            boolean leq = true;
+            boolean geq = true;
+            for (int i = 0; i <= CLOCKS; i++) {
+                for (int j = 0; j <= CLOCKS; j++) {
+                    leq &= dbm1.get(i, j) <= dbm2.get(i, j);
+                    geq &= dbm1.get(i, j) >= dbm2.get(i, j);
+                }
+            }
+            assertEquals(leq, dbm1.isLeq(dbm2));
+            assertEquals(DbmRelation.create(leq, geq), dbm1.getRelation(dbm2));
+
+            final BasicDbm intersection = BasicDbm.min(dbm1, dbm2);
+            final BasicDbm enclosure = BasicDbm.max(dbm1, dbm2);
+            assertTrue(intersection.isLeq(dbm1) && intersection.isLeq(dbm2));
+            assertTrue(dbm1.isLeq(enclosure) && dbm2.isLeq(enclosure));
+            assertEquals(
+                    DbmRelation.EQUAL, BasicDbm.max(dbm1, new BasicDbm(dbm1)).getRelation(dbm1));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+plugins {
+    id("java-common")
+}
+
+dependencies {
+    implementation(files(rootDir.resolve(Deps.delta)))
+    implementation(files(rootDir.resolve(Deps.z3legacy)))
+    implementation(project(":theta-common"))
+    implementation(project(":theta-core"))
+    implementation(project(":theta-analysis"))
+    implementation(project(":theta-solver"))
+    implementation(project(":theta-solver-z3-legacy"))
+    implementation(project(":theta-cfa"))
+    implementation(project(":theta-cfa-analysis"))
+    implementation(project(":theta-petrinet-model"))
+    implementation(project(":theta-petrinet-analysis"))
+    implementation(project(":theta-c-frontend"))
+    implementation(project(":theta-c2xcfa"))
+    implementation(project(":theta-xcfa"))
+    implementation(project(":theta-xcfa-analysis"))
+    implementation(Deps.Kotlin.stdlib)
+    implementation(Deps.Antlr.runtime)
+    implementation(Deps.Jmh.core)
+    annotationProcessor(Deps.Jmh.generator)
+}
+
+sourceSets {
+    main {
+        // The Petri net models (and their variable orderings) are shared with the tests of the
+        // Petri net analysis
+        resources.srcDir(rootDir.resolve("subprojects/frontends/petrinet-analysis/src/test/resources"))
+    }
+}
+
+tasks {
+    val libPath: String by rootProject.extra
+    val execPath: String by rootProject.extra
+
+    // Usage: ./gradlew :theta-benchmarks:jmh [-PjmhInclude=<regex>] [-PjmhResults=<file>]
+    //     [-PjmhProfilers=<profiler>,...]
+    register<JavaExec>("jmh") {
+        group = "benchmark"
+        description = "Runs the JMH benchmarks and writes the results to a JSON file."
+
+        val include = project.findProperty("jmhInclude")?.toString() ?: ".*"
+        val results = project.findProperty("jmhResults")?.let { file(it) }
+            ?: layout.buildDirectory.file("reports/jmh/results.json").get().asFile
+
+        classpath = sourceSets["main"].runtimeClasspath
+        mainClass.set("org.openjdk.jmh.Main")
+        args(include, "-rf", "json", "-rff", results.absolutePath)
+        project.findProperty("jmhProfilers")?.toString()?.split(",")?.forEach { args("-prof", it) }
+        environment["PATH"] = execPath
+        environment["LD_LIBRARY_PATH"] = libPath
+        environment["DYLD_LIBRARY_PATH"] = libPath
+        systemProperty("java.library.path", libPath)
+        outputs.file(results)
+        outputs.upToDateWhen { false }
+        doFirst { results.parentFile.mkdirs() }
+    }
+}
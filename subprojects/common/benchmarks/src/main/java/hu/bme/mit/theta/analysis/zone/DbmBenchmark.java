@@ -0,0 +1,110 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.zone;
+
+import static hu.bme.mit.theta.analysis.zone.DiffBounds.Leq;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the closure, tightening and inclusion check of difference bound matrices. It is
+ * placed in the package of the zone domain, as the matrix operations are package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DbmBenchmark {
+
+    @Param({"4", "16", "64"})
+    public int clocks;
+
+    private BasicDbm unclosed;
+    private BasicDbm closed;
+    private BasicDbm tightened;
+    private int x;
+    private int y;
+    private int tightBound;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0x7e7a);
+        // The bounds are loosened differences of a fixed clock valuation, so the zone is not empty
+        final int[] valuation = new int[clocks + 1];
+        for (int i = 1; i <= clocks; i++) {
+            valuation[i] = random.nextInt(100);
+        }
+        unclosed =
+                new BasicDbm(
+                        clocks + 1,
+                        (i, j) ->
+                                i == j
+                                        ? Leq(0)
+                                        : Leq(valuation[i] - valuation[j] + random.nextInt(50)));
+        closed = new BasicDbm(unclosed);
+        closed.close();
+        x = 1 + random.nextInt(clocks);
+        y = 0;
+        tightBound = Leq(valuation[x] - valuation[y]);
+        tightened = new BasicDbm(closed);
+        tightened.and(x, y, tightBound);
+    }
+
+    @Benchmark
+    public BasicDbm close() {
+        final BasicDbm dbm = new BasicDbm(unclosed);
+        dbm.close();
+        return dbm;
+    }
+
+    @Benchmark
+    public BasicDbm copy() {
+        return new BasicDbm(unclosed);
+    }
+
+    @Benchmark
+    public BasicDbm and() {
+        final BasicDbm dbm = new BasicDbm(closed);
+        dbm.and(x, y, tightBound);
+        return dbm;
+    }
+
+    @Benchmark
+    public boolean isLeq() {
+        return tightened.isLeq(closed);
+    }
+
+    @Benchmark
+    public BasicDbm intersection() {
+        final BasicDbm dbm = BasicDbm.min(closed, unclosed);
+        dbm.close();
+        return dbm;
+    }
+}
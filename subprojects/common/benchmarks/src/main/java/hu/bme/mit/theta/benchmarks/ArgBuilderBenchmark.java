@@ -0,0 +1,185 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Leq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.algorithm.arg.ARG;
+import hu.bme.mit.theta.analysis.algorithm.arg.ArgBuilder;
+import hu.bme.mit.theta.analysis.algorithm.arg.ArgNode;
+import hu.bme.mit.theta.analysis.expl.ExplPrec;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.expl.ExplStmtAnalysis;
+import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.analysis.pred.PredAbstractors;
+import hu.bme.mit.theta.analysis.pred.PredAnalysis;
+import hu.bme.mit.theta.analysis.pred.PredPrec;
+import hu.bme.mit.theta.analysis.pred.PredState;
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.analysis.CfaAction;
+import hu.bme.mit.theta.cfa.analysis.CfaAnalysis;
+import hu.bme.mit.theta.cfa.analysis.CfaPrec;
+import hu.bme.mit.theta.cfa.analysis.CfaState;
+import hu.bme.mit.theta.cfa.analysis.lts.CfaSbeLts;
+import hu.bme.mit.theta.cfa.analysis.prec.GlobalCfaPrec;
+import hu.bme.mit.theta.cfa.dsl.CfaDslManager;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.TypeUtils;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.z3legacy.Z3LegacySolverFactory;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of ARG expansion with a fixed precision in the explicit and the predicate domain. The
+ * ARG is expanded breadth-first without covering until it reaches the given number of nodes, so
+ * only the successor computation (transfer functions and solver calls) is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArgBuilderBenchmark {
+
+    private static final String MODEL =
+            """
+            main process cfa {
+                var x : int
+                var y : int
+
+                init loc L0
+                loc L1
+                loc L2
+                loc L3
+                final loc END
+                error loc ERR
+
+                L0 -> L1 { x := 0 }
+                L1 -> L2 { y := 0 }
+                L2 -> L3 { assume x < 20 }
+                L2 -> END { assume not (x < 20) }
+                L3 -> L2 { x := x + 1 }
+                L3 -> L2 { y := y + x }
+                END -> ERR { assume y < 0 }
+            }
+            """;
+
+    @Param({"100", "1000"})
+    public int nodes;
+
+    private Solver solver;
+    private ArgBuilder<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> explArgBuilder;
+    private CfaPrec<ExplPrec> explPrec;
+    private ArgBuilder<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> predArgBuilder;
+    private CfaPrec<PredPrec> predPrec;
+
+    @Setup
+    public void setup() throws IOException {
+        final CFA cfa = CfaDslManager.createCfa(MODEL);
+        final CFA.Loc errorLoc = cfa.getErrorLoc().orElseThrow();
+        solver = Z3LegacySolverFactory.getInstance().createSolver();
+
+        explArgBuilder =
+                ArgBuilder.create(
+                        CfaSbeLts.getInstance(),
+                        CfaAnalysis.create(
+                                cfa.getInitLoc(), ExplStmtAnalysis.create(solver, True(), 0)),
+                        s -> s.getLoc().equals(errorLoc),
+                        true);
+        explPrec = GlobalCfaPrec.create(ExplPrec.of(cfa.getVars()));
+
+        predArgBuilder =
+                ArgBuilder.create(
+                        CfaSbeLts.getInstance(),
+                        CfaAnalysis.create(
+                                cfa.getInitLoc(),
+                                PredAnalysis.create(
+                                        solver, PredAbstractors.booleanAbstractor(solver), True())),
+                        s -> s.getLoc().equals(errorLoc),
+                        true);
+        final Expr<IntType> x = intVar(cfa, "x");
+        final Expr<IntType> y = intVar(cfa, "y");
+        predPrec =
+                GlobalCfaPrec.create(
+                        PredPrec.of(
+                                List.of(
+                                        Lt(x, Int(20)),
+                                        Eq(x, Int(0)),
+                                        Leq(y, x),
+                                        Lt(y, Int(0)))));
+    }
+
+    private static Expr<IntType> intVar(final CFA cfa, final String name) {
+        return cfa.getVars().stream()
+                .filter(v -> v.getName().equals(name))
+                .map(v -> TypeUtils.cast(v, Int()).getRef())
+                .findAny()
+                .orElseThrow();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        solver.close();
+    }
+
+    private <S extends ExprState, P extends Prec> ARG<CfaState<S>, CfaAction> expand(
+            final ArgBuilder<CfaState<S>, CfaAction, CfaPrec<P>> argBuilder,
+            final CfaPrec<P> prec) {
+        final ARG<CfaState<S>, CfaAction> arg = argBuilder.createArg();
+        final Queue<ArgNode<CfaState<S>, CfaAction>> waitlist =
+                new ArrayDeque<>(argBuilder.init(arg, prec));
+        int created = waitlist.size();
+        while (!waitlist.isEmpty() && created < nodes) {
+            final var succNodes = argBuilder.expand(waitlist.remove(), prec);
+            created += succNodes.size();
+            waitlist.addAll(succNodes);
+        }
+        return arg;
+    }
+
+    @Benchmark
+    public ARG<CfaState<ExplState>, CfaAction> expandExpl() {
+        return expand(explArgBuilder, explPrec);
+    }
+
+    @Benchmark
+    public ARG<CfaState<PredState>, CfaAction> expandPred() {
+        return expand(predArgBuilder, predPrec);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.anytype.Exprs.Prime;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Leq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Mul;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic expression generators shared by the benchmarks, so that the measured inputs do not
+ * change between runs.
+ */
+public final class BenchmarkExprs {
+
+    private static final long SEED = 0x7e7a;
+
+    private BenchmarkExprs() {}
+
+    /** Creates integer variables named {@code x0}, {@code x1}, ... */
+    public static List<VarDecl<IntType>> intVars(final int count) {
+        final List<VarDecl<IntType>> vars = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            vars.add(Var("x" + i, Int()));
+        }
+        return vars;
+    }
+
+    /**
+     * Creates a conjunction of {@code clauses} clauses over the given variables. The clauses
+     * contain constant subterms and trivially true disjuncts, so that there is something to
+     * simplify.
+     */
+    public static Expr<BoolType> formula(final List<VarDecl<IntType>> vars, final int clauses) {
+        final Random random = new Random(SEED);
+        final List<Expr<BoolType>> ops = new ArrayList<>(clauses);
+        for (int i = 0; i < clauses; i++) {
+            final Expr<IntType> x = vars.get(random.nextInt(vars.size())).getRef();
+            final Expr<IntType> y = vars.get(random.nextInt(vars.size())).getRef();
+            final int c = random.nextInt(10);
+            final Expr<IntType> lhs = Add(x, Mul(Int(c), Int(2)), Int(-c));
+            final Expr<BoolType> atom =
+                    random.nextBoolean() ? Leq(lhs, y) : Not(Eq(lhs, Add(y, Int(1))));
+            ops.add(random.nextInt(4) == 0 ? Or(atom, True()) : atom);
+        }
+        return And(ops);
+    }
+
+    /**
+     * Creates a transition formula in which every variable is assigned a function of the others in
+     * the next state.
+     */
+    public static Expr<BoolType> transition(final List<VarDecl<IntType>> vars) {
+        final Random random = new Random(SEED);
+        final List<Expr<BoolType>> ops = new ArrayList<>(vars.size());
+        for (final VarDecl<IntType> var : vars) {
+            final Expr<IntType> other = vars.get(random.nextInt(vars.size())).getRef();
+            ops.add(Eq(Prime(var.getRef()), Add(other, Int(random.nextInt(3)))));
+        }
+        return And(ops);
+    }
+}
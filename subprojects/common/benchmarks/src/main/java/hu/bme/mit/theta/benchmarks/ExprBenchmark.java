@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.ExprSimplifier;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.core.utils.indexings.VarIndexing;
+import hu.bme.mit.theta.core.utils.indexings.VarIndexingFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of expression utilities that are called in every step of most algorithms. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExprBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int clauses;
+
+    private final ExprSimplifier simplifier = ExprSimplifier.create();
+
+    private Expr<BoolType> formula;
+    private Valuation partialValuation;
+    private Expr<BoolType> transition;
+    private VarIndexing indexing;
+
+    @Setup
+    public void setup() {
+        final List<VarDecl<IntType>> vars = BenchmarkExprs.intVars(Math.max(2, clauses / 10));
+        formula = BenchmarkExprs.formula(vars, clauses);
+        final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+        for (int i = 0; i < vars.size(); i += 2) {
+            builder.put(vars.get(i), Int(i));
+        }
+        partialValuation = builder.build();
+        transition = BenchmarkExprs.transition(vars);
+        indexing = VarIndexingFactory.indexing(clauses);
+    }
+
+    @Benchmark
+    public Expr<BoolType> simplify() {
+        return simplifier.simplify(formula, ImmutableValuation.empty());
+    }
+
+    @Benchmark
+    public Expr<BoolType> simplifyWithValuation() {
+        return simplifier.simplify(formula, partialValuation);
+    }
+
+    @Benchmark
+    public Expr<BoolType> unfold() {
+        return PathUtils.unfold(transition, indexing);
+    }
+}
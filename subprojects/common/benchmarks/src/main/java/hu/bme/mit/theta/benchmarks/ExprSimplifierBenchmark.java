@@ -0,0 +1,155 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.dsl.CfaDslManager;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.stmt.AssignStmt;
+import hu.bme.mit.theta.core.stmt.AssumeStmt;
+import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.ExprSimplifier;
+import hu.bme.mit.theta.core.utils.SimplifierLevel;
+import hu.bme.mit.theta.core.utils.TypeUtils;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the plain and the memoizing simplifier on the guards and assigned expressions of a
+ * CFA, substituting a fixed set of explicit states, as the explicit transfer function does. The
+ * same simplifier is shared between the benchmark threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExprSimplifierBenchmark {
+
+    private static final String MODEL =
+            """
+            main process cfa {
+                var x : int
+                var y : int
+                var z : int
+                var i : int
+
+                init loc L0
+                loc L1
+                loc L2
+                loc L3
+                loc L4
+                final loc END
+                error loc ERR
+
+                L0 -> L1 { x := 0 }
+                L1 -> L2 { y := (x + 1) * 2 - x }
+                L2 -> L3 { assume (x < 20 and y >= 0) or (z = x + y and not (i > 10)) }
+                L2 -> END { assume not ((x < 20 and y >= 0) or (z = x + y and not (i > 10))) }
+                L3 -> L4 { z := if x mod 2 = 0 then y + z * 3 else y - z - (i + 1) }
+                L4 -> L2 { x := x + 1 }
+                L4 -> L2 { assume (i + 0) * 1 < x + y + z + 2 * (x - y) }
+                L4 -> L2 { i := i + (if z > y then 1 else 2) }
+                END -> ERR { assume y + z < 0 and (i = 0 or i = 1 or i = 2 or i = 3) }
+            }
+            """;
+
+    @Param({"10", "100"})
+    public int states;
+
+    private List<Expr<?>> exprs;
+    private List<Valuation> valuations;
+    private ExprSimplifier plain;
+    private ExprSimplifier memoizing;
+
+    @Setup
+    public void setup() throws IOException {
+        final CFA cfa = CfaDslManager.createCfa(MODEL);
+        exprs = new ArrayList<>();
+        for (CFA.Edge edge : cfa.getEdges()) {
+            final Stmt stmt = edge.getStmt();
+            if (stmt instanceof AssumeStmt assume) {
+                exprs.add(assume.getCond());
+            } else if (stmt instanceof AssignStmt<?> assign) {
+                exprs.add(assign.getExpr());
+            }
+        }
+
+        // Explicit states with some of the variables tracked
+        final Random random = new Random(0);
+        valuations = new ArrayList<>();
+        for (int i = 0; i < states; i++) {
+            final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+            for (VarDecl<?> var : cfa.getVars()) {
+                if (random.nextBoolean()) {
+                    final VarDecl<IntType> intVar = TypeUtils.cast(var, Int());
+                    builder.put(intVar, Int(random.nextInt(20)));
+                }
+            }
+            valuations.add(builder.build());
+        }
+
+        plain = ExprSimplifier.create();
+        memoizing = ExprSimplifier.createMemoizing(SimplifierLevel.FULL, 100_000);
+    }
+
+    private void simplifyAll(final ExprSimplifier simplifier, final Blackhole blackhole) {
+        for (Valuation valuation : valuations) {
+            for (Expr<?> expr : exprs) {
+                blackhole.consume(simplifier.simplify(expr, valuation));
+            }
+        }
+    }
+
+    @Benchmark
+    public void simplifyPlain(final Blackhole blackhole) {
+        simplifyAll(plain, blackhole);
+    }
+
+    @Benchmark
+    public void simplifyMemoizing(final Blackhole blackhole) {
+        simplifyAll(memoizing, blackhole);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void simplifyMemoizingConcurrent(final Blackhole blackhole) {
+        simplifyAll(memoizing, blackhole);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import hu.bme.mit.theta.c.frontend.dsl.gen.CLexer;
+import hu.bme.mit.theta.c.frontend.dsl.gen.CParser;
+import hu.bme.mit.theta.common.logging.NullLogger;
+import hu.bme.mit.theta.core.dsl.TwoStageParser;
+import hu.bme.mit.theta.frontend.ParseContext;
+import hu.bme.mit.theta.frontend.transformation.grammar.function.FunctionVisitor;
+import java.util.concurrent.TimeUnit;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of parsing a small C program that includes built-in headers. The parse trees of the
+ * headers are built on first use and shared by the JVM, so {@link #cold()} measures the first parse
+ * in fresh JVMs (the startup cost of a single task), while {@link #warm()} measures later parses.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HeaderParsingBenchmark {
+
+    private static final String PROGRAM =
+            """
+            #include <stdlib.h>
+            #include <pthread.h>
+
+            void reach_error(){}
+
+            pthread_mutex_t m;
+            int x = 0;
+
+            void *thread(void *arg) {
+                pthread_mutex_lock(&m);
+                x++;
+                pthread_mutex_unlock(&m);
+                return 0;
+            }
+
+            int main() {
+                pthread_t t;
+                int *p = malloc(sizeof(int));
+                pthread_create(&t, 0, thread, 0);
+                pthread_mutex_lock(&m);
+                x++;
+                pthread_mutex_unlock(&m);
+                pthread_join(t, 0);
+                if (x != 2) reach_error();
+                free(p);
+                return 0;
+            }
+            """;
+
+    private static Object parse() {
+        final CLexer lexer = new CLexer(CharStreams.fromString(PROGRAM));
+        final CParser parser = new CParser(new CommonTokenStream(lexer));
+        parser.setErrorHandler(new BailErrorStrategy());
+        final CParser.CompilationUnitContext context =
+                TwoStageParser.parse(parser, CParser::compilationUnit);
+        return context.accept(new FunctionVisitor(new ParseContext(), NullLogger.getInstance()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public Object cold() {
+        return parse();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public Object warm() {
+        return parse();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.reachedset.CoverIndex;
+import hu.bme.mit.theta.analysis.reachedset.ExplStateIndex;
+import hu.bme.mit.theta.analysis.reachedset.IndexedPartition;
+import hu.bme.mit.theta.analysis.reachedset.Partition;
+import hu.bme.mit.theta.analysis.waitlist.FifoWaitlist;
+import hu.bme.mit.theta.analysis.waitlist.LifoWaitlist;
+import hu.bme.mit.theta.analysis.waitlist.PriorityWaitlist;
+import hu.bme.mit.theta.analysis.waitlist.Waitlist;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the reached set and waitlist operations of the abstractor. The covering benchmarks
+ * compare the plain {@link Partition}, which returns every node of the same class as a candidate,
+ * with the content-indexed {@link IndexedPartition} on explicit states.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReachedSetBenchmark {
+
+    private static final int VARS = 8;
+    private static final int VALUES = 4;
+
+    @Param({"100", "1000", "10000"})
+    public int states;
+
+    private List<ExplState> reached;
+    private List<ExplState> queries;
+    private CoverIndex<ExplState> partition;
+    private CoverIndex<ExplState> indexedPartition;
+
+    @Setup
+    public void setup() {
+        final List<VarDecl<IntType>> vars = BenchmarkExprs.intVars(VARS);
+        final Random random = new Random(0x7e7a);
+        reached = randomStates(vars, random, states);
+        queries = randomStates(vars, random, 100);
+        partition = fill(() -> Partition.of(s -> 0));
+        indexedPartition =
+                fill(() -> IndexedPartition.of(s -> 0, () -> ExplStateIndex.create(s -> s)));
+    }
+
+    private static List<ExplState> randomStates(
+            final List<VarDecl<IntType>> vars, final Random random, final int count) {
+        final List<ExplState> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+            for (final VarDecl<IntType> var : vars) {
+                // Leave some variables unassigned, as in states of an abstraction
+                if (random.nextInt(4) != 0) {
+                    builder.put(var, Int(random.nextInt(VALUES)));
+                }
+            }
+            result.add(ExplState.of(builder.build()));
+        }
+        return result;
+    }
+
+    private CoverIndex<ExplState> fill(final Supplier<? extends CoverIndex<ExplState>> factory) {
+        final CoverIndex<ExplState> index = factory.get();
+        index.addAll(reached);
+        return index;
+    }
+
+    private int countCovered(final CoverIndex<ExplState> index) {
+        int covered = 0;
+        for (final ExplState query : queries) {
+            for (final ExplState candidate : index.get(query)) {
+                if (query.isLeq(candidate)) {
+                    covered++;
+                    break;
+                }
+            }
+        }
+        return covered;
+    }
+
+    @Benchmark
+    public CoverIndex<ExplState> partitionAdd() {
+        return fill(() -> Partition.of(s -> 0));
+    }
+
+    @Benchmark
+    public CoverIndex<ExplState> indexedPartitionAdd() {
+        return fill(() -> IndexedPartition.of(s -> 0, () -> ExplStateIndex.create(s -> s)));
+    }
+
+    @Benchmark
+    public int partitionCover() {
+        return countCovered(partition);
+    }
+
+    @Benchmark
+    public int indexedPartitionCover() {
+        return countCovered(indexedPartition);
+    }
+
+    private int drain(final Waitlist<ExplState> waitlist) {
+        waitlist.addAll(reached);
+        int hash = 0;
+        while (!waitlist.isEmpty()) {
+            hash += waitlist.remove().hashCode();
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public int fifoWaitlist() {
+        return drain(FifoWaitlist.create());
+    }
+
+    @Benchmark
+    public int lifoWaitlist() {
+        return drain(LifoWaitlist.create());
+    }
+
+    @Benchmark
+    public int priorityWaitlist() {
+        return drain(PriorityWaitlist.create(Comparator.comparingInt(ExplState::hashCode)));
+    }
+}
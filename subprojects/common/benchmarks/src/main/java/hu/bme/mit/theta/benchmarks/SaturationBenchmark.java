@@ -0,0 +1,113 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import hu.bme.mit.delta.java.mdd.JavaMddFactory;
+import hu.bme.mit.delta.java.mdd.MddHandle;
+import hu.bme.mit.delta.java.mdd.MddVariableOrder;
+import hu.bme.mit.delta.mdd.LatticeDefinition;
+import hu.bme.mit.delta.mdd.MddVariableDescriptor;
+import hu.bme.mit.theta.analysis.algorithm.mdd.fixedpoint.CursorRelationalProductProvider;
+import hu.bme.mit.theta.analysis.algorithm.mdd.fixedpoint.GeneralizedSaturationProvider;
+import hu.bme.mit.theta.analysis.algorithm.mdd.fixedpoint.ParallelSaturationProvider;
+import hu.bme.mit.theta.analysis.algorithm.mdd.fixedpoint.StateSpaceEnumerationProvider;
+import hu.bme.mit.theta.frontend.petrinet.analysis.PtNetSystem;
+import hu.bme.mit.theta.frontend.petrinet.analysis.VariableOrderingFactory;
+import hu.bme.mit.theta.frontend.petrinet.model.PetriNet;
+import hu.bme.mit.theta.frontend.petrinet.model.Place;
+import hu.bme.mit.theta.frontend.petrinet.pnml.PetriNetParser;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of state space generation with generalized saturation on the Petri nets bundled with
+ * the tests of the Petri net analysis. Every invocation starts from a fresh variable order, so that
+ * the node and operation caches of previous invocations are not reused.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaturationBenchmark {
+
+    @Param({"dekker-10", "dekker-15", "Philosophers-50"})
+    public String model;
+
+    /** The number of threads of parallel saturation, or 0 for sequential saturation. */
+    @Param({"0", "4"})
+    public int threads;
+
+    private PetriNet petriNet;
+    private List<Place> ordering;
+
+    private MddVariableOrder variableOrder;
+    private PtNetSystem system;
+    private StateSpaceEnumerationProvider provider;
+
+    @Setup
+    public void setup() throws Exception {
+        final File pnmlFile = new File(getClass().getResource("/" + model + ".pnml").toURI());
+        petriNet = PetriNetParser.loadPnml(pnmlFile).parsePTNet().get(0);
+        final File orderingFile =
+                new File(getClass().getResource("/" + model + ".pnml.gsat.order").toURI());
+        ordering = VariableOrderingFactory.fromFile(orderingFile, petriNet);
+    }
+
+    @Setup(Level.Invocation)
+    public void createProvider() {
+        variableOrder =
+                JavaMddFactory.getDefault().createMddVariableOrder(LatticeDefinition.forSets());
+        for (final Place place : ordering) {
+            variableOrder.createOnTop(MddVariableDescriptor.create(place));
+        }
+        system = new PtNetSystem(petriNet, ordering);
+        final CursorRelationalProductProvider relProdProvider =
+                new CursorRelationalProductProvider(variableOrder);
+        provider =
+                threads == 0
+                        ? new GeneralizedSaturationProvider(variableOrder, relProdProvider)
+                        : new ParallelSaturationProvider(variableOrder, relProdProvider, threads);
+    }
+
+    @TearDown(Level.Invocation)
+    public void disposeProvider() {
+        provider.dispose();
+    }
+
+    @Benchmark
+    public MddHandle compute() {
+        return provider.compute(
+                system.getInitializer(),
+                system.getTransitions(),
+                variableOrder.getDefaultSetSignature().getTopVariableHandle());
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks;
+
+import static hu.bme.mit.theta.c2xcfa.UtilsKt.getXcfaFromC;
+import static hu.bme.mit.theta.xcfa.analysis.XcfaAnalysisKt.getXcfaLts;
+
+import hu.bme.mit.theta.analysis.LTS;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.analysis.ptr.PtrState;
+import hu.bme.mit.theta.common.container.PersistentStack;
+import hu.bme.mit.theta.common.logging.NullLogger;
+import hu.bme.mit.theta.frontend.ParseContext;
+import hu.bme.mit.theta.xcfa.ErrorDetection;
+import hu.bme.mit.theta.xcfa.XcfaProperty;
+import hu.bme.mit.theta.xcfa.analysis.XcfaAction;
+import hu.bme.mit.theta.xcfa.analysis.XcfaProcessState;
+import hu.bme.mit.theta.xcfa.analysis.XcfaState;
+import hu.bme.mit.theta.xcfa.model.NopLabel;
+import hu.bme.mit.theta.xcfa.model.XCFA;
+import hu.bme.mit.theta.xcfa.model.XcfaProcedure;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import kotlin.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of stepping the states of a multithreaded XCFA. The control states of a program
+ * starting threads that take a mutex in a loop are explored using the LTS of the XCFA analysis,
+ * without a solver, so the benchmark measures the successor computation of {@link XcfaState}. Run
+ * it with the GC profiler ({@code -prof gc}) to compare the allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XcfaStateBenchmark {
+
+    /** The number of threads started by the main thread. */
+    @Param({"2", "3"})
+    public int threads;
+
+    private LTS<XcfaState<? extends PtrState<? extends ExprState>>, XcfaAction> lts;
+    private XcfaState<PtrState<ExplState>> initState;
+
+    private static String program(final int threads) {
+        final StringBuilder main = new StringBuilder();
+        for (int i = 0; i < threads; i++) {
+            main.append("    pthread_t t%d;\n".formatted(i));
+        }
+        for (int i = 0; i < threads; i++) {
+            main.append("    pthread_create(&t%d, 0, thread, 0);\n".formatted(i));
+        }
+        for (int i = 0; i < threads; i++) {
+            main.append("    pthread_join(t%d, 0);\n".formatted(i));
+        }
+        return """
+                #include <pthread.h>
+
+                pthread_mutex_t m;
+                int x = 0;
+
+                void *thread(void *arg) {
+                    for (int i = 0; i < 2; i++) {
+                        pthread_mutex_lock(&m);
+                        x++;
+                        pthread_mutex_unlock(&m);
+                    }
+                    return 0;
+                }
+
+                int main() {
+                %s    return 0;
+                }
+                """
+                .formatted(main);
+    }
+
+    @Setup
+    public void setup() {
+        final byte[] source = program(threads).getBytes(StandardCharsets.UTF_8);
+        final XCFA xcfa =
+                getXcfaFromC(
+                                new ByteArrayInputStream(source),
+                                new ParseContext(),
+                                false,
+                                new XcfaProperty(ErrorDetection.ERROR_LOCATION, null),
+                                NullLogger.getInstance(),
+                                NullLogger.getInstance())
+                        .getFirst();
+        final Map<Integer, XcfaProcessState> processes = new HashMap<>();
+        for (int i = 0; i < xcfa.getInitProcedures().size(); i++) {
+            final XcfaProcedure procedure = xcfa.getInitProcedures().get(i).getFirst();
+            processes.put(
+                    i,
+                    new XcfaProcessState(
+                            PersistentStack.of(procedure.getInitLoc()),
+                            PersistentStack.of(
+                                    XcfaProcessState.Companion.createLookup(
+                                            procedure, "T" + i, "")),
+                            PersistentStack.of(NopLabel.INSTANCE),
+                            PersistentStack.of(new Pair<>(NopLabel.INSTANCE, NopLabel.INSTANCE)),
+                            false,
+                            "T" + i,
+                            0));
+        }
+        lts = getXcfaLts();
+        initState = new XcfaState<>(xcfa, processes, new PtrState<>(ExplState.top()));
+    }
+
+    @Benchmark
+    public int explore() {
+        final Set<XcfaState<PtrState<ExplState>>> reached = new HashSet<>();
+        final Queue<XcfaState<PtrState<ExplState>>> waitlist = new ArrayDeque<>();
+        reached.add(initState);
+        waitlist.add(initState);
+        while (!waitlist.isEmpty()) {
+            final XcfaState<PtrState<ExplState>> state = waitlist.remove();
+            for (final XcfaAction action : lts.getEnabledActionsFor(state)) {
+                final XcfaState<PtrState<ExplState>> succ = state.apply(action).getFirst();
+                if (reached.add(succ)) {
+                    waitlist.add(succ);
+                }
+            }
+        }
+        return reached.size();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.z3legacy;
+
+import com.microsoft.z3legacy.Context;
+import hu.bme.mit.theta.benchmarks.BenchmarkExprs;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the translation of expressions to Z3 terms. It is placed in the package of the
+ * solver, as the transformer is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Z3ExprTransformerBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int clauses;
+
+    private Context context;
+    private Z3TransformationManager transformationManager;
+    private Expr<BoolType> formula;
+
+    @Setup
+    public void setup() {
+        context = new Context();
+        transformationManager = new Z3TransformationManager(new Z3SymbolTable(), context);
+        formula =
+                PathUtils.unfold(
+                        BenchmarkExprs.formula(
+                                BenchmarkExprs.intVars(Math.max(2, clauses / 10)), clauses),
+                        0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /** Translation with an empty term cache, as after a solver reset. */
+    @State(Scope.Thread)
+    public static class Cold {
+
+        @Setup(Level.Invocation)
+        public void reset(final Z3ExprTransformerBenchmark benchmark) {
+            benchmark.transformationManager.reset();
+        }
+    }
+
+    @Benchmark
+    public com.microsoft.z3legacy.Expr toTermCold(final Cold cold) {
+        return transformationManager.toTerm(formula);
+    }
+
+    @Benchmark
+    public com.microsoft.z3legacy.Expr toTermCached() {
+        return transformationManager.toTerm(formula);
+    }
+}
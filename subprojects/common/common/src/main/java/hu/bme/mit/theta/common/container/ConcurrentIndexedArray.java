@@ -0,0 +1,84 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.container;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * A thread-safe, lock-free array of lazily computed elements indexed by non-negative integers. It
+ * grows on demand, but elements are never copied: the array consists of chunks of doubling size,
+ * which are published (like the elements themselves) by a compare-and-set. Thus, when multiple
+ * threads compute the element of the same index concurrently, all of them get the same instance.
+ *
+ * @param <T> the type of the elements
+ */
+public final class ConcurrentIndexedArray<T> {
+
+    // Chunk k holds the elements of indices 2^k - 1 to 2^(k+1) - 2
+    private final AtomicReferenceArray<AtomicReferenceArray<T>> chunks =
+            new AtomicReferenceArray<>(Integer.SIZE - 1);
+
+    /**
+     * Returns the element of an index, or null if it has not been computed yet.
+     *
+     * @param index a non-negative index
+     */
+    public T get(final int index) {
+        checkArgument(index >= 0 && index < Integer.MAX_VALUE, "Index out of range: %s", index);
+        final int chunkIndex = chunkIndex(index);
+        final AtomicReferenceArray<T> chunk = chunks.get(chunkIndex);
+        return chunk == null ? null : chunk.get(offset(index, chunkIndex));
+    }
+
+    /**
+     * Returns the element of an index, computing it first if needed. The function may be called
+     * by multiple threads concurrently, but only one of the results is ever returned.
+     *
+     * @param index a non-negative index
+     * @param function computes the element of an index, must not return null
+     */
+    public T computeIfAbsent(final int index, final IntFunction<? extends T> function) {
+        checkArgument(index >= 0 && index < Integer.MAX_VALUE, "Index out of range: %s", index);
+        final int chunkIndex = chunkIndex(index);
+        AtomicReferenceArray<T> chunk = chunks.get(chunkIndex);
+        if (chunk == null) {
+            final AtomicReferenceArray<T> newChunk = new AtomicReferenceArray<>(1 << chunkIndex);
+            chunk =
+                    chunks.compareAndSet(chunkIndex, null, newChunk)
+                            ? newChunk
+                            : chunks.get(chunkIndex);
+        }
+        final int offset = offset(index, chunkIndex);
+        final T element = chunk.get(offset);
+        if (element != null) {
+            return element;
+        }
+        final T newElement = checkNotNull(function.apply(index));
+        return chunk.compareAndSet(offset, null, newElement) ? newElement : chunk.get(offset);
+    }
+
+    private static int chunkIndex(final int index) {
+        return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(index + 1);
+    }
+
+    private static int offset(final int index, final int chunkIndex) {
+        return index + 1 - (1 << chunkIndex);
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.container
+
+import java.util.AbstractMap.SimpleImmutableEntry
+
+/**
+ * An immutable hash map implemented as a big-endian Patricia trie over the hash codes of the keys.
+ * Adding or removing an entry copies only the path to its leaf, and the rest of the trie is shared
+ * with the original map, so updates take time and memory proportional to the depth of the trie
+ * (at most 32) instead of the size of the map.
+ *
+ * Entries are iterated in the ascending (unsigned) order of the hash codes of their keys. For
+ * non-negative integer keys, this is their natural order.
+ */
+class PersistentHashMap<K, V>
+private constructor(private val root: Node<K, V>?, override val size: Int) : AbstractMap<K, V>() {
+
+  private sealed class Node<K, V>
+
+  /** The entries with the same hash code. */
+  private class Leaf<K, V>(val hash: Int, val entries: List<Map.Entry<K, V>>) : Node<K, V>()
+
+  /**
+   * The entries whose hash codes agree with [prefix] above [mask], which is the highest bit where
+   * the hash codes of the two subtrees differ.
+   */
+  private class Branch<K, V>(
+    val prefix: Int,
+    val mask: Int,
+    val zero: Node<K, V>,
+    val one: Node<K, V>,
+  ) : Node<K, V>()
+
+  companion object {
+
+    private val EMPTY = PersistentHashMap<Any?, Any?>(null, 0)
+
+    @Suppress("UNCHECKED_CAST")
+    @JvmStatic
+    fun <K, V> empty(): PersistentHashMap<K, V> = EMPTY as PersistentHashMap<K, V>
+
+    @JvmStatic
+    fun <K, V> copyOf(map: Map<out K, V>): PersistentHashMap<K, V> {
+      @Suppress("UNCHECKED_CAST")
+      if (map is PersistentHashMap<*, *>) return map as PersistentHashMap<K, V>
+      return map.entries.fold(empty()) { result, (key, value) -> result.plus(key, value) }
+    }
+
+    private fun hash(key: Any?): Int = key.hashCode()
+
+    private fun maskAbove(hash: Int, mask: Int): Int = hash and ((mask - 1).inv() xor mask)
+
+    private fun isZero(hash: Int, mask: Int): Boolean = hash and mask == 0
+
+    private fun <K, V> join(
+      hash1: Int,
+      node1: Node<K, V>,
+      hash2: Int,
+      node2: Node<K, V>,
+    ): Node<K, V> {
+      val mask = Integer.highestOneBit(hash1 xor hash2)
+      val prefix = maskAbove(hash1, mask)
+      return if (isZero(hash1, mask)) Branch(prefix, mask, node1, node2)
+      else Branch(prefix, mask, node2, node1)
+    }
+
+    private fun <K, V> prefixOf(node: Node<K, V>): Int =
+      when (node) {
+        is Leaf -> node.hash
+        is Branch -> node.prefix
+      }
+  }
+
+  override fun get(key: K): V? {
+    val hash = hash(key)
+    var node = root
+    while (node is Branch) {
+      if (maskAbove(hash, node.mask) != node.prefix) return null
+      node = if (isZero(hash, node.mask)) node.zero else node.one
+    }
+    if (node !is Leaf || node.hash != hash) return null
+    return node.entries.firstOrNull { it.key == key }?.value
+  }
+
+  override fun containsKey(key: K): Boolean {
+    val hash = hash(key)
+    var node = root
+    while (node is Branch) {
+      if (maskAbove(hash, node.mask) != node.prefix) return false
+      node = if (isZero(hash, node.mask)) node.zero else node.one
+    }
+    return node is Leaf && node.hash == hash && node.entries.any { it.key == key }
+  }
+
+  /** Returns a map where [key] is mapped to [value], and every other key is mapped as in this. */
+  fun plus(key: K, value: V): PersistentHashMap<K, V> {
+    val hash = hash(key)
+    var added = false
+    fun insert(node: Node<K, V>?): Node<K, V> =
+      when {
+        node == null -> {
+          added = true
+          Leaf(hash, listOf(SimpleImmutableEntry(key, value)))
+        }
+        node is Leaf && node.hash == hash -> {
+          val index = node.entries.indexOfFirst { it.key == key }
+          when {
+            index < 0 -> {
+              added = true
+              Leaf(hash, node.entries + SimpleImmutableEntry(key, value))
+            }
+            node.entries[index].value === value -> node
+            else ->
+              Leaf(
+                hash,
+                node.entries.mapIndexed { i, entry ->
+                  if (i == index) SimpleImmutableEntry(key, value) else entry
+                },
+              )
+          }
+        }
+        node is Branch && maskAbove(hash, node.mask) == node.prefix ->
+          if (isZero(hash, node.mask)) {
+            val zero = insert(node.zero)
+            if (zero === node.zero) node else Branch(node.prefix, node.mask, zero, node.one)
+          } else {
+            val one = insert(node.one)
+            if (one === node.one) node else Branch(node.prefix, node.mask, node.zero, one)
+          }
+        else -> {
+          added = true
+          join(hash, Leaf(hash, listOf(SimpleImmutableEntry(key, value))), prefixOf(node), node)
+        }
+      }
+
+    val newRoot = insert(root)
+    return if (newRoot === root) this else PersistentHashMap(newRoot, if (added) size + 1 else size)
+  }
+
+  operator fun plus(entry: Pair<K, V>): PersistentHashMap<K, V> = plus(entry.first, entry.second)
+
+  /** Returns a map without the mapping of [key]. */
+  operator fun minus(key: K): PersistentHashMap<K, V> {
+    val hash = hash(key)
+    fun remove(node: Node<K, V>?): Node<K, V>? =
+      when {
+        node is Leaf && node.hash == hash ->
+          when {
+            node.entries.none { it.key == key } -> node
+            node.entries.size == 1 -> null
+            else -> Leaf(hash, node.entries.filter { it.key != key })
+          }
+        node is Branch && maskAbove(hash, node.mask) == node.prefix ->
+          if (isZero(hash, node.mask)) {
+            val zero = remove(node.zero)
+            when {
+              zero === node.zero -> node
+              zero == null -> node.one
+              else -> Branch(node.prefix, node.mask, zero, node.one)
+            }
+          } else {
+            val one = remove(node.one)
+            when {
+              one === node.one -> node
+              one == null -> node.zero
+              else -> Branch(node.prefix, node.mask, node.zero, one)
+            }
+          }
+        else -> node
+      }
+
+    val newRoot = remove(root)
+    return if (newRoot === root) this else PersistentHashMap(newRoot, size - 1)
+  }
+
+  override val entries: Set<Map.Entry<K, V>>
+    get() =
+      object : AbstractSet<Map.Entry<K, V>>() {
+        override val size: Int
+          get() = this@PersistentHashMap.size
+
+        override fun iterator(): Iterator<Map.Entry<K, V>> = EntryIterator(root)
+      }
+
+  private class EntryIterator<K, V>(root: Node<K, V>?) : Iterator<Map.Entry<K, V>> {
+    private val stack = ArrayDeque<Node<K, V>>().also { if (root != null) it.addLast(root) }
+    private var leaf: Iterator<Map.Entry<K, V>> = emptyList<Map.Entry<K, V>>().iterator()
+
+    override fun hasNext(): Boolean {
+      while (!leaf.hasNext()) {
+        var node = stack.removeLastOrNull() ?: return false
+        while (node is Branch) {
+          // the one subtree comes after the zero subtree in unsigned order
+          stack.addLast(node.one)
+          node = node.zero
+        }
+        leaf = (node as Leaf).entries.iterator()
+      }
+      return true
+    }
+
+    override fun next(): Map.Entry<K, V> {
+      if (!hasNext()) throw NoSuchElementException()
+      return leaf.next()
+    }
+  }
+}
+
+fun <K, V> persistentHashMapOf(vararg pairs: Pair<K, V>): PersistentHashMap<K, V> =
+  pairs.fold(PersistentHashMap.empty()) { map, pair -> map + pair }
+
+fun <K, V> Map<out K, V>.toPersistentHashMap(): PersistentHashMap<K, V> =
+  PersistentHashMap.copyOf(this)
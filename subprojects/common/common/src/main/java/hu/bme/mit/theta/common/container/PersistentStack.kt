@@ -0,0 +1,119 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.container
+
+/**
+ * An immutable stack implemented as a linked list of cons cells. Pushing and popping return new
+ * stacks sharing their tail with the original one, so both take constant time and memory. The size
+ * and the hash code are computed when a cell is created, which makes [hashCode] constant time, and
+ * stacks sharing a common tail are compared without walking that tail.
+ *
+ * The stack is a [List] with its top as the first element, and it is equal to any list with the
+ * same elements.
+ */
+class PersistentStack<out T>
+private constructor(
+  private val head: T?,
+  private val tail: PersistentStack<T>?,
+  override val size: Int,
+  private val hash: Int,
+  private val power: Int, // 31^size, used to compute the hash code of a pushed stack
+) : AbstractList<T>() {
+
+  companion object {
+
+    private val EMPTY = PersistentStack<Nothing>(null, null, 0, 1, 1)
+
+    @JvmStatic fun <T> empty(): PersistentStack<T> = EMPTY
+
+    @JvmStatic
+    fun <T> of(vararg elements: T): PersistentStack<T> =
+      elements.foldRight(empty()) { element, stack -> stack.push(element) }
+
+    @JvmStatic
+    fun <T> copyOf(elements: Iterable<T>): PersistentStack<T> =
+      elements as? PersistentStack<T>
+        ?: elements.reversed().fold(empty()) { stack, element -> stack.push(element) }
+  }
+
+  /**
+   * Returns the top of the stack.
+   *
+   * @throws NoSuchElementException if the stack is empty
+   */
+  fun peek(): T {
+    if (size == 0) throw NoSuchElementException("Cannot peek an empty stack.")
+    @Suppress("UNCHECKED_CAST")
+    return head as T
+  }
+
+  /** Returns a stack with the given element on top of this one. */
+  fun push(element: @UnsafeVariance T): PersistentStack<T> =
+    PersistentStack(
+      element,
+      this,
+      size + 1,
+      power * (31 + element.hashCode()) + hash - power,
+      power * 31,
+    )
+
+  /** Returns the stack below the top element. */
+  fun pop(): PersistentStack<T> {
+    check(size > 0) { "Cannot pop an empty stack." }
+    return tail!!
+  }
+
+  override fun get(index: Int): T {
+    if (index < 0 || index >= size) throw IndexOutOfBoundsException("Index: $index, size: $size")
+    var current = this
+    repeat(index) { current = current.tail!! }
+    @Suppress("UNCHECKED_CAST")
+    return current.head as T
+  }
+
+  override fun iterator(): Iterator<T> =
+    object : Iterator<T> {
+      private var current = this@PersistentStack
+
+      override fun hasNext(): Boolean = current.size > 0
+
+      override fun next(): T {
+        if (!hasNext()) throw NoSuchElementException()
+        @Suppress("UNCHECKED_CAST") val element = current.head as T
+        current = current.tail!!
+        return element
+      }
+    }
+
+  override fun hashCode(): Int = hash
+
+  override fun equals(other: Any?): Boolean {
+    if (other !is PersistentStack<*>) return super.equals(other)
+    if (size != other.size || hash != other.hash) return false
+    var left: PersistentStack<*> = this
+    var right: PersistentStack<*> = other
+    while (left !== right) {
+      if (left.head != right.head) return false
+      left = left.tail!!
+      right = right.tail!!
+    }
+    return true
+  }
+}
+
+fun <T> persistentStackOf(vararg elements: T): PersistentStack<T> = PersistentStack.of(*elements)
+
+fun <T> Iterable<T>.toPersistentStack(): PersistentStack<T> = PersistentStack.copyOf(this)
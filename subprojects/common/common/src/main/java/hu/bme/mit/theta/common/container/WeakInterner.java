@@ -0,0 +1,142 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.container;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe interner holding its canonical instances weakly: an instance is removed from the
+ * table once it is not referenced from elsewhere. Unlike the interners of Guava, it keeps track of
+ * its hit and miss counts and its size.
+ *
+ * @param <T> the type of the interned instances
+ */
+public final class WeakInterner<T> {
+
+    private final ConcurrentMap<Object, Entry<T>> table = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /** A canonical instance in the table. */
+    private static final class Entry<T> extends WeakReference<T> {
+        private final int hash;
+
+        private Entry(final T referent, final ReferenceQueue<T> queue) {
+            super(referent, queue);
+            this.hash = referent.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj instanceof Entry<?> that) {
+                final Object referent = get();
+                return referent != null && hash == that.hash && referent.equals(that.get());
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /** A key looking up the entry equal to an instance. */
+    private record Lookup(Object sample) {
+        @Override
+        public int hashCode() {
+            return sample.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Entry<?> entry && sample.equals(entry.get());
+        }
+    }
+
+    /**
+     * Returns the canonical instance equal to the given one. If there is none yet, the given
+     * instance becomes the canonical one.
+     */
+    public T intern(final T sample) {
+        checkNotNull(sample);
+        expungeStaleEntries();
+        while (true) {
+            final Entry<T> existing = table.get(new Lookup(sample));
+            if (existing != null) {
+                final T canonical = existing.get();
+                if (canonical != null) {
+                    hits.increment();
+                    return canonical;
+                }
+                table.remove(existing, existing);
+            } else {
+                final Entry<T> entry = new Entry<>(sample, queue);
+                if (table.putIfAbsent(entry, entry) == null) {
+                    misses.increment();
+                    return sample;
+                }
+            }
+        }
+    }
+
+    /** Returns true if the given instance itself is canonical, not only equal to one. */
+    public boolean isCanonical(final T instance) {
+        checkNotNull(instance);
+        final Entry<T> existing = table.get(new Lookup(instance));
+        return existing != null && existing.get() == instance;
+    }
+
+    /** Returns the number of calls to {@link #intern} that found a canonical instance. */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /** Returns the number of calls to {@link #intern} that added a new canonical instance. */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /** Returns the number of canonical instances in the table, including collected ones. */
+    public int size() {
+        return table.size();
+    }
+
+    /** Removes all canonical instances and resets the hit and miss counts. */
+    public void clear() {
+        table.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    private void expungeStaleEntries() {
+        Reference<? extends T> reference;
+        while ((reference = queue.poll()) != null) {
+            table.remove(reference, reference);
+        }
+    }
+}
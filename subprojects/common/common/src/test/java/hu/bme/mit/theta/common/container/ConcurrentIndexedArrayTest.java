@@ -0,0 +1,88 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class ConcurrentIndexedArrayTest {
+
+    @Test
+    public void testComputeIfAbsent() {
+        final ConcurrentIndexedArray<String> array = new ConcurrentIndexedArray<>();
+        assertNull(array.get(0));
+        assertNull(array.get(1000));
+        for (int i = 0; i < 1000; i += 7) {
+            assertEquals("e" + i, array.computeIfAbsent(i, j -> "e" + j));
+        }
+        for (int i = 0; i < 1000; i++) {
+            if (i % 7 == 0) {
+                final String element = array.get(i);
+                assertEquals("e" + i, element);
+                assertSame(element, array.computeIfAbsent(i, j -> "other"));
+            } else {
+                assertNull(array.get(i));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeIndex() {
+        new ConcurrentIndexedArray<String>().get(-1);
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        final ConcurrentIndexedArray<Object> array = new ConcurrentIndexedArray<>();
+        final int threads = 4;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<List<Object>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    start.await();
+                                    final List<Object> elements = new ArrayList<>();
+                                    for (int i = 0; i < 10_000; i++) {
+                                        elements.add(array.computeIfAbsent(i, j -> new Object()));
+                                    }
+                                    return elements;
+                                }));
+            }
+            start.countDown();
+            final List<Object> expected = futures.get(0).get();
+            for (Future<List<Object>> future : futures) {
+                final List<Object> actual = future.get();
+                for (int i = 0; i < expected.size(); i++) {
+                    assertSame(expected.get(i), actual.get(i));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
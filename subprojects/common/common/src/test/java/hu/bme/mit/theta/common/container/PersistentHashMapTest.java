@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class PersistentHashMapTest {
+
+    /** A key with few distinct hash codes, to exercise collisions. */
+    private record CollidingKey(int value) {
+        @Override
+        public int hashCode() {
+            return value % 3;
+        }
+    }
+
+    @Test
+    public void testPutRemove() {
+        final PersistentHashMap<Integer, String> empty = PersistentHashMap.empty();
+        final PersistentHashMap<Integer, String> one = empty.plus(1, "a");
+        final PersistentHashMap<Integer, String> two = one.plus(2, "b");
+
+        assertEquals(Map.of(1, "a", 2, "b"), two);
+        assertEquals(Map.of(1, "a"), one);
+        assertEquals("b", two.get(2));
+        assertNull(one.get(2));
+        assertFalse(one.containsKey(2));
+        assertEquals(Map.of(2, "b"), two.minus(1));
+        assertSame(two, two.plus(2, "b"));
+        assertSame(two, two.minus(3));
+    }
+
+    @Test
+    public void testIterationOrder() {
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        for (int i : new int[] {5, 0, 17, 3, 1 << 20, 2}) {
+            map = map.plus(i, i);
+        }
+        assertEquals(List.of(0, 2, 3, 5, 17, 1 << 20), new ArrayList<>(map.keySet()));
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        final Random random = new Random(0);
+        final Map<Object, Integer> expected = new HashMap<>();
+        PersistentHashMap<Object, Integer> actual = PersistentHashMap.empty();
+        for (int i = 0; i < 2000; i++) {
+            final Object key =
+                    random.nextBoolean()
+                            ? new CollidingKey(random.nextInt(20))
+                            : (Object) (random.nextInt(200) - 100);
+            if (random.nextInt(3) > 0) {
+                expected.put(key, i);
+                actual = actual.plus(key, i);
+            } else {
+                expected.remove(key);
+                actual = actual.minus(key);
+            }
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected.get(key), actual.get(key));
+        }
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(actual, PersistentHashMap.copyOf(expected));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.Test;
+
+public class PersistentStackTest {
+
+    @Test
+    public void testPushPop() {
+        final PersistentStack<Integer> empty = PersistentStack.empty();
+        final PersistentStack<Integer> one = empty.push(1);
+        final PersistentStack<Integer> two = one.push(2);
+
+        assertEquals(0, empty.size());
+        assertEquals(2, two.size());
+        assertEquals(Integer.valueOf(2), two.peek());
+        assertSame(one, two.pop());
+        assertEquals(List.of(2, 1), two);
+        assertEquals(List.of(1), one);
+        assertTrue(empty.isEmpty());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPeekEmpty() {
+        PersistentStack.empty().peek();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPopEmpty() {
+        PersistentStack.empty().pop();
+    }
+
+    @Test
+    public void testAgainstLinkedList() {
+        final Random random = new Random(0);
+        final LinkedList<Integer> expected = new LinkedList<>();
+        PersistentStack<Integer> actual = PersistentStack.empty();
+        final List<PersistentStack<Integer>> history = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                final Integer element = random.nextInt(10);
+                expected.push(element);
+                actual = actual.push(element);
+            } else {
+                assertEquals(expected.pop(), actual.peek());
+                actual = actual.pop();
+            }
+            assertEquals(expected, actual);
+            assertEquals(actual, expected);
+            assertEquals(expected.hashCode(), actual.hashCode());
+            history.add(actual);
+        }
+
+        // Stacks built independently are equal to the ones sharing their cells
+        for (PersistentStack<Integer> stack : history) {
+            final PersistentStack<Integer> copy = PersistentStack.copyOf(new ArrayList<>(stack));
+            assertEquals(stack, copy);
+            assertEquals(stack.hashCode(), copy.hashCode());
+        }
+    }
+}
@@ -18,9 +18,8 @@ package hu.bme.mit.theta.core.decl;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import hu.bme.mit.theta.common.Utils;
-import hu.bme.mit.theta.common.container.Containers;
+import hu.bme.mit.theta.common.container.ConcurrentIndexedArray;
 import hu.bme.mit.theta.core.type.Type;
-import java.util.Map;
 
 /**
  * Represents a variable declaration. Variables cannot be directly passed to the SMT solver, they
@@ -33,25 +32,21 @@ public class VarDecl<DeclType extends Type> extends Decl<DeclType> {
 
     private static final String DECL_LABEL = "var";
 
-    private final Map<Integer, IndexedConstDecl<DeclType>> indexToConst;
+    private final ConcurrentIndexedArray<IndexedConstDecl<DeclType>> indexToConst;
 
     VarDecl(final String name, final DeclType type) {
         super(name, type);
-        indexToConst = Containers.createMap();
+        indexToConst = new ConcurrentIndexedArray<>();
     }
 
     public static <DeclType extends Type> VarDecl<DeclType> copyOf(VarDecl<DeclType> from) {
         return new VarDecl<>(from.getName(), from.getType());
     }
 
+    // Lock-free, as the same variable can be unfolded by analyses running on different threads
     public IndexedConstDecl<DeclType> getConstDecl(final int index) {
         checkArgument(index >= 0);
-        IndexedConstDecl<DeclType> constDecl = indexToConst.get(index);
-        if (constDecl == null) {
-            constDecl = new IndexedConstDecl<>(this, index);
-            indexToConst.put(index, constDecl);
-        }
-        return constDecl;
+        return indexToConst.computeIfAbsent(index, i -> new IndexedConstDecl<>(this, i));
     }
 
     @Override
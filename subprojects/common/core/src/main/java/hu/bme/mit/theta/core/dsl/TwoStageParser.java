@@ -0,0 +1,122 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.dsl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.ANTLRErrorStrategy;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+/**
+ * Utility class for parsing with ANTLR in two stages. The input is first parsed in SLL prediction
+ * mode, which is considerably faster than full LL prediction, bailing out at the first syntax
+ * error. Only if that fails is the input parsed again in LL mode, with the error strategy and
+ * listeners the parser was configured with, so syntax errors are handled as before. A successful
+ * SLL parse only differs from the LL one if the input is ambiguous in the grammar.
+ *
+ * <p>Generated parsers keep their DFA cache in static fields, so the predictions learned by a parse
+ * are reused by later parses with the same grammar in the same JVM, e.g., in worker processes
+ * running several tasks. The number of parses, LL fallbacks and the time spent parsing are
+ * collected for the whole JVM.
+ */
+public final class TwoStageParser {
+
+    private static final LongAdder parses = new LongAdder();
+    private static final LongAdder fallbacks = new LongAdder();
+    private static final LongAdder parseTimeNanos = new LongAdder();
+
+    private TwoStageParser() {}
+
+    /**
+     * Parses the input of a freshly created parser with the given start rule, e.g., {@code
+     * parse(parser, CfaDslParser::spec)}.
+     */
+    public static <P extends Parser, C extends ParserRuleContext> C parse(
+            final P parser, final Function<? super P, ? extends C> rule) {
+        checkNotNull(parser);
+        checkNotNull(rule);
+        final long start = System.nanoTime();
+        final PredictionMode predictionMode = parser.getInterpreter().getPredictionMode();
+        final ANTLRErrorStrategy errorHandler = parser.getErrorHandler();
+        final List<ANTLRErrorListener> errorListeners = new ArrayList<>(parser.getErrorListeners());
+        try {
+            parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+            parser.setErrorHandler(new BailErrorStrategy());
+            parser.removeErrorListeners();
+            try {
+                return rule.apply(parser);
+            } catch (ParseCancellationException e) {
+                // Errors of the lexer or of custom listeners are not prediction failures
+                if (!(e.getCause() instanceof RecognitionException)) {
+                    throw e;
+                }
+            }
+
+            fallbacks.increment();
+            parser.reset();
+            restore(parser, predictionMode, errorHandler, errorListeners);
+            return rule.apply(parser);
+        } finally {
+            restore(parser, predictionMode, errorHandler, errorListeners);
+            parses.increment();
+            parseTimeNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private static void restore(
+            final Parser parser,
+            final PredictionMode predictionMode,
+            final ANTLRErrorStrategy errorHandler,
+            final List<ANTLRErrorListener> errorListeners) {
+        parser.getInterpreter().setPredictionMode(predictionMode);
+        parser.setErrorHandler(errorHandler);
+        parser.removeErrorListeners();
+        errorListeners.forEach(parser::addErrorListener);
+    }
+
+    /** Number of inputs parsed in this JVM. */
+    public static long getParseCount() {
+        return parses.sum();
+    }
+
+    /** Number of inputs that could not be parsed in SLL mode and were parsed again in LL mode. */
+    public static long getFallbackCount() {
+        return fallbacks.sum();
+    }
+
+    /** Total time spent parsing, including both stages. */
+    public static long getParseTimeMs() {
+        return TimeUnit.NANOSECONDS.toMillis(parseTimeNanos.sum());
+    }
+
+    /** Summary of the statistics above, e.g., for logging. */
+    public static String getStatistics() {
+        return String.format(
+                "%d parses, %d LL fallbacks, %d ms",
+                getParseCount(), getFallbackCount(), getParseTimeMs());
+    }
+}
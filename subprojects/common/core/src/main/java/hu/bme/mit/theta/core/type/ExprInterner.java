@@ -0,0 +1,113 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.type;
+
+import hu.bme.mit.theta.common.container.WeakInterner;
+import hu.bme.mit.theta.core.type.arraytype.ArrayType;
+import hu.bme.mit.theta.core.type.bvtype.BvType;
+import hu.bme.mit.theta.core.type.functype.FuncType;
+
+/**
+ * Opt-in hash-consing of expressions. When enabled, the factories of the expressions return
+ * canonical instances from a weak table, so structurally equal expressions built after enabling are
+ * the same object: comparing them takes a reference comparison, and repeated subterms share their
+ * memory. When disabled (the default), factories return new instances as usual.
+ *
+ * <p>Interning should be enabled before building expressions, as expressions built earlier are not
+ * canonical. They remain correct, only their comparison is not accelerated.
+ *
+ * <p>The equality of bitvector literals and types ignores the signedness, which is still observed
+ * through {@link BvType#getSigned()}, so merging equal expressions could change the signedness of
+ * a subterm. Expressions are therefore only interned if they are not of a bitvector type, and all
+ * of their operands are canonical, or leaves without bitvectors. This way, no expression containing
+ * a bitvector anywhere is interned.
+ */
+public final class ExprInterner {
+
+    private static final WeakInterner<Expr<?>> INTERNER = new WeakInterner<>();
+    private static volatile boolean enabled = false;
+
+    private ExprInterner() {}
+
+    public static void setEnabled(final boolean enabled) {
+        ExprInterner.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Returns the canonical instance equal to an expression if interning is enabled. */
+    @SuppressWarnings("unchecked")
+    public static <E extends Expr<?>> E intern(final E expr) {
+        if (!enabled || !isInternable(expr)) {
+            return expr;
+        }
+        return (E) INTERNER.intern(expr);
+    }
+
+    private static boolean isInternable(final Expr<?> expr) {
+        if (containsBv(expr.getType())) {
+            return false;
+        }
+        for (final Expr<?> op : expr.getOps()) {
+            final boolean bvFreeLeaf = op.getOps().isEmpty() && !containsBv(op.getType());
+            if (!bvFreeLeaf && !INTERNER.isCanonical(op)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsBv(final Type type) {
+        if (type instanceof BvType) {
+            return true;
+        } else if (type instanceof ArrayType<?, ?> arrayType) {
+            return containsBv(arrayType.getIndexType()) || containsBv(arrayType.getElemType());
+        } else if (type instanceof FuncType<?, ?> funcType) {
+            return containsBv(funcType.getParamType()) || containsBv(funcType.getResultType());
+        } else {
+            return false;
+        }
+    }
+
+    /** Returns the number of expressions built that were already in the table. */
+    public static long getHitCount() {
+        return INTERNER.getHitCount();
+    }
+
+    /** Returns the number of expressions built that were added to the table. */
+    public static long getMissCount() {
+        return INTERNER.getMissCount();
+    }
+
+    /** Returns the ratio of hits among the expressions built while interning was enabled. */
+    public static double getHitRate() {
+        final long hits = getHitCount();
+        final long total = hits + getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /** Returns the number of canonical expressions in the table. */
+    public static int getTableSize() {
+        return INTERNER.size();
+    }
+
+    /** Empties the table and resets the statistics. */
+    public static void clear() {
+        INTERNER.clear();
+    }
+}
@@ -21,6 +21,7 @@ import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.Type;
 import java.util.List;
@@ -42,7 +43,7 @@ public final class Reference<A extends Type, T extends Type> implements Expr<A>
     }
 
     public static <A extends Type, T extends Type> Reference<A, T> of(Expr<T> expr, A type) {
-        return new Reference<>(expr, type);
+        return ExprInterner.intern(new Reference<>(expr, type));
     }
 
     @Override
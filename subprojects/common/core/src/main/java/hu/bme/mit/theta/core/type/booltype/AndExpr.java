@@ -23,6 +23,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.MultiaryExpr;
 import java.util.List;
 
@@ -36,7 +37,7 @@ public final class AndExpr extends MultiaryExpr<BoolType, BoolType> {
     }
 
     public static AndExpr of(final Iterable<? extends Expr<BoolType>> ops) {
-        return new AndExpr(ops);
+        return ExprInterner.intern(new AndExpr(ops));
     }
 
     public static AndExpr create(final List<? extends Expr<?>> ops) {
@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.checkAllTypesEqual;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.abstracttype.AddExpr;
 import hu.bme.mit.theta.core.utils.TypeUtils;
 import java.util.List;
@@ -36,7 +37,7 @@ public final class BvAddExpr extends AddExpr<BvType> {
     }
 
     public static BvAddExpr of(final Iterable<? extends Expr<BvType>> ops) {
-        return new BvAddExpr(ops);
+        return ExprInterner.intern(new BvAddExpr(ops));
     }
 
     public static BvAddExpr create(final List<? extends Expr<?>> ops) {
@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.checkAllTypesEqual;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.MultiaryExpr;
 import hu.bme.mit.theta.core.utils.TypeUtils;
 import java.util.List;
@@ -36,7 +37,7 @@ public final class BvAndExpr extends MultiaryExpr<BvType, BvType> {
     }
 
     public static BvAndExpr of(final Iterable<? extends Expr<BvType>> ops) {
-        return new BvAndExpr(ops);
+        return ExprInterner.intern(new BvAndExpr(ops));
     }
 
     public static BvAndExpr create(final List<? extends Expr<?>> ops) {
@@ -23,6 +23,7 @@ import com.google.common.collect.ImmutableList;
 import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.utils.TypeUtils;
 import java.util.List;
 
@@ -42,7 +43,7 @@ public final class BvConcatExpr implements Expr<BvType> {
     }
 
     public static BvConcatExpr of(final Iterable<? extends Expr<BvType>> ops) {
-        return new BvConcatExpr(ops);
+        return ExprInterner.intern(new BvConcatExpr(ops));
     }
 
     public static BvConcatExpr create(final List<? extends Expr<?>> ops) {
@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.checkAllTypesEqual;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.abstracttype.EqExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
@@ -36,7 +37,7 @@ public final class BvEqExpr extends EqExpr<BvType> {
     }
 
     public static BvEqExpr of(final Expr<BvType> leftOp, final Expr<BvType> rightOp) {
-        return new BvEqExpr(leftOp, rightOp);
+        return ExprInterner.intern(new BvEqExpr(leftOp, rightOp));
     }
 
     public static BvEqExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -25,6 +25,7 @@ import com.google.common.collect.ImmutableList;
 import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
 import java.math.BigInteger;
@@ -57,7 +58,7 @@ public final class BvExtractExpr implements Expr<BvType> {
 
     public static BvExtractExpr of(
             final Expr<BvType> bitvec, final IntLitExpr from, final IntLitExpr until) {
-        return new BvExtractExpr(bitvec, from, until);
+        return ExprInterner.intern(new BvExtractExpr(bitvec, from, until));
     }
 
     public static BvExtractExpr create(
@@ -19,6 +19,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.castBv;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.abstracttype.PosExpr;
 
 public final class BvPosExpr extends PosExpr<BvType> {
@@ -31,7 +32,7 @@ public final class BvPosExpr extends PosExpr<BvType> {
     }
 
     public static BvPosExpr of(final Expr<BvType> op) {
-        return new BvPosExpr(op);
+        return ExprInterner.intern(new BvPosExpr(op));
     }
 
     public static BvPosExpr create(final Expr<?> op) {
@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.checkAllTypesEqual;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.BinaryExpr;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 
 public final class BvShiftLeftExpr extends BinaryExpr<BvType, BvType> {
 
@@ -33,7 +34,7 @@ public final class BvShiftLeftExpr extends BinaryExpr<BvType, BvType> {
     }
 
     public static BvShiftLeftExpr of(final Expr<BvType> leftOp, final Expr<BvType> rightOp) {
-        return new BvShiftLeftExpr(leftOp, rightOp);
+        return ExprInterner.intern(new BvShiftLeftExpr(leftOp, rightOp));
     }
 
     public static BvShiftLeftExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -20,6 +20,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.checkAllTypesEqual;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.abstracttype.SubExpr;
 
 public final class BvSubExpr extends SubExpr<BvType> {
@@ -33,7 +34,7 @@ public final class BvSubExpr extends SubExpr<BvType> {
     }
 
     public static BvSubExpr of(final Expr<BvType> leftOp, final Expr<BvType> rightOp) {
-        return new BvSubExpr(leftOp, rightOp);
+        return ExprInterner.intern(new BvSubExpr(leftOp, rightOp));
     }
 
     public static BvSubExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -20,6 +20,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.castBv;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.abstracttype.CastExpr;
 import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
 import hu.bme.mit.theta.core.type.inttype.IntType;
@@ -38,11 +39,11 @@ public final class BvToIntExpr extends CastExpr<BvType, IntType> {
     }
 
     public static BvToIntExpr of(final Expr<BvType> op, final boolean signed) {
-        return new BvToIntExpr(op, signed);
+        return ExprInterner.intern(new BvToIntExpr(op, signed));
     }
 
     public static BvToIntExpr of(final Expr<BvType> op) {
-        return new BvToIntExpr(op, op.getType().getSigned());
+        return ExprInterner.intern(new BvToIntExpr(op, op.getType().getSigned()));
     }
 
     public static BvToIntExpr create(final Expr<?> op, final boolean signed) {
@@ -20,6 +20,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.checkAllTypesEqual;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.abstracttype.DivExpr;
 
 public final class BvUDivExpr extends DivExpr<BvType> {
@@ -34,7 +35,7 @@ public final class BvUDivExpr extends DivExpr<BvType> {
     }
 
     public static BvUDivExpr of(final Expr<BvType> leftOp, final Expr<BvType> rightOp) {
-        return new BvUDivExpr(leftOp, rightOp);
+        return ExprInterner.intern(new BvUDivExpr(leftOp, rightOp));
     }
 
     public static BvUDivExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
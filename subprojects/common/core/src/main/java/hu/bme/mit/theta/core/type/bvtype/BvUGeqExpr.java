@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.checkAllTypesEqual;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.abstracttype.GeqExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
@@ -36,7 +37,7 @@ public final class BvUGeqExpr extends GeqExpr<BvType> {
     }
 
     public static BvUGeqExpr of(final Expr<BvType> leftOp, final Expr<BvType> rightOp) {
-        return new BvUGeqExpr(leftOp, rightOp);
+        return ExprInterner.intern(new BvUGeqExpr(leftOp, rightOp));
     }
 
     public static BvUGeqExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -22,6 +22,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.checkAllTypesEqual;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.UnaryExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
@@ -38,7 +39,7 @@ public final class FpIsInfiniteExpr extends UnaryExpr<FpType, BoolType> {
     }
 
     public static FpIsInfiniteExpr of(final Expr<FpType> op) {
-        return new FpIsInfiniteExpr(op);
+        return ExprInterner.intern(new FpIsInfiniteExpr(op));
     }
 
     public static FpIsInfiniteExpr create(final Expr<?> op) {
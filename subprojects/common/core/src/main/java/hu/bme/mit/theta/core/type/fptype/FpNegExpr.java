@@ -19,6 +19,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.castFp;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.abstracttype.NegExpr;
 
 public final class FpNegExpr extends NegExpr<FpType> {
@@ -31,7 +32,7 @@ public final class FpNegExpr extends NegExpr<FpType> {
     }
 
     public static FpNegExpr of(final Expr<FpType> op) {
-        return new FpNegExpr(op);
+        return ExprInterner.intern(new FpNegExpr(op));
     }
 
     public static FpNegExpr create(final Expr<?> op) {
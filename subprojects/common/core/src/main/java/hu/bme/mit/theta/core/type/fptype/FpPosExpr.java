@@ -19,6 +19,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.castFp;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.abstracttype.PosExpr;
 
 public final class FpPosExpr extends PosExpr<FpType> {
@@ -31,7 +32,7 @@ public final class FpPosExpr extends PosExpr<FpType> {
     }
 
     public static FpPosExpr of(final Expr<FpType> op) {
-        return new FpPosExpr(op);
+        return ExprInterner.intern(new FpPosExpr(op));
     }
 
     public static FpPosExpr create(final Expr<?> op) {
@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.checkAllTypesEqual;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.BinaryExpr;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.utils.FpUtils;
 import org.kframework.mpfr.BigFloat;
 
@@ -36,7 +37,7 @@ public final class FpRemExpr extends BinaryExpr<FpType, FpType> {
     }
 
     public static FpRemExpr of(final Expr<FpType> leftOp, final Expr<FpType> rightOp) {
-        return new FpRemExpr(leftOp, rightOp);
+        return ExprInterner.intern(new FpRemExpr(leftOp, rightOp));
     }
 
     public static FpRemExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -19,6 +19,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.UnaryExpr;
 import hu.bme.mit.theta.core.utils.FpUtils;
 import org.kframework.mpfr.BigFloat;
@@ -55,7 +56,7 @@ public class FpToFpExpr extends UnaryExpr<FpType, FpType> {
             final Expr<FpType> op,
             final int exp,
             final int signBits) {
-        return new FpToFpExpr(roundingMode, op, exp, signBits);
+        return ExprInterner.intern(new FpToFpExpr(roundingMode, op, exp, signBits));
     }
 
     public static FpToFpExpr create(
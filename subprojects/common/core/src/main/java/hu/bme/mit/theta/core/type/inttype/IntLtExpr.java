@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.abstracttype.LtExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
@@ -35,7 +36,7 @@ public final class IntLtExpr extends LtExpr<IntType> {
     }
 
     public static IntLtExpr of(final Expr<IntType> leftOp, final Expr<IntType> rightOp) {
-        return new IntLtExpr(leftOp, rightOp);
+        return ExprInterner.intern(new IntLtExpr(leftOp, rightOp));
     }
 
     public static IntLtExpr create(final Expr<?> leftOp, final Expr<?> rightOp) {
@@ -20,6 +20,7 @@ import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
 import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
 
 import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.NullaryExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
@@ -50,7 +51,7 @@ public final class RatLitExpr extends NullaryExpr<RatType>
     }
 
     public static RatLitExpr of(final BigInteger num, final BigInteger denom) {
-        return new RatLitExpr(num, denom);
+        return ExprInterner.intern(new RatLitExpr(num, denom));
     }
 
     @Override
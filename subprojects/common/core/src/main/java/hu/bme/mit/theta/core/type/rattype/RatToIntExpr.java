@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.ExprInterner;
 import hu.bme.mit.theta.core.type.UnaryExpr;
 import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
 import hu.bme.mit.theta.core.type.inttype.IntType;
@@ -35,7 +36,7 @@ public final class RatToIntExpr extends UnaryExpr<RatType, IntType> {
     }
 
     public static RatToIntExpr of(final Expr<RatType> op) {
-        return new RatToIntExpr(op);
+        return ExprInterner.intern(new RatToIntExpr(op));
     }
 
     public static RatToIntExpr create(final Expr<?> op) {
@@ -15,16 +15,21 @@
  */
 package hu.bme.mit.theta.core.utils;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.*;
 import static hu.bme.mit.theta.core.type.bvtype.BvExprs.Bv;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
 import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
 import static hu.bme.mit.theta.core.utils.SimplifierLevel.LITERAL_ONLY;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
 import hu.bme.mit.theta.common.DispatchTable2;
 import hu.bme.mit.theta.common.Tuple2;
 import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.common.container.Containers;
+import hu.bme.mit.theta.core.decl.Decl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
@@ -50,12 +55,40 @@ import java.math.BigInteger;
 import java.util.*;
 import org.kframework.mpfr.BigFloat;
 
+/**
+ * Simplifies expressions and substitutes valuations into them. Simplifiers are stateless and can
+ * be shared between threads.
+ *
+ * <p>A memoizing simplifier (see {@link #createMemoizing(SimplifierLevel, long)}) additionally
+ * caches its results, keyed by the expression and the values the valuation assigns to the
+ * declarations of the expression, so re-simplifying the same formula (e.g., the same transition
+ * in every step of an analysis) is a lookup. Results are also remembered to be in normal form:
+ * when such an expression reappears as a subexpression, and the valuation does not assign any of
+ * its declarations, it is not traversed again.
+ */
 public final class ExprSimplifier {
 
     private final SimplifierLevel level;
 
-    private ExprSimplifier(final SimplifierLevel level) {
+    private final Cache<MemoKey, Expr<?>> results;
+    private final Cache<Expr<?>, List<Decl<?>>> decls;
+    private final Set<Expr<?>> normalForms;
+
+    private record MemoKey(Expr<?> expr, List<LitExpr<?>> values) {}
+
+    private ExprSimplifier(final SimplifierLevel level, final long maximumSize) {
         this.level = level;
+        if (maximumSize > 0) {
+            results = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+            // Expressions are compared by identity here, which is cheap and still hits for the
+            // shared (or interned) subexpressions of formulas
+            decls = CacheBuilder.newBuilder().weakKeys().maximumSize(maximumSize).build();
+            normalForms = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+        } else {
+            results = null;
+            decls = null;
+            normalForms = null;
+        }
     }
 
     public static ExprSimplifier create() {
@@ -63,17 +96,86 @@ public final class ExprSimplifier {
     }
 
     public static ExprSimplifier create(final SimplifierLevel level) {
-        return new ExprSimplifier(level);
+        return new ExprSimplifier(level, 0);
+    }
+
+    /**
+     * Creates a simplifier that memoizes its results in a bounded cache.
+     *
+     * @param level Simplifier level
+     * @param maximumSize Maximal number of cached results
+     * @return Memoizing simplifier
+     */
+    public static ExprSimplifier createMemoizing(
+            final SimplifierLevel level, final long maximumSize) {
+        checkArgument(maximumSize > 0, "Cache size must be positive");
+        return new ExprSimplifier(level, maximumSize);
+    }
+
+    public boolean isMemoizing() {
+        return results != null;
     }
 
     @SuppressWarnings("unchecked")
     public <T extends Type> Expr<T> simplify(final Expr<T> expr, final Valuation valuation) {
+        if (results == null) {
+            return simplifyNode(expr, valuation);
+        }
+        final MemoKey key = new MemoKey(expr, project(expr, valuation));
+        final Expr<?> cached = results.getIfPresent(key);
+        if (cached != null) {
+            return (Expr<T>) cached;
+        }
+        final Expr<T> result = simplifyNode(expr, valuation);
+        results.put(key, result);
+        normalForms.add(result);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Type> Expr<T> simplifyNode(final Expr<T> expr, final Valuation valuation) {
         if (expr.isInvalid()) {
             return new InvalidLitExpr<>(expr.getType());
         }
+        if (normalForms != null
+                && normalForms.contains(expr)
+                && project(expr, valuation).stream().allMatch(Objects::isNull)) {
+            return expr;
+        }
         return (Expr<T>) TABLE.dispatch(expr, valuation);
     }
 
+    /** The values of the declarations of an expression in a valuation, null if unassigned. */
+    private List<LitExpr<?>> project(final Expr<?> expr, final Valuation valuation) {
+        final List<Decl<?>> exprDecls = declsOf(expr);
+        final LitExpr<?>[] values = new LitExpr<?>[exprDecls.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = valuation.eval(exprDecls.get(i)).orElse(null);
+        }
+        return Arrays.asList(values);
+    }
+
+    private List<Decl<?>> declsOf(final Expr<?> expr) {
+        final List<Decl<?>> cached = decls.getIfPresent(expr);
+        if (cached != null) {
+            return cached;
+        }
+        final List<Decl<?>> result;
+        if (expr instanceof RefExpr<?> ref) {
+            result = List.of(ref.getDecl());
+        } else if (expr.getArity() == 0) {
+            result = List.of();
+        } else {
+            final Set<Decl<?>> collected = new LinkedHashSet<>();
+            for (Expr<?> op : expr.getOps()) {
+                collected.addAll(declsOf(op));
+            }
+            result = List.copyOf(collected);
+        }
+        decls.put(expr, result);
+        return result;
+    }
+
     private final DispatchTable2<Valuation, Expr<?>> TABLE =
             DispatchTable2.<Valuation, Expr<?>>builder()
 
@@ -215,7 +317,7 @@ public final class ExprSimplifier {
                     .addDefault(
                             (o, val) -> {
                                 final Expr<?> expr = (Expr<?>) o;
-                                return expr.map(e -> simplify(e, val));
+                                return expr.map(e -> simplifyNode(e, val));
                             })
                     .build();
 
@@ -247,25 +349,25 @@ public final class ExprSimplifier {
     // this kind of type inference
     private <ExprType extends Type> Expr<ExprType> simplifyGenericIte(
             final IteExpr<ExprType> expr, final Valuation val) {
-        final Expr<BoolType> cond = simplify(expr.getCond(), val);
+        final Expr<BoolType> cond = simplifyNode(expr.getCond(), val);
 
         if (cond instanceof TrueExpr) {
-            final Expr<ExprType> then = simplify(expr.getThen(), val);
+            final Expr<ExprType> then = simplifyNode(expr.getThen(), val);
             return then;
 
         } else if (cond instanceof FalseExpr) {
-            final Expr<ExprType> elze = simplify(expr.getElse(), val);
+            final Expr<ExprType> elze = simplifyNode(expr.getElse(), val);
             return elze;
         }
 
-        final Expr<ExprType> then = simplify(expr.getThen(), val);
-        final Expr<ExprType> elze = simplify(expr.getElse(), val);
+        final Expr<ExprType> then = simplifyNode(expr.getThen(), val);
+        final Expr<ExprType> elze = simplifyNode(expr.getElse(), val);
 
         return expr.with(cond, then, elze);
     }
 
     private Expr<?> simplifyDereference(final Dereference<?, ?, ?> expr, final Valuation val) {
-        return expr.map(it -> simplify(it, val));
+        return expr.map(it -> simplifyNode(it, val));
     }
 
     private Expr<?> simplifyArrayRead(final ArrayReadExpr<?, ?> expr, final Valuation val) {
@@ -274,8 +376,8 @@ public final class ExprSimplifier {
 
     private <IT extends Type, ET extends Type> Expr<ET> simplifyGenericArrayRead(
             final ArrayReadExpr<IT, ET> expr, final Valuation val) {
-        Expr<ArrayType<IT, ET>> arr = simplify(expr.getArray(), val);
-        Expr<IT> index = simplify(expr.getIndex(), val);
+        Expr<ArrayType<IT, ET>> arr = simplifyNode(expr.getArray(), val);
+        Expr<IT> index = simplifyNode(expr.getIndex(), val);
         if (arr instanceof LitExpr<?>
                 && index
                         instanceof
@@ -292,9 +394,9 @@ public final class ExprSimplifier {
 
     private <IT extends Type, ET extends Type> Expr<ArrayType<IT, ET>> simplifyGenericArrayWrite(
             final ArrayWriteExpr<IT, ET> expr, final Valuation val) {
-        Expr<ArrayType<IT, ET>> arr = simplify(expr.getArray(), val);
-        Expr<IT> index = simplify(expr.getIndex(), val);
-        Expr<ET> elem = simplify(expr.getElem(), val);
+        Expr<ArrayType<IT, ET>> arr = simplifyNode(expr.getArray(), val);
+        Expr<IT> index = simplifyNode(expr.getIndex(), val);
+        Expr<ET> elem = simplifyNode(expr.getElem(), val);
         if (arr instanceof LitExpr<?>
                 && index instanceof LitExpr<?>
                 && elem instanceof LitExpr<?>) {
@@ -307,11 +409,11 @@ public final class ExprSimplifier {
             final ArrayInitExpr<IT, ET> t, final Valuation val) {
         boolean nonLiteralFound = false;
         List<Tuple2<Expr<IT>, Expr<ET>>> newElements = new ArrayList<>();
-        Expr<ET> newElseElem = simplify(t.getElseElem(), val);
+        Expr<ET> newElseElem = simplifyNode(t.getElseElem(), val);
         if (!(newElseElem instanceof LitExpr)) nonLiteralFound = true;
         for (Tuple2<Expr<IT>, Expr<ET>> element : t.getElements()) {
-            Expr<IT> newIndex = simplify(element.get1(), val);
-            Expr<ET> newElement = simplify(element.get2(), val);
+            Expr<IT> newIndex = simplifyNode(element.get1(), val);
+            Expr<ET> newElement = simplifyNode(element.get2(), val);
             newElements.add(Tuple2.of(newIndex, newElement));
             if (!(newElement instanceof LitExpr) || !(newIndex instanceof LitExpr))
                 nonLiteralFound = true;
@@ -321,7 +423,7 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyNot(final NotExpr expr, final Valuation val) {
-        final Expr<BoolType> op = simplify(expr.getOp(), val);
+        final Expr<BoolType> op = simplifyNode(expr.getOp(), val);
         if (op instanceof NotExpr) {
             return ((NotExpr) op).getOp();
         } else if (op instanceof TrueExpr) {
@@ -338,8 +440,8 @@ public final class ExprSimplifier {
      */
 
     private Expr<BoolType> simplifyImply(final ImplyExpr expr, final Valuation val) {
-        final Expr<BoolType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BoolType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BoolType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BoolType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BoolLitExpr && rightOp instanceof BoolLitExpr) {
             final boolean leftValue = ((BoolLitExpr) leftOp).getValue();
@@ -356,15 +458,15 @@ public final class ExprSimplifier {
         } else if (leftOp instanceof TrueExpr) {
             return rightOp;
         } else if (rightOp instanceof FalseExpr) {
-            return simplify(Not(leftOp), val);
+            return simplifyNode(Not(leftOp), val);
         }
 
         return expr.with(leftOp, rightOp);
     }
 
     private Expr<BoolType> simplifyIff(final IffExpr expr, final Valuation val) {
-        final Expr<BoolType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BoolType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BoolType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BoolType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BoolLitExpr && rightOp instanceof BoolLitExpr) {
             final boolean leftValue = ((BoolLitExpr) leftOp).getValue();
@@ -381,17 +483,17 @@ public final class ExprSimplifier {
         } else if (rightOp instanceof TrueExpr) {
             return leftOp;
         } else if (leftOp instanceof FalseExpr) {
-            return simplify(Not(rightOp), val);
+            return simplifyNode(Not(rightOp), val);
         } else if (rightOp instanceof FalseExpr) {
-            return simplify(Not(leftOp), val);
+            return simplifyNode(Not(leftOp), val);
         }
 
         return expr.with(leftOp, rightOp);
     }
 
     private Expr<BoolType> simplifyXor(final XorExpr expr, final Valuation val) {
-        final Expr<BoolType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BoolType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BoolType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BoolType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BoolLitExpr && rightOp instanceof BoolLitExpr) {
             final boolean leftValue = ((BoolLitExpr) leftOp).getValue();
@@ -404,9 +506,9 @@ public final class ExprSimplifier {
         }
 
         if (leftOp instanceof TrueExpr) {
-            return simplify(Not(rightOp), val);
+            return simplifyNode(Not(rightOp), val);
         } else if (rightOp instanceof TrueExpr) {
-            return simplify(Not(leftOp), val);
+            return simplifyNode(Not(leftOp), val);
         } else if (leftOp instanceof FalseExpr) {
             return rightOp;
         } else if (rightOp instanceof FalseExpr) {
@@ -424,7 +526,7 @@ public final class ExprSimplifier {
         }
 
         for (final Expr<BoolType> op : expr.getOps()) {
-            final Expr<BoolType> opVisited = simplify(op, val);
+            final Expr<BoolType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof TrueExpr) {
                 continue;
             } else if (opVisited instanceof FalseExpr) {
@@ -454,7 +556,7 @@ public final class ExprSimplifier {
         }
 
         for (final Expr<BoolType> op : expr.getOps()) {
-            final Expr<BoolType> opVisited = simplify(op, val);
+            final Expr<BoolType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof FalseExpr) {
                 continue;
             } else if (opVisited instanceof TrueExpr) {
@@ -480,7 +582,7 @@ public final class ExprSimplifier {
         final List<Expr<RatType>> ops = new ArrayList<>();
 
         for (final Expr<RatType> op : expr.getOps()) {
-            final Expr<RatType> opVisited = simplify(op, val);
+            final Expr<RatType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof RatAddExpr) {
                 final RatAddExpr addOp = (RatAddExpr) opVisited;
                 ops.addAll(addOp.getOps());
@@ -521,8 +623,8 @@ public final class ExprSimplifier {
      */
 
     private Expr<RatType> simplifyRatSub(final RatSubExpr expr, final Valuation val) {
-        final Expr<RatType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<RatType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<RatType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<RatType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof RatLitExpr && rightOp instanceof RatLitExpr) {
             final RatLitExpr leftLit = (RatLitExpr) leftOp;
@@ -540,11 +642,11 @@ public final class ExprSimplifier {
     }
 
     private Expr<RatType> simplifyRatPos(final RatPosExpr expr, final Valuation val) {
-        return simplify(expr.getOp(), val);
+        return simplifyNode(expr.getOp(), val);
     }
 
     private Expr<RatType> simplifyRatNeg(final RatNegExpr expr, final Valuation val) {
-        final Expr<RatType> op = simplify(expr.getOp(), val);
+        final Expr<RatType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof RatLitExpr) {
             final RatLitExpr litOp = (RatLitExpr) op;
@@ -561,7 +663,7 @@ public final class ExprSimplifier {
         final List<Expr<RatType>> ops = new ArrayList<>();
 
         for (final Expr<RatType> op : expr.getOps()) {
-            final Expr<RatType> opVisited = simplify(op, val);
+            final Expr<RatType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof RatMulExpr) {
                 final RatMulExpr mulOp = (RatMulExpr) opVisited;
                 ops.addAll(mulOp.getOps());
@@ -601,8 +703,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<RatType> simplifyRatDiv(final RatDivExpr expr, final Valuation val) {
-        final Expr<RatType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<RatType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<RatType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<RatType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof RatLitExpr && rightOp instanceof RatLitExpr) {
             final RatLitExpr leftLit = (RatLitExpr) leftOp;
@@ -614,8 +716,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyRatEq(final RatEqExpr expr, final Valuation val) {
-        final Expr<RatType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<RatType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<RatType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<RatType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof RatLitExpr && rightOp instanceof RatLitExpr) {
             return Bool(leftOp.equals(rightOp));
@@ -629,8 +731,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyRatNeq(final RatNeqExpr expr, final Valuation val) {
-        final Expr<RatType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<RatType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<RatType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<RatType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof RatLitExpr && rightOp instanceof RatLitExpr) {
             return Bool(!leftOp.equals(rightOp));
@@ -644,8 +746,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyRatGeq(final RatGeqExpr expr, final Valuation val) {
-        final Expr<RatType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<RatType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<RatType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<RatType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof RatLitExpr && rightOp instanceof RatLitExpr) {
             final RatLitExpr leftLit = (RatLitExpr) leftOp;
@@ -663,8 +765,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyRatGt(final RatGtExpr expr, final Valuation val) {
-        final Expr<RatType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<RatType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<RatType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<RatType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof RatLitExpr && rightOp instanceof RatLitExpr) {
             final RatLitExpr leftLit = (RatLitExpr) leftOp;
@@ -682,8 +784,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyRatLeq(final RatLeqExpr expr, final Valuation val) {
-        final Expr<RatType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<RatType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<RatType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<RatType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof RatLitExpr && rightOp instanceof RatLitExpr) {
             final RatLitExpr leftLit = (RatLitExpr) leftOp;
@@ -701,8 +803,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyRatLt(final RatLtExpr expr, final Valuation val) {
-        final Expr<RatType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<RatType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<RatType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<RatType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof RatLitExpr && rightOp instanceof RatLitExpr) {
             final RatLitExpr leftLit = (RatLitExpr) leftOp;
@@ -720,7 +822,7 @@ public final class ExprSimplifier {
     }
 
     private Expr<IntType> simplifyRatToInt(final RatToIntExpr expr, final Valuation val) {
-        final Expr<RatType> op = simplify(expr.getOp(), val);
+        final Expr<RatType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof RatLitExpr) {
             final RatLitExpr litOp = (RatLitExpr) op;
@@ -731,7 +833,7 @@ public final class ExprSimplifier {
     }
 
     private Expr<RatType> simplifyIntToRat(final IntToRatExpr expr, final Valuation val) {
-        final Expr<IntType> op = simplify(expr.getOp(), val);
+        final Expr<IntType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof IntLitExpr) {
             final IntLitExpr litOp = (IntLitExpr) op;
@@ -749,7 +851,7 @@ public final class ExprSimplifier {
         final List<Expr<IntType>> ops = new ArrayList<>();
 
         for (final Expr<IntType> op : expr.getOps()) {
-            final Expr<IntType> opVisited = simplify(op, val);
+            final Expr<IntType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof IntAddExpr) {
                 final IntAddExpr addOp = (IntAddExpr) opVisited;
                 ops.addAll(addOp.getOps());
@@ -783,8 +885,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<IntType> simplifyIntSub(final IntSubExpr expr, final Valuation val) {
-        final Expr<IntType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<IntType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<IntType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<IntType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof IntLitExpr && rightOp instanceof IntLitExpr) {
             final IntLitExpr leftLit = (IntLitExpr) leftOp;
@@ -802,11 +904,11 @@ public final class ExprSimplifier {
     }
 
     private Expr<IntType> simplifyIntPos(final IntPosExpr expr, final Valuation val) {
-        return simplify(expr.getOp(), val);
+        return simplifyNode(expr.getOp(), val);
     }
 
     private Expr<IntType> simplifyIntNeg(final IntNegExpr expr, final Valuation val) {
-        final Expr<IntType> op = simplify(expr.getOp(), val);
+        final Expr<IntType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof IntLitExpr) {
             final IntLitExpr litOp = (IntLitExpr) op;
@@ -823,7 +925,7 @@ public final class ExprSimplifier {
         final List<Expr<IntType>> ops = new ArrayList<>();
 
         for (final Expr<IntType> op : expr.getOps()) {
-            final Expr<IntType> opVisited = simplify(op, val);
+            final Expr<IntType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof IntMulExpr) {
                 final IntMulExpr mulOp = (IntMulExpr) opVisited;
                 ops.addAll(mulOp.getOps());
@@ -860,8 +962,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<IntType> simplifyIntDiv(final IntDivExpr expr, final Valuation val) {
-        final Expr<IntType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<IntType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<IntType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<IntType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof IntLitExpr && rightOp instanceof IntLitExpr) {
             final IntLitExpr leftLit = (IntLitExpr) leftOp;
@@ -876,8 +978,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<IntType> simplifyMod(final IntModExpr expr, final Valuation val) {
-        final Expr<IntType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<IntType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<IntType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<IntType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof IntLitExpr && rightOp instanceof IntLitExpr) {
             final IntLitExpr leftLit = (IntLitExpr) leftOp;
@@ -895,8 +997,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<IntType> simplifyRem(final IntRemExpr expr, final Valuation val) {
-        final Expr<IntType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<IntType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<IntType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<IntType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof IntLitExpr && rightOp instanceof IntLitExpr) {
             final IntLitExpr leftLit = (IntLitExpr) leftOp;
@@ -904,15 +1006,15 @@ public final class ExprSimplifier {
             return leftLit.rem(rightLit);
         } else if (leftOp instanceof IntRemExpr
                 && ((IntRemExpr) leftOp).getRightOp().equals(rightOp)) {
-            return simplify(leftOp, val);
+            return simplifyNode(leftOp, val);
         }
 
         return expr.with(leftOp, rightOp);
     }
 
     private Expr<BoolType> simplifyIntEq(final IntEqExpr expr, final Valuation val) {
-        final Expr<IntType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<IntType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<IntType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<IntType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         // special case for C: (= (ite expr 1 0) 0) ==> not(expr)
         if (rightOp instanceof IntLitExpr litExpr
@@ -937,8 +1039,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyIntNeq(final IntNeqExpr expr, final Valuation val) {
-        final Expr<IntType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<IntType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<IntType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<IntType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         // special case for C: (\= (ite expr 1 0) 0) ==> expr
         if (rightOp instanceof IntLitExpr litExpr
@@ -963,8 +1065,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyIntGeq(final IntGeqExpr expr, final Valuation val) {
-        final Expr<IntType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<IntType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<IntType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<IntType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof IntLitExpr && rightOp instanceof IntLitExpr) {
             final IntLitExpr leftLit = (IntLitExpr) leftOp;
@@ -982,8 +1084,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyIntGt(final IntGtExpr expr, final Valuation val) {
-        final Expr<IntType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<IntType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<IntType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<IntType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof IntLitExpr && rightOp instanceof IntLitExpr) {
             final IntLitExpr leftLit = (IntLitExpr) leftOp;
@@ -1001,8 +1103,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyIntLeq(final IntLeqExpr expr, final Valuation val) {
-        final Expr<IntType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<IntType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<IntType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<IntType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof IntLitExpr && rightOp instanceof IntLitExpr) {
             final IntLitExpr leftLit = (IntLitExpr) leftOp;
@@ -1020,8 +1122,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyIntLt(final IntLtExpr expr, final Valuation val) {
-        final Expr<IntType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<IntType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<IntType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<IntType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof IntLitExpr && rightOp instanceof IntLitExpr) {
             final IntLitExpr leftLit = (IntLitExpr) leftOp;
@@ -1039,8 +1141,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyEnumEqExpr(final EnumEqExpr expr, final Valuation val) {
-        final Expr<EnumType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<EnumType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<EnumType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<EnumType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof EnumLitExpr leftLit && rightOp instanceof EnumLitExpr rightLit) {
             return Bool(leftLit.equals(rightLit));
@@ -1061,8 +1163,8 @@ public final class ExprSimplifier {
      */
 
     private Expr<BoolType> simplifyEnumNeqExpr(final EnumNeqExpr expr, final Valuation val) {
-        final Expr<EnumType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<EnumType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<EnumType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<EnumType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof EnumLitExpr leftLit && rightOp instanceof EnumLitExpr rightLit) {
             return Bool(!leftLit.equals(rightLit));
@@ -1082,7 +1184,7 @@ public final class ExprSimplifier {
         final List<Expr<BvType>> ops = new ArrayList<>();
 
         for (final Expr<BvType> op : expr.getOps()) {
-            final Expr<BvType> opVisited = simplify(op, val);
+            final Expr<BvType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof BvConcatExpr) {
                 final BvConcatExpr addOp = (BvConcatExpr) opVisited;
                 ops.addAll(addOp.getOps());
@@ -1115,7 +1217,7 @@ public final class ExprSimplifier {
      */
 
     private Expr<BvType> simplifyBvExtract(final BvExtractExpr expr, final Valuation val) {
-        final Expr<BvType> bitvec = simplify(expr.getBitvec(), val);
+        final Expr<BvType> bitvec = simplifyNode(expr.getBitvec(), val);
 
         if (bitvec instanceof BvLitExpr) {
             return ((BvLitExpr) bitvec).extract(expr.getFrom(), expr.getUntil());
@@ -1125,7 +1227,7 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvZExt(final BvZExtExpr expr, final Valuation val) {
-        final Expr<BvType> bitvec = simplify(expr.getOp(), val);
+        final Expr<BvType> bitvec = simplifyNode(expr.getOp(), val);
 
         if (bitvec instanceof BvLitExpr) {
             return ((BvLitExpr) bitvec).zext(expr.getExtendType());
@@ -1135,7 +1237,7 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvSExt(final BvSExtExpr expr, final Valuation val) {
-        final Expr<BvType> bitvec = simplify(expr.getOp(), val);
+        final Expr<BvType> bitvec = simplifyNode(expr.getOp(), val);
 
         if (bitvec instanceof BvLitExpr) {
             return ((BvLitExpr) bitvec).sext(expr.getExtendType());
@@ -1148,7 +1250,7 @@ public final class ExprSimplifier {
         final List<Expr<BvType>> ops = new ArrayList<>();
 
         for (final Expr<BvType> op : expr.getOps()) {
-            final Expr<BvType> opVisited = simplify(op, val);
+            final Expr<BvType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof BvAddExpr) {
                 final BvAddExpr addOp = (BvAddExpr) opVisited;
                 ops.addAll(addOp.getOps());
@@ -1181,8 +1283,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvSub(final BvSubExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1200,11 +1302,11 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvPos(final BvPosExpr expr, final Valuation val) {
-        return simplify(expr.getOp(), val);
+        return simplifyNode(expr.getOp(), val);
     }
 
     private Expr<IntType> simplifyBvToInt(final BvToIntExpr expr, final Valuation val) {
-        final var op = simplify(expr.getOp(), val);
+        final var op = simplifyNode(expr.getOp(), val);
         if (op instanceof BvLitExpr opVal) {
             if (expr.isSigned()) {
                 return IntLitExpr.of(BvUtils.signedBvLitExprToBigInteger(opVal));
@@ -1216,11 +1318,11 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvSignChange(final BvSignChangeExpr expr, final Valuation val) {
-        return simplify(expr.getOp(), val);
+        return simplifyNode(expr.getOp(), val);
     }
 
     private Expr<BvType> simplifyBvNeg(final BvNegExpr expr, final Valuation val) {
-        final Expr<BvType> op = simplify(expr.getOp(), val);
+        final Expr<BvType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof BvLitExpr) {
             final BvLitExpr litOp = (BvLitExpr) op;
@@ -1237,7 +1339,7 @@ public final class ExprSimplifier {
         final List<Expr<BvType>> ops = new ArrayList<>();
 
         for (final Expr<BvType> op : expr.getOps()) {
-            final Expr<BvType> opVisited = simplify(op, val);
+            final Expr<BvType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof BvMulExpr) {
                 final BvMulExpr mulOp = (BvMulExpr) opVisited;
                 ops.addAll(mulOp.getOps());
@@ -1277,8 +1379,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvUDiv(final BvUDivExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1298,8 +1400,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvSDiv(final BvSDivExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1319,8 +1421,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvSMod(final BvSModExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1338,8 +1440,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvURem(final BvURemExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1357,8 +1459,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvSRem(final BvSRemExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1379,7 +1481,7 @@ public final class ExprSimplifier {
         final List<Expr<BvType>> ops = new ArrayList<>();
 
         for (final Expr<BvType> op : expr.getOps()) {
-            final Expr<BvType> opVisited = simplify(op, val);
+            final Expr<BvType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof BvAndExpr) {
                 final BvAndExpr addOp = (BvAndExpr) opVisited;
                 ops.addAll(addOp.getOps());
@@ -1420,7 +1522,7 @@ public final class ExprSimplifier {
         final List<Expr<BvType>> ops = new ArrayList<>();
 
         for (final Expr<BvType> op : expr.getOps()) {
-            final Expr<BvType> opVisited = simplify(op, val);
+            final Expr<BvType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof BvOrExpr) {
                 final BvOrExpr addOp = (BvOrExpr) opVisited;
                 ops.addAll(addOp.getOps());
@@ -1458,7 +1560,7 @@ public final class ExprSimplifier {
         final List<Expr<BvType>> ops = new ArrayList<>();
 
         for (final Expr<BvType> op : expr.getOps()) {
-            final Expr<BvType> opVisited = simplify(op, val);
+            final Expr<BvType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof BvXorExpr) {
                 final BvXorExpr addOp = (BvXorExpr) opVisited;
                 ops.addAll(addOp.getOps());
@@ -1493,7 +1595,7 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvNot(final BvNotExpr expr, final Valuation val) {
-        final Expr<BvType> op = simplify(expr.getOp(), val);
+        final Expr<BvType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof BvLitExpr) {
             final BvLitExpr litOp = (BvLitExpr) op;
@@ -1507,8 +1609,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvShiftLeft(final BvShiftLeftExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1521,8 +1623,8 @@ public final class ExprSimplifier {
 
     private Expr<BvType> simplifyBvArithShiftRight(
             final BvArithShiftRightExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1535,8 +1637,8 @@ public final class ExprSimplifier {
 
     private Expr<BvType> simplifyBvLogicShiftRight(
             final BvLogicShiftRightExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1548,8 +1650,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvRotateLeft(final BvRotateLeftExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1561,8 +1663,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyBvRotateRight(final BvRotateRightExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1574,8 +1676,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyBvEq(final BvEqExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         // special case for C: (= (ite expr 1 0) 0) ==> not(expr)
         if (rightOp instanceof BvLitExpr litExpr
@@ -1600,8 +1702,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyBvNeq(final BvNeqExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         // special case for C: (\= (ite expr 1 0) 0) ==> expr
         if (rightOp instanceof BvLitExpr litExpr
@@ -1626,8 +1728,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyBvUGeq(final BvUGeqExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1645,8 +1747,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyBvUGt(final BvUGtExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1664,8 +1766,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyBvULeq(final BvULeqExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1683,8 +1785,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyBvULt(final BvULtExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1702,8 +1804,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyBvSGeq(final BvSGeqExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1721,8 +1823,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyBvSGt(final BvSGtExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1740,8 +1842,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyBvSLeq(final BvSLeqExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1759,8 +1861,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyBvSLt(final BvSLtExpr expr, final Valuation val) {
-        final Expr<BvType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<BvType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<BvType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<BvType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof BvLitExpr && rightOp instanceof BvLitExpr) {
             final BvLitExpr leftLit = (BvLitExpr) leftOp;
@@ -1781,7 +1883,7 @@ public final class ExprSimplifier {
         final List<Expr<FpType>> ops = new ArrayList<>();
 
         for (final Expr<FpType> op : expr.getOps()) {
-            final Expr<FpType> opVisited = simplify(op, val);
+            final Expr<FpType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof FpAddExpr) {
                 final FpAddExpr addOp = (FpAddExpr) opVisited;
                 ops.addAll(addOp.getOps());
@@ -1817,8 +1919,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<FpType> simplifyFpSub(final FpSubExpr expr, final Valuation val) {
-        final Expr<FpType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<FpType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<FpType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<FpType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof FpLitExpr && rightOp instanceof FpLitExpr) {
             final FpLitExpr leftLit = (FpLitExpr) leftOp;
@@ -1837,11 +1939,11 @@ public final class ExprSimplifier {
     }
 
     private Expr<FpType> simplifyFpPos(final FpPosExpr expr, final Valuation val) {
-        return simplify(expr.getOp(), val);
+        return simplifyNode(expr.getOp(), val);
     }
 
     private Expr<FpType> simplifyFpNeg(final FpNegExpr expr, final Valuation val) {
-        final Expr<FpType> op = simplify(expr.getOp(), val);
+        final Expr<FpType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof FpLitExpr) {
             final FpLitExpr litOp = (FpLitExpr) op;
@@ -1855,7 +1957,7 @@ public final class ExprSimplifier {
     }
 
     private Expr<FpType> simplifyFpAbs(final FpAbsExpr expr, final Valuation val) {
-        final Expr<FpType> op = simplify(expr.getOp(), val);
+        final Expr<FpType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof FpAbsExpr) {
             final FpAbsExpr absOp = (FpAbsExpr) op;
@@ -1866,7 +1968,7 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyFpIsNan(final FpIsNanExpr expr, final Valuation val) {
-        final Expr<FpType> op = simplify(expr.getOp(), val);
+        final Expr<FpType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof FpLitExpr) {
             return Bool(((FpLitExpr) op).isNaN());
@@ -1876,7 +1978,7 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyFpIsInfinite(final FpIsInfiniteExpr expr, final Valuation val) {
-        final Expr<FpType> op = simplify(expr.getOp(), val);
+        final Expr<FpType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof FpLitExpr) {
             return Bool(
@@ -1889,7 +1991,7 @@ public final class ExprSimplifier {
 
     private Expr<FpType> simplifyFpRoundToIntegral(
             final FpRoundToIntegralExpr expr, final Valuation val) {
-        final Expr<FpType> op = simplify(expr.getOp(), val);
+        final Expr<FpType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof FpRoundToIntegralExpr) {
             final FpRoundToIntegralExpr rndOp = (FpRoundToIntegralExpr) op;
@@ -1904,7 +2006,7 @@ public final class ExprSimplifier {
         final List<Expr<FpType>> ops = new ArrayList<>();
 
         for (final Expr<FpType> op : expr.getOps()) {
-            final Expr<FpType> opVisited = simplify(op, val);
+            final Expr<FpType> opVisited = simplifyNode(op, val);
             if (opVisited instanceof FpMulExpr) {
                 final FpMulExpr mulOp = (FpMulExpr) opVisited;
                 ops.addAll(mulOp.getOps());
@@ -1951,8 +2053,8 @@ public final class ExprSimplifier {
 
     private Expr<FpType> simplifyFpDiv(final FpDivExpr expr, final Valuation val) {
         if (true) return expr; // Rationale: https://github.com/ftsrg/theta/issues/180
-        final Expr<FpType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<FpType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<FpType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<FpType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof FpLitExpr && rightOp instanceof FpLitExpr) {
             final FpLitExpr leftLit = (FpLitExpr) leftOp;
@@ -1964,8 +2066,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyFpEq(final FpEqExpr expr, final Valuation val) {
-        final Expr<FpType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<FpType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<FpType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<FpType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof FpLitExpr lLit && rightOp instanceof FpLitExpr rLit) {
             return lLit.eq(rLit);
@@ -1975,8 +2077,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyFpAssign(final FpAssignExpr expr, final Valuation val) {
-        final Expr<FpType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<FpType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<FpType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<FpType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof FpLitExpr && rightOp instanceof FpLitExpr) {
             return Bool(leftOp.equals(rightOp));
@@ -1986,8 +2088,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyFpGeq(final FpGeqExpr expr, final Valuation val) {
-        final Expr<FpType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<FpType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<FpType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<FpType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof FpLitExpr && rightOp instanceof FpLitExpr) {
             return expr.eval(val);
@@ -1997,8 +2099,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyFpLeq(final FpLeqExpr expr, final Valuation val) {
-        final Expr<FpType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<FpType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<FpType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<FpType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof FpLitExpr && rightOp instanceof FpLitExpr) {
             return expr.eval(val);
@@ -2008,8 +2110,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyFpGt(final FpGtExpr expr, final Valuation val) {
-        final Expr<FpType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<FpType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<FpType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<FpType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof FpLitExpr && rightOp instanceof FpLitExpr) {
             return expr.eval(val);
@@ -2019,8 +2121,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyFpLt(final FpLtExpr expr, final Valuation val) {
-        final Expr<FpType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<FpType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<FpType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<FpType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof FpLitExpr && rightOp instanceof FpLitExpr) {
             return expr.eval(val);
@@ -2030,8 +2132,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<BoolType> simplifyFpNeq(final FpNeqExpr expr, final Valuation val) {
-        final Expr<FpType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<FpType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<FpType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<FpType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof FpLitExpr lLit && rightOp instanceof FpLitExpr rLit) {
             return lLit.neq(rLit);
@@ -2045,8 +2147,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<FpType> simplifyFpMax(final FpMaxExpr expr, final Valuation val) {
-        final Expr<FpType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<FpType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<FpType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<FpType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof FpLitExpr && rightOp instanceof FpLitExpr) {
             return expr.eval(val);
@@ -2056,8 +2158,8 @@ public final class ExprSimplifier {
     }
 
     private Expr<FpType> simplifyFpMin(final FpMinExpr expr, final Valuation val) {
-        final Expr<FpType> leftOp = simplify(expr.getLeftOp(), val);
-        final Expr<FpType> rightOp = simplify(expr.getRightOp(), val);
+        final Expr<FpType> leftOp = simplifyNode(expr.getLeftOp(), val);
+        final Expr<FpType> rightOp = simplifyNode(expr.getRightOp(), val);
 
         if (leftOp instanceof FpLitExpr && rightOp instanceof FpLitExpr) {
             return expr.eval(val);
@@ -2067,7 +2169,7 @@ public final class ExprSimplifier {
     }
 
     private Expr<FpType> simplifyFpSqrt(final FpSqrtExpr expr, final Valuation val) {
-        final Expr<FpType> op = simplify(expr.getOp(), val);
+        final Expr<FpType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof FpLitExpr) {
             return expr.eval(val);
@@ -2077,7 +2179,7 @@ public final class ExprSimplifier {
     }
 
     private Expr<FpType> simplifyFpFromBv(final FpFromBvExpr expr, final Valuation val) {
-        final Expr<BvType> sgn = simplify(expr.getOp(), val);
+        final Expr<BvType> sgn = simplifyNode(expr.getOp(), val);
 
         if (sgn instanceof BvLitExpr) {
             return expr.eval(val);
@@ -2087,7 +2189,7 @@ public final class ExprSimplifier {
     }
 
     private Expr<BvType> simplifyFpToBv(final FpToBvExpr expr, final Valuation val) {
-        final Expr<FpType> op = simplify(expr.getOp(), val);
+        final Expr<FpType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof FpLitExpr) {
             return expr.eval(val);
@@ -2096,12 +2198,12 @@ public final class ExprSimplifier {
     }
 
     private Expr<FpType> simplifyFpToFp(final FpToFpExpr expr, final Valuation val) {
-        final Expr<FpType> op = simplify(expr.getOp(), val);
+        final Expr<FpType> op = simplifyNode(expr.getOp(), val);
 
         if (op instanceof FpLitExpr) {
             return expr.eval(val);
         } else if (op instanceof FpToFpExpr) {
-            return simplify(expr.with(((FpToFpExpr) op).getOp()), val);
+            return simplifyNode(expr.with(((FpToFpExpr) op).getOp()), val);
         }
 
         return expr.with(op);
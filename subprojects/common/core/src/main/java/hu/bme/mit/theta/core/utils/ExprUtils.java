@@ -50,10 +50,23 @@ import java.util.stream.Collectors;
 /** Utility functions related to expressions. */
 public final class ExprUtils {
 
-    private static final ExprSimplifier exprSimplifier = ExprSimplifier.create();
+    private static volatile ExprSimplifier exprSimplifier = ExprSimplifier.create();
 
     private ExprUtils() {}
 
+    /**
+     * Memoize the results of {@link #simplify(Expr, Valuation)} in a bounded cache, or stop
+     * memoizing. Memoization is disabled by default.
+     *
+     * @param maximumSize Maximal number of cached results, or 0 to disable memoization
+     */
+    public static void setSimplifierCacheSize(final long maximumSize) {
+        exprSimplifier =
+                maximumSize > 0
+                        ? ExprSimplifier.createMemoizing(SimplifierLevel.FULL, maximumSize)
+                        : ExprSimplifier.create();
+    }
+
     /**
      * Collect atoms from a Boolean expression into a given collection.
      *
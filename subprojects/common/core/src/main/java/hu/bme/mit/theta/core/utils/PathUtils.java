@@ -19,6 +19,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static hu.bme.mit.theta.core.type.anytype.Exprs.Prime;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import hu.bme.mit.theta.core.decl.ConstDecl;
 import hu.bme.mit.theta.core.decl.Decl;
 import hu.bme.mit.theta.core.decl.IndexedConstDecl;
@@ -38,6 +40,14 @@ import java.util.Optional;
 /** Utility functions related to paths. */
 public class PathUtils {
 
+    private static final int UNFOLD_INDEXINGS = 16;
+    private static final int UNFOLD_MEMO_SIZE = 10_000;
+
+    // The same expressions are often unfolded with the same indexing (e.g., the transition
+    // relation in every query of IC3), so the unfolded subterms are kept for recent indexings
+    private static final Cache<VarIndexing, UnfoldHelper> unfoldHelpers =
+            CacheBuilder.newBuilder().maximumSize(UNFOLD_INDEXINGS).build();
+
     private PathUtils() {}
 
     ////
@@ -58,7 +68,11 @@ public class PathUtils {
     public static <T extends Type> Expr<T> unfold(final Expr<T> expr, final VarIndexing indexing) {
         checkNotNull(expr);
         checkNotNull(indexing);
-        final UnfoldHelper helper = new UnfoldHelper(indexing);
+        UnfoldHelper helper = unfoldHelpers.getIfPresent(indexing);
+        if (helper == null) {
+            helper = new UnfoldHelper(indexing);
+            unfoldHelpers.put(indexing, helper);
+        }
         return helper.unfold(expr, 0);
     }
 
@@ -187,10 +201,14 @@ public class PathUtils {
 
     private static final class UnfoldHelper {
 
+        private record Unfolding(Expr<?> expr, int offset) {}
+
         private final VarIndexing indexing;
+        private final Cache<Unfolding, Expr<?>> memo;
 
         private UnfoldHelper(final VarIndexing indexing) {
             this.indexing = indexing;
+            memo = CacheBuilder.newBuilder().maximumSize(UNFOLD_MEMO_SIZE).build();
         }
 
         public <T extends Type> Expr<T> unfold(final Expr<T> expr, final int offset) {
@@ -212,7 +230,19 @@ public class PathUtils {
                 return unfold(op, offset + 1);
             }
 
-            return expr.map(op -> unfold(op, offset));
+            if (expr.getArity() == 0) {
+                return expr.map(op -> unfold(op, offset));
+            }
+
+            final Unfolding key = new Unfolding(expr, offset);
+            @SuppressWarnings("unchecked")
+            final Expr<T> cached = (Expr<T>) memo.getIfPresent(key);
+            if (cached != null) {
+                return cached;
+            }
+            final Expr<T> result = expr.map(op -> unfold(op, offset));
+            memo.put(key, result);
+            return result;
         }
     }
 
@@ -42,6 +42,8 @@ public class BasicVarIndexing implements VarIndexing {
     private final int defaultIndex;
     private final Map<VarDecl<?>, Integer> varToOffset;
 
+    private volatile int hashCode = 0;
+
     private BasicVarIndexing(final BasicVarIndexingBuilder builder) {
         defaultIndex = builder.defaultIndex;
         varToOffset = ImmutableMap.copyOf(builder.varToOffset);
@@ -327,6 +329,29 @@ public class BasicVarIndexing implements VarIndexing {
         }
     }
 
+    @Override
+    public int hashCode() {
+        int result = hashCode;
+        if (result == 0) {
+            result = 31 * defaultIndex + varToOffset.hashCode();
+            hashCode = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj != null && this.getClass() == obj.getClass()) {
+            final BasicVarIndexing that = (BasicVarIndexing) obj;
+            return this.defaultIndex == that.defaultIndex
+                    && this.varToOffset.equals(that.varToOffset);
+        } else {
+            return false;
+        }
+    }
+
     @Override
     public String toString() {
         final StringJoiner sj = new StringJoiner(", ", "IndexMap(", ")");
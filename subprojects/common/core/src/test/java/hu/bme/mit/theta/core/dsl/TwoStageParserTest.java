@@ -0,0 +1,91 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.dsl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import hu.bme.mit.theta.core.dsl.gen.CoreDslLexer;
+import hu.bme.mit.theta.core.dsl.gen.CoreDslParser;
+import java.util.ArrayList;
+import java.util.List;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.junit.Test;
+
+public class TwoStageParserTest {
+
+    private static final class CollectingErrorListener extends BaseErrorListener {
+        private final List<String> errors = new ArrayList<>();
+
+        @Override
+        public void syntaxError(
+                final Recognizer<?, ?> recognizer,
+                final Object offendingSymbol,
+                final int line,
+                final int charPositionInLine,
+                final String msg,
+                final RecognitionException e) {
+            errors.add(line + ":" + charPositionInLine + " " + msg);
+        }
+    }
+
+    private static CoreDslParser createParser(
+            final String string, final CollectingErrorListener listener) {
+        final CoreDslLexer lexer = new CoreDslLexer(CharStreams.fromString(string));
+        final CoreDslParser parser = new CoreDslParser(new CommonTokenStream(lexer));
+        parser.removeErrorListeners();
+        parser.addErrorListener(listener);
+        return parser;
+    }
+
+    private static void assertSameAsLl(final String string) {
+        final CollectingErrorListener expectedErrors = new CollectingErrorListener();
+        final CoreDslParser expectedParser = createParser(string, expectedErrors);
+        final String expected = expectedParser.expr().toStringTree(expectedParser);
+
+        final CollectingErrorListener actualErrors = new CollectingErrorListener();
+        final CoreDslParser actualParser = createParser(string, actualErrors);
+        final String actual =
+                TwoStageParser.parse(actualParser, CoreDslParser::expr).toStringTree(actualParser);
+
+        assertEquals(expected, actual);
+        assertEquals(expectedErrors.errors, actualErrors.errors);
+        assertEquals(PredictionMode.LL, actualParser.getInterpreter().getPredictionMode());
+        assertTrue(actualParser.getErrorHandler() instanceof DefaultErrorStrategy);
+        assertEquals(List.of(actualErrors), actualParser.getErrorListeners());
+    }
+
+    @Test
+    public void testValidInput() {
+        final long fallbacks = TwoStageParser.getFallbackCount();
+        assertSameAsLl("(x + 1) * y < 2 and not b");
+        assertSameAsLl("(x : int) -> (x + 1) * y");
+        assertEquals(fallbacks, TwoStageParser.getFallbackCount());
+    }
+
+    @Test
+    public void testInvalidInput() {
+        final long fallbacks = TwoStageParser.getFallbackCount();
+        assertSameAsLl("(x + ) * y");
+        assertTrue(TwoStageParser.getFallbackCount() > fallbacks);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.type;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Gt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.bvtype.BvExprs;
+import hu.bme.mit.theta.core.type.bvtype.BvToIntExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvType;
+import hu.bme.mit.theta.core.type.inttype.IntExprs;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+
+public class ExprInternerTest {
+
+    private final ConstDecl<IntType> x = Const("x", Int());
+    private final ConstDecl<BoolType> b = Const("b", BoolType.getInstance());
+    private final ConstDecl<BvType> y = Const("y", BvExprs.BvType(4));
+
+    private Expr<BoolType> build() {
+        return And(List.of(Gt(Add(x.getRef(), Int(1)), Int(0)), Not(b.getRef())));
+    }
+
+    @After
+    public void tearDown() {
+        ExprInterner.setEnabled(false);
+        ExprInterner.clear();
+    }
+
+    @Test
+    public void testDisabled() {
+        final Expr<BoolType> expr1 = build();
+        final Expr<BoolType> expr2 = build();
+        assertEquals(expr1, expr2);
+        assertNotSame(expr1, expr2);
+        assertEquals(0, ExprInterner.getTableSize());
+    }
+
+    @Test
+    public void testEnabled() {
+        ExprInterner.setEnabled(true);
+        final Expr<BoolType> expr1 = build();
+        final Expr<BoolType> expr2 = build();
+        assertSame(expr1, expr2);
+        assertSame(expr1.getOps().get(0), expr2.getOps().get(0));
+
+        // 1, x + 1, 0, x + 1 > 0, not b, and: misses first, then hits (refs are built with decls)
+        assertEquals(6, ExprInterner.getMissCount());
+        assertEquals(6, ExprInterner.getHitCount());
+        assertEquals(0.5, ExprInterner.getHitRate(), 0);
+        assertEquals(6, ExprInterner.getTableSize());
+    }
+
+    @Test
+    public void testEnabledLater() {
+        final Expr<BoolType> expr1 = build();
+        ExprInterner.setEnabled(true);
+        final Expr<BoolType> expr2 = build();
+        final Expr<BoolType> expr3 = build();
+        assertEquals(expr1, expr2);
+        assertNotSame(expr1, expr2);
+        assertSame(expr2, expr3);
+    }
+
+    @Test
+    public void testMixedSignedness() {
+        ExprInterner.setEnabled(true);
+        final boolean[] value = {false, false, true, true};
+        final Expr<BvType> unsignedSum =
+                BvExprs.Add(List.of(BvExprs.Bv(value, false), y.getRef()));
+        final Expr<BvType> signedSum = BvExprs.Add(List.of(BvExprs.Bv(value, true), y.getRef()));
+        assertEquals(unsignedSum, signedSum);
+        assertFalse(unsignedSum.getType().getSigned());
+        assertTrue(signedSum.getType().getSigned());
+
+        final BvToIntExpr unsignedInt = BvExprs.ToInt(unsignedSum);
+        final BvToIntExpr signedInt = BvExprs.ToInt(signedSum);
+        assertFalse(unsignedInt.isSigned());
+        assertTrue(signedInt.isSigned());
+
+        // Neither are expressions merged when the bitvectors are hidden deeper
+        final Expr<BoolType> unsignedEq = IntExprs.Eq(BvExprs.ToInt(unsignedSum), Int(0));
+        final Expr<BoolType> signedEq = IntExprs.Eq(BvExprs.ToInt(signedSum), Int(0));
+        assertNotSame(unsignedEq, signedEq);
+        assertTrue(((BvToIntExpr) signedEq.getOps().get(0)).isSigned());
+    }
+}
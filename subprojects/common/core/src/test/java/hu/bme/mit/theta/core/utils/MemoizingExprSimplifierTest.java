@@ -0,0 +1,137 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.utils;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Leq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class MemoizingExprSimplifierTest {
+
+    private final VarDecl<IntType> x = Var("x", Int());
+    private final VarDecl<IntType> y = Var("y", Int());
+    private final VarDecl<IntType> z = Var("z", Int());
+
+    private final ExprSimplifier plain = ExprSimplifier.create();
+
+    private List<Expr<BoolType>> exprs() {
+        return List.of(
+                And(Leq(x.getRef(), Add(Int(1), Int(2))), Lt(y.getRef(), z.getRef())),
+                Or(Eq(x.getRef(), y.getRef()), Not(And(True(), Lt(z.getRef(), Int(0))))),
+                Eq(Add(x.getRef(), y.getRef(), Int(0)), Add(Int(3), z.getRef())),
+                Not(Not(Leq(Add(x.getRef(), Int(1)), Int(5)))));
+    }
+
+    private List<Valuation> valuations() {
+        return List.of(
+                ImmutableValuation.empty(),
+                ImmutableValuation.builder().put(x, Int(1)).build(),
+                ImmutableValuation.builder().put(x, Int(4)).build(),
+                ImmutableValuation.builder().put(x, Int(2)).put(y, Int(2)).build(),
+                ImmutableValuation.builder().put(x, Int(1)).put(y, Int(0)).put(z, Int(-1)).build());
+    }
+
+    @Test
+    public void testSameResults() {
+        final ExprSimplifier memoizing = ExprSimplifier.createMemoizing(SimplifierLevel.FULL, 100);
+        // Repeat, so that results are also returned from the cache and as normal forms
+        for (int round = 0; round < 3; round++) {
+            for (Expr<BoolType> expr : exprs()) {
+                for (Valuation val : valuations()) {
+                    assertEquals(plain.simplify(expr, val), memoizing.simplify(expr, val));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNormalFormsSkipped() {
+        final ExprSimplifier memoizing = ExprSimplifier.createMemoizing(SimplifierLevel.FULL, 100);
+        final Expr<BoolType> expr = exprs().get(0);
+        final Expr<BoolType> simplified = memoizing.simplify(expr, ImmutableValuation.empty());
+        assertSame(simplified, memoizing.simplify(simplified, ImmutableValuation.empty()));
+        assertSame(simplified, memoizing.simplify(expr, ImmutableValuation.empty()));
+        final Valuation val = ImmutableValuation.builder().put(y, Int(5)).build();
+        assertEquals(plain.simplify(simplified, val), memoizing.simplify(simplified, val));
+    }
+
+    @Test
+    public void testSmallCache() {
+        final ExprSimplifier memoizing = ExprSimplifier.createMemoizing(SimplifierLevel.FULL, 1);
+        for (int round = 0; round < 2; round++) {
+            for (Valuation val : valuations()) {
+                for (Expr<BoolType> expr : exprs()) {
+                    assertEquals(plain.simplify(expr, val), memoizing.simplify(expr, val));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        final ExprSimplifier memoizing = ExprSimplifier.createMemoizing(SimplifierLevel.FULL, 100);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<List<Expr<BoolType>>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    final List<Expr<BoolType>> results = new ArrayList<>();
+                                    for (Expr<BoolType> expr : exprs()) {
+                                        for (Valuation val : valuations()) {
+                                            results.add(memoizing.simplify(expr, val));
+                                        }
+                                    }
+                                    return results;
+                                }));
+            }
+            final List<Expr<BoolType>> expected = new ArrayList<>();
+            for (Expr<BoolType> expr : exprs()) {
+                for (Valuation val : valuations()) {
+                    expected.add(plain.simplify(expr, val));
+                }
+            }
+            for (Future<List<Expr<BoolType>>> future : futures) {
+                assertEquals(expected, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
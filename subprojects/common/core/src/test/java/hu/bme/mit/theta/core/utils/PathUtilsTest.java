@@ -53,6 +53,23 @@ public class PathUtilsTest {
                 PathUtils.unfold(Eq(Prime(vx.getRef()), Add(vy.getRef(), Int(1))), 1));
     }
 
+    @Test
+    public void testUnfoldRepeated() {
+        final var expr = Eq(Prime(vx.getRef()), Add(vy.getRef(), Prime(Add(vx.getRef(), Int(1)))));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(
+                    Eq(x1.getRef(), Add(y0.getRef(), Add(x1.getRef(), Int(1)))),
+                    PathUtils.unfold(expr, 0));
+            // Equal to, but not the same as the indexing of the previous unfolding
+            Assert.assertEquals(
+                    Eq(x2.getRef(), Add(y1.getRef(), Add(x2.getRef(), Int(1)))),
+                    PathUtils.unfold(expr, VarIndexingFactory.indexingBuilder(1).build()));
+            Assert.assertEquals(
+                    Eq(x2.getRef(), Add(y0.getRef(), Add(x2.getRef(), Int(1)))),
+                    PathUtils.unfold(expr, VarIndexingFactory.indexingBuilder(0).inc(vx).build()));
+        }
+    }
+
     @Test
     public void testUnfoldReversed() {
         Assert.assertEquals(
@@ -76,10 +76,18 @@ class LtlCheckTestWithCfaPred(
     @JvmStatic
     @Parameterized.Parameters(name = "{3}-{4}: {0}")
     fun params() =
-      listOf(LoopCheckerSearchStrategy.GDFS, LoopCheckerSearchStrategy.NDFS).flatMap { search ->
-        listOf(ASGTraceCheckerStrategy.DIRECT_REFINEMENT, ASGTraceCheckerStrategy.BOUNDED_UNROLLING)
-          .flatMap { ref -> data().map { arrayOf(*it, search, ref) } }
-      }
+      listOf(
+          LoopCheckerSearchStrategy.GDFS,
+          LoopCheckerSearchStrategy.NDFS,
+          LoopCheckerSearchStrategy.CNDFS,
+        )
+        .flatMap { search ->
+          listOf(
+              ASGTraceCheckerStrategy.DIRECT_REFINEMENT,
+              ASGTraceCheckerStrategy.BOUNDED_UNROLLING,
+            )
+            .flatMap { ref -> data().map { arrayOf(*it, search, ref) } }
+        }
   }
 
   @Test
@@ -108,9 +108,16 @@ class LtlCheckTestWithXstsPred(
     @JvmStatic
     @Parameterized.Parameters(name = "{3}-{4}: {0}")
     fun params() =
-      listOf(LoopCheckerSearchStrategy.GDFS, LoopCheckerSearchStrategy.NDFS).flatMap { search ->
-        ASGTraceCheckerStrategy.entries.flatMap { ref -> data().map { arrayOf(*it, search, ref) } }
-      }
+      listOf(
+          LoopCheckerSearchStrategy.GDFS,
+          LoopCheckerSearchStrategy.NDFS,
+          LoopCheckerSearchStrategy.CNDFS,
+        )
+        .flatMap { search ->
+          ASGTraceCheckerStrategy.entries.flatMap { ref ->
+            data().map { arrayOf(*it, search, ref) }
+          }
+        }
   }
 
   @Test
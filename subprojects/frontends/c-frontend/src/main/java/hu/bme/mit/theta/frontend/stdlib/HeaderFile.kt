@@ -18,6 +18,7 @@ package hu.bme.mit.theta.frontend.stdlib
 import hu.bme.mit.theta.c.frontend.dsl.gen.CBaseVisitor
 import hu.bme.mit.theta.c.frontend.dsl.gen.CLexer
 import hu.bme.mit.theta.c.frontend.dsl.gen.CParser
+import hu.bme.mit.theta.core.dsl.TwoStageParser
 import org.antlr.v4.runtime.BailErrorStrategy
 import org.antlr.v4.runtime.CharStreams
 import org.antlr.v4.runtime.CommonTokenStream
@@ -39,21 +40,32 @@ enum class HeaderFile(val filename: String, val content: String) {
   STDIO_H("stdio.h", stdio_h),
   STDLIB_H("stdlib.h", stdlib_h),
   STRING_H("string.h", string_h),
-  TIME_H("time.h", time_h),
+  TIME_H("time.h", time_h);
+
+  /**
+   * The parse tree of the header, built on first use. Visitors only read parse trees, so a single
+   * tree is shared by every translation unit including the header in this JVM.
+   */
+  val translationUnit: CParser.TranslationUnitContext by lazy { parse(content) }
 }
 
-private fun fromPath(s: String): String =
-  HeaderFile.entries.firstOrNull() { it.filename == s }?.content ?: ""
+private val headerFiles = HeaderFile.entries.associateBy { it.filename }
 
-private val includePattern = Regex("<(.*)>")
+private val emptyTranslationUnit by lazy { parse("") }
 
-fun <T> parseHeaderFile(includeDirective: String, visitor: CBaseVisitor<T>): T? {
-  val headerFile = includePattern.find(includeDirective)?.groupValues?.get(1) ?: return null
-  val input = CharStreams.fromString(fromPath(headerFile))
+private fun parse(content: String): CParser.TranslationUnitContext {
+  val input = CharStreams.fromString(content)
   val lexer = CLexer(input)
   val tokens = CommonTokenStream(lexer)
   val parser = CParser(tokens)
   parser.setErrorHandler(BailErrorStrategy())
-  val context = parser.translationUnit()
+  return TwoStageParser.parse(parser) { it.translationUnit() }
+}
+
+private val includePattern = Regex("<(.*)>")
+
+fun <T> parseHeaderFile(includeDirective: String, visitor: CBaseVisitor<T>): T? {
+  val headerFile = includePattern.find(includeDirective)?.groupValues?.get(1) ?: return null
+  val context = headerFiles[headerFile]?.translationUnit ?: emptyTranslationUnit
   return context.accept(visitor)
 }
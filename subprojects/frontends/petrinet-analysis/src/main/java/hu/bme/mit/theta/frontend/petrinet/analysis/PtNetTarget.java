@@ -0,0 +1,277 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.frontend.petrinet.analysis;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Geq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+
+import hu.bme.mit.delta.java.mdd.MddHandle;
+import hu.bme.mit.delta.java.mdd.MddNode;
+import hu.bme.mit.delta.java.mdd.MddVariable;
+import hu.bme.mit.delta.java.mdd.MddVariableHandle;
+import hu.bme.mit.theta.analysis.algorithm.mdd.ansd.AbstractNextStateDescriptor;
+import hu.bme.mit.theta.core.decl.Decls;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.booltype.FalseExpr;
+import hu.bme.mit.theta.core.type.booltype.SmartBoolExprs;
+import hu.bme.mit.theta.core.type.booltype.TrueExpr;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+import hu.bme.mit.theta.frontend.petrinet.model.PTArc;
+import hu.bme.mit.theta.frontend.petrinet.model.Place;
+import hu.bme.mit.theta.frontend.petrinet.model.Transition;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A set of target markings of a {@link PtNetSystem} described by a predicate over the token counts
+ * of the places. Targets are evaluated natively on the markings: partially assigning the places
+ * simplifies the predicate, without involving a solver.
+ *
+ * <p>A target can be checked on a computed state space by {@link #findTarget(MddHandle)}, and it
+ * can be detected on the fly during state space generation by the next state descriptor returned
+ * by {@link #onTheFly(AbstractNextStateDescriptor)}, which stops the generation as soon as a target
+ * marking is produced.
+ */
+public final class PtNetTarget {
+
+    private record Assignment(Expr<BoolType> residual, Place place, int tokens) {}
+
+    private record SearchKey(MddNode node, Expr<BoolType> residual) {}
+
+    private final PtNetSystem system;
+    private final Expr<BoolType> expr;
+    private final Map<Place, VarDecl<IntType>> placeToVar;
+
+    private final Map<Assignment, Expr<BoolType>> assignmentCache = new ConcurrentHashMap<>();
+    private final AtomicBoolean reached = new AtomicBoolean(false);
+
+    private PtNetTarget(
+            final PtNetSystem system,
+            final Expr<BoolType> expr,
+            final Map<Place, VarDecl<IntType>> placeToVar) {
+        this.system = checkNotNull(system);
+        this.expr = ExprUtils.simplify(expr);
+        this.placeToVar = placeToVar;
+    }
+
+    /**
+     * Creates the variables representing the token counts of the places of a system in target
+     * predicates, keyed by the ids of the places.
+     */
+    public static Map<String, VarDecl<IntType>> createPlaceVars(final PtNetSystem system) {
+        final Map<String, VarDecl<IntType>> placeIdToVar = new LinkedHashMap<>();
+        for (Place place : system.getPetriNet().getPlaces()) {
+            placeIdToVar.put(place.getId(), Decls.Var(place.getId(), IntType.getInstance()));
+        }
+        return placeIdToVar;
+    }
+
+    /**
+     * Creates a target from a predicate over the place variables, e.g. the negation of a
+     * cardinality or fireability invariant.
+     */
+    public static PtNetTarget of(
+            final PtNetSystem system,
+            final Expr<BoolType> expr,
+            final Map<String, VarDecl<IntType>> placeIdToVar) {
+        final Map<Place, VarDecl<IntType>> placeToVar = new LinkedHashMap<>();
+        for (Place place : system.getPetriNet().getPlaces()) {
+            final VarDecl<IntType> var = placeIdToVar.get(place.getId());
+            checkArgument(var != null, "No variable for place %s", place.getId());
+            placeToVar.put(place, var);
+        }
+        return new PtNetTarget(system, expr, placeToVar);
+    }
+
+    /**
+     * Creates a target containing the dead markings of a system, i.e., the markings in which no
+     * transition is enabled. Inhibitor arcs are taken into account.
+     */
+    public static PtNetTarget deadlock(final PtNetSystem system) {
+        final Map<String, VarDecl<IntType>> placeIdToVar = createPlaceVars(system);
+        final List<Expr<BoolType>> disabled = new ArrayList<>();
+        for (Transition transition : system.getPetriNet().getTransitions()) {
+            final List<Expr<BoolType>> enabled = new ArrayList<>();
+            for (PTArc arc : transition.getIncomingArcs()) {
+                final VarDecl<IntType> var = placeIdToVar.get(arc.getSource().getId());
+                final int weight = Math.toIntExact(arc.getWeight());
+                if (arc.isInhibitor()) {
+                    enabled.add(Lt(var.getRef(), Int(weight)));
+                } else {
+                    enabled.add(Geq(var.getRef(), Int(weight)));
+                }
+            }
+            disabled.add(SmartBoolExprs.Not(SmartBoolExprs.And(enabled)));
+        }
+        return of(system, SmartBoolExprs.And(disabled), placeIdToVar);
+    }
+
+    public Expr<BoolType> getExpr() {
+        return expr;
+    }
+
+    /**
+     * Returns true if a target marking has been produced by a descriptor returned by {@link
+     * #onTheFly(AbstractNextStateDescriptor)}.
+     */
+    public boolean isReached() {
+        return reached.get();
+    }
+
+    /**
+     * Wraps the transitions of the system so that state space generation stops as soon as a
+     * target marking is produced. Initial markings are also checked here, as they are not produced
+     * by any transition.
+     */
+    public AbstractNextStateDescriptor onTheFly(final AbstractNextStateDescriptor transitions) {
+        Expr<BoolType> residual = expr;
+        for (Place place : system.getPetriNet().getPlaces()) {
+            residual = assign(residual, place, Math.toIntExact(place.getInitialMarking()));
+        }
+        if (isTarget(residual)) {
+            reached.set(true);
+        }
+        return PtNetTargetNextStateDescriptor.of(transitions, expr, this);
+    }
+
+    /**
+     * Searches for a target marking in a state space.
+     *
+     * <p>Places on skipped levels of the diagram, and places reached through a default edge, can
+     * have any number of tokens, so they are left unassigned. If no marking satisfies the target
+     * regardless of these places, but the target depends on them, the search fails instead of
+     * reporting that there is no target marking.
+     *
+     * @return a target marking contained in the state space, if any. Unassigned places are omitted
+     *     from the marking.
+     * @throws UnsupportedOperationException if the existence of a target marking depends on
+     *     unassigned places
+     */
+    public Optional<Map<Place, Integer>> findTarget(final MddHandle stateSpace) {
+        final Map<Place, Integer> marking = new LinkedHashMap<>();
+        final Set<Expr<BoolType>> undecided = new HashSet<>();
+        final boolean found =
+                search(
+                        stateSpace.getVariableHandle(),
+                        stateSpace.getNode(),
+                        expr,
+                        marking,
+                        new HashSet<>(),
+                        undecided);
+        if (found) {
+            return Optional.of(marking);
+        }
+        if (!undecided.isEmpty()) {
+            throw new UnsupportedOperationException(
+                    "Target depends on places that are not assigned in the state space: "
+                            + undecided.iterator().next());
+        }
+        return Optional.empty();
+    }
+
+    private boolean search(
+            final MddVariableHandle variableHandle,
+            final MddNode node,
+            final Expr<BoolType> residual,
+            final Map<Place, Integer> marking,
+            final Set<SearchKey> refuted,
+            final Set<Expr<BoolType>> undecided) {
+        if (isRefuted(residual) || node == variableHandle.getMddGraph().getTerminalZeroNode()) {
+            return false;
+        }
+        if (node.isTerminal()) {
+            if (!isTarget(residual)) {
+                // The residual only depends on unassigned places, which are unconstrained
+                undecided.add(residual);
+                return false;
+            }
+            return true;
+        }
+
+        final SearchKey key = new SearchKey(node, residual);
+        if (refuted.contains(key)) {
+            return false;
+        }
+
+        final MddVariable variable = variableHandle.getVariable().orElseThrow();
+        final MddVariableHandle lower = variableHandle.getLower().orElseThrow();
+        if (node.isOn(variable)) {
+            final Place place = (Place) variable.getTraceInfo();
+            for (var cursor = node.cursor(); cursor.moveNext(); ) {
+                marking.put(place, cursor.key());
+                if (search(
+                        lower,
+                        cursor.value(),
+                        assign(residual, place, cursor.key()),
+                        marking,
+                        refuted,
+                        undecided)) {
+                    return true;
+                }
+                marking.remove(place);
+            }
+            if (node.defaultValue() != null
+                    && search(lower, node.defaultValue(), residual, marking, refuted, undecided)) {
+                return true;
+            }
+        } else if (search(lower, node, residual, marking, refuted, undecided)) {
+            return true;
+        }
+
+        refuted.add(key);
+        return false;
+    }
+
+    Expr<BoolType> assign(final Expr<BoolType> residual, final Place place, final int tokens) {
+        if (isTarget(residual) || isRefuted(residual)) {
+            return residual;
+        }
+        return assignmentCache.computeIfAbsent(
+                new Assignment(residual, place, tokens),
+                assignment ->
+                        ExprUtils.simplify(
+                                residual,
+                                ImmutableValuation.builder()
+                                        .put(placeToVar.get(place), Int(tokens))
+                                        .build()));
+    }
+
+    void setReached() {
+        reached.set(true);
+    }
+
+    static boolean isTarget(final Expr<BoolType> residual) {
+        return residual instanceof TrueExpr;
+    }
+
+    static boolean isRefuted(final Expr<BoolType> residual) {
+        return residual instanceof FalseExpr;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.frontend.petrinet.analysis;
+
+import hu.bme.mit.delta.collections.IntObjMapView;
+import hu.bme.mit.delta.collections.impl.IntObjMapViews;
+import hu.bme.mit.theta.analysis.algorithm.mdd.ansd.AbstractNextStateDescriptor;
+import hu.bme.mit.theta.analysis.algorithm.mdd.ansd.StateSpaceInfo;
+import hu.bme.mit.theta.analysis.algorithm.mdd.ansd.impl.EmptyNextStateDescriptor;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.frontend.petrinet.model.Place;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Detects target markings on the fly, similarly to {@link
+ * hu.bme.mit.theta.analysis.algorithm.mdd.ansd.impl.OnTheFlyReachabilityNextStateDescriptor}, but
+ * the target is a predicate over the places instead of a decision diagram. Along the levels of the
+ * wrapped descriptor, the predicate is partially evaluated with the token counts of the next
+ * marking. Places not touched by the descriptor remain unassigned, so a target is only reported if
+ * the predicate holds regardless of them.
+ */
+final class PtNetTargetNextStateDescriptor implements AbstractNextStateDescriptor {
+
+    private final AbstractNextStateDescriptor wrapped;
+    private final Expr<BoolType> residual;
+    private final PtNetTarget target;
+
+    private PtNetTargetNextStateDescriptor(
+            final AbstractNextStateDescriptor wrapped,
+            final Expr<BoolType> residual,
+            final PtNetTarget target) {
+        this.wrapped = wrapped;
+        this.residual = residual;
+        this.target = target;
+    }
+
+    static AbstractNextStateDescriptor of(
+            final AbstractNextStateDescriptor wrapped,
+            final Expr<BoolType> residual,
+            final PtNetTarget target) {
+        if (wrapped == AbstractNextStateDescriptor.terminalEmpty()
+                || PtNetTarget.isRefuted(residual)) {
+            return wrapped;
+        }
+        if (wrapped == AbstractNextStateDescriptor.terminalIdentity()) {
+            // The remaining levels are left unchanged, nothing more can be learned below
+            if (PtNetTarget.isTarget(residual)) {
+                target.setReached();
+            }
+            return wrapped;
+        }
+        return new PtNetTargetNextStateDescriptor(wrapped, residual, target);
+    }
+
+    @Override
+    public IntObjMapView<AbstractNextStateDescriptor> getDiagonal(
+            final StateSpaceInfo localStateSpace) {
+        if (target.isReached()) {
+            return IntObjMapView.empty(EmptyNextStateDescriptor.INSTANCE);
+        }
+        final Place place = localStateSpace.getTraceInfo(Place.class);
+        return new IntObjMapViews.Transforming<>(
+                wrapped.getDiagonal(localStateSpace),
+                (descriptor, key) -> next(descriptor, place, key));
+    }
+
+    @Override
+    public IntObjMapView<IntObjMapView<AbstractNextStateDescriptor>> getOffDiagonal(
+            final StateSpaceInfo localStateSpace) {
+        if (target.isReached()) {
+            return IntObjMapView.empty(IntObjMapView.empty(EmptyNextStateDescriptor.INSTANCE));
+        }
+        final Place place = localStateSpace.getTraceInfo(Place.class);
+        return new IntObjMapViews.Transforming<>(
+                wrapped.getOffDiagonal(localStateSpace),
+                it ->
+                        new IntObjMapViews.Transforming<>(
+                                it, (descriptor, key) -> next(descriptor, place, key)));
+    }
+
+    private AbstractNextStateDescriptor next(
+            final AbstractNextStateDescriptor descriptor, final Place place, final Integer key) {
+        if (key == null) {
+            return of(descriptor, residual, target);
+        }
+        return of(descriptor, target.assign(residual, place, key), target);
+    }
+
+    @Override
+    public Optional<Iterable<AbstractNextStateDescriptor>> split() {
+        return wrapped.split()
+                .map(
+                        iterable -> {
+                            final var list = new ArrayList<AbstractNextStateDescriptor>();
+                            iterable.forEach(it -> list.add(of(it, residual, target)));
+                            return list;
+                        });
+    }
+
+    @Override
+    public boolean evaluate() {
+        final boolean result = wrapped.evaluate();
+        if (result && PtNetTarget.isTarget(residual)) {
+            target.setReached();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PtNetTargetNextStateDescriptor that = (PtNetTargetNextStateDescriptor) o;
+        return Objects.equals(wrapped, that.wrapped)
+                && Objects.equals(residual, that.residual)
+                && target == that.target;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(wrapped, residual);
+    }
+
+    @Override
+    public String toString() {
+        return wrapped + " [" + residual + "]";
+    }
+}
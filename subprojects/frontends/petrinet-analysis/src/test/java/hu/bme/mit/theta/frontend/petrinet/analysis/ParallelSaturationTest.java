@@ -0,0 +1,69 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.frontend.petrinet.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import hu.bme.mit.delta.java.mdd.JavaMddFactory;
+import hu.bme.mit.delta.java.mdd.MddHandle;
+import hu.bme.mit.delta.java.mdd.MddVariableOrder;
+import hu.bme.mit.delta.mdd.LatticeDefinition;
+import hu.bme.mit.delta.mdd.MddInterpreter;
+import hu.bme.mit.delta.mdd.MddVariableDescriptor;
+import hu.bme.mit.theta.analysis.algorithm.mdd.fixedpoint.ParallelSaturationProvider;
+import hu.bme.mit.theta.frontend.petrinet.model.PetriNet;
+import hu.bme.mit.theta.frontend.petrinet.model.Place;
+import hu.bme.mit.theta.frontend.petrinet.pnml.PetriNetParser;
+import java.io.File;
+import java.util.List;
+import org.junit.Test;
+
+public final class ParallelSaturationTest {
+
+    @Test
+    public void testParallelGS() throws Exception {
+        final File pnmlFile = new File(getClass().getResource(TestData.MODELPATH).toURI());
+        final List<PetriNet> petriNets = PetriNetParser.loadPnml(pnmlFile).parsePTNet();
+
+        assertEquals(1, petriNets.size());
+
+        final List<Place> ordering =
+                VariableOrderingFactory.fromPathString(
+                        getClass().getResource(TestData.ORDERINGPATH).toURI().getPath(),
+                        petriNets.get(0));
+
+        final PtNetSystem system = new PtNetSystem(petriNets.get(0), ordering);
+
+        final MddVariableOrder variableOrder =
+                JavaMddFactory.getDefault().createMddVariableOrder(LatticeDefinition.forSets());
+        for (Place p : ordering) {
+            variableOrder.createOnTop(MddVariableDescriptor.create(p));
+        }
+
+        final ParallelSaturationProvider provider =
+                new ParallelSaturationProvider(variableOrder, 4);
+
+        final MddHandle stateSpace =
+                provider.compute(
+                        system.getInitializer(),
+                        system.getTransitions(),
+                        variableOrder.getDefaultSetSignature().getTopVariableHandle());
+        provider.dispose();
+
+        final Long stateSpaceSize = MddInterpreter.calculateNonzeroCount(stateSpace);
+        assertEquals(TestData.STATESPACESIZE, stateSpaceSize.longValue());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.frontend.petrinet.analysis;
+
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Geq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hu.bme.mit.delta.java.mdd.JavaMddFactory;
+import hu.bme.mit.delta.java.mdd.MddHandle;
+import hu.bme.mit.delta.java.mdd.MddVariableOrder;
+import hu.bme.mit.delta.mdd.LatticeDefinition;
+import hu.bme.mit.delta.mdd.MddInterpreter;
+import hu.bme.mit.delta.mdd.MddVariableDescriptor;
+import hu.bme.mit.theta.analysis.algorithm.mdd.fixedpoint.GeneralizedSaturationProvider;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.booltype.SmartBoolExprs;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.frontend.petrinet.model.PetriNet;
+import hu.bme.mit.theta.frontend.petrinet.model.Place;
+import hu.bme.mit.theta.frontend.petrinet.pnml.PetriNetParser;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Test;
+
+public final class PtNetTargetTest {
+
+    private List<Place> ordering;
+
+    private PtNetSystem loadSystem(final String modelPath, final String orderingPath)
+            throws Exception {
+        final File pnmlFile = new File(getClass().getResource(modelPath).toURI());
+        final List<PetriNet> petriNets = PetriNetParser.loadPnml(pnmlFile).parsePTNet();
+        assertEquals(1, petriNets.size());
+
+        ordering =
+                VariableOrderingFactory.fromPathString(
+                        getClass().getResource(orderingPath).toURI().getPath(), petriNets.get(0));
+        return new PtNetSystem(petriNets.get(0), ordering);
+    }
+
+    private MddHandle generate(final PtNetSystem system, final PtNetTarget target) {
+        final MddVariableOrder variableOrder =
+                JavaMddFactory.getDefault().createMddVariableOrder(LatticeDefinition.forSets());
+        for (Place p : ordering) {
+            variableOrder.createOnTop(MddVariableDescriptor.create(p));
+        }
+        return new GeneralizedSaturationProvider(variableOrder)
+                .compute(
+                        system.getInitializer(),
+                        target.onTheFly(system.getTransitions()),
+                        variableOrder.getDefaultSetSignature().getTopVariableHandle());
+    }
+
+    @Test
+    public void testUnreachableTarget() throws Exception {
+        final PtNetSystem system = loadSystem(TestData.MODELPATH, TestData.ORDERINGPATH);
+        final Map<String, VarDecl<IntType>> placeIdToVar = PtNetTarget.createPlaceVars(system);
+        final PtNetTarget target =
+                PtNetTarget.of(
+                        system,
+                        SmartBoolExprs.Or(
+                                placeIdToVar.values().stream()
+                                        .map(v -> Geq(v.getRef(), Int(2)))
+                                        .toList()),
+                        placeIdToVar);
+
+        final MddHandle stateSpace = generate(system, target);
+
+        assertFalse(target.isReached());
+        assertFalse(target.findTarget(stateSpace).isPresent());
+        final Long stateSpaceSize = MddInterpreter.calculateNonzeroCount(stateSpace);
+        assertEquals(TestData.STATESPACESIZE, stateSpaceSize.longValue());
+    }
+
+    @Test
+    public void testDeadlock() throws Exception {
+        final PtNetSystem system =
+                loadSystem("/Philosophers-5.pnml", "/Philosophers-5.pnml.order");
+        final PtNetTarget target = PtNetTarget.deadlock(system);
+
+        final MddHandle stateSpace = generate(system, target);
+
+        final Optional<Map<Place, Integer>> marking = target.findTarget(stateSpace);
+        assertTrue(marking.isPresent());
+    }
+
+    @Test
+    public void testSkippedLevels() throws Exception {
+        final PtNetSystem system = loadSystem(TestData.MODELPATH, TestData.ORDERINGPATH);
+        final Map<String, VarDecl<IntType>> placeIdToVar = PtNetTarget.createPlaceVars(system);
+        final PtNetTarget target =
+                PtNetTarget.of(
+                        system,
+                        Geq(placeIdToVar.values().iterator().next().getRef(), Int(2)),
+                        placeIdToVar);
+
+        final MddVariableOrder variableOrder =
+                JavaMddFactory.getDefault().createMddVariableOrder(LatticeDefinition.forSets());
+        for (Place p : ordering) {
+            variableOrder.createOnTop(MddVariableDescriptor.create(p));
+        }
+        // Every level is skipped, so the places can have any number of tokens
+        final MddHandle stateSpace =
+                variableOrder
+                        .getDefaultSetSignature()
+                        .getTopVariableHandle()
+                        .getHandleFor(variableOrder.getMddGraph().getHandleForTop().getNode());
+
+        assertThrows(UnsupportedOperationException.class, () -> target.findTarget(stateSpace));
+    }
+}
@@ -125,10 +125,28 @@ public class PetriNetToXSTS {
         final NonDetStmt env = NonDetStmt.of(ImmutableList.of());
         final Set<VarDecl<?>> ctrlVars = ImmutableSet.of();
 
+        final Expr<BoolType> propExpr =
+                propType == PropType.DEADLOCK
+                        ? SmartBoolExprs.Or(transitionToGuard.values())
+                        : createPropExpr(net, propStream, propType, placeIdToVar);
+
+        return new XSTS(ctrlVars, init, tran, env, initExpr, propExpr);
+    }
+
+    /**
+     * Creates the invariant of a Petri net property over the given place variables. Deadlock
+     * properties depend on the transitions of the net, so they are not supported by this method.
+     */
+    public static Expr<BoolType> createPropExpr(
+            final PetriNet net,
+            final InputStream propStream,
+            final PropType propType,
+            final Map<String, VarDecl<IntType>> placeIdToVar) {
+        checkArgument(
+                propType != PropType.DEADLOCK, "Deadlock properties depend on the transitions");
+
         final Expr<BoolType> propExpr;
-        if (propType == PropType.DEADLOCK) {
-            propExpr = SmartBoolExprs.Or(transitionToGuard.values());
-        } else if (propType == PropType.PN_SAFE) {
+        if (propType == PropType.PN_SAFE) {
             propExpr =
                     SmartBoolExprs.And(
                             placeIdToVar.values().stream()
@@ -169,7 +187,7 @@ public class PetriNetToXSTS {
             propExpr = True();
         }
 
-        return new XSTS(ctrlVars, init, tran, env, initExpr, propExpr);
+        return propExpr;
     }
 
     private static String stripPropFromPropFile(final String propertyFile) {
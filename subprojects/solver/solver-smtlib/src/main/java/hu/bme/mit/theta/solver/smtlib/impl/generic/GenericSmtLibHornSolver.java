@@ -91,8 +91,7 @@ public class GenericSmtLibHornSolver extends SmtLibSolver implements HornSolver
 
     @Override
     public ProofNode getProof() {
-        solverBinary.issueCommand("(get-proof)");
-        var response = solverBinary.readResponse();
+        var response = query("(get-proof)");
         final var res = parseResponse(response);
         if (res.isError()) {
             throw new SmtLibSolverException(res.getReason());
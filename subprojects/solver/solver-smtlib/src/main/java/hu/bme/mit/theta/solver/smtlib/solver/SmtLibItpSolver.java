@@ -25,6 +25,7 @@ import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.core.type.enumtype.EnumType;
 import hu.bme.mit.theta.core.utils.ExprUtils;
 import hu.bme.mit.theta.solver.*;
+import hu.bme.mit.theta.solver.impl.ScopedSet;
 import hu.bme.mit.theta.solver.impl.StackImpl;
 import hu.bme.mit.theta.solver.smtlib.dsl.gen.SMTLIBv2Lexer;
 import hu.bme.mit.theta.solver.smtlib.dsl.gen.SMTLIBv2Parser;
@@ -54,7 +55,7 @@ public abstract class SmtLibItpSolver<T extends SmtLibItpMarker> implements ItpS
 
     protected final Stack<Expr<BoolType>> assertions;
     protected final Stack<T> markers;
-    protected final Stack<ConstDecl<?>> declarationStack;
+    protected final ScopedSet<ConstDecl<?>> declarationStack;
     protected final Stack<EnumType> typeStack;
     protected final SmtLibEnumStrategy enumStrategy;
 
@@ -89,7 +90,7 @@ public abstract class SmtLibItpSolver<T extends SmtLibItpMarker> implements ItpS
 
         this.assertions = new StackImpl<>();
         this.markers = new StackImpl<>();
-        this.declarationStack = new StackImpl<>();
+        this.declarationStack = new ScopedSet<>();
         typeStack = new StackImpl<>();
 
         init();
@@ -112,7 +113,7 @@ public abstract class SmtLibItpSolver<T extends SmtLibItpMarker> implements ItpS
         checkArgument(markers.toCollection().contains(marker));
 
         final var consts = ExprUtils.getConstants(assertion);
-        consts.removeAll(declarationStack.toCollection());
+        consts.removeIf(declarationStack::contains);
         declarationStack.add(consts);
         enumStrategy.declareDatatypes(
                 (Collection<Type>) consts.stream().map(ConstDecl::getType).toList(),
@@ -20,7 +20,6 @@ import static com.google.common.base.Preconditions.checkState;
 import hu.bme.mit.theta.core.decl.ConstDecl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
-import hu.bme.mit.theta.core.type.Type;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.core.type.enumtype.EnumType;
 import hu.bme.mit.theta.core.utils.ExprUtils;
@@ -29,6 +28,7 @@ import hu.bme.mit.theta.solver.SolverStatus;
 import hu.bme.mit.theta.solver.Stack;
 import hu.bme.mit.theta.solver.UCSolver;
 import hu.bme.mit.theta.solver.UnknownSolverStatusException;
+import hu.bme.mit.theta.solver.impl.ScopedSet;
 import hu.bme.mit.theta.solver.impl.StackImpl;
 import hu.bme.mit.theta.solver.smtlib.dsl.gen.SMTLIBv2Lexer;
 import hu.bme.mit.theta.solver.smtlib.dsl.gen.SMTLIBv2Parser;
@@ -42,12 +42,13 @@ import hu.bme.mit.theta.solver.smtlib.solver.parser.ThrowExceptionErrorListener;
 import hu.bme.mit.theta.solver.smtlib.solver.transformer.SmtLibSymbolTable;
 import hu.bme.mit.theta.solver.smtlib.solver.transformer.SmtLibTermTransformer;
 import hu.bme.mit.theta.solver.smtlib.solver.transformer.SmtLibTransformationManager;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 
@@ -63,11 +64,14 @@ public class SmtLibSolver implements UCSolver, Solver {
 
     protected final Stack<Expr<BoolType>> assertions;
     protected final Map<String, Expr<BoolType>> assumptions;
-    protected final Stack<ConstDecl<?>> declarationStack;
+    protected final ScopedSet<ConstDecl<?>> declarationStack;
     protected final Stack<EnumType> typeStack;
     protected final SmtLibEnumStrategy enumStrategy;
     private int labelNum = 0;
 
+    private final List<String> pendingCommands = new ArrayList<>();
+    private int pendingResponses = 0;
+
     protected Valuation model;
     protected Collection<Expr<BoolType>> unsatCore;
     protected SolverStatus status;
@@ -124,7 +128,7 @@ public class SmtLibSolver implements UCSolver, Solver {
 
         assertions = new StackImpl<>();
         assumptions = new HashMap<>();
-        declarationStack = new StackImpl<>();
+        declarationStack = new ScopedSet<>();
         typeStack = new StackImpl<>();
 
         init();
@@ -138,29 +142,17 @@ public class SmtLibSolver implements UCSolver, Solver {
     }
 
     public void add(final Expr<BoolType> assertion, final String term) {
-        final var consts =
-                ExprUtils.getConstants(assertion).stream()
-                        .filter(symbolTable::definesConst)
-                        .collect(Collectors.toSet());
-        consts.removeAll(declarationStack.toCollection());
-        declarationStack.add(consts);
+        final Map<ConstDecl<?>, String> symbols = new HashMap<>();
+        for (final ConstDecl<?> constDecl : ExprUtils.getConstants(assertion)) {
+            if (symbolTable.definesConst(constDecl)) {
+                symbols.put(constDecl, symbolTable.getSymbol(constDecl));
+            }
+        }
+        declare(symbols.keySet());
 
         assertions.add(assertion);
-        enumStrategy.declareDatatypes(
-                consts.stream().map(ConstDecl::getType).toList(),
-                typeStack,
-                this::issueGeneralCommand);
-        consts.stream().map(symbolTable::getDeclaration).forEach(this::issueGeneralCommand);
         issueGeneralCommand(
-                String.format(
-                        "(assert %s)",
-                        enumStrategy.wrapAssertionExpression(
-                                term,
-                                ExprUtils.getConstants(assertion).stream()
-                                        .filter(symbolTable::definesConst)
-                                        .collect(
-                                                Collectors.toMap(
-                                                        c -> c, symbolTable::getSymbol)))));
+                String.format("(assert %s)", enumStrategy.wrapAssertionExpression(term, symbols)));
 
         clearState();
     }
@@ -168,36 +160,41 @@ public class SmtLibSolver implements UCSolver, Solver {
     @Override
     public void track(Expr<BoolType> assertion) {
         final var consts = ExprUtils.getConstants(assertion);
-        consts.removeAll(declarationStack.toCollection());
-        declarationStack.add(consts);
-
         final var term = transformationManager.toTerm(assertion);
+        final Map<ConstDecl<?>, String> symbols = new HashMap<>();
+        for (final ConstDecl<?> constDecl : consts) {
+            symbols.put(constDecl, symbolTable.getSymbol(constDecl));
+        }
+        declare(consts);
+
         final var label = String.format(ASSUMPTION_LABEL, labelNum++);
         assumptions.put(label, assertion);
         assertions.add(assertion);
 
-        consts.stream().map(symbolTable::getDeclaration).forEach(this::issueGeneralCommand);
-        enumStrategy.declareDatatypes(
-                (Collection<Type>) consts.stream().map(ConstDecl::getType).toList(),
-                typeStack,
-                this::issueGeneralCommand);
         issueGeneralCommand(
                 String.format(
                         "(assert (! %s :named %s))",
-                        enumStrategy.wrapAssertionExpression(
-                                term,
-                                ExprUtils.getConstants(assertion).stream()
-                                        .collect(Collectors.toMap(c -> c, symbolTable::getSymbol))),
+                        enumStrategy.wrapAssertionExpression(term, symbols),
                         label));
 
         clearState();
     }
 
+    /** Declares the constants (and their enum types) that are not declared in any frame yet. */
+    private void declare(final Collection<? extends ConstDecl<?>> consts) {
+        final List<ConstDecl<?>> undeclared =
+                consts.stream().filter(c -> !declarationStack.contains(c)).toList();
+        declarationStack.add(undeclared);
+        enumStrategy.declareDatatypes(
+                undeclared.stream().map(ConstDecl::getType).toList(),
+                typeStack,
+                this::issueGeneralCommand);
+        undeclared.stream().map(symbolTable::getDeclaration).forEach(this::issueGeneralCommand);
+    }
+
     @Override
     public SolverStatus check() {
-        solverBinary.issueCommand("(check-sat)");
-
-        final String rp = solverBinary.readResponse();
+        final String rp = query("(check-sat)");
         final var res = parseResponse(rp);
         if (res.isError()) {
             throw new SmtLibSolverException(res.getReason());
@@ -237,6 +234,9 @@ public class SmtLibSolver implements UCSolver, Solver {
     @Override
     public void reset() {
         issueGeneralCommand("(reset)");
+        assertions.clear();
+        declarationStack.clear();
+        typeStack.clear();
         clearState();
         init();
     }
@@ -262,8 +262,7 @@ public class SmtLibSolver implements UCSolver, Solver {
         assert status == SolverStatus.SAT;
         assert model == null;
 
-        solverBinary.issueCommand("(get-model)");
-        final var res = parseResponse(solverBinary.readResponse());
+        final var res = parseResponse(query("(get-model)"));
         if (res.isError()) {
             throw new SmtLibSolverException(res.getReason());
         } else if (res.isSpecific()) {
@@ -296,8 +295,7 @@ public class SmtLibSolver implements UCSolver, Solver {
         final Collection<Expr<BoolType>> unsatCore = new LinkedList<>();
         final Collection<String> unsatCoreLabels;
 
-        solverBinary.issueCommand("(get-unsat-core)");
-        final var res = parseResponse(solverBinary.readResponse());
+        final var res = parseResponse(query("(get-unsat-core)"));
         if (res.isError()) {
             throw new SmtLibSolverException(res.getReason());
         } else if (res.isSpecific()) {
@@ -345,11 +343,40 @@ public class SmtLibSolver implements UCSolver, Solver {
         unsatCore = null;
     }
 
+    /**
+     * Issues a command whose response is only checked for errors. Commands are buffered and sent
+     * to the solver in a single write, and their responses are only awaited before the next
+     * {@link #query(String)}, so errors may be reported by a later call.
+     */
     protected void issueGeneralCommand(String command) {
+        pendingCommands.add(command);
+    }
+
+    /** Issues a command after the buffered ones and returns its response. */
+    protected final String query(final String command) {
+        awaitPendingResponses();
         solverBinary.issueCommand(command);
-        var res = parseResponse(solverBinary.readResponse());
-        if (res.isError()) {
-            throw new SmtLibSolverException(res.getReason());
+        return solverBinary.readResponse();
+    }
+
+    private void awaitPendingResponses() {
+        if (!pendingCommands.isEmpty()) {
+            solverBinary.issueCommand(String.join("\n", pendingCommands));
+            pendingResponses += pendingCommands.size();
+            pendingCommands.clear();
+        }
+        SmtLibSolverException error = null;
+        while (pendingResponses > 0) {
+            pendingResponses--;
+            final var res = parseResponse(solverBinary.readResponse());
+            if (res.isError() && error == null) {
+                // The remaining responses are still read, so that they are not mistaken for the
+                // responses of later commands
+                error = new SmtLibSolverException(res.getReason());
+            }
+        }
+        if (error != null) {
+            throw error;
         }
     }
 
@@ -0,0 +1,142 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Gt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.smtlib.impl.generic.GenericSmtLibSymbolTable;
+import hu.bme.mit.theta.solver.smtlib.impl.generic.GenericSmtLibTermTransformer;
+import hu.bme.mit.theta.solver.smtlib.impl.generic.GenericSmtLibTransformationManager;
+import hu.bme.mit.theta.solver.smtlib.solver.SmtLibSolver;
+import hu.bme.mit.theta.solver.smtlib.solver.SmtLibSolverException;
+import hu.bme.mit.theta.solver.smtlib.solver.binary.SmtLibSolverBinary;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Checks the commands sent by {@link SmtLibSolver} to a scripted binary instead of a solver. */
+public class SmtLibSolverCommandTest {
+
+    /** Answers sat to every check-sat, and success (or an error, if asked to) to the rest. */
+    private static final class ScriptedBinary implements SmtLibSolverBinary {
+        private final List<String> writes = new ArrayList<>();
+        private final Queue<String> responses = new ArrayDeque<>();
+        private String failingCommand = null;
+
+        @Override
+        public void issueCommand(final String command) {
+            writes.add(command);
+            for (String line : command.split("\n")) {
+                if (line.equals("(check-sat)")) {
+                    responses.add("sat");
+                } else if (line.equals(failingCommand)) {
+                    responses.add("(error \"scripted error\")");
+                } else {
+                    responses.add("success");
+                }
+            }
+        }
+
+        @Override
+        public String readResponse() {
+            return responses.remove();
+        }
+
+        @Override
+        public void close() {}
+
+        List<String> lines() {
+            return writes.stream().flatMap(w -> Arrays.stream(w.split("\n"))).toList();
+        }
+
+        long declarations() {
+            return lines().stream().filter(l -> l.startsWith("(declare-fun")).count();
+        }
+    }
+
+    private final ConstDecl<IntType> x = Const("x", Int());
+    private final ConstDecl<IntType> y = Const("y", Int());
+
+    private ScriptedBinary binary;
+    private SmtLibSolver solver;
+
+    @Before
+    public void before() {
+        final var symbolTable = new GenericSmtLibSymbolTable();
+        binary = new ScriptedBinary();
+        solver =
+                new SmtLibSolver(
+                        symbolTable,
+                        new GenericSmtLibTransformationManager(symbolTable),
+                        new GenericSmtLibTermTransformer(symbolTable),
+                        binary,
+                        false);
+    }
+
+    @Test
+    public void testBatching() {
+        solver.add(Eq(x.getRef(), Add(y.getRef(), Int(1))));
+        solver.add(Gt(x.getRef(), Int(0)));
+        assertTrue("Nothing is sent before a response is needed", binary.writes.isEmpty());
+
+        assertEquals(SolverStatus.SAT, solver.check());
+        assertEquals(2, binary.writes.size());
+        assertEquals("(check-sat)", binary.writes.get(1));
+        assertEquals(2, binary.declarations());
+        assertTrue(binary.responses.isEmpty());
+    }
+
+    @Test
+    public void testScopedDeclarations() {
+        solver.add(Gt(x.getRef(), Int(0)));
+        solver.push();
+        solver.add(Gt(y.getRef(), x.getRef()));
+        solver.pop();
+        solver.add(Gt(y.getRef(), Int(0)));
+        solver.check();
+
+        // y is declared again, as its first declaration was popped
+        assertEquals(3, binary.declarations());
+    }
+
+    @Test
+    public void testErrorReported() {
+        binary.failingCommand = "(push 1)";
+        solver.push();
+        solver.add(Gt(x.getRef(), Int(0)));
+        try {
+            solver.check();
+            fail("The error of push should be reported");
+        } catch (SmtLibSolverException e) {
+            // expected
+        }
+        assertTrue("All responses are consumed", binary.responses.isEmpty());
+    }
+}
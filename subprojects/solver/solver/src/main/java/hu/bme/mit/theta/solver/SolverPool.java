@@ -15,20 +15,31 @@
  */
 package hu.bme.mit.theta.solver;
 
-import com.google.common.base.Preconditions;
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
-public class SolverPool implements AutoCloseable {
-
-    private static final int STARTING_SIZE = 10;
-    private static final int GROWING = 5;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
-    private int created = 0;
+/**
+ * A pool of solvers that can be shared between threads. Solvers are created lazily up to a
+ * maximal size, after which requests block until a solver is returned. A thread preferably gets
+ * back the solver it returned last, so that the internal caches of the solver stay warm. Solvers
+ * that are not requested for longer than the idle timeout are closed, and solvers that are
+ * returned with assertions are reset instead of being rejected.
+ */
+public class SolverPool implements AutoCloseable {
 
-    private final LinkedList<Solver> available;
-    private final List<Solver> all;
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
 
     private final SolverFactory solverFactory;
 
@@ -38,62 +49,269 @@ public class SolverPool implements AutoCloseable {
     }
 
     private final ClosingMode closingMode;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition returned = lock.newCondition();
+    private final Deque<IdleSolver> available = new ArrayDeque<>();
+    private final Set<Solver> all = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int creating = 0;
+    private boolean closed = false;
+
+    private int created = 0;
+    private int resets = 0;
+    private long waitNanos = 0;
 
     public SolverPool(SolverFactory solverFactory) {
         this(solverFactory, ClosingMode.ALL);
     }
 
     public SolverPool(SolverFactory solverFactory, ClosingMode closingMode) {
-        this.solverFactory = solverFactory;
-        this.available = new LinkedList<>();
-        this.all = new ArrayList<>();
-        for (int i = 0; i < STARTING_SIZE; i++) {
-            final var solver = solverFactory.createSolver();
-            this.available.add(solver);
-            this.all.add(solver);
-        }
-        this.closingMode = closingMode;
+        this(solverFactory, closingMode, UNBOUNDED, Duration.ZERO);
+    }
+
+    /**
+     * Creates a pool that holds at most {@code maxSize} solvers and closes returned solvers that
+     * are not requested again within {@code idleTimeout} (a zero timeout keeps them forever).
+     * Note that a thread requesting more than {@code maxSize} solvers at the same time blocks
+     * forever.
+     */
+    public SolverPool(
+            SolverFactory solverFactory,
+            ClosingMode closingMode,
+            int maxSize,
+            Duration idleTimeout) {
+        checkArgument(maxSize > 0, "Maximal size must be positive");
+        checkArgument(!idleTimeout.isNegative(), "Idle timeout must not be negative");
+        this.solverFactory = checkNotNull(solverFactory);
+        this.closingMode = checkNotNull(closingMode);
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
     }
 
     public Solver requestSolver() {
-        if (this.available.isEmpty()) createNewSolvers();
-        return this.available.removeFirst();
+        lock.lock();
+        try {
+            checkState(!closed, "Solver pool is closed");
+            evictIdleSolvers();
+            final long thread = Thread.currentThread().getId();
+            while (true) {
+                final Solver solver = takeAvailable(thread);
+                if (solver != null) {
+                    return solver;
+                }
+                if (all.size() + creating < maxSize) {
+                    break;
+                }
+                final long start = System.nanoTime();
+                returned.awaitUninterruptibly();
+                waitNanos += System.nanoTime() - start;
+                checkState(!closed, "Solver pool is closed");
+            }
+            creating++;
+        } finally {
+            lock.unlock();
+        }
+        return createSolver();
     }
 
     public void returnSolver(Solver solver) {
-        Preconditions.checkState(
-                solver.getAssertions().isEmpty(), "Only empty solvers can be returned");
-        //        System.out.println("Returned solver");
-        this.available.add(solver);
+        checkNotNull(solver);
+        lock.lock();
+        try {
+            if (discardIfClosed(solver)) {
+                return;
+            }
+            checkArgument(all.contains(solver), "Solver does not belong to this pool");
+        } finally {
+            lock.unlock();
+        }
+        final boolean dirty = !solver.getAssertions().isEmpty();
+        if (dirty) {
+            solver.reset();
+        }
+        lock.lock();
+        try {
+            if (discardIfClosed(solver)) {
+                return;
+            }
+            if (dirty) {
+                resets++;
+            }
+            final IdleSolver idle =
+                    new IdleSolver(solver, Thread.currentThread().getId(), System.nanoTime());
+            available.addFirst(idle);
+            returned.signal();
+            evictIdleSolvers();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Solvers that are in use when the pool is closed are closed when they are returned, unless the
+     * pool closes all of its solvers anyway.
+     */
+    private boolean discardIfClosed(final Solver solver) {
+        if (closed && closingMode == ClosingMode.RETURNED) {
+            closeSolver(solver);
+        }
+        return closed;
+    }
+
+    private Solver createSolver() {
+        Solver solver = null;
+        try {
+            solver = solverFactory.createSolver();
+        } finally {
+            lock.lock();
+            try {
+                creating--;
+                if (solver == null) {
+                    returned.signal();
+                } else if (closed) {
+                    closeSolver(solver);
+                    solver = null;
+                } else {
+                    all.add(solver);
+                    created++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        checkState(solver != null, "Solver pool is closed");
+        return solver;
+    }
+
+    /** Takes the solver last returned by the given thread, or the last returned one otherwise. */
+    private Solver takeAvailable(final long thread) {
+        final Iterator<IdleSolver> iterator = available.iterator();
+        while (iterator.hasNext()) {
+            final IdleSolver idle = iterator.next();
+            if (idle.thread == thread) {
+                iterator.remove();
+                return idle.solver;
+            }
+        }
+        final IdleSolver idle = available.pollFirst();
+        return idle == null ? null : idle.solver;
+    }
+
+    private void evictIdleSolvers() {
+        if (idleTimeoutNanos == 0) {
+            return;
+        }
+        final long now = System.nanoTime();
+        while (!available.isEmpty() && now - available.peekLast().since > idleTimeoutNanos) {
+            final Solver solver = available.removeLast().solver;
+            all.remove(solver);
+            closeSolver(solver);
+        }
     }
 
-    private void createNewSolvers() {
-        for (int i = 0; i < GROWING; i++) {
-            final var solver = solverFactory.createSolver();
-            this.available.add(solver);
-            this.all.add(solver);
+    private static void closeSolver(final Solver solver) {
+        try {
+            solver.close();
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
         }
-        //        System.out.println(created + " solvers created");
-        //        System.out.println("Free size: " + Runtime.getRuntime().freeMemory());
-        this.created = created + GROWING;
     }
 
+    /** Number of solvers currently held by the pool (both available and in use). */
     public int size() {
-        return this.created;
+        lock.lock();
+        try {
+            return all.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Number of solvers created since the pool was created. */
+    public int getCreatedCount() {
+        lock.lock();
+        try {
+            return created;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Number of solvers currently requested and not yet returned. */
+    public int getInUseCount() {
+        lock.lock();
+        try {
+            return all.size() - available.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Number of solvers that had to be reset because they were returned with assertions. */
+    public int getResetCount() {
+        lock.lock();
+        try {
+            return resets;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Total time spent by requests waiting for a solver to be returned. */
+    public long getWaitTimeMs() {
+        lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return String.format(
+                    "SolverPool(size: %d, created: %d, in use: %d, resets: %d, wait: %d ms)",
+                    all.size(),
+                    created,
+                    all.size() - available.size(),
+                    resets,
+                    TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
     public void close() throws Exception {
-        //        System.out.println(all.size() - available.size() + " solvers not returned");
-        if (closingMode == ClosingMode.ALL) {
-            for (Solver solver : all) solver.close();
-            //            System.out.println("Closed " + all.size() + " solvers");
-        } else {
-            for (Solver solver : available) solver.close();
-            //            System.out.println("Closed " + available.size() + " solvers");
-        }
-        this.available.clear();
-        this.all.clear();
-        this.created = 0;
+        lock.lock();
+        try {
+            closed = true;
+            if (closingMode == ClosingMode.ALL) {
+                for (Solver solver : all) solver.close();
+            } else {
+                for (IdleSolver idle : available) idle.solver.close();
+            }
+            this.available.clear();
+            this.all.clear();
+            returned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class IdleSolver {
+        private final Solver solver;
+        private final long thread;
+        private final long since;
+
+        private IdleSolver(final Solver solver, final long thread, final long since) {
+            this.solver = solver;
+            this.thread = thread;
+            this.since = since;
+        }
     }
 }
@@ -0,0 +1,96 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.impl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import hu.bme.mit.theta.solver.Stack;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A stack of distinct elements, e.g., the declarations issued to a solver. Adding an element that
+ * is already on the stack (in any frame) has no effect, and membership is checked in constant
+ * time. Popping a frame takes time proportional to the number of elements added in it.
+ */
+public class ScopedSet<T> implements Stack<T> {
+
+    private final List<T> items;
+    private final Set<T> index;
+    private final List<Integer> sizes;
+
+    public ScopedSet() {
+        items = new ArrayList<>();
+        index = new HashSet<>();
+        sizes = new ArrayList<>();
+    }
+
+    public boolean contains(final Object elem) {
+        return index.contains(elem);
+    }
+
+    @Override
+    public void add(final T elem) {
+        if (index.add(elem)) {
+            items.add(elem);
+        }
+    }
+
+    @Override
+    public void add(final Collection<? extends T> elems) {
+        elems.forEach(this::add);
+    }
+
+    @Override
+    public void push() {
+        sizes.add(items.size());
+    }
+
+    @Override
+    public void pop(final int n) {
+        checkArgument(n > 0, "Number of pops must be positive");
+        final int depth = sizes.size();
+        checkArgument(depth >= n, "Stack not deep enough to pop " + n);
+
+        final int size = sizes.get(depth - n);
+        sizes.subList(depth - n, depth).clear();
+        final List<T> popped = items.subList(size, items.size());
+        popped.forEach(index::remove);
+        popped.clear();
+    }
+
+    @Override
+    public Collection<T> toCollection() {
+        return Collections.unmodifiableCollection(items);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return toCollection().iterator();
+    }
+
+    @Override
+    public void clear() {
+        items.clear();
+        index.clear();
+        sizes.clear();
+    }
+}
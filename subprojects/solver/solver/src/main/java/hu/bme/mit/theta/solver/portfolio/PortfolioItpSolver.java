@@ -0,0 +1,190 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.portfolio;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.Interpolant;
+import hu.bme.mit.theta.solver.ItpMarker;
+import hu.bme.mit.theta.solver.ItpMarkerTree;
+import hu.bme.mit.theta.solver.ItpPattern;
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.Stack;
+import hu.bme.mit.theta.solver.impl.StackImpl;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@link ItpSolver} racing several backend solvers, see {@link PortfolioSolverBase}. Each
+ * marker stands for one marker in every backend, and patterns are translated to the markers of the
+ * winner when an interpolant is computed.
+ */
+public final class PortfolioItpSolver extends PortfolioSolverBase<ItpSolver>
+        implements ItpSolver {
+
+    private final Stack<PortfolioItpMarker> markers;
+
+    /** Creates a portfolio of solvers, keyed by names used in the statistics. */
+    public PortfolioItpSolver(final Map<String, ? extends ItpSolver> solvers) {
+        super(solvers);
+        markers = new StackImpl<>();
+    }
+
+    @Override
+    public ItpPattern createTreePattern(final ItpMarkerTree<? extends ItpMarker> root) {
+        checkNotNull(root);
+        return PortfolioItpPattern.of(root);
+    }
+
+    @Override
+    public PortfolioItpMarker createMarker() {
+        final PortfolioItpMarker marker = new PortfolioItpMarker();
+        markers.add(marker);
+        broadcast(
+                backend ->
+                        marker.backendMarkers.put(
+                                backend.getName(), backend.getSolver().createMarker()));
+        return marker;
+    }
+
+    @Override
+    public void add(final ItpMarker marker, final Expr<BoolType> assertion) {
+        checkNotNull(marker);
+        checkNotNull(assertion);
+        checkArgument(markers.toCollection().contains(marker), "Marker not found in solver");
+        final PortfolioItpMarker portfolioMarker = (PortfolioItpMarker) marker;
+        addAssertion(assertion);
+        broadcast(
+                backend ->
+                        backend.getSolver()
+                                .add(portfolioMarker.get(backend.getName()), assertion));
+    }
+
+    @Override
+    public Interpolant getInterpolant(final ItpPattern pattern) {
+        checkState(
+                getStatus() == SolverStatus.UNSAT,
+                "Cannot get interpolant if status is not UNSAT.");
+        checkArgument(pattern instanceof PortfolioItpPattern);
+        final ItpMarkerTree<PortfolioItpMarker> root = ((PortfolioItpPattern) pattern).getRoot();
+
+        // interpolants are evaluated on the thread of the winner, as they may be computed lazily
+        final String name = getWinner();
+        final Map<ItpMarker, Expr<BoolType>> itpMap =
+                callWinner(
+                        solver -> {
+                            final Interpolant interpolant =
+                                    solver.getInterpolant(
+                                            solver.createTreePattern(translate(root, name)));
+                            final Map<ItpMarker, Expr<BoolType>> result = new HashMap<>();
+                            collect(root, name, interpolant, result);
+                            return result;
+                        });
+        return marker -> {
+            checkArgument(itpMap.containsKey(marker), "Marker not found in pattern");
+            return itpMap.get(marker);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ItpMarkerTree<ItpMarker> translate(
+            final ItpMarkerTree<PortfolioItpMarker> tree, final String backend) {
+        final ItpMarkerTree<ItpMarker>[] subtrees = new ItpMarkerTree[tree.getChildrenNumber()];
+        for (int i = 0; i < subtrees.length; i++) {
+            subtrees[i] = translate(tree.getChild(i), backend);
+        }
+        return ItpMarkerTree.Tree(tree.getMarker().get(backend), subtrees);
+    }
+
+    private static void collect(
+            final ItpMarkerTree<PortfolioItpMarker> tree,
+            final String backend,
+            final Interpolant interpolant,
+            final Map<ItpMarker, Expr<BoolType>> result) {
+        result.put(tree.getMarker(), interpolant.eval(tree.getMarker().get(backend)));
+        for (final ItpMarkerTree<PortfolioItpMarker> child : tree.getChildren()) {
+            collect(child, backend, interpolant, result);
+        }
+    }
+
+    @Override
+    public Collection<? extends ItpMarker> getMarkers() {
+        return markers.toCollection();
+    }
+
+    @Override
+    public void push() {
+        markers.push();
+        super.push();
+    }
+
+    @Override
+    public void pop(final int n) {
+        markers.pop(n);
+        super.pop(n);
+    }
+
+    @Override
+    public void reset() {
+        markers.clear();
+        super.reset();
+    }
+
+    /** A marker standing for one marker in each backend, created on the thread of the backend. */
+    public static final class PortfolioItpMarker implements ItpMarker {
+        private final Map<String, ItpMarker> backendMarkers = new ConcurrentHashMap<>();
+
+        private PortfolioItpMarker() {}
+
+        private ItpMarker get(final String backend) {
+            final ItpMarker marker = backendMarkers.get(backend);
+            checkState(marker != null, "Marker was not created in solver %s", backend);
+            return marker;
+        }
+    }
+
+    private static final class PortfolioItpPattern
+            implements ItpPattern.Tree<PortfolioItpMarker> {
+        private final ItpMarkerTree<PortfolioItpMarker> root;
+
+        private PortfolioItpPattern(final ItpMarkerTree<PortfolioItpMarker> root) {
+            this.root = root;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static PortfolioItpPattern of(final ItpMarkerTree<? extends ItpMarker> root) {
+            check(root);
+            return new PortfolioItpPattern((ItpMarkerTree<PortfolioItpMarker>) root);
+        }
+
+        private static void check(final ItpMarkerTree<? extends ItpMarker> tree) {
+            checkArgument(tree.getMarker() instanceof PortfolioItpMarker);
+            tree.getChildren().forEach(PortfolioItpPattern::check);
+        }
+
+        @Override
+        public ItpMarkerTree<PortfolioItpMarker> getRoot() {
+            return root;
+        }
+    }
+}
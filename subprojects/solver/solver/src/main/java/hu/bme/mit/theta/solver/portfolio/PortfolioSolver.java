@@ -0,0 +1,39 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.portfolio;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.Solver;
+import java.util.Map;
+
+/** A {@link Solver} racing several backend solvers, see {@link PortfolioSolverBase}. */
+public final class PortfolioSolver extends PortfolioSolverBase<Solver> implements Solver {
+
+    /** Creates a portfolio of solvers, keyed by names used in the statistics. */
+    public PortfolioSolver(final Map<String, ? extends Solver> solvers) {
+        super(solvers);
+    }
+
+    @Override
+    public void add(final Expr<BoolType> assertion) {
+        checkNotNull(assertion);
+        addAssertion(assertion);
+        broadcast(backend -> backend.getSolver().add(assertion));
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.portfolio;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.SolverBase;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.Stack;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
+import hu.bme.mit.theta.solver.impl.StackImpl;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Base class of solvers that race several backend solvers on each satisfiability check.
+ *
+ * <p>Every backend is confined to a thread of its own, and every operation is queued to all of the
+ * backends in the order it was issued, so they always hold the same assertions and the same stack
+ * of scopes. A check is submitted to all backends, and the first definitive (SAT or UNSAT) answer
+ * is returned; models, unsat cores and interpolants are then obtained from the winner. The checks
+ * of the other backends are cancelled: if they have not started yet, they are skipped. A check
+ * that is already running in native code cannot be interrupted through the solver interfaces, so
+ * it finishes in the background, and the operations queued after it are performed by the backend
+ * afterwards.
+ *
+ * <p>A backend that fails on an operation is left out of later checks until the solver is reset,
+ * as its state may not match the others anymore.
+ */
+abstract class PortfolioSolverBase<S extends SolverBase> implements SolverBase {
+
+    static final class Backend<S extends SolverBase> {
+        private final String name;
+        private final S solver;
+        private final ExecutorService executor;
+        private final AtomicLong wins = new AtomicLong();
+        private volatile RuntimeException failure = null;
+
+        private Backend(final String name, final S solver) {
+            this.name = name;
+            this.solver = solver;
+            this.executor =
+                    Executors.newSingleThreadExecutor(
+                            new ThreadFactoryBuilder()
+                                    .setNameFormat("portfolio-" + name + "-%d")
+                                    .setDaemon(true)
+                                    .build());
+        }
+
+        String getName() {
+            return name;
+        }
+
+        S getSolver() {
+            return solver;
+        }
+
+        private void run(final Consumer<S> action) {
+            executor.execute(
+                    () -> {
+                        if (failure == null) {
+                            try {
+                                action.accept(solver);
+                            } catch (final RuntimeException e) {
+                                failure = e;
+                            }
+                        }
+                    });
+        }
+
+        private <T> T call(final Function<S, T> function) {
+            try {
+                return executor.submit(() -> function.apply(solver)).get();
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private record Answer<S extends SolverBase>(
+            Backend<S> backend, SolverStatus status, RuntimeException failure) {}
+
+    private final List<Backend<S>> backends;
+    private final Stack<Expr<BoolType>> assertions;
+
+    private volatile long generation = 0;
+    private long checks = 0;
+    private Backend<S> winner = null;
+    private SolverStatus status = null;
+    private Valuation model = null;
+
+    protected PortfolioSolverBase(final Map<String, ? extends S> solvers) {
+        checkNotNull(solvers);
+        checkArgument(!solvers.isEmpty(), "A portfolio needs at least one solver");
+        final ImmutableList.Builder<Backend<S>> builder = ImmutableList.builder();
+        solvers.forEach((name, solver) -> builder.add(new Backend<>(name, checkNotNull(solver))));
+        this.backends = builder.build();
+        this.assertions = new StackImpl<>();
+    }
+
+    protected final List<Backend<S>> getBackends() {
+        return backends;
+    }
+
+    /** Queues an operation to all backends, to be performed in the order of issuing. */
+    protected final void broadcast(final Consumer<Backend<S>> action) {
+        for (final Backend<S> backend : backends) {
+            backend.run(solver -> action.accept(backend));
+        }
+    }
+
+    /** Performs an operation on the backend that produced the last answer, and waits for it. */
+    protected final <T> T callWinner(final Function<S, T> function) {
+        checkState(winner != null, "No answer to query, call check() first");
+        return winner.call(function);
+    }
+
+    protected final void addAssertion(final Expr<BoolType> assertion) {
+        assertions.add(assertion);
+        clearState();
+    }
+
+    @Override
+    public SolverStatus check() {
+        final long current = ++generation;
+        checks++;
+        final BlockingQueue<Answer<S>> answers = new LinkedBlockingQueue<>();
+        int pending = 0;
+        for (final Backend<S> backend : backends) {
+            if (backend.failure != null) {
+                continue;
+            }
+            pending++;
+            backend.executor.execute(
+                    () -> {
+                        if (generation != current) {
+                            return; // another backend has already answered
+                        }
+                        if (backend.failure != null) {
+                            answers.add(new Answer<>(backend, null, backend.failure));
+                            return;
+                        }
+                        try {
+                            answers.add(new Answer<>(backend, backend.solver.check(), null));
+                        } catch (final RuntimeException e) {
+                            answers.add(new Answer<>(backend, null, e));
+                        }
+                    });
+        }
+
+        RuntimeException failure = null;
+        try {
+            for (; pending > 0; pending--) {
+                final Answer<S> answer = answers.take();
+                if (answer.status() != null) {
+                    generation++;
+                    answer.backend().wins.incrementAndGet();
+                    winner = answer.backend();
+                    status = answer.status();
+                    model = null;
+                    return status;
+                }
+                if (answer.failure() != null && failure == null) {
+                    failure = answer.failure();
+                }
+            }
+        } catch (final InterruptedException e) {
+            generation++;
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+
+        if (failure != null && !(failure instanceof UnknownSolverStatusException)) {
+            throw failure;
+        }
+        throw new UnknownSolverStatusException();
+    }
+
+    @Override
+    public void push() {
+        assertions.push();
+        broadcast(backend -> backend.solver.push());
+        clearState();
+    }
+
+    @Override
+    public void pop(final int n) {
+        assertions.pop(n);
+        broadcast(backend -> backend.solver.pop(n));
+        clearState();
+    }
+
+    @Override
+    public void reset() {
+        assertions.clear();
+        for (final Backend<S> backend : backends) {
+            backend.executor.execute(
+                    () -> {
+                        try {
+                            backend.solver.reset();
+                            backend.failure = null;
+                        } catch (final RuntimeException e) {
+                            backend.failure = e;
+                        }
+                    });
+        }
+        clearState();
+    }
+
+    private void clearState() {
+        winner = null;
+        status = null;
+        model = null;
+    }
+
+    @Override
+    public SolverStatus getStatus() {
+        checkState(status != null, "Solver status is unknown, call check() first");
+        return status;
+    }
+
+    @Override
+    public Valuation getModel() {
+        checkState(status == SolverStatus.SAT, "Cannot get model if status is not SAT.");
+        if (model == null) {
+            // copied on the thread of the backend, as models may be evaluated lazily
+            model = callWinner(solver -> ImmutableValuation.copyOf(solver.getModel()));
+        }
+        return model;
+    }
+
+    @Override
+    public Collection<Expr<BoolType>> getAssertions() {
+        return assertions.toCollection();
+    }
+
+    /** Returns the name of the backend that produced the last answer, if any. */
+    public String getWinner() {
+        checkState(winner != null, "No answer to query, call check() first");
+        return winner.name;
+    }
+
+    /** Returns the number of checks answered first by each backend, in the order of backends. */
+    public Map<String, Long> getWins() {
+        final Map<String, Long> wins = new LinkedHashMap<>();
+        for (final Backend<S> backend : backends) {
+            wins.put(backend.name, backend.wins.get());
+        }
+        return wins;
+    }
+
+    @Override
+    public ImmutableMap<String, String> getStatistics() {
+        final ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+        builder.put("portfolio.checks", String.valueOf(checks));
+        for (final Backend<S> backend : backends) {
+            final String prefix = "portfolio." + backend.name;
+            builder.put(prefix + ".wins", String.valueOf(backend.wins.get()));
+            builder.put(prefix + ".failed", String.valueOf(backend.failure != null));
+        }
+        return builder.buildKeepingLast();
+    }
+
+    /**
+     * Closes the backends. Checks still running in the background are not waited for; the
+     * backends are closed once they finish.
+     */
+    @Override
+    public void close() throws Exception {
+        generation++;
+        for (final Backend<S> backend : backends) {
+            backend.executor.execute(
+                    () -> {
+                        try {
+                            backend.solver.close();
+                        } catch (final Exception e) {
+                            backend.failure = new RuntimeException(e);
+                        }
+                    });
+            backend.executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.portfolio;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverBase;
+import hu.bme.mit.theta.solver.SolverFactory;
+import hu.bme.mit.theta.solver.SolverManager;
+import hu.bme.mit.theta.solver.UCSolver;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Creates solvers that race the solvers of several factories on each check, see {@link
+ * PortfolioSolverBase}.
+ */
+public final class PortfolioSolverFactory implements SolverFactory {
+
+    private final ImmutableMap<String, SolverFactory> factories;
+
+    private PortfolioSolverFactory(final Map<String, ? extends SolverFactory> factories) {
+        checkNotNull(factories);
+        checkArgument(!factories.isEmpty(), "A portfolio needs at least one solver");
+        this.factories = ImmutableMap.copyOf(factories);
+    }
+
+    /** Creates a portfolio of the solvers of the given factories, keyed by their names. */
+    public static PortfolioSolverFactory create(
+            final Map<String, ? extends SolverFactory> factories) {
+        return new PortfolioSolverFactory(factories);
+    }
+
+    /** Creates a portfolio of solvers resolved by {@link SolverManager} from their names. */
+    public static PortfolioSolverFactory create(final Iterable<String> solverNames)
+            throws Exception {
+        final Map<String, SolverFactory> factories = new LinkedHashMap<>();
+        for (final String name : solverNames) {
+            final SolverFactory factory = SolverManager.resolveSolverFactory(name);
+            checkArgument(factories.put(name, factory) == null, "Duplicate solver %s", name);
+        }
+        return new PortfolioSolverFactory(factories);
+    }
+
+    @Override
+    public Solver createSolver() {
+        return new PortfolioSolver(createAll(SolverFactory::createSolver));
+    }
+
+    @Override
+    public UCSolver createUCSolver() {
+        return new PortfolioUCSolver(createAll(SolverFactory::createUCSolver));
+    }
+
+    @Override
+    public ItpSolver createItpSolver() {
+        return new PortfolioItpSolver(createAll(SolverFactory::createItpSolver));
+    }
+
+    private <S extends SolverBase> Map<String, S> createAll(
+            final Function<SolverFactory, S> create) {
+        final Map<String, S> solvers = new LinkedHashMap<>();
+        try {
+            factories.forEach((name, factory) -> solvers.put(name, create.apply(factory)));
+        } catch (final RuntimeException e) {
+            for (final S solver : solvers.values()) {
+                try {
+                    solver.close();
+                } catch (final Exception closeException) {
+                    e.addSuppressed(closeException);
+                }
+            }
+            throw e;
+        }
+        return solvers;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.portfolio;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.UCSolver;
+import java.util.Collection;
+import java.util.Map;
+
+/** A {@link UCSolver} racing several backend solvers, see {@link PortfolioSolverBase}. */
+public final class PortfolioUCSolver extends PortfolioSolverBase<UCSolver> implements UCSolver {
+
+    /** Creates a portfolio of solvers, keyed by names used in the statistics. */
+    public PortfolioUCSolver(final Map<String, ? extends UCSolver> solvers) {
+        super(solvers);
+    }
+
+    @Override
+    public void track(final Expr<BoolType> assertion) {
+        checkNotNull(assertion);
+        addAssertion(assertion);
+        broadcast(backend -> backend.getSolver().track(assertion));
+    }
+
+    @Override
+    public Collection<Expr<BoolType>> getUnsatCore() {
+        checkState(
+                getStatus() == SolverStatus.UNSAT,
+                "Cannot get unsat core if status is not UNSAT.");
+        return callWinner(solver -> ImmutableList.copyOf(solver.getUnsatCore()));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+
+import hu.bme.mit.theta.solver.SolverPool.ClosingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SolverPoolTest {
+
+    private static final class StubSolverFactory implements SolverFactory {
+        private final List<SolverStub> solvers = new ArrayList<>();
+
+        @Override
+        public synchronized Solver createSolver() {
+            final SolverStub solver = new SolverStub();
+            solvers.add(solver);
+            return solver;
+        }
+
+        @Override
+        public UCSolver createUCSolver() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ItpSolver createItpSolver() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Test
+    public void testLazyCreation() throws Exception {
+        final StubSolverFactory factory = new StubSolverFactory();
+        try (SolverPool pool = new SolverPool(factory)) {
+            Assert.assertEquals(0, pool.size());
+            final Solver solver1 = pool.requestSolver();
+            final Solver solver2 = pool.requestSolver();
+            Assert.assertNotSame(solver1, solver2);
+            Assert.assertEquals(2, pool.getInUseCount());
+            pool.returnSolver(solver1);
+            pool.returnSolver(solver2);
+            Assert.assertEquals(0, pool.getInUseCount());
+            Assert.assertEquals(2, pool.getCreatedCount());
+        }
+        Assert.assertTrue(factory.solvers.stream().allMatch(solver -> solver.closed));
+    }
+
+    @Test
+    public void testThreadAffinity() throws Exception {
+        try (SolverPool pool = new SolverPool(new StubSolverFactory())) {
+            final ExecutorService executor = Executors.newSingleThreadExecutor();
+            final Solver solver = pool.requestSolver();
+            final Solver other = executor.submit(pool::requestSolver).get();
+            pool.returnSolver(solver);
+            executor.submit(() -> pool.returnSolver(other)).get();
+            // The other thread returned its solver last, but this thread gets back its own one
+            Assert.assertSame(solver, pool.requestSolver());
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        try (SolverPool pool = new SolverPool(new StubSolverFactory())) {
+            final Solver solver = pool.requestSolver();
+            solver.add(True());
+            pool.returnSolver(solver);
+            Assert.assertTrue(solver.getAssertions().isEmpty());
+            Assert.assertEquals(1, pool.getResetCount());
+        }
+    }
+
+    @Test
+    public void testIdleEviction() throws Exception {
+        final StubSolverFactory factory = new StubSolverFactory();
+        try (SolverPool pool =
+                new SolverPool(factory, ClosingMode.ALL, SolverPool.UNBOUNDED, Duration.ofNanos(1))) {
+            final Solver solver = pool.requestSolver();
+            pool.returnSolver(solver);
+            Thread.sleep(1);
+            Assert.assertNotSame(solver, pool.requestSolver());
+            Assert.assertTrue(factory.solvers.get(0).closed);
+            Assert.assertEquals(1, pool.size());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testMaxSize() throws Exception {
+        final StubSolverFactory factory = new StubSolverFactory();
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (SolverPool pool = new SolverPool(factory, ClosingMode.ALL, 2, Duration.ZERO)) {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    for (int j = 0; j < 100; j++) {
+                                        final Solver solver = pool.requestSolver();
+                                        Assert.assertTrue(pool.getInUseCount() <= 2);
+                                        pool.returnSolver(solver);
+                                    }
+                                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+            Assert.assertTrue(pool.getCreatedCount() <= 2);
+            Assert.assertEquals(0, pool.getInUseCount());
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+}
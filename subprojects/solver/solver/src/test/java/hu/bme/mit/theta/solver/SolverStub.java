@@ -18,19 +18,25 @@ package hu.bme.mit.theta.solver;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 class SolverStub implements Solver {
 
     int nPush;
+    boolean closed;
+    final List<Expr<BoolType>> assertions;
 
     public SolverStub() {
         nPush = 0;
+        closed = false;
+        assertions = new ArrayList<>();
     }
 
     @Override
     public void add(final Expr<BoolType> assertion) {
-        // Stub
+        assertions.add(assertion);
     }
 
     @Override
@@ -50,7 +56,7 @@ class SolverStub implements Solver {
 
     @Override
     public void reset() {
-        // Stub
+        assertions.clear();
     }
 
     @Override
@@ -65,11 +71,11 @@ class SolverStub implements Solver {
 
     @Override
     public Collection<Expr<BoolType>> getAssertions() {
-        return null;
+        return assertions;
     }
 
     @Override
     public void close() {
-        // Nothing to close
+        closed = true;
     }
 }
@@ -0,0 +1,216 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.portfolio;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+
+import com.google.common.collect.ImmutableMap;
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PortfolioSolverTest {
+
+    private static final ConstDecl<BoolType> A = Const("a", Bool());
+
+    /** Answers every check with a fixed status, optionally waiting for a latch first. */
+    private static final class FakeSolver implements Solver {
+        private final SolverStatus answer;
+        private final CountDownLatch release;
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private final List<Expr<BoolType>> assertions = new ArrayList<>();
+        private final List<Integer> sizes = new ArrayList<>();
+        private int checks = 0;
+
+        private FakeSolver(final SolverStatus answer, final CountDownLatch release) {
+            this.answer = answer;
+            this.release = release;
+        }
+
+        @Override
+        public void add(final Expr<BoolType> assertion) {
+            assertions.add(assertion);
+        }
+
+        @Override
+        public SolverStatus check() {
+            checks++;
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            if (answer == null) {
+                throw new UnknownSolverStatusException();
+            }
+            return answer;
+        }
+
+        @Override
+        public void push() {
+            sizes.add(assertions.size());
+        }
+
+        @Override
+        public void pop(final int n) {
+            for (int i = 0; i < n; i++) {
+                final int size = sizes.remove(sizes.size() - 1);
+                assertions.subList(size, assertions.size()).clear();
+            }
+        }
+
+        @Override
+        public void reset() {
+            assertions.clear();
+            sizes.clear();
+        }
+
+        @Override
+        public SolverStatus getStatus() {
+            return answer;
+        }
+
+        @Override
+        public Valuation getModel() {
+            return ImmutableValuation.builder().put(A, True()).build();
+        }
+
+        @Override
+        public Collection<Expr<BoolType>> getAssertions() {
+            return assertions;
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        private void awaitClosed() throws InterruptedException {
+            Assert.assertTrue(closed.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static FakeSolver answering(final SolverStatus answer) {
+        return new FakeSolver(answer, new CountDownLatch(0));
+    }
+
+    @Test
+    public void testFirstAnswerWins() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final FakeSolver slow = new FakeSolver(SolverStatus.SAT, release);
+        final FakeSolver fast = answering(SolverStatus.UNSAT);
+        final PortfolioSolver solver =
+                new PortfolioSolver(ImmutableMap.of("slow", slow, "fast", fast));
+
+        solver.add(A.getRef());
+        Assert.assertEquals(SolverStatus.UNSAT, solver.check());
+        Assert.assertEquals(SolverStatus.UNSAT, solver.getStatus());
+        Assert.assertEquals("fast", solver.getWinner());
+        Assert.assertEquals(ImmutableMap.of("slow", 0L, "fast", 1L), solver.getWins());
+        Assert.assertEquals("1", solver.getStatistics().get("portfolio.fast.wins"));
+
+        release.countDown();
+        solver.close();
+        slow.awaitClosed();
+        fast.awaitClosed();
+    }
+
+    @Test
+    public void testStaleChecksAreSkipped() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final FakeSolver slow = new FakeSolver(SolverStatus.SAT, release);
+        final FakeSolver fast = answering(SolverStatus.SAT);
+        final PortfolioSolver solver =
+                new PortfolioSolver(ImmutableMap.of("slow", slow, "fast", fast));
+
+        // the first check of the slow backend blocks, the later ones are answered already
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(SolverStatus.SAT, solver.check());
+        }
+        release.countDown();
+        solver.close();
+        slow.awaitClosed();
+        fast.awaitClosed();
+        Assert.assertEquals(1, slow.checks);
+        Assert.assertEquals(3, fast.checks);
+    }
+
+    @Test
+    public void testBackendsStayInSync() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final FakeSolver slow = new FakeSolver(SolverStatus.SAT, release);
+        final FakeSolver fast = answering(SolverStatus.SAT);
+        final PortfolioSolver solver =
+                new PortfolioSolver(ImmutableMap.of("slow", slow, "fast", fast));
+
+        final ConstDecl<BoolType> b = Const("b", Bool());
+        solver.add(A.getRef());
+        solver.check();
+        solver.push();
+        solver.add(b.getRef());
+        solver.check();
+        solver.pop();
+        solver.add(True());
+        Assert.assertEquals(List.of(A.getRef(), True()), List.copyOf(solver.getAssertions()));
+
+        release.countDown();
+        solver.close();
+        slow.awaitClosed();
+        fast.awaitClosed();
+        Assert.assertEquals(List.of(A.getRef(), True()), slow.assertions);
+        Assert.assertEquals(List.of(A.getRef(), True()), fast.assertions);
+    }
+
+    @Test
+    public void testModelOfWinner() throws Exception {
+        final FakeSolver failing = answering(null);
+        final FakeSolver sat = answering(SolverStatus.SAT);
+        final PortfolioSolver solver =
+                new PortfolioSolver(ImmutableMap.of("failing", failing, "sat", sat));
+
+        Assert.assertEquals(SolverStatus.SAT, solver.check());
+        Assert.assertEquals("sat", solver.getWinner());
+        Assert.assertEquals(True(), solver.getModel().eval(A).orElseThrow());
+        solver.close();
+    }
+
+    @Test
+    public void testNoDefinitiveAnswer() throws Exception {
+        final PortfolioSolver solver =
+                new PortfolioSolver(ImmutableMap.of("a", answering(null), "b", answering(null)));
+        try {
+            solver.check();
+            Assert.fail();
+        } catch (final UnknownSolverStatusException e) {
+            // expected
+        }
+        solver.close();
+    }
+}
@@ -32,6 +32,7 @@ package hu.bme.mit.theta.sts.analysis;
  */
 
 import hu.bme.mit.theta.analysis.algorithm.ic3.Ic3Checker;
+import hu.bme.mit.theta.analysis.algorithm.ic3.IncrementalIc3Checker;
 import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.common.logging.ConsoleLogger;
 import hu.bme.mit.theta.common.logging.Logger;
@@ -89,20 +90,9 @@ public class StsIc3Test {
 
         final Logger logger = new ConsoleLogger(Logger.Level.VERBOSE);
 
-        final STS sts;
-        if (filePath.endsWith("aag")) {
-            sts = AigerToSts.createSts(AigerParser.parse(filePath));
-        } else {
-            final StsSpec spec = StsDslManager.createStsSpec(new FileInputStream(filePath));
-            if (spec.getAllSts().size() != 1) {
-                throw new UnsupportedOperationException("STS contains multiple properties.");
-            }
-            sts = Utils.singleElementOf(spec.getAllSts());
-        }
-
         final var checker =
                 new StsPipelineChecker<>(
-                        sts,
+                        loadSts(),
                         monolithicExpr ->
                                 new Ic3Checker(
                                         monolithicExpr,
@@ -119,4 +109,49 @@ public class StsIc3Test {
                         logger);
         Assert.assertEquals(isSafe, checker.check().isSafe());
     }
+
+    @Test
+    public void testIncrementalIC3() throws IOException {
+        checkIncrementalIC3(1);
+    }
+
+    @Test
+    public void testIncrementalIC3ParallelPropagation() throws IOException {
+        checkIncrementalIC3(2);
+    }
+
+    private void checkIncrementalIC3(final int propagationThreads) throws IOException {
+        final Logger logger = new ConsoleLogger(Logger.Level.VERBOSE);
+
+        final var checker =
+                new StsPipelineChecker<>(
+                        loadSts(),
+                        monolithicExpr ->
+                                new IncrementalIc3Checker(
+                                        monolithicExpr,
+                                        Z3LegacySolverFactory.getInstance(),
+                                        true,
+                                        true,
+                                        true,
+                                        true,
+                                        true,
+                                        true,
+                                        propagationThreads,
+                                        logger),
+                        List.of(),
+                        List.of(),
+                        logger);
+        Assert.assertEquals(isSafe, checker.check().isSafe());
+    }
+
+    private STS loadSts() throws IOException {
+        if (filePath.endsWith("aag")) {
+            return AigerToSts.createSts(AigerParser.parse(filePath));
+        }
+        final StsSpec spec = StsDslManager.createStsSpec(new FileInputStream(filePath));
+        if (spec.getAllSts().size() != 1) {
+            throw new UnsupportedOperationException("STS contains multiple properties.");
+        }
+        return Utils.singleElementOf(spec.getAllSts());
+    }
 }
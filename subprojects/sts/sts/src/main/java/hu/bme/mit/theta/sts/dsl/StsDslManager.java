@@ -15,6 +15,7 @@
  */
 package hu.bme.mit.theta.sts.dsl;
 
+import hu.bme.mit.theta.core.dsl.TwoStageParser;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.sts.dsl.gen.StsDslLexer;
 import hu.bme.mit.theta.sts.dsl.gen.StsDslParser;
@@ -48,7 +49,7 @@ public final class StsDslManager {
         final CommonTokenStream tokens = new CommonTokenStream(lexer);
         final StsDslParser parser = new StsDslParser(tokens);
 
-        final StsSpecContext ctx = parser.stsSpec();
+        final StsSpecContext ctx = TwoStageParser.parse(parser, StsDslParser::stsSpec);
         final StsSpecSymbol stsSpecSymbol = StsSpecSymbol.create(ctx);
         final StsSpec stsSpec = stsSpecSymbol.instantiate(args);
 
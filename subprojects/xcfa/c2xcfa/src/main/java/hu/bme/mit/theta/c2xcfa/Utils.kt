@@ -20,6 +20,7 @@ import hu.bme.mit.theta.c.frontend.dsl.gen.CParser
 import hu.bme.mit.theta.common.Tuple2
 import hu.bme.mit.theta.common.logging.Logger
 import hu.bme.mit.theta.core.decl.VarDecl
+import hu.bme.mit.theta.core.dsl.TwoStageParser
 import hu.bme.mit.theta.core.type.Expr
 import hu.bme.mit.theta.core.type.abstracttype.AbstractExprs.Neq
 import hu.bme.mit.theta.core.type.anytype.IteExpr
@@ -55,7 +56,8 @@ fun getXcfaFromC(
   val tokens = CommonTokenStream(lexer)
   val parser = CParser(tokens)
   parser.errorHandler = BailErrorStrategy()
-  val context = parser.compilationUnit()
+  val context = TwoStageParser.parse(parser) { it.compilationUnit() }
+  logger.write(Logger.Level.INFO, "Parsing statistics: ${TwoStageParser.getStatistics()}\n")
 
   val program = context.accept(FunctionVisitor(parseContext, warningLogger))
   check(program is CProgram)
@@ -103,7 +105,7 @@ fun getExpressionFromC(
   val tokens = CommonTokenStream(lexer)
   val parser = CParser(tokens)
   parser.errorHandler = BailErrorStrategy()
-  val context = parser.logicalOrExpression()
+  val context = TwoStageParser.parse(parser) { it.logicalOrExpression() }
 
   val variables =
     Tuple2.of(
@@ -0,0 +1,54 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.c2xcfa
+
+import hu.bme.mit.theta.common.logging.NullLogger
+import hu.bme.mit.theta.frontend.ParseContext
+import hu.bme.mit.theta.xcfa.ErrorDetection
+import hu.bme.mit.theta.xcfa.XcfaProperty
+import hu.bme.mit.theta.xcfa.model.XCFA
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * The parse trees of the built-in headers are shared by every task parsed in the JVM, so parsing a
+ * task must not depend on the tasks parsed before it.
+ */
+class TestHeaderFiles {
+
+  private val property = XcfaProperty(ErrorDetection.ERROR_LOCATION)
+
+  private fun parse(): XCFA {
+    val stream = javaClass.getResourceAsStream("/25include.c")
+    return getXcfaFromC(stream!!, ParseContext(), false, property, NullLogger.getInstance()).first
+  }
+
+  // Local variables and locations are named using global counters, so only the declarations are
+  // compared
+  private fun declarations(xcfa: XCFA): List<String> =
+    xcfa.globalVars.map { "${it.wrappedVar.name}: ${it.wrappedVar.type}" }.sorted() +
+      xcfa.procedures
+        .map { p -> "${p.name}(${p.params.joinToString { "${it.second} ${it.first.type}" }})" }
+        .sorted()
+
+  @Test
+  fun testIncludeTwice() {
+    val first = declarations(parse())
+    val second = declarations(parse())
+
+    assertEquals(first, second)
+  }
+}
@@ -0,0 +1,27 @@
+#include <stdlib.h>
+#include <pthread.h>
+
+void reach_error(){}
+
+pthread_mutex_t m;
+int x = 0;
+
+void *thread(void *arg) {
+    pthread_mutex_lock(&m);
+    x++;
+    pthread_mutex_unlock(&m);
+    return 0;
+}
+
+int main() {
+    pthread_t t;
+    int *p = malloc(sizeof(int));
+    pthread_create(&t, 0, thread, 0);
+    pthread_mutex_lock(&m);
+    x++;
+    pthread_mutex_unlock(&m);
+    pthread_join(t, 0);
+    if (x != 2) reach_error();
+    free(p);
+    return 0;
+}
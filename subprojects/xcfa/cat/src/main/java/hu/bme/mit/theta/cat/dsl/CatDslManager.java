@@ -17,6 +17,7 @@ package hu.bme.mit.theta.cat.dsl;
 
 import hu.bme.mit.theta.cat.dsl.gen.CatLexer;
 import hu.bme.mit.theta.cat.dsl.gen.CatParser;
+import hu.bme.mit.theta.core.dsl.TwoStageParser;
 import hu.bme.mit.theta.graphsolver.patterns.constraints.GraphConstraint;
 import java.io.File;
 import java.io.FileInputStream;
@@ -48,6 +49,6 @@ public class CatDslManager {
         parser.removeErrorListeners();
         parser.addErrorListener(new FileNameAntlrErrorListener(file.getName()));
         inputStream.close();
-        return parser.mcm();
+        return TwoStageParser.parse(parser, CatParser::mcm);
     }
 }
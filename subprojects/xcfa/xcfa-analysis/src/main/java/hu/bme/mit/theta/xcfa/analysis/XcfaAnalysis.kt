@@ -41,6 +41,7 @@ import hu.bme.mit.theta.analysis.ptr.getPtrInitFunc
 import hu.bme.mit.theta.analysis.ptr.getPtrTransFunc
 import hu.bme.mit.theta.analysis.waitlist.Waitlist
 import hu.bme.mit.theta.common.Try
+import hu.bme.mit.theta.common.container.persistentStackOf
 import hu.bme.mit.theta.common.logging.Logger
 import hu.bme.mit.theta.core.decl.Decls.Var
 import hu.bme.mit.theta.core.decl.VarDecl
@@ -248,11 +249,14 @@ fun <S : XcfaState<out PtrState<out ExprState>>, P : XcfaPrec<out Prec>> getXcfa
   logger: Logger,
   lts: LTS<XcfaState<out PtrState<out ExprState>>, XcfaAction>,
   errorDetector: XcfaErrorDetector,
+  threads: Int = 1,
+  workerAnalysis: () -> Analysis<S, XcfaAction, P> = { analysis },
 ): ArgAbstractor<out XcfaState<out PtrState<out ExprState>>, XcfaAction, out XcfaPrec<out Prec>> =
   XcfaArgAbstractor.builder(getXcfaArgBuilder(analysis, lts, errorDetector))
     .waitlist(waitlist as Waitlist<ArgNode<S, XcfaAction>>) // TODO: can we do this nicely?
     .stopCriterion(stopCriterion as StopCriterion<S, XcfaAction>)
     .logger(logger)
+    .parallel(threads) { getXcfaArgBuilder(workerAnalysis(), lts, errorDetector) }
     .projection {
       if (it.xcfa!!.isInlined) it.processes else it.processes.map { (_, p) -> p.locs.peek() }
     }
@@ -267,14 +271,12 @@ private fun getExplXcfaInitFunc(
   val processInitState =
     xcfa.initProcedures
       .mapIndexed { i, it ->
-        val initLocStack: LinkedList<XcfaLocation> = LinkedList()
-        initLocStack.add(it.first.initLoc)
         Pair(
           i,
           XcfaProcessState(
-            initLocStack,
+            persistentStackOf(it.first.initLoc),
             prefix = "T$i",
-            varLookup = LinkedList(listOf(it.first.createLookup("T$i"))),
+            varLookup = persistentStackOf(it.first.createLookup("T$i")),
           ),
         )
       }
@@ -335,14 +337,12 @@ private fun getPredXcfaInitFunc(
   val processInitState =
     xcfa.initProcedures
       .mapIndexed { i, it ->
-        val initLocStack: LinkedList<XcfaLocation> = LinkedList()
-        initLocStack.add(it.first.initLoc)
         Pair(
           i,
           XcfaProcessState(
-            initLocStack,
+            persistentStackOf(it.first.initLoc),
             prefix = "T$i",
-            varLookup = LinkedList(listOf(it.first.createLookup("T$i"))),
+            varLookup = persistentStackOf(it.first.createLookup("T$i")),
           ),
         )
       }
@@ -401,14 +401,12 @@ private fun getExplPredCombinedXcfaInitFunc(
   val processInitState =
     xcfa.initProcedures
       .mapIndexed { i, it ->
-        val initLocStack: LinkedList<XcfaLocation> = LinkedList()
-        initLocStack.add(it.first.initLoc)
         Pair(
           i,
           XcfaProcessState(
-            initLocStack,
+            persistentStackOf(it.first.initLoc),
             prefix = "T$i",
-            varLookup = LinkedList(listOf(it.first.createLookup("T$i"))),
+            varLookup = persistentStackOf(it.first.createLookup("T$i")),
           ),
         )
       }
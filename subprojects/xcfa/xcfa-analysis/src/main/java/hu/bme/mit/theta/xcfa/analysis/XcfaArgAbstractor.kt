@@ -15,20 +15,17 @@
  */
 package hu.bme.mit.theta.xcfa.analysis
 
-import com.google.common.base.Preconditions
 import hu.bme.mit.theta.analysis.Action
 import hu.bme.mit.theta.analysis.Prec
 import hu.bme.mit.theta.analysis.State
-import hu.bme.mit.theta.analysis.algorithm.arg.ARG
 import hu.bme.mit.theta.analysis.algorithm.arg.ArgBuilder
 import hu.bme.mit.theta.analysis.algorithm.arg.ArgNode
-import hu.bme.mit.theta.analysis.algorithm.cegar.AbstractorResult
 import hu.bme.mit.theta.analysis.algorithm.cegar.BasicArgAbstractor
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterion
-import hu.bme.mit.theta.analysis.reachedset.Partition
 import hu.bme.mit.theta.analysis.waitlist.Waitlist
 import hu.bme.mit.theta.common.logging.Logger
 import java.util.function.Function
+import java.util.function.Supplier
 
 class XcfaArgAbstractor<S : State, A : Action, P : Prec>(
   argBuilder: ArgBuilder<S, A, P>,
@@ -36,70 +33,25 @@ class XcfaArgAbstractor<S : State, A : Action, P : Prec>(
   waitlist: Waitlist<ArgNode<S, A>>,
   stopCriterion: StopCriterion<S, A>,
   logger: Logger,
-) : BasicArgAbstractor<S, A, P>(argBuilder, projection, waitlist, stopCriterion, logger) {
-
-  override fun check(arg: ARG<S, A>, prec: P): AbstractorResult {
-    logger.write(Logger.Level.DETAIL, "|  |  Precision: %s%n", prec)
-
-    if (!arg.isInitialized) {
-      logger.write(Logger.Level.SUBSTEP, "|  |  (Re)initializing ARG...")
-      argBuilder.init(arg, prec)
-      logger.write(Logger.Level.SUBSTEP, "done%n")
-    }
-
-    assert(arg.isInitialized)
-
-    logger.write(
-      Logger.Level.INFO,
-      "|  |  Starting ARG: %d nodes, %d incomplete, %d unsafe%n",
-      arg.nodes.count(),
-      arg.incompleteNodes.count(),
-      arg.unsafeNodes.count(),
-    )
-    logger.write(Logger.Level.SUBSTEP, "|  |  Building ARG...")
-
-    val reachedSet: Partition<ArgNode<S, A>, *> =
-      Partition.of { n: ArgNode<S, A> -> projection.apply(n.state) }
-    waitlist.clear()
-
-    reachedSet.addAll(arg.nodes)
-    waitlist.addAll(arg.incompleteNodes)
-
-    if (!stopCriterion.canStop(arg)) {
-      while (!waitlist.isEmpty) {
-        val node = waitlist.remove()
-        var newNodes: Collection<ArgNode<S, A>>? = emptyList()
-        if ((node.state as XcfaState<*>).xcfa!!.isInlined) {
-          close(node, reachedSet[node])
-        } else {
-          val expandProcedureCall = (node.state as XcfaState<*>) in (prec as XcfaPrec<P>).noPop
-          closePop(node, reachedSet[node], !expandProcedureCall)
-        }
-        if (!node.isSubsumed && !node.isTarget) {
-          newNodes = argBuilder.expand(node, prec)
-          reachedSet.addAll(newNodes)
-          waitlist.addAll(newNodes)
-        }
-        if (stopCriterion.canStop(arg, newNodes)) break
-      }
-    }
-
-    logger.write(Logger.Level.SUBSTEP, "done%n")
-    logger.write(
-      Logger.Level.INFO,
-      "|  |  Finished ARG: %d nodes, %d incomplete, %d unsafe%n",
-      arg.nodes.count(),
-      arg.incompleteNodes.count(),
-      arg.unsafeNodes.count(),
-    )
-
-    waitlist.clear() // Optimization
-
-    return if (arg.isSafe) {
-      Preconditions.checkState(arg.isComplete, "Returning incomplete ARG as safe")
-      AbstractorResult.safe()
+  threads: Int = 1,
+  workerArgBuilders: Supplier<out ArgBuilder<S, A, P>> = Supplier { argBuilder },
+) :
+  BasicArgAbstractor<S, A, P>(
+    argBuilder,
+    projection,
+    waitlist,
+    stopCriterion,
+    logger,
+    threads,
+    workerArgBuilders,
+  ) {
+
+  override fun close(node: ArgNode<S, A>, candidates: Collection<ArgNode<S, A>>, prec: P) {
+    if ((node.state as XcfaState<*>).xcfa!!.isInlined) {
+      close(node, candidates)
     } else {
-      AbstractorResult.unsafe()
+      val expandProcedureCall = (node.state as XcfaState<*>) in (prec as XcfaPrec<P>).noPop
+      closePop(node, candidates, !expandProcedureCall)
     }
   }
 
@@ -112,7 +64,10 @@ class XcfaArgAbstractor<S : State, A : Action, P : Prec>(
         var onlyStackCovers = false
         (node.state as XcfaState<*>).processes.forEach { (pid: Int, proc: XcfaProcessState) ->
           if (proc != (candidate.state as XcfaState<*>).processes[pid]) {
-            if (popCovered) proc.popped = proc.locs.pop()
+            if (popCovered) {
+              proc.popped = proc.locs.peek()
+              proc.locs = proc.locs.pop()
+            }
             onlyStackCovers = true
           }
         }
@@ -137,7 +92,15 @@ class XcfaArgAbstractor<S : State, A : Action, P : Prec>(
     BasicArgAbstractor.Builder<S, A, P>(argBuilder) {
 
     override fun build(): BasicArgAbstractor<S, A, P> {
-      return XcfaArgAbstractor(argBuilder, projection, waitlist, stopCriterion, logger)
+      return XcfaArgAbstractor(
+        argBuilder,
+        projection,
+        waitlist,
+        stopCriterion,
+        logger,
+        threads,
+        workerArgBuilders,
+      )
     }
   }
 }
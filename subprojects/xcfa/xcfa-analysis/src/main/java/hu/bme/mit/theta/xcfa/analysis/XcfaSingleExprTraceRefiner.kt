@@ -53,8 +53,7 @@ class XcfaSingleExprTraceRefiner<S : ExprState, A : ExprAction, P : Prec, R : Re
       state.processes.entries
         .find { (_, processState) -> processState.popped != null }
         ?.let { (pid, processState) ->
-          val stackBeforePop = LinkedList(processState.locs)
-          stackBeforePop.push(processState.popped)
+          val stackBeforePop = processState.locs.push(processState.popped!!)
           val processesBeforePop = state.processes.toMutableMap()
           processesBeforePop[pid] = processState.copy(locs = stackBeforePop)
           val stateBeforePop = state.copy(processes = processesBeforePop)
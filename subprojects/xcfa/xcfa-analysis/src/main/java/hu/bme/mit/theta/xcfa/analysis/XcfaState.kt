@@ -16,6 +16,10 @@
 package hu.bme.mit.theta.xcfa.analysis
 
 import hu.bme.mit.theta.analysis.expr.ExprState
+import hu.bme.mit.theta.common.container.PersistentStack
+import hu.bme.mit.theta.common.container.persistentHashMapOf
+import hu.bme.mit.theta.common.container.persistentStackOf
+import hu.bme.mit.theta.common.container.toPersistentHashMap
 import hu.bme.mit.theta.core.decl.Decls.Var
 import hu.bme.mit.theta.core.decl.VarDecl
 import hu.bme.mit.theta.core.stmt.Stmts.Assign
@@ -53,7 +57,9 @@ constructor(
   ) : this(
     xcfa = xcfa,
     processes =
-      mapOf(0 to XcfaProcessState(locs = LinkedList(listOf(loc)), varLookup = LinkedList())),
+      persistentHashMapOf(
+        0 to XcfaProcessState(locs = persistentStackOf(loc), varLookup = PersistentStack.empty())
+      ),
     sGlobal = state,
     mutexes = emptyMap(),
   )
@@ -84,9 +90,9 @@ constructor(
     val processState = processes[a.pid]
     checkNotNull(processState)
     check(processState.locs.peek() == a.source)
-    val newProcesses: MutableMap<Int, XcfaProcessState> = LinkedHashMap(processes)
-    newProcesses[a.pid] = processes[a.pid]!!.withNewLoc(a.target)
-    if (processes != newProcesses) {
+    val newProcessState = processState.withNewLoc(a.target)
+    if (processState != newProcessState) {
+      val newProcesses = processes.toPersistentHashMap().plus(a.pid, newProcessState)
       changes.add { state -> state.withProcesses(newProcesses) }
     }
 
@@ -172,9 +178,6 @@ constructor(
   }
 
   private fun start(startLabel: StartLabel, startingPid: Int): XcfaState<S> {
-    val newProcesses: MutableMap<Int, XcfaProcessState> = LinkedHashMap(processes)
-    val newThreadLookup: MutableMap<VarDecl<*>, Int> = LinkedHashMap(threadLookup)
-
     val procedure = xcfa?.procedures?.find { it.name == startLabel.name }!!
     val paramList = procedure.params.toMap()
     val tempLookup = startLabel.tempLookup
@@ -194,60 +197,61 @@ constructor(
 
     val pid = pidCnt++
     val lookup = procedure.createLookup("T$pid")
-    newThreadLookup[startLabel.pidVar] = pid
-    newProcesses[pid] =
+    val newThreadLookup = threadLookup.toPersistentHashMap().plus(startLabel.pidVar, pid)
+    val newProcess =
       XcfaProcessState(
-        LinkedList(listOf(procedure.initLoc)),
+        persistentStackOf(procedure.initLoc),
         prefix = "T$pid",
-        varLookup = LinkedList(listOf(lookup)),
-        returnStmts = LinkedList(listOf(returnStmt)),
+        varLookup = persistentStackOf(lookup),
+        returnStmts = persistentStackOf(returnStmt),
         paramStmts =
-          LinkedList(
-            listOf(
-              Pair(
-                /* init */
-                SequenceLabel(
-                  paramList
-                    .filter { it.value != ParamDirection.OUT }
-                    .map {
-                      StmtLabel(
-                        Assign(
-                          cast(it.key.changeVars(lookup), it.key.type),
-                          cast(it.key.changeVars(tempLookup).ref, it.key.type),
-                        )
+          persistentStackOf(
+            Pair(
+              /* init */
+              SequenceLabel(
+                paramList
+                  .filter { it.value != ParamDirection.OUT }
+                  .map {
+                    StmtLabel(
+                      Assign(
+                        cast(it.key.changeVars(lookup), it.key.type),
+                        cast(it.key.changeVars(tempLookup).ref, it.key.type),
                       )
-                    }
-                ),
-                /* deinit */
-                SequenceLabel(
-                  paramList
-                    .filter { it.value != ParamDirection.IN }
-                    .map {
-                      StmtLabel(
-                        Assign(
-                          cast(it.key.changeVars(tempLookup), it.key.type),
-                          cast(it.key.changeVars(lookup).ref, it.key.type),
-                        )
+                    )
+                  }
+              ),
+              /* deinit */
+              SequenceLabel(
+                paramList
+                  .filter { it.value != ParamDirection.IN }
+                  .map {
+                    StmtLabel(
+                      Assign(
+                        cast(it.key.changeVars(tempLookup), it.key.type),
+                        cast(it.key.changeVars(lookup).ref, it.key.type),
                       )
-                    }
-                ),
-              )
+                    )
+                  }
+              ),
             )
           ),
       )
 
-    newProcesses[startingPid] =
-      newProcesses[startingPid]!!.let {
-        it.copy(invokeParameterCounter = it.invokeParameterCounter + 1)
-      }
+    val startingProcess = processes[startingPid]!!
+    val newProcesses =
+      processes
+        .toPersistentHashMap()
+        .plus(pid, newProcess)
+        .plus(
+          startingPid,
+          startingProcess.copy(invokeParameterCounter = startingProcess.invokeParameterCounter + 1),
+        )
 
     return copy(processes = newProcesses, threadLookup = newThreadLookup)
   }
 
   private fun endProcess(pid: Int): XcfaState<S> {
-    val newProcesses: MutableMap<Int, XcfaProcessState> = LinkedHashMap(processes)
-    newProcesses.remove(pid)
-    return copy(processes = newProcesses)
+    return copy(processes = processes.toPersistentHashMap() - pid)
   }
 
   private fun invokeFunction(
@@ -257,15 +261,13 @@ constructor(
     paramList: Map<VarDecl<*>, ParamDirection>,
     tempLookup: Map<VarDecl<*>, VarDecl<*>>,
   ): XcfaState<S> {
-    val newProcesses: MutableMap<Int, XcfaProcessState> = LinkedHashMap(processes)
-    newProcesses[pid] = processes[pid]?.enterFunction(proc, returnStmt, paramList, tempLookup)!!
-    return copy(processes = newProcesses)
+    val newProcess = processes[pid]?.enterFunction(proc, returnStmt, paramList, tempLookup)!!
+    return copy(processes = processes.toPersistentHashMap().plus(pid, newProcess))
   }
 
   private fun returnFromFunction(pid: Int): XcfaState<S> {
-    val newProcesses: MutableMap<Int, XcfaProcessState> = LinkedHashMap(processes)
-    newProcesses[pid] = processes[pid]?.exitFunction()!!
-    return copy(processes = newProcesses)
+    val newProcess = processes[pid]?.exitFunction()!!
+    return copy(processes = processes.toPersistentHashMap().plus(pid, newProcess))
   }
 
   private fun enterMutex(label: FenceLabel, pid: Int): XcfaState<S> {
@@ -273,21 +275,23 @@ constructor(
       return copy(bottom = true)
     }
 
-    val newMutexes = LinkedHashMap(mutexes)
-    label.acquiredMutexes.forEach { newMutexes[it.name] = (newMutexes[it.name] ?: setOf()) + pid }
+    val newMutexes =
+      label.acquiredMutexes.fold(mutexes.toPersistentHashMap()) { acc, mutex ->
+        acc.plus(mutex.name, (acc[mutex.name] ?: setOf()) + pid)
+      }
     return copy(mutexes = newMutexes)
   }
 
   private fun exitMutex(label: FenceLabel, pid: Int): XcfaState<S> {
-    val newMutexes = LinkedHashMap(mutexes)
-    label.releasedMutexes.forEach {
-      val holders = newMutexes[it.name]
-      when {
-        holders == null || pid !in holders -> {}
-        holders.size == 1 -> newMutexes.remove(it.name)
-        else -> newMutexes[it.name] = holders - pid
+    val newMutexes =
+      label.releasedMutexes.fold(mutexes.toPersistentHashMap()) { acc, mutex ->
+        val holders = acc[mutex.name]
+        when {
+          holders == null || pid !in holders -> acc
+          holders.size == 1 -> acc - mutex.name
+          else -> acc.plus(mutex.name, holders - pid)
+        }
       }
-    }
     return copy(mutexes = newMutexes)
   }
 
@@ -296,10 +300,10 @@ constructor(
   }
 
   fun withLocation(pid: Int, loc: XcfaLocation): XcfaState<S> {
-    val nP = processes.toMutableMap()
-    nP[pid] =
-      nP[pid]?.withNewLoc(loc) ?: XcfaProcessState(locs = LinkedList(listOf(loc)), LinkedList())
-    return copy(processes = nP)
+    val newProcess =
+      processes[pid]?.withNewLoc(loc)
+        ?: XcfaProcessState(locs = persistentStackOf(loc), PersistentStack.empty())
+    return copy(processes = processes.toPersistentHashMap().plus(pid, newProcess))
   }
 
   fun withState(s: S): XcfaState<S> {
@@ -311,12 +315,17 @@ constructor(
   }
 }
 
+/**
+ * The state of a process. The call stack is stored in persistent stacks (with the top of the stack
+ * as their first element), so entering and leaving procedures shares the rest of the stack with the
+ * previous state.
+ */
 data class XcfaProcessState(
-  val locs: LinkedList<XcfaLocation>,
-  val varLookup: LinkedList<Map<VarDecl<*>, VarDecl<*>>>,
-  val returnStmts: LinkedList<XcfaLabel> = LinkedList(listOf(NopLabel)),
-  val paramStmts: LinkedList<Pair<XcfaLabel, XcfaLabel>> =
-    LinkedList(listOf(Pair(NopLabel, NopLabel))),
+  var locs: PersistentStack<XcfaLocation>, // only modified in place when popped by stack covering
+  val varLookup: PersistentStack<Map<VarDecl<*>, VarDecl<*>>>,
+  val returnStmts: PersistentStack<XcfaLabel> = persistentStackOf(NopLabel),
+  val paramStmts: PersistentStack<Pair<XcfaLabel, XcfaLabel>> =
+    persistentStackOf(Pair(NopLabel, NopLabel)),
   val paramsInitialized: Boolean = false,
   val prefix: String = "",
   val invokeParameterCounter: Int = 0,
@@ -325,18 +334,14 @@ data class XcfaProcessState(
   internal var popped: XcfaLocation? =
     null // stores if the stack was popped due to abstract stack covering
 
-  fun withNewLoc(l: XcfaLocation): XcfaProcessState {
-    val deque: LinkedList<XcfaLocation> = LinkedList(locs)
-    deque.pop()
-    deque.push(l)
-    return copy(locs = deque, paramsInitialized = true)
-  }
+  fun withNewLoc(l: XcfaLocation): XcfaProcessState =
+    copy(locs = locs.pop().push(l), paramsInitialized = true)
 
   override fun toString(): String =
     when (locs.size) {
       0 -> ""
-      1 -> locs.peek()!!.toString() + " initialized=$paramsInitialized"
-      else -> "${locs.peek()!!} [${locs.size}], initilized=$paramsInitialized"
+      1 -> locs.peek().toString() + " initialized=$paramsInitialized"
+      else -> "${locs.peek()} [${locs.size}], initilized=$paramsInitialized"
     }
 
   fun enterFunction(
@@ -345,15 +350,8 @@ data class XcfaProcessState(
     paramList: Map<VarDecl<*>, ParamDirection>,
     tempLookup: Map<VarDecl<*>, VarDecl<*>>,
   ): XcfaProcessState {
-    val deque: LinkedList<XcfaLocation> = LinkedList(locs)
-    val varLookup: LinkedList<Map<VarDecl<*>, VarDecl<*>>> = LinkedList(varLookup)
-    val returnStmts: LinkedList<XcfaLabel> = LinkedList(returnStmts)
-    val paramStmts: LinkedList<Pair<XcfaLabel, XcfaLabel>> = LinkedList(paramStmts)
-    deque.push(xcfaProcedure.initLoc)
     val lookup = xcfaProcedure.createLookup(prefix, "P${procCnt++}")
-    varLookup.push(lookup)
-    returnStmts.push(returnStmt)
-    paramStmts.push(
+    val paramStmt =
       Pair(
         /* init */
         SequenceLabel(
@@ -382,33 +380,23 @@ data class XcfaProcessState(
             }
         ),
       )
-    )
     return copy(
-      locs = deque,
-      varLookup = varLookup,
-      returnStmts = returnStmts,
-      paramStmts = paramStmts,
+      locs = locs.push(xcfaProcedure.initLoc),
+      varLookup = varLookup.push(lookup),
+      returnStmts = returnStmts.push(returnStmt),
+      paramStmts = paramStmts.push(paramStmt),
       paramsInitialized = false,
       invokeParameterCounter = invokeParameterCounter + 1,
     )
   }
 
-  fun exitFunction(): XcfaProcessState {
-    val deque: LinkedList<XcfaLocation> = LinkedList(locs)
-    val varLookup: LinkedList<Map<VarDecl<*>, VarDecl<*>>> = LinkedList(varLookup)
-    val returnStmts: LinkedList<XcfaLabel> = LinkedList(returnStmts)
-    val paramStmts: LinkedList<Pair<XcfaLabel, XcfaLabel>> = LinkedList(paramStmts)
-    deque.pop()
-    varLookup.pop()
-    returnStmts.pop()
-    paramStmts.pop()
-    return copy(
-      locs = deque,
-      varLookup = varLookup,
-      returnStmts = returnStmts,
-      paramStmts = paramStmts,
+  fun exitFunction(): XcfaProcessState =
+    copy(
+      locs = locs.pop(),
+      varLookup = varLookup.pop(),
+      returnStmts = returnStmts.pop(),
+      paramStmts = paramStmts.pop(),
     )
-  }
 
   override fun equals(other: Any?): Boolean {
     if (this === other) return true
@@ -24,6 +24,8 @@ import hu.bme.mit.theta.analysis.expr.ExprAction
 import hu.bme.mit.theta.analysis.expr.ExprState
 import hu.bme.mit.theta.analysis.pred.PredState
 import hu.bme.mit.theta.analysis.ptr.PtrState
+import hu.bme.mit.theta.common.container.PersistentStack
+import hu.bme.mit.theta.common.container.persistentStackOf
 import hu.bme.mit.theta.core.decl.Decls
 import hu.bme.mit.theta.core.decl.VarDecl
 import hu.bme.mit.theta.core.model.ImmutableValuation
@@ -343,7 +345,7 @@ class XcfaMultiThreadToMonolithicAdapter(
           if (locValue == -1) return@mapNotNull null // thread not started
           val pid = threadIds[thread]!!
           val loc = locs[thread]!!.entries.find { (_, id) -> id == locValue }!!.key
-          pid to XcfaProcessState(LinkedList(listOf(loc)), LinkedList())
+          pid to XcfaProcessState(persistentStackOf(loc), PersistentStack.empty())
         }
         .toMap()
     return XcfaState(
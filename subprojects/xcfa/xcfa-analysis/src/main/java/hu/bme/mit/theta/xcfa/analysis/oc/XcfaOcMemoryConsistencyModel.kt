@@ -49,7 +49,7 @@ enum class XcfaOcMemoryConsistencyModel(internal val filter: MemoryConsistencyMo
 
 private fun getClosedPo(pos: List<R>): BooleanGlobalRelation {
   val globalPos = pos.filter { it.from.clkId != it.to.clkId }
-  val rels = BooleanGlobalRelation(Event.clkSize) { false }
+  val rels = BooleanGlobalRelation(Event.clkSize)
   rels.closeNoCycle(globalPos.map { Triple(it.from.clkId, it.to.clkId, true) })
   return rels
 }
@@ -89,6 +89,6 @@ private fun getPpo(
       metadata2.varAccess.all { (v2, access2) -> filterOut(v1, access1, v2, access2) }
     }
   }
-  closedPos.forEachPair { i, j, b -> if (b && ignore(i, j)) closedPos[i, j] = false }
+  closedPos.forEachPair { i, j, _ -> if (ignore(i, j)) closedPos[i, j] = false }
   return closedPos
 }
@@ -20,6 +20,8 @@ import hu.bme.mit.theta.analysis.algorithm.oc.OcChecker
 import hu.bme.mit.theta.analysis.expl.ExplState
 import hu.bme.mit.theta.analysis.expr.ExprState
 import hu.bme.mit.theta.analysis.ptr.PtrState
+import hu.bme.mit.theta.common.container.PersistentStack
+import hu.bme.mit.theta.common.container.persistentStackOf
 import hu.bme.mit.theta.core.decl.VarDecl
 import hu.bme.mit.theta.core.model.ImmutableValuation
 import hu.bme.mit.theta.core.model.Valuation
@@ -57,8 +59,8 @@ internal class XcfaOcTraceExtractor(
         threads.associate { t ->
           t.pid to
             XcfaProcessState(
-              locs = LinkedList(listOf(t.procedure.initLoc)),
-              varLookup = LinkedList(listOf()),
+              locs = persistentStackOf(t.procedure.initLoc),
+              varLookup = PersistentStack.empty(),
             )
         }
       var explState = PtrState(ExplState.of(ImmutableValuation.from(mapOf())))
@@ -89,8 +91,8 @@ internal class XcfaOcTraceExtractor(
                   put(
                     event.pid,
                     XcfaProcessState(
-                      locs = LinkedList(listOf(lastEdge.target)),
-                      varLookup = LinkedList(emptyList()),
+                      locs = persistentStackOf(lastEdge.target),
+                      varLookup = PersistentStack.empty(),
                     ),
                   )
                 },
@@ -118,8 +120,6 @@ internal class XcfaOcTraceExtractor(
     val violation = violations.first { (it.guard.eval(model) as BoolLitExpr).value }
 
     val relations = ocChecker.getHappensBefore()!!
-    val reverseRelations =
-      Array(relations.size) { i -> Array(relations.size) { j -> relations[j, i] } }
     val eventsByClk = events.values.flatMap { it.values.flatten() }.groupBy { it.clkId }
 
     val lastEvents = violation.lastEvents.filter { it.enabled(model) == true }.toMutableList()
@@ -131,8 +131,9 @@ internal class XcfaOcTraceExtractor(
         val top = stack.peek()
         if (top.eventsToVisit == null) {
           val previous =
-            reverseRelations[top.event.clkId]
-              .flatMapIndexed { i, r -> if (r == null) listOf() else eventsByClk[i] ?: listOf() }
+            relations
+              .predecessors(top.event.clkId)
+              .flatMap { eventsByClk[it] ?: listOf() }
               .filter { it.enabled(model) == true } union
               pos
                 .filter {
@@ -188,8 +189,8 @@ internal class XcfaOcTraceExtractor(
               put(
                 stepPid,
                 XcfaProcessState(
-                  locs = LinkedList(listOf(edge.target)),
-                  varLookup = LinkedList(emptyList()),
+                  locs = persistentStackOf(edge.target),
+                  varLookup = PersistentStack.empty(),
                 ),
               )
             },
@@ -0,0 +1,76 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xcfa.analysis
+
+import hu.bme.mit.theta.analysis.expl.ExplState
+import hu.bme.mit.theta.analysis.ptr.PtrState
+import hu.bme.mit.theta.common.container.persistentStackOf
+import hu.bme.mit.theta.core.type.inttype.IntExprs
+import hu.bme.mit.theta.xcfa.analysis.XcfaProcessState.Companion.createLookup
+import hu.bme.mit.theta.xcfa.model.*
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+
+/**
+ * Checks that successors of process states share their call stacks with their predecessors, so that
+ * stepping a process allocates the same amount of memory regardless of the depth of its stack. The
+ * allocation rate itself is measured by XcfaStateBenchmark of the benchmarks project.
+ */
+class XcfaStateAllocationTest {
+
+  private val xcfa =
+    xcfa("example") {
+      val main =
+        procedure("main") {
+          val x = "x" type IntExprs.Int()
+          (init to "L1") { x assign IntExprs.Int(1) }
+          ("L1" to final) { x assign IntExprs.Int(2) }
+        }
+      main.start()
+    }
+  private val procedure = xcfa.procedures.first()
+  private val l1 = procedure.locs.first { it.name.endsWith("L1") }
+
+  private fun processState(depth: Int): XcfaProcessState {
+    var state =
+      XcfaProcessState(
+        locs = persistentStackOf(procedure.initLoc),
+        varLookup = persistentStackOf(procedure.createLookup("T0", "P0")),
+      )
+    repeat(depth - 1) { state = state.enterFunction(procedure, NopLabel, mapOf(), mapOf()) }
+    return state
+  }
+
+  @Test
+  fun testStructuralSharing() {
+    val state = processState(50)
+    val next = state.withNewLoc(l1)
+    assertSame(state.locs.pop(), next.locs.pop())
+    assertSame(state.varLookup, next.varLookup)
+
+    val called = next.enterFunction(procedure, NopLabel, mapOf(), mapOf())
+    assertSame(next.locs, called.locs.pop())
+    assertEquals(next, called.exitFunction())
+    assertEquals(next.hashCode(), called.exitFunction().hashCode())
+
+    val xcfaState =
+      XcfaState(xcfa, mapOf(0 to state, 1 to processState(1)), PtrState(ExplState.bottom()))
+    val stepped = xcfaState.withLocation(0, l1)
+    assertSame(xcfaState.processes[1], stepped.processes[1])
+    assertEquals(listOf(0, 1), stepped.processes.keys.toList())
+  }
+}
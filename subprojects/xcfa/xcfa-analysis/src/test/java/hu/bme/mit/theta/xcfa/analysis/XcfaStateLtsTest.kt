@@ -18,6 +18,7 @@ package hu.bme.mit.theta.xcfa.analysis
 import hu.bme.mit.theta.analysis.expl.ExplPrec
 import hu.bme.mit.theta.analysis.expl.ExplState
 import hu.bme.mit.theta.analysis.ptr.PtrState
+import hu.bme.mit.theta.common.container.persistentStackOf
 import hu.bme.mit.theta.core.type.inttype.IntExprs
 import hu.bme.mit.theta.xcfa.analysis.XcfaProcessState.Companion.createLookup
 import hu.bme.mit.theta.xcfa.analysis.por.XcfaAasporLts
@@ -66,8 +67,8 @@ class XcfaStateLtsTest {
           Pair(
             0,
             XcfaProcessState(
-              locs = LinkedList(listOf(edges[1].source)),
-              varLookup = LinkedList(listOf(xcfa.initProcedures[0].first.createLookup("T0", "P0"))),
+              locs = persistentStackOf(edges[1].source),
+              varLookup = persistentStackOf(xcfa.initProcedures[0].first.createLookup("T0", "P0")),
             ),
           )
         ),
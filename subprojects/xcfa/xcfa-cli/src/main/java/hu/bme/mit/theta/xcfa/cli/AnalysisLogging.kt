@@ -21,6 +21,7 @@ import hu.bme.mit.theta.common.logging.Logger
 import hu.bme.mit.theta.frontend.ParseContext
 import hu.bme.mit.theta.graphsolver.patterns.constraints.MCM
 import hu.bme.mit.theta.xcfa.ErrorDetection
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryWriter
 import hu.bme.mit.theta.xcfa.cli.params.HornConfig
 import hu.bme.mit.theta.xcfa.cli.params.OutputLevel
 import hu.bme.mit.theta.xcfa.cli.params.XcfaConfig
@@ -58,6 +59,8 @@ internal fun preAnalysisLogging(
         writeXcfaAsDot(resultFolder, xcfa, logger)
 
         writeXcfaAsJson(resultFolder, xcfa, logger)
+
+        writeXcfaAsBinary(resultFolder, xcfa, parseContext, logger)
       }
 
       if (enabled || config.outputConfig.cOutputConfig.enabled) {
@@ -102,6 +105,20 @@ private fun writeXcfaAsJson(resultFolder: File, xcfa: XCFA, logger: Logger) {
   }
 }
 
+private fun writeXcfaAsBinary(
+  resultFolder: File,
+  xcfa: XCFA,
+  parseContext: ParseContext,
+  logger: Logger,
+) {
+  try {
+    val xcfaBinaryFile = File(resultFolder, "xcfa.bin")
+    XcfaBinaryWriter(xcfaBinaryFile.outputStream()).use { it.write(xcfa, parseContext) }
+  } catch (e: Exception) {
+    logger.info("Could not emit XCFA as binary file: ${e.stackTraceToString()}")
+  }
+}
+
 private fun writeXcfaAsDot(resultFolder: File, xcfa: XCFA, logger: Logger) {
   try {
     val xcfaDotFile = File(resultFolder, "xcfa.dot")
@@ -22,6 +22,7 @@ import hu.bme.mit.theta.analysis.Trace
 import hu.bme.mit.theta.analysis.algorithm.Checker
 import hu.bme.mit.theta.analysis.algorithm.EmptyProof
 import hu.bme.mit.theta.analysis.algorithm.Result
+import hu.bme.mit.theta.analysis.algorithm.SafetyChecker
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult
 import hu.bme.mit.theta.analysis.algorithm.arg.debug.ARGWebDebugger
 import hu.bme.mit.theta.analysis.algorithm.tracegeneration.summary.AbstractTraceSet
@@ -35,6 +36,8 @@ import hu.bme.mit.theta.cat.dsl.CatDslManager
 import hu.bme.mit.theta.common.logging.Logger
 import hu.bme.mit.theta.common.logging.Logger.Level.INFO
 import hu.bme.mit.theta.common.visualization.writer.WebDebuggerLogger
+import hu.bme.mit.theta.core.type.ExprInterner
+import hu.bme.mit.theta.core.utils.ExprUtils
 import hu.bme.mit.theta.frontend.ParseContext
 import hu.bme.mit.theta.graphsolver.patterns.constraints.MCM
 import hu.bme.mit.theta.xcfa.ErrorDetection
@@ -46,6 +49,7 @@ import hu.bme.mit.theta.xcfa.cli.checkers.getChecker
 import hu.bme.mit.theta.xcfa.cli.checkers.getSafetyChecker
 import hu.bme.mit.theta.xcfa.cli.params.*
 import hu.bme.mit.theta.xcfa.cli.params.OutputLevel.NONE
+import hu.bme.mit.theta.xcfa.cli.utils.ResultCache
 import hu.bme.mit.theta.xcfa.cli.utils.determineProperty
 import hu.bme.mit.theta.xcfa.cli.utils.getSolver
 import hu.bme.mit.theta.xcfa.cli.utils.getXcfa
@@ -56,6 +60,7 @@ import hu.bme.mit.theta.xcfa.passes.*
 import hu.bme.mit.theta.xcfa.utils.collectVars
 import hu.bme.mit.theta.xcfa.utils.isDataRacePossible
 import java.util.concurrent.TimeUnit
+import kotlin.io.path.createTempDirectory
 import kotlin.random.Random
 
 fun runConfig(
@@ -73,18 +78,93 @@ fun runConfig(
 
   validateInputOptions(config, logger, uniqueLogger)
 
-  val result = backend(xcfa, mcm, parseContext, config, logger, uniqueLogger, throwDontExit)
+  val resultCache = getResultCache(xcfa, config)
+  val cached = resultCache?.lookup(xcfa!!, config, logger)
+  if (cached != null) {
+    // the artifacts of the post-analysis logging were restored to the result folder by the cache
+    logResult(cached.result, cached.property, logger)
+    return cached.result
+  }
+
+  val result =
+    backend(xcfa, mcm, parseContext, config, logger, uniqueLogger, throwDontExit, resultCache)
+
+  if (resultCache != null && result is SafetyResult<*, *>) {
+    cachingPostAnalysisLogging(
+      xcfa!!,
+      result,
+      mcm,
+      parseContext,
+      config,
+      logger,
+      uniqueLogger,
+      resultCache,
+    )
+  } else {
+    postAnalysisLogging(xcfa, result, mcm, parseContext, config, logger, uniqueLogger)
+  }
 
-  postAnalysisLogging(xcfa, result, mcm, parseContext, config, logger, uniqueLogger)
+  if (ExprInterner.isEnabled()) {
+    val hitRate = "%.3f".format(ExprInterner.getHitRate())
+    logger.info(
+      "Expression interning: ${ExprInterner.getHitCount()} hits, " +
+        "${ExprInterner.getMissCount()} misses (hit rate $hitRate), " +
+        "${ExprInterner.getTableSize()} expressions in table"
+    )
+  }
 
   return result
 }
 
+/**
+ * Writes the post-analysis artifacts to a folder of their own before moving them to the result
+ * folder, so that the result is cached with exactly the artifacts of this run, and not with those
+ * of other configurations sharing the result folder.
+ */
+private fun cachingPostAnalysisLogging(
+  xcfa: XCFA,
+  result: SafetyResult<*, *>,
+  mcm: MCM?,
+  parseContext: ParseContext?,
+  config: XcfaConfig<*, *>,
+  logger: Logger,
+  uniqueLogger: Logger,
+  resultCache: ResultCache,
+) {
+  val resultFolder = config.outputConfig.resultFolder
+  resultFolder.mkdirs()
+  val runFolder = createTempDirectory(resultFolder.toPath(), ".run").toFile()
+  try {
+    val runConfig = config.copy(outputConfig = config.outputConfig.copy(resultFolder = runFolder))
+    postAnalysisLogging(xcfa, result, mcm, parseContext, runConfig, logger, uniqueLogger)
+    val property = if (result.isUnsafe) violatedProperty(result, config) else null
+    resultCache.store(xcfa, config, result, property, runFolder, logger)
+    runFolder.copyRecursively(resultFolder, overwrite = true)
+  } finally {
+    runFolder.deleteRecursively()
+  }
+}
+
+/**
+ * Results are cached by the process running the analysis itself, i.e., not by portfolios or
+ * in-process checkers, whose configurations are cached separately.
+ */
+private fun getResultCache(xcfa: XCFA?, config: XcfaConfig<*, *>): ResultCache? =
+  config.backendConfig.resultCache?.takeIf {
+    xcfa != null &&
+      !config.backendConfig.inProcess &&
+      config.backendConfig.backend !in setOf(Backend.PORTFOLIO, Backend.TRACEGEN, Backend.NONE)
+  }
+    ?.let { ResultCache(it, config.backendConfig.resultCacheSizeMb * 1024 * 1024) }
+
 private fun propagateInputOptions(config: XcfaConfig<*, *>, logger: Logger, uniqueLogger: Logger) {
   config.inputConfig.property = determineProperty(config, logger)
   LbePass.defaultLevel = config.frontendConfig.lbeLevel
   StaticCoiPass.enabled = config.frontendConfig.enableStaticCoi
   DataRaceToReachabilityPass.enabled = config.frontendConfig.enableDataRaceToReachability
+  ProcedurePassRunner.parallelism = config.frontendConfig.passThreads
+  ExprInterner.setEnabled(config.backendConfig.internExprs)
+  ExprUtils.setSimplifierCacheSize(config.backendConfig.simplifierCacheSize)
 
   if (config.backendConfig.backend == Backend.CEGAR) {
     val cegarConfig = config.backendConfig.specConfig
@@ -219,6 +299,15 @@ private fun frontend(
   logger.benchmark(
     "Frontend finished: ${xcfa.name}  (in ${stopwatch.elapsed(TimeUnit.MILLISECONDS)} ms)"
   )
+  xcfa.procedureBuilders
+    .map { it.manager }
+    .distinct()
+    .flatMap { it.passTimesMs.entries }
+    .groupBy({ it.key }, { it.value })
+    .mapValues { it.value.sum() }
+    .entries
+    .sortedByDescending { it.value }
+    .forEach { (pass, time) -> logger.info("Time spent in $pass: $time ms") }
 
   logger.benchmark("ParsingResult Success")
   logger.benchmark(
@@ -236,9 +325,11 @@ private fun backend(
   logger: Logger,
   uniqueLogger: Logger,
   throwDontExit: Boolean,
+  resultCache: ResultCache?,
 ): Result<*> {
   val portfolioRun =
     (config.backendConfig.inProcess || config.backendConfig.backend == Backend.PORTFOLIO)
+  var property: LtlProperty? = null
   val result =
     if (config.backendConfig.backend == Backend.NONE) {
       SafetyResult.unknown<EmptyProof, EmptyCex>()
@@ -267,7 +358,11 @@ private fun backend(
         result
       } else {
         val stopwatch = Stopwatch.createStarted()
-        val checker = getSafetyChecker(xcfa, mcm, config, parseContext, logger, uniqueLogger)
+        val checker =
+          getSafetyChecker(xcfa, mcm, config, parseContext, logger, uniqueLogger) { prec ->
+            resultCache?.storePrec(xcfa!!, config, prec, logger)
+          }
+        val warmStartPrec = resultCache?.warmStartPrec(xcfa!!, config, logger)
 
         logger.info(
           "Input/Verified property: ${config.inputConfig.property.inputProperty.name} / ${config.inputConfig.property.verifiedProperty.name}"
@@ -279,7 +374,11 @@ private fun backend(
 
         val result =
           exitOnError(config.debugConfig.stacktrace, config.debugConfig.debug || throwDontExit) {
-              checker.check()
+              if (warmStartPrec != null) {
+                (checker as SafetyChecker<*, *, XcfaPrec<*>>).check(warmStartPrec)
+              } else {
+                checker.check()
+              }
             }
             .let ResultMapper@{ result ->
               when {
@@ -296,18 +395,13 @@ private fun backend(
 
                 result.isUnsafe -> {
                   // need to determine what kind
-                  val property =
+                  property =
                     try {
-                      config.inputConfig.property.ltlPropertyFromTrace(
-                        result.asUnsafe().cex as? Trace<XcfaState<*>, XcfaAction>
-                      )
+                      violatedProperty(result, config)
                     } catch (e: UnknownResultException) {
                       logger.result("Property couldn't be determined: ${e.message}")
                       return@ResultMapper SafetyResult.unknown<EmptyProof, EmptyCex>()
                     }
-                  if (!portfolioRun) {
-                    property?.also { logger.result("(Property %s)", it.name) }
-                  }
                   result
                 }
 
@@ -320,11 +414,22 @@ private fun backend(
       }
     }
   if (!portfolioRun) {
-    logger.result(result.toString())
+    logResult(result, property, logger)
   }
   return result
 }
 
+private fun violatedProperty(result: SafetyResult<*, *>, config: XcfaConfig<*, *>): LtlProperty? =
+  config.inputConfig.property.ltlPropertyFromTrace(
+    result.asUnsafe().cex as? Trace<XcfaState<*>, XcfaAction>
+  )
+
+/** Reports the verdict, preceded by the violated property if it is known. */
+private fun logResult(result: Result<*>, property: LtlProperty?, logger: Logger) {
+  property?.also { logger.result("(Property %s)", it.name) }
+  logger.result(result.toString())
+}
+
 private fun tracegenBackend(
   xcfa: XCFA?,
   mcm: MCM?,
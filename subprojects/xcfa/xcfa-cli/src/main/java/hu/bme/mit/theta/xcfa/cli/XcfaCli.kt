@@ -25,6 +25,7 @@ import hu.bme.mit.theta.common.logging.ConsoleLogger
 import hu.bme.mit.theta.common.logging.Logger
 import hu.bme.mit.theta.common.logging.NullLogger
 import hu.bme.mit.theta.common.logging.UniqueWarningLogger
+import hu.bme.mit.theta.xcfa.cli.checkers.WorkerPool
 import hu.bme.mit.theta.xcfa.cli.params.ExitCodes
 import hu.bme.mit.theta.xcfa.cli.params.SpecBackendConfig
 import hu.bme.mit.theta.xcfa.cli.params.SpecFrontendConfig
@@ -46,6 +47,8 @@ class XcfaCli(private val args: Array<String>) {
 
   @Parameter(names = ["--svcomp"]) private var svcomp = false
 
+  @Parameter(names = ["--worker-port"], hidden = true) private var workerPort: Int? = null
+
   @Parameter var remainingFlags: MutableList<String> = ArrayList()
 
   private fun run() {
@@ -102,6 +105,11 @@ class XcfaCli(private val args: Array<String>) {
       exitProcess("--debug" in args, ex, ExitCodes.INVALID_PARAM.code)
     }
 
+    workerPort?.let {
+      WorkerPool.serve(it)
+      return
+    }
+
     if (help) {
       val builder = JCommander.newBuilder().addObject(this)
       for (obj in config.getObjects()) {
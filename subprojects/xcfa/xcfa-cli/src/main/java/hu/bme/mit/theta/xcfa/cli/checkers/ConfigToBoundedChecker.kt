@@ -69,6 +69,7 @@ fun getBoundedChecker(
       kindEnabled = { !boundedConfig.indConfig.disable },
       logger = logger,
       needProof = true,
+      concurrent = boundedConfig.concurrent,
     )
   }
 
@@ -54,6 +54,7 @@ fun getCegarChecker(
   parseContext: ParseContext,
   config: XcfaConfig<*, *>,
   logger: Logger,
+  finalPrecListener: (Prec) -> Unit = {},
 ): SafetyChecker<LocationInvariants, Trace<XcfaState<PtrState<*>>, XcfaAction>, XcfaPrec<*>> {
   if (config.inputConfig.property.verifiedProperty == ErrorDetection.TERMINATION)
     error("Termination cannot be checked with CEGAR, use LIVENESS_CEGAR as a backend.")
@@ -90,6 +91,17 @@ fun getCegarChecker(
     if (xcfa.isInlined) getPartialOrder(globalStatePartialOrd)
     else getStackPartialOrder(globalStatePartialOrd)
   val errorDetector = getXcfaErrorDetector(config.inputConfig.property.verifiedProperty)
+  val abstractionThreads =
+    if (
+      cegarConfig.abstractorConfig.abstractionThreads > 1 &&
+        (cegarConfig.por != POR.NOPOR || cegarConfig.coi != ConeOfInfluenceMode.NO_COI)
+    ) {
+      logger.write(
+        Logger.Level.INFO,
+        "Parallel abstraction is not supported with POR or COI, using a single thread.\n",
+      )
+      1
+    } else cegarConfig.abstractorConfig.abstractionThreads
   val abstractor: ArgAbstractor<ExprState, ExprAction, Prec> =
     cegarConfig.abstractorConfig.domain.abstractor(
       xcfa,
@@ -107,13 +119,26 @@ fun getCegarChecker(
       },
       cegarConfig.abstractorConfig.havocMemory,
       coi,
-    ) as ArgAbstractor<ExprState, ExprAction, Prec>
+      abstractionThreads,
+    ) {
+      val workerSolver = abstractionSolverFactory.createSolver()
+      val workerStatePartialOrd =
+        cegarConfig.abstractorConfig.domain.partialOrd(workerSolver)
+          as PartialOrd<PtrState<ExprState>>
+      Pair(
+        workerSolver,
+        if (xcfa.isInlined) getPartialOrder(workerStatePartialOrd)
+        else getStackPartialOrder(workerStatePartialOrd),
+      )
+    } as ArgAbstractor<ExprState, ExprAction, Prec>
 
-  val ref: ExprTraceChecker<Refutation> =
+  val refFactory = {
     errorDetector.exprTraceCheckerWrapper(
       cegarConfig.refinerConfig.refinement.refiner(refinementSolverFactory, cegarConfig.cexMonitor)
         as ExprTraceChecker<Refutation>
     )
+  }
+  val ref: ExprTraceChecker<Refutation> = refFactory()
   val precRefiner: PrecRefiner<ExprState, ExprAction, Prec, Refutation> =
     cegarConfig.abstractorConfig.domain.itpPrecRefiner(
       cegarConfig.refinerConfig.exprSplitter.exprSplitter,
@@ -130,6 +155,8 @@ fun getCegarChecker(
           cegarConfig.refinerConfig.pruneStrategy,
           logger,
           atomicNodePruner,
+          cegarConfig.refinerConfig.refinementThreads,
+          { refFactory() },
         )
       else
         MultiExprTraceRefiner.create(
@@ -137,6 +164,8 @@ fun getCegarChecker(
           precRefiner,
           cegarConfig.refinerConfig.pruneStrategy,
           logger,
+          cegarConfig.refinerConfig.refinementThreads,
+          { refFactory() },
         )
     else if (cegarConfig.por == POR.AASPOR)
       XcfaSingleExprTraceRefiner.create(
@@ -176,6 +205,7 @@ fun getCegarChecker(
       prec: XcfaPrec<*>?
     ): SafetyResult<LocationInvariants, Trace<XcfaState<PtrState<*>>, XcfaAction>> {
       val ret = cegarChecker.check(prec)
+      cegarChecker.finalPrec.ifPresent { finalPrecListener(it) }
       if (ret.isSafe) {
         val arg = ret.asSafe().proof
 
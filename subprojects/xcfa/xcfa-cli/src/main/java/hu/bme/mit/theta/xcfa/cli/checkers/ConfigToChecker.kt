@@ -15,6 +15,7 @@
  */
 package hu.bme.mit.theta.xcfa.cli.checkers
 
+import hu.bme.mit.theta.analysis.Prec
 import hu.bme.mit.theta.analysis.Trace
 import hu.bme.mit.theta.analysis.algorithm.Checker
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker
@@ -38,6 +39,7 @@ fun getSafetyChecker(
   parseContext: ParseContext?,
   logger: Logger,
   uniqueLogger: Logger,
+  finalPrecListener: (Prec) -> Unit = {},
 ): SafetyChecker<*, *, *> =
   if (config.backendConfig.inProcess) {
     InProcessChecker(xcfa, config, parseContext, logger)
@@ -46,7 +48,8 @@ fun getSafetyChecker(
     mcm!!
     parseContext!!
     when (config.backendConfig.backend) {
-      Backend.CEGAR -> getCegarChecker(xcfa, mcm, parseContext, config, logger)
+      Backend.CEGAR ->
+        getCegarChecker(xcfa, mcm, parseContext, config, logger, finalPrecListener)
       Backend.BMC,
       Backend.KIND,
       Backend.IMC,
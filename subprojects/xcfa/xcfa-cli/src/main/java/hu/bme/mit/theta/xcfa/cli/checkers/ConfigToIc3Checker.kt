@@ -24,6 +24,7 @@ import hu.bme.mit.theta.analysis.algorithm.bounded.pipeline.passes.L2SMEPass
 import hu.bme.mit.theta.analysis.algorithm.bounded.pipeline.passes.PredicateAbstractionMEPass
 import hu.bme.mit.theta.analysis.algorithm.bounded.pipeline.passes.ReverseMEPass
 import hu.bme.mit.theta.analysis.algorithm.ic3.Ic3Checker
+import hu.bme.mit.theta.analysis.algorithm.ic3.IncrementalIc3Checker
 import hu.bme.mit.theta.analysis.expl.ExplState
 import hu.bme.mit.theta.analysis.expr.refinement.createFwBinItpCheckerFactory
 import hu.bme.mit.theta.analysis.ptr.PtrState
@@ -52,17 +53,32 @@ fun getIc3Checker(
   val solverFactory: SolverFactory = getSolver(ic3Config.solver, ic3Config.validateSolver)
 
   val baseChecker = { monolithicExpr: MonolithicExpr ->
-    Ic3Checker(
-      /* monolithicExpr = */ monolithicExpr,
-      /* solverFactory = */ solverFactory,
-      /* formerFramesOpt = */ true,
-      /* unSatOpt = */ true,
-      /* notBOpt = */ true,
-      /* propagateOpt = */ true,
-      /* filterOpt = */ true,
-      /* propertyOpt = */ true,
-      /* logger = */ logger,
-    )
+    if (ic3Config.incremental) {
+      IncrementalIc3Checker(
+        /* monolithicExpr = */ monolithicExpr,
+        /* solverFactory = */ solverFactory,
+        /* formerFramesOpt = */ true,
+        /* unSatOpt = */ true,
+        /* notBOpt = */ true,
+        /* propagateOpt = */ true,
+        /* filterOpt = */ true,
+        /* propertyOpt = */ true,
+        /* propagationThreads = */ ic3Config.propagationThreads,
+        /* logger = */ logger,
+      )
+    } else {
+      Ic3Checker(
+        /* monolithicExpr = */ monolithicExpr,
+        /* solverFactory = */ solverFactory,
+        /* formerFramesOpt = */ true,
+        /* unSatOpt = */ true,
+        /* notBOpt = */ true,
+        /* propagateOpt = */ true,
+        /* filterOpt = */ true,
+        /* propertyOpt = */ true,
+        /* logger = */ logger,
+      )
+    }
   }
 
   val passes = mutableListOf<MonolithicExprPass<EmptyProof>>()
@@ -82,7 +82,10 @@ fun getTracegenChecker(
       corePartialOrd,
       tracegenConfig.abstractorConfig.havocMemory,
       coi,
-    ) as BasicArgAbstractor<ExprState, ExprAction, Prec>
+      1,
+    ) {
+      error("Trace generation does not support parallel abstraction.")
+    } as BasicArgAbstractor<ExprState, ExprAction, Prec>
 
   val tracegenChecker = CegarTraceGenerationChecker.create(logger, abstractor, false)
 
@@ -25,6 +25,7 @@ import hu.bme.mit.theta.analysis.algorithm.SafetyResult
 import hu.bme.mit.theta.common.logging.Logger
 import hu.bme.mit.theta.frontend.ParseContext
 import hu.bme.mit.theta.xcfa.analysis.XcfaPrec
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryWriter
 import hu.bme.mit.theta.xcfa.cli.XcfaCli
 import hu.bme.mit.theta.xcfa.cli.params.*
 import hu.bme.mit.theta.xcfa.cli.utils.CachingFileSerializer
@@ -71,17 +72,30 @@ class InProcessChecker<F : SpecFrontendConfig, B : SpecBackendConfig>(
       } else {
         xcfa!!
         parseContext!!
-        val xcfaJson =
-          CachingFileSerializer.serialize("xcfa.json", xcfa) { getGson(xcfa).toJson(xcfa) }
-        val parseContextJson =
-          CachingFileSerializer.serialize("parseContext.json", parseContext) {
-            getGson(xcfa).toJson(parseContext)
+        val inputConfig =
+          if (config.backendConfig.binaryIntermediate) {
+            val model = Pair(xcfa, parseContext)
+            val xcfaBinary =
+              CachingFileSerializer.serializeBinary("xcfa.bin", model) { _, out ->
+                XcfaBinaryWriter(out).use { it.write(xcfa, parseContext) }
+              }
+            config.inputConfig.copy(input = xcfaBinary, parseCtx = null)
+          } else {
+            val xcfaJson =
+              CachingFileSerializer.serialize("xcfa.json", xcfa) { getGson(xcfa).toJson(xcfa) }
+            val parseContextJson =
+              CachingFileSerializer.serialize("parseContext.json", parseContext) {
+                getGson(xcfa).toJson(parseContext)
+              }
+            config.inputConfig.copy(input = xcfaJson, parseCtx = parseContextJson)
           }
+        val inputType =
+          if (config.backendConfig.binaryIntermediate) InputType.BINARY else InputType.JSON
 
         val config =
           config.copy(
-            inputConfig = config.inputConfig.copy(input = xcfaJson, parseCtx = parseContextJson),
-            frontendConfig = config.frontendConfig.copy(inputType = InputType.JSON),
+            inputConfig = inputConfig,
+            frontendConfig = config.frontendConfig.copy(inputType = inputType),
             backendConfig = config.backendConfig.copy(inProcess = false, timeoutMs = 0),
             outputConfig =
               config.outputConfig.copy(
@@ -97,6 +111,20 @@ class InProcessChecker<F : SpecFrontendConfig, B : SpecBackendConfig>(
 
     val heapSize =
       "-Xmx${if(config.backendConfig.memlimit == 0L) 1420L else config.backendConfig.memlimit/1024/1024 }m"
+
+    if (config.backendConfig.workerPool) {
+      val result =
+        WorkerPool.run(
+          configJson,
+          heapSize,
+          config.inputConfig.property.inputProperty.name,
+          config.backendConfig.timeoutMs,
+          logger,
+        )
+      copyResults(tempDir.toFile())
+      return result
+    }
+
     logger.write(Logger.Level.INFO, "Starting process with $heapSize of heap\n")
 
     val pb =
@@ -142,14 +170,18 @@ class InProcessChecker<F : SpecFrontendConfig, B : SpecBackendConfig>(
         processHandler.safetyResult
       }
 
-    tempDir.toFile().listFiles()?.forEach {
-      it.copyTo(config.outputConfig.resultFolder.resolve(it.name), overwrite = true)
-    }
-    tempDir.toFile().deleteRecursively()
+    copyResults(tempDir.toFile())
 
     return booleanSafetyResult as SafetyResult<EmptyProof, EmptyCex>
   }
 
+  private fun copyResults(tempDir: File) {
+    tempDir.listFiles()?.forEach {
+      it.copyTo(config.outputConfig.resultFolder.resolve(it.name), overwrite = true)
+    }
+    tempDir.deleteRecursively()
+  }
+
   private class ProcessHandler : NuAbstractProcessHandler() {
 
     private val stdout = LinkedList<String>()
@@ -0,0 +1,285 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xcfa.cli.checkers
+
+import com.google.gson.Gson
+import com.zaxxer.nuprocess.NuAbstractProcessHandler
+import com.zaxxer.nuprocess.NuProcess
+import com.zaxxer.nuprocess.NuProcessBuilder
+import hu.bme.mit.theta.analysis.EmptyCex
+import hu.bme.mit.theta.analysis.algorithm.EmptyProof
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult
+import hu.bme.mit.theta.common.logging.ConsoleLogger
+import hu.bme.mit.theta.common.logging.Logger
+import hu.bme.mit.theta.common.logging.NullLogger
+import hu.bme.mit.theta.common.logging.UniqueWarningLogger
+import hu.bme.mit.theta.xcfa.cli.XcfaCli
+import hu.bme.mit.theta.xcfa.cli.params.ErrorCodeException
+import hu.bme.mit.theta.xcfa.cli.params.ExitCodes
+import hu.bme.mit.theta.xcfa.cli.params.XcfaConfig
+import hu.bme.mit.theta.xcfa.cli.runConfig
+import hu.bme.mit.theta.xcfa.cli.utils.getGson
+import java.io.BufferedReader
+import java.io.File
+import java.io.FileReader
+import java.io.IOException
+import java.io.PrintStream
+import java.io.PrintWriter
+import java.net.InetAddress
+import java.net.ServerSocket
+import java.net.Socket
+import java.net.SocketTimeoutException
+import java.nio.ByteBuffer
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.TimeUnit
+import kotlin.concurrent.thread
+import kotlin.system.exitProcess
+
+/** A job sent to a worker: the path of the serialized configuration to run. */
+private data class WorkerJob(val configFile: String)
+
+/** The outcome of a job, either a verdict or the exit code the analysis failed with. */
+private data class WorkerResult(val verdict: Verdict?, val errorCode: Int?) {
+  enum class Verdict {
+    SAFE,
+    UNSAFE,
+    UNKNOWN,
+  }
+}
+
+/**
+ * A pool of warm JVMs running the analyses of [InProcessChecker]. Starting a JVM and warming up
+ * the JIT takes a considerable part of short portfolio steps, so workers are kept alive between
+ * configurations and receive jobs over a loopback socket. Results are sent back as messages
+ * instead of being scraped from the output of the process.
+ *
+ * Some options are set globally when a configuration is run, so a worker is only reused for jobs
+ * with the same property (and heap size). A worker that times out or fails is killed and replaced
+ * in the background, so its state never leaks into later jobs.
+ */
+object WorkerPool {
+
+  private const val CONNECT_TIMEOUT_MS = 60_000L
+  private const val EXIT_TIMEOUT_S = 10L
+
+  private val gson = Gson()
+
+  private data class Key(val heapSize: String, val property: String)
+
+  private class Worker(val key: Key, val process: NuProcess, val socket: Socket) {
+    val reader: BufferedReader = socket.getInputStream().bufferedReader()
+    val writer = PrintWriter(socket.getOutputStream().bufferedWriter(), true)
+
+    fun kill() {
+      socket.close()
+      process.destroy(true)
+    }
+  }
+
+  /** The class path and the main class of worker processes, replaced by fake workers in tests. */
+  internal var workerClasspath: String =
+    File(XcfaCli::class.java.protectionDomain.codeSource.location.toURI()).absolutePath
+  internal var workerMainClass: String = XcfaCli::class.qualifiedName!!
+
+  private val idle = ConcurrentHashMap<Key, ConcurrentLinkedQueue<Worker>>()
+  private val workers: MutableSet<Worker> = ConcurrentHashMap.newKeySet()
+
+  init {
+    Runtime.getRuntime().addShutdownHook(Thread { workers.forEach { it.kill() } })
+  }
+
+  /**
+   * Runs a serialized configuration in a worker with the given heap size. As when the analyses ran
+   * in separate processes, the worker gets a tenth of the timeout as grace period to report its
+   * result.
+   *
+   * @throws ErrorCodeException if the analysis fails, the worker dies, or the timeout expires
+   */
+  fun run(
+    configFile: File,
+    heapSize: String,
+    property: String,
+    timeoutMs: Long,
+    logger: Logger,
+  ): SafetyResult<EmptyProof, EmptyCex> {
+    val key = Key(heapSize, property)
+    val worker =
+      generateSequence { idle[key]?.poll() }.firstOrNull { it.process.isRunning }
+        ?: start(key, logger)
+
+    val result =
+      try {
+        val limitMs = timeoutMs.coerceAtMost(Int.MAX_VALUE.toLong() / 2)
+        worker.socket.soTimeout = (limitMs + limitMs / 10).toInt()
+        worker.writer.println(gson.toJson(WorkerJob(configFile.absolutePath)))
+        worker.reader.readLine()?.let { gson.fromJson(it, WorkerResult::class.java) }
+      } catch (e: SocketTimeoutException) {
+        retire(worker, logger)
+        throw ErrorCodeException(ExitCodes.TIMEOUT.code)
+      } catch (e: IOException) {
+        null
+      }
+
+    if (result == null) {
+      // the worker exited during the job, e.g., when running out of memory
+      val retCode = worker.process.waitFor(EXIT_TIMEOUT_S, TimeUnit.SECONDS)
+      retire(worker, logger)
+      throw ErrorCodeException(
+        if (retCode == 0 || retCode == Int.MIN_VALUE) ExitCodes.GENERIC_ERROR.code else retCode
+      )
+    }
+    if (result.errorCode != null) {
+      retire(worker, logger)
+      throw ErrorCodeException(result.errorCode)
+    }
+
+    idle.computeIfAbsent(key) { ConcurrentLinkedQueue() }.add(worker)
+    return when (result.verdict) {
+      WorkerResult.Verdict.SAFE -> SafetyResult.safe<EmptyProof, EmptyCex>(EmptyProof.getInstance())
+      WorkerResult.Verdict.UNSAFE ->
+        SafetyResult.unsafe(EmptyCex.getInstance(), EmptyProof.getInstance())
+      else -> SafetyResult.unknown<EmptyProof, EmptyCex>()
+    }
+  }
+
+  private fun start(key: Key, logger: Logger): Worker {
+    ServerSocket(0, 1, InetAddress.getLoopbackAddress()).use { server ->
+      logger.write(Logger.Level.INFO, "Starting worker process with ${key.heapSize} of heap\n")
+      val pb =
+        NuProcessBuilder(
+          listOf(
+            ProcessHandle.current().info().command().orElse("java"),
+            "-Xss120m",
+            key.heapSize,
+            "-cp",
+            workerClasspath,
+            workerMainClass,
+            "--worker-port",
+            server.localPort.toString(),
+          )
+        )
+      pb.environment().putAll(System.getenv())
+      pb.setProcessListener(ForwardingHandler())
+      val process = pb.start()
+
+      server.soTimeout = 1000
+      val deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MS
+      while (true) {
+        try {
+          return Worker(key, process, server.accept()).also { workers.add(it) }
+        } catch (e: SocketTimeoutException) {
+          if (!process.isRunning || System.currentTimeMillis() > deadline) {
+            process.destroy(true)
+            throw ErrorCodeException(ExitCodes.SERVER_ERROR.code)
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Kills a worker and starts a replacement in the background, so that the next job of the same
+   * kind still finds a warm worker.
+   */
+  private fun retire(worker: Worker, logger: Logger) {
+    workers.remove(worker)
+    worker.kill()
+    thread(isDaemon = true, name = "worker-pool-replace") {
+      try {
+        val replacement = start(worker.key, logger)
+        idle.computeIfAbsent(worker.key) { ConcurrentLinkedQueue() }.add(replacement)
+      } catch (e: ErrorCodeException) {
+        logger.write(Logger.Level.INFO, "Could not start replacement worker process\n")
+      }
+    }
+  }
+
+  /**
+   * Entry point of a worker process: runs the jobs received from the pool one after the other, and
+   * exits when the pool disconnects.
+   */
+  fun serve(port: Int) {
+    Socket(InetAddress.getLoopbackAddress(), port).use { socket ->
+      val reader = socket.getInputStream().bufferedReader()
+      val writer = PrintWriter(socket.getOutputStream().bufferedWriter(), true)
+      while (true) {
+        val job = reader.readLine()?.let { gson.fromJson(it, WorkerJob::class.java) } ?: break
+        val result = runJob(job)
+        System.out.flush()
+        System.err.flush()
+        writer.println(gson.toJson(result))
+      }
+    }
+    exitProcess(0)
+  }
+
+  private fun runJob(job: WorkerJob): WorkerResult =
+    try {
+      val config =
+        FileReader(job.configFile).use { getGson().fromJson(it, XcfaConfig::class.java) }
+      val logger =
+        if (config.debugConfig.logLevel == Logger.Level.DISABLE) {
+          NullLogger.getInstance()
+        } else {
+          ConsoleLogger(config.debugConfig.logLevel)
+        }
+      val result = runConfig(config, logger, UniqueWarningLogger(logger), true)
+      val verdict =
+        when {
+          result is SafetyResult<*, *> && result.isSafe -> WorkerResult.Verdict.SAFE
+          result is SafetyResult<*, *> && result.isUnsafe -> WorkerResult.Verdict.UNSAFE
+          else -> WorkerResult.Verdict.UNKNOWN
+        }
+      WorkerResult(verdict, null)
+    } catch (e: ErrorCodeException) {
+      WorkerResult(null, e.code)
+    } catch (e: OutOfMemoryError) {
+      WorkerResult(null, ExitCodes.OUT_OF_MEMORY.code)
+    } catch (e: Exception) {
+      e.printStackTrace()
+      WorkerResult(null, ExitCodes.GENERIC_ERROR.code)
+    }
+
+  /** Forwards the output of a worker, as it is not needed for the results anymore. */
+  private class ForwardingHandler : NuAbstractProcessHandler() {
+
+    private var stdoutRemainder = ""
+    private var stderrRemainder = ""
+
+    override fun onStdout(buffer: ByteBuffer, closed: Boolean) {
+      stdoutRemainder = forward(buffer, closed, stdoutRemainder, System.out)
+    }
+
+    override fun onStderr(buffer: ByteBuffer, closed: Boolean) {
+      stderrRemainder = forward(buffer, closed, stderrRemainder, System.err)
+    }
+
+    private fun forward(
+      buffer: ByteBuffer,
+      closed: Boolean,
+      remainder: String,
+      stream: PrintStream,
+    ): String {
+      if (closed) return remainder
+      val bytes = ByteArray(buffer.remaining())
+      buffer[bytes]
+      val newLines = (remainder + bytes.decodeToString()).split("\n")
+      newLines.subList(0, newLines.size - 1).forEach { stream.println("subprocess: $it") }
+      return newLines[newLines.size - 1]
+    }
+  }
+}
@@ -72,6 +72,7 @@ enum class InputType {
   C,
   LLVM,
   JSON,
+  BINARY,
   DSL,
   CHC,
   LITMUS,
@@ -147,6 +148,8 @@ enum class Domain(
       partialOrd: PartialOrd<out XcfaState<out PtrState<out ExprState>>>,
       isHavoc: Boolean,
       coi: XcfaCoi?,
+      threads: Int,
+      workerSolver: () -> Pair<Solver, PartialOrd<out XcfaState<out PtrState<out ExprState>>>>,
     ) -> ArgAbstractor<out ExprState, out ExprAction, out Prec>,
   val itpPrecRefiner:
     (exprSplitter: ExprSplitter, xcfa: XCFA) -> PrecRefiner<
@@ -187,15 +190,11 @@ enum class Domain(
         logger,
       )
     },
-    abstractor = { a, b, c, d, e, f, g, h, i, j, k ->
-      getXcfaAbstractor(
-        ExplXcfaAnalysis(a, b, c, i as PartialOrd<XcfaState<PtrState<ExplState>>>, j, k),
-        d,
-        e,
-        f,
-        g,
-        h,
-      )
+    abstractor = { a, b, c, d, e, f, g, h, i, j, k, l, m ->
+      val analysis = { s: Solver, o: PartialOrd<*> ->
+        ExplXcfaAnalysis(a, s, c, o as PartialOrd<XcfaState<PtrState<ExplState>>>, j, k)
+      }
+      getXcfaAbstractor(analysis(b, i), d, e, f, g, h, l) { m().let { (s, o) -> analysis(s, o) } }
     },
     itpPrecRefiner = { _, _ ->
       XcfaPrecRefiner<PtrState<ExplState>, ExplPrec, ItpRefutation>(
@@ -233,22 +232,18 @@ enum class Domain(
         logger,
       )
     },
-    abstractor = { a, b, c, d, e, f, g, h, i, j, k ->
-      getXcfaAbstractor(
+    abstractor = { a, b, c, d, e, f, g, h, i, j, k, l, m ->
+      val analysis = { s: Solver, o: PartialOrd<*> ->
         PredXcfaAnalysis(
           a,
-          b,
-          PredAbstractors.booleanAbstractor(b),
-          i as PartialOrd<XcfaState<PtrState<PredState>>>,
+          s,
+          PredAbstractors.booleanAbstractor(s),
+          o as PartialOrd<XcfaState<PtrState<PredState>>>,
           j,
           k,
-        ),
-        d,
-        e,
-        f,
-        g,
-        h,
-      )
+        )
+      }
+      getXcfaAbstractor(analysis(b, i), d, e, f, g, h, l) { m().let { (s, o) -> analysis(s, o) } }
     },
     itpPrecRefiner = { a, _ ->
       XcfaPrecRefiner<PtrState<PredState>, PredPrec, ItpRefutation>(
@@ -286,22 +281,18 @@ enum class Domain(
         logger,
       )
     },
-    abstractor = { a, b, c, d, e, f, g, h, i, j, k ->
-      getXcfaAbstractor(
+    abstractor = { a, b, c, d, e, f, g, h, i, j, k, l, m ->
+      val analysis = { s: Solver, o: PartialOrd<*> ->
         PredXcfaAnalysis(
           a,
-          b,
-          PredAbstractors.cartesianAbstractor(b),
-          i as PartialOrd<XcfaState<PtrState<PredState>>>,
+          s,
+          PredAbstractors.cartesianAbstractor(s),
+          o as PartialOrd<XcfaState<PtrState<PredState>>>,
           j,
           k,
-        ),
-        d,
-        e,
-        f,
-        g,
-        h,
-      )
+        )
+      }
+      getXcfaAbstractor(analysis(b, i), d, e, f, g, h, l) { m().let { (s, o) -> analysis(s, o) } }
     },
     itpPrecRefiner = { a, _ ->
       XcfaPrecRefiner<PtrState<PredState>, PredPrec, ItpRefutation>(
@@ -339,22 +330,18 @@ enum class Domain(
         logger,
       )
     },
-    abstractor = { a, b, c, d, e, f, g, h, i, j, k ->
-      getXcfaAbstractor(
+    abstractor = { a, b, c, d, e, f, g, h, i, j, k, l, m ->
+      val analysis = { s: Solver, o: PartialOrd<*> ->
         PredXcfaAnalysis(
           a,
-          b,
-          PredAbstractors.booleanSplitAbstractor(b),
-          i as PartialOrd<XcfaState<PtrState<PredState>>>,
+          s,
+          PredAbstractors.booleanSplitAbstractor(s),
+          o as PartialOrd<XcfaState<PtrState<PredState>>>,
           j,
           k,
-        ),
-        d,
-        e,
-        f,
-        g,
-        h,
-      )
+        )
+      }
+      getXcfaAbstractor(analysis(b, i), d, e, f, g, h, l) { m().let { (s, o) -> analysis(s, o) } }
     },
     itpPrecRefiner = { a, _ ->
       XcfaPrecRefiner<PtrState<PredState>, PredPrec, ItpRefutation>(
@@ -392,22 +379,18 @@ enum class Domain(
         logger,
       )
     },
-    abstractor = { a, b, c, d, e, f, g, h, i, j, k ->
-      getXcfaAbstractor(
+    abstractor = { a, b, c, d, e, f, g, h, i, j, k, l, m ->
+      val analysis = { s: Solver, o: PartialOrd<*> ->
         ExplPredCombinedXcfaAnalysis(
           a,
-          b,
-          getExplPredSplitXcfaTransFunc(Prod2ExplPredAbstractors.booleanAbstractor(b), j),
-          i as PartialOrd<XcfaState<PtrState<Prod2State<ExplState, PredState>>>>,
+          s,
+          getExplPredSplitXcfaTransFunc(Prod2ExplPredAbstractors.booleanAbstractor(s), j),
+          o as PartialOrd<XcfaState<PtrState<Prod2State<ExplState, PredState>>>>,
           j,
           null,
-        ),
-        d,
-        e,
-        f,
-        g,
-        h,
-      )
+        )
+      }
+      getXcfaAbstractor(analysis(b, i), d, e, f, g, h, l) { m().let { (s, o) -> analysis(s, o) } }
     },
     itpPrecRefiner = { a, b ->
       XcfaPrecRefiner<
@@ -453,22 +436,18 @@ enum class Domain(
         logger,
       )
     },
-    abstractor = { a, b, c, d, e, f, g, h, i, j, k ->
-      getXcfaAbstractor(
+    abstractor = { a, b, c, d, e, f, g, h, i, j, k, l, m ->
+      val analysis = { s: Solver, o: PartialOrd<*> ->
         ExplPredCombinedXcfaAnalysis(
           a,
-          b,
-          getExplPredStmtXcfaTransFunc(b, j),
-          i as PartialOrd<XcfaState<PtrState<Prod2State<ExplState, PredState>>>>,
+          s,
+          getExplPredStmtXcfaTransFunc(s, j),
+          o as PartialOrd<XcfaState<PtrState<Prod2State<ExplState, PredState>>>>,
           j,
           k,
-        ),
-        d,
-        e,
-        f,
-        g,
-        h,
-      )
+        )
+      }
+      getXcfaAbstractor(analysis(b, i), d, e, f, g, h, l) { m().let { (s, o) -> analysis(s, o) } }
     },
     itpPrecRefiner = { a, b ->
       XcfaPrecRefiner<
@@ -145,6 +145,12 @@ data class FrontendConfig<T : SpecFrontendConfig>(
       "Enable the FetchExecuteWriteback pass, which introduces a local temp var for all memory accesses",
   )
   var enableFew: Boolean = false,
+  @Parameter(
+    names = ["--pass-threads"],
+    description =
+      "Number of threads running procedure-local passes on different procedures concurrently",
+  )
+  var passThreads: Int = Runtime.getRuntime().availableProcessors(),
   @Parameter(names = ["--input-type"], description = "Format of the input")
   var inputType: InputType = InputType.C,
   override var specConfig: T? = null,
@@ -156,6 +162,7 @@ data class FrontendConfig<T : SpecFrontendConfig>(
         InputType.C -> CFrontendConfig() as T
         InputType.LLVM -> null
         InputType.JSON -> null
+        InputType.BINARY -> null
         InputType.DSL -> null
         InputType.LITMUS -> null
         InputType.CFA -> null
@@ -206,11 +213,43 @@ data class BackendConfig<T : SpecBackendConfig>(
     description = "Don't parse input in process instead of passing intermediate",
   )
   var parseInProcess: Boolean = true,
+  @Parameter(
+    names = ["--binary-intermediate"],
+    description =
+      "Pass the intermediate XCFA and parse context to --in-process analyses in the binary format instead of JSON",
+  )
+  var binaryIntermediate: Boolean = false,
   @Parameter(
     names = ["--memlimit"],
     description = "Maximum memory to use when --in-process (in bytes, 0 for default)",
   )
   var memlimit: Long = 0L,
+  @Parameter(
+    names = ["--worker-pool"],
+    description =
+      "Run --in-process analyses in reusable worker JVMs instead of starting a new JVM for each",
+  )
+  var workerPool: Boolean = false,
+  @Parameter(
+    names = ["--result-cache"],
+    description = "Directory of the on-disk cache of verification results (disabled if not set)",
+  )
+  var resultCache: File? = null,
+  @Parameter(
+    names = ["--result-cache-size-mb"],
+    description = "Maximum size of the result cache, least recently used entries are evicted",
+  )
+  var resultCacheSizeMb: Long = 1024L,
+  @Parameter(
+    names = ["--intern-exprs"],
+    description = "Share structurally equal expressions (hash-consing) to speed up comparisons",
+  )
+  var internExprs: Boolean = false,
+  @Parameter(
+    names = ["--simplifier-cache-size"],
+    description = "Memoize the results of expression simplification in a cache of this size (0: off)",
+  )
+  var simplifierCacheSize: Long = 0L,
   override var specConfig: T? = null,
 ) : SpecializableConfig<T> {
 
@@ -329,6 +368,12 @@ data class CegarAbstractorConfig(
     description = "HAVOC memory model (do not track pointers in transition function)",
   )
   var havocMemory: Boolean = false,
+  @Parameter(
+    names = ["--abstraction-threads"],
+    description =
+      "Number of threads expanding the ARG in parallel, each with its own abstraction solver. Only supported without POR and COI.",
+  )
+  var abstractionThreads: Int = 1,
 ) : Config
 
 data class CegarRefinerConfig(
@@ -352,6 +397,12 @@ data class CegarRefinerConfig(
     description = "Strategy for pruning the ARG after refinement",
   )
   var pruneStrategy: PruneStrategy = PruneStrategy.LAZY,
+  @Parameter(
+    names = ["--refinement-threads"],
+    description =
+      "Number of threads checking counterexamples in parallel, each with its own refinement solver. Only used by MULTI_SEQ refinement.",
+  )
+  var refinementThreads: Int = 1,
 ) : Config
 
 data class AsgCegarAbstractorConfig(
@@ -429,6 +480,11 @@ data class BoundedConfig(
   var cegar: Boolean = false,
   @Parameter(names = ["--initprec"], description = "Wrap the check in a predicate-based CEGAR loop")
   var initPrec: InitPrec = InitPrec.EMPTY,
+  @Parameter(
+    names = ["--concurrent-engines"],
+    description = "Run BMC, k-induction and IMC on separate threads, each with its own bound",
+  )
+  var concurrent: Boolean = false,
   val bmcConfig: BMCConfig = BMCConfig(),
   val indConfig: InductionConfig = InductionConfig(),
   val itpConfig: InterpolationConfig = InterpolationConfig(),
@@ -570,6 +626,17 @@ data class Ic3Config(
   var cegar: Boolean = false,
   @Parameter(names = ["--initprec"], description = "Wrap the check in a predicate-based CEGAR loop")
   var initPrec: InitPrec = InitPrec.EMPTY,
+  @Parameter(
+    names = ["--incremental"],
+    description =
+      "Assert the transition relation once and guard the lemmas of frames by activation literals",
+  )
+  var incremental: Boolean = false,
+  @Parameter(
+    names = ["--propagation-threads"],
+    description = "Number of threads propagating clauses in parallel (only with --incremental)",
+  )
+  var propagationThreads: Int = 1,
 ) : SpecBackendConfig
 
 data class OutputConfig(
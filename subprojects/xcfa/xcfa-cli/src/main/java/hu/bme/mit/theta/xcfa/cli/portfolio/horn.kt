@@ -61,6 +61,8 @@ fun hornPortfolio(
         BackendConfig(
           backend = Backend.CHC,
           solverHome = portfolioConfig.backendConfig.solverHome,
+          workerPool = portfolioConfig.backendConfig.workerPool,
+          binaryIntermediate = portfolioConfig.backendConfig.binaryIntermediate,
           timeoutMs = 0,
           specConfig = HornConfig(solver = "Z3:new", validateSolver = false),
         ),
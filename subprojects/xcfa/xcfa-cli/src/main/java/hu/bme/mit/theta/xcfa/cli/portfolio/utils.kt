@@ -78,6 +78,8 @@ fun baseCegarConfig(
         BackendConfig(
           backend = CEGAR,
           solverHome = portfolioConfig.backendConfig.solverHome,
+          workerPool = portfolioConfig.backendConfig.workerPool,
+          binaryIntermediate = portfolioConfig.backendConfig.binaryIntermediate,
           timeoutMs = 0,
           parseInProcess = !serialize,
           specConfig =
@@ -228,6 +230,8 @@ fun baseAsgCegarConfig(
       BackendConfig(
         backend = Backend.LIVENESS_CEGAR,
         solverHome = portfolioConfig.backendConfig.solverHome,
+        workerPool = portfolioConfig.backendConfig.workerPool,
+        binaryIntermediate = portfolioConfig.backendConfig.binaryIntermediate,
         timeoutMs = 0,
         parseInProcess = !serialize,
         specConfig =
@@ -330,6 +334,8 @@ fun baseBoundedConfig(
         backend = Backend.BOUNDED,
         memlimit = portfolioConfig.backendConfig.memlimit,
         solverHome = portfolioConfig.backendConfig.solverHome,
+        workerPool = portfolioConfig.backendConfig.workerPool,
+        binaryIntermediate = portfolioConfig.backendConfig.binaryIntermediate,
         timeoutMs = 0,
         parseInProcess = !serialize,
         specConfig =
@@ -374,6 +380,8 @@ fun baseMddConfig(
         backend = Backend.MDD,
         memlimit = portfolioConfig.backendConfig.memlimit / 5 * 4,
         solverHome = portfolioConfig.backendConfig.solverHome,
+        workerPool = portfolioConfig.backendConfig.workerPool,
+        binaryIntermediate = portfolioConfig.backendConfig.binaryIntermediate,
         timeoutMs = 0,
         parseInProcess = !serialize,
         specConfig =
@@ -460,6 +468,8 @@ fun baseIc3Config(
         backend = Backend.IC3,
         memlimit = portfolioConfig.backendConfig.memlimit,
         solverHome = portfolioConfig.backendConfig.solverHome,
+        workerPool = portfolioConfig.backendConfig.workerPool,
+        binaryIntermediate = portfolioConfig.backendConfig.binaryIntermediate,
         timeoutMs = 0,
         parseInProcess = !serialize,
         specConfig =
@@ -16,6 +16,7 @@
 package hu.bme.mit.theta.xcfa.cli.utils
 
 import java.io.File
+import java.io.OutputStream
 
 object CachingFileSerializer {
 
@@ -26,10 +27,16 @@ object CachingFileSerializer {
    * cache miss occurs
    */
   fun serialize(key: String, obj: Any, func: (Any) -> String): File =
+    serializeTo(key, obj) { file -> file.writeText(func(obj)) }
+
+  /** Same as [serialize], but the generator function writes the contents to a stream. */
+  fun serializeBinary(key: String, obj: Any, func: (Any, OutputStream) -> Unit): File =
+    serializeTo(key, obj) { file -> file.outputStream().use { func(obj, it) } }
+
+  private fun serializeTo(key: String, obj: Any, write: (File) -> Unit): File =
     if (cache.containsKey(Pair(key, obj))) {
       cache[Pair(key, obj)]!!
     } else {
-      val str = func(obj)
       val pattern = key.split(".")
       val file =
         File.createTempFile(
@@ -37,7 +44,7 @@ object CachingFileSerializer {
           "." + pattern.last(),
         )
       file.deleteOnExit()
-      file.writeText(str)
+      write(file)
       cache[Pair(key, obj)] = file
       file
     }
@@ -0,0 +1,240 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xcfa.cli.utils
+
+import com.google.common.hash.Hashing
+import hu.bme.mit.theta.analysis.EmptyCex
+import hu.bme.mit.theta.analysis.Prec
+import hu.bme.mit.theta.analysis.algorithm.EmptyProof
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult
+import hu.bme.mit.theta.analysis.expl.ExplPrec
+import hu.bme.mit.theta.analysis.ptr.PtrPrec
+import hu.bme.mit.theta.common.logging.Logger
+import hu.bme.mit.theta.xcfa.analysis.LtlProperty
+import hu.bme.mit.theta.xcfa.analysis.XcfaPrec
+import hu.bme.mit.theta.xcfa.cli.params.*
+import hu.bme.mit.theta.xcfa.model.XCFA
+import hu.bme.mit.theta.xcfa.utils.collectVars
+import java.io.File
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.FileAlreadyExistsException
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.util.Properties
+
+/**
+ * Content-addressed on-disk cache of verification results. An entry is keyed by a hash of the XCFA
+ * (after the passes) and of the parts of the configuration that can influence the result, and
+ * stores the verdict, the violated property of unsafe results and the artifacts written to the
+ * result folder.
+ *
+ * A second kind of entry, keyed by the path of the input file and the configuration, stores the
+ * variables of the final explicit precision of CEGAR. If the input changed since, the precision is
+ * used to warm-start CEGAR on the variables that still exist.
+ *
+ * Entries are directories in [dir]. When the total size exceeds [maxSizeBytes], the least recently
+ * used entries are evicted.
+ */
+class ResultCache(private val dir: File, private val maxSizeBytes: Long) {
+
+  /** A cached verdict along with the property it violates, if it is unsafe. */
+  data class CachedResult(val result: SafetyResult<*, *>, val property: LtlProperty?)
+
+  /** Returns the cached result of the configuration on the XCFA, restoring its artifacts. */
+  fun lookup(xcfa: XCFA, config: XcfaConfig<*, *>, logger: Logger): CachedResult? {
+    val entry = dir.resolve(resultKey(xcfa, config))
+    val properties = readProperties(entry) ?: return null
+    val result =
+      when (properties.getProperty(VERDICT)) {
+        SAFE -> SafetyResult.safe<EmptyProof, EmptyCex>(EmptyProof.getInstance())
+        UNSAFE -> SafetyResult.unsafe(EmptyCex.getInstance(), EmptyProof.getInstance())
+        else -> return null
+      }
+    val propertyName = properties.getProperty(PROPERTY_NAME)
+    val propertyValue = properties.getProperty(PROPERTY_VALUE)
+    val property =
+      if (propertyName != null && propertyValue != null) LtlProperty(propertyName, propertyValue)
+      else null
+    val resultFolder = config.outputConfig.resultFolder
+    resultFolder.mkdirs()
+    entry
+      .listFiles { file -> isArtifact(file) }
+      ?.forEach { it.copyTo(resultFolder.resolve(it.name), overwrite = true) }
+    entry.setLastModified(System.currentTimeMillis())
+    logger.info("Result found in cache: ${entry.absolutePath}")
+    return CachedResult(result, property)
+  }
+
+  /**
+   * Stores a conclusive result along with the property it violates and the artifacts in
+   * [artifactFolder], which must only contain the artifacts of this run.
+   */
+  fun store(
+    xcfa: XCFA,
+    config: XcfaConfig<*, *>,
+    result: SafetyResult<*, *>,
+    property: LtlProperty?,
+    artifactFolder: File,
+    logger: Logger,
+  ) {
+    if (!result.isSafe && !result.isUnsafe) return
+    val properties = Properties()
+    properties.setProperty(VERDICT, if (result.isSafe) SAFE else UNSAFE)
+    if (property != null) {
+      properties.setProperty(PROPERTY_NAME, property.name)
+      properties.setProperty(PROPERTY_VALUE, property.value)
+    }
+    val artifacts = artifactFolder.listFiles { file -> isArtifact(file) }.orEmpty()
+    storeEntry(resultKey(xcfa, config), properties, artifacts.toList(), logger)
+  }
+
+  /**
+   * Returns the initial precision extended by the variables of the cached final precision, if the
+   * configuration uses CEGAR with the explicit domain.
+   */
+  fun warmStartPrec(xcfa: XCFA, config: XcfaConfig<*, *>, logger: Logger): XcfaPrec<*>? {
+    val cegarConfig = config.backendConfig.specConfig as? CegarConfig ?: return null
+    if (cegarConfig.abstractorConfig.domain != Domain.EXPL) return null
+    val entry = dir.resolve(precKey(config) ?: return null)
+    val properties = readProperties(entry) ?: return null
+    val names = properties.getProperty(PREC_VARS).split(",").filter { it.isNotEmpty() }.toSet()
+    val vars = xcfa.collectVars().filter { it.name in names }
+    entry.setLastModified(System.currentTimeMillis())
+    logger.info("Warm-starting from a cached precision of ${vars.size}/${names.size} variables")
+
+    val initPrec = cegarConfig.abstractorConfig.domain.initPrec(xcfa, cegarConfig.initPrec)
+    val innerPrec = initPrec.p.innerPrec as ExplPrec
+    return XcfaPrec(PtrPrec(innerPrec.join(ExplPrec.of(vars))))
+  }
+
+  /** Stores the variables of the final explicit precision of a CEGAR run. */
+  fun storePrec(xcfa: XCFA, config: XcfaConfig<*, *>, prec: Prec, logger: Logger) {
+    val cegarConfig = config.backendConfig.specConfig as? CegarConfig ?: return
+    if (cegarConfig.abstractorConfig.domain != Domain.EXPL) return
+    val properties = Properties()
+    properties.setProperty(PREC_VARS, prec.usedVars.joinToString(",") { it.name })
+    storeEntry(precKey(config) ?: return, properties, emptyList(), logger)
+  }
+
+  private fun isArtifact(file: File): Boolean =
+    file.isFile && (file.name.startsWith(WITNESS_PREFIX) || file.name == CHC_ANSWER)
+
+  private fun readProperties(entry: File): Properties? {
+    val file = entry.resolve(PROPERTIES)
+    if (!file.isFile) return null
+    return try {
+      Properties().apply { file.reader().use { load(it) } }
+    } catch (e: Exception) {
+      null
+    }
+  }
+
+  private fun storeEntry(key: String, properties: Properties, files: List<File>, logger: Logger) {
+    try {
+      dir.mkdirs()
+      // Entries are written to a temporary directory first, so that concurrent processes never
+      // see a partially written entry
+      val tmp = Files.createTempDirectory(dir.toPath(), ".$key").toFile()
+      files.forEach { it.copyTo(tmp.resolve(it.name)) }
+      tmp.resolve(PROPERTIES).writer().use { properties.store(it, null) }
+      val entry = dir.resolve(key)
+      entry.deleteRecursively()
+      try {
+        Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE)
+      } catch (e: FileAlreadyExistsException) {
+        tmp.deleteRecursively()
+      } catch (e: AtomicMoveNotSupportedException) {
+        tmp.deleteRecursively()
+      }
+      evict()
+    } catch (e: Exception) {
+      logger.info("Could not store result in cache: ${e.message}")
+    }
+  }
+
+  private fun evict() {
+    val entries =
+      dir.listFiles { file -> file.isDirectory && !file.name.startsWith(".") }.orEmpty()
+    val sizes =
+      entries.associateWith { entry -> entry.walk().filter { it.isFile }.sumOf { it.length() } }
+    var total = sizes.values.sum()
+    for (entry in entries.sortedBy { it.lastModified() }) {
+      if (total <= maxSizeBytes) break
+      entry.deleteRecursively()
+      total -= sizes[entry]!!
+    }
+  }
+
+  private fun resultKey(xcfa: XCFA, config: XcfaConfig<*, *>): String =
+    hash(getGson(xcfa).toJson(xcfa), configJson(config))
+
+  /**
+   * Stays the same when the input is edited, so that a slightly changed model is warm-started.
+   * Returns null if the XCFA was not parsed from an input file.
+   */
+  private fun precKey(config: XcfaConfig<*, *>): String? {
+    val input = config.inputConfig.input ?: return null
+    return "prec-" + hash(input.absoluteFile.normalize().path, configJson(config))
+  }
+
+  /** Serializes the parts of the configuration that can influence the verdict or the witnesses. */
+  private fun configJson(config: XcfaConfig<*, *>): String {
+    config as XcfaConfig<SpecFrontendConfig, SpecBackendConfig>
+    val normalized =
+      config.copy(
+        inputConfig =
+          config.inputConfig.copy(
+            input = null,
+            parseCtx = null,
+            xcfaWCtx = null,
+            propertyFile = null,
+          ),
+        backendConfig =
+          config.backendConfig.copy(
+            solverHome = "",
+            timeoutMs = 0,
+            memlimit = 0,
+            resultCache = null,
+          ),
+        outputConfig =
+          OutputConfig(
+            enabled = config.outputConfig.enabled,
+            witnessConfig = config.outputConfig.witnessConfig.copy(inputFileForWitness = null),
+          ),
+        debugConfig = DebugConfig(),
+      )
+    return getGson().toJson(normalized)
+  }
+
+  private fun hash(vararg parts: String): String {
+    val hasher = Hashing.sha256().newHasher()
+    parts.forEach { hasher.putString(it, Charsets.UTF_8).putByte(0) }
+    return hasher.hash().toString()
+  }
+
+  private companion object {
+
+    const val PROPERTIES = "entry.properties"
+    const val VERDICT = "verdict"
+    const val SAFE = "SAFE"
+    const val UNSAFE = "UNSAFE"
+    const val PROPERTY_NAME = "propertyName"
+    const val PROPERTY_VALUE = "propertyValue"
+    const val PREC_VARS = "precVars"
+    const val WITNESS_PREFIX = "witness."
+    const val CHC_ANSWER = "chc-answer.smt2"
+  }
+}
@@ -19,13 +19,22 @@ import hu.bme.mit.theta.common.logging.Logger
 import hu.bme.mit.theta.solver.SolverFactory
 import hu.bme.mit.theta.solver.SolverManager
 import hu.bme.mit.theta.solver.javasmt.JavaSMTSolverManager
+import hu.bme.mit.theta.solver.portfolio.PortfolioSolverFactory
 import hu.bme.mit.theta.solver.smtlib.SmtLibSolverManager
 import hu.bme.mit.theta.solver.validator.SolverValidatorWrapperFactory
 import hu.bme.mit.theta.solver.z3legacy.Z3SolverManager
 import java.nio.file.Path
 
+/**
+ * Resolves a solver by its name. A comma-separated list of names (e.g., `Z3,cvc5:1.0.8`) creates a
+ * portfolio, which races the listed solvers on each check.
+ */
 fun getSolver(name: String, validate: Boolean): SolverFactory =
-  if (validate) {
+  if (name.contains(',')) {
+    PortfolioSolverFactory.create(
+      name.split(',').map(String::trim).associateWith { getSolver(it, validate) }
+    )
+  } else if (validate) {
     SolverValidatorWrapperFactory.create(name)
   } else {
     SolverManager.resolveSolverFactory(name)
@@ -32,6 +32,7 @@ import hu.bme.mit.theta.frontend.transformation.grammar.preprocess.ArithmeticTra
 import hu.bme.mit.theta.llvm2xcfa.ArithmeticType
 import hu.bme.mit.theta.llvm2xcfa.XcfaUtils
 import hu.bme.mit.theta.xcfa.XcfaProperty
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryReader
 import hu.bme.mit.theta.xcfa.cli.params.CHCFrontendConfig
 import hu.bme.mit.theta.xcfa.cli.params.ExitCodes
 import hu.bme.mit.theta.xcfa.cli.params.InputType
@@ -87,6 +88,11 @@ fun getXcfa(
         gson.fromJson(config.inputConfig.input!!.readText(), XCFA::class.java)
       }
 
+      InputType.BINARY ->
+        XcfaBinaryReader(FileInputStream(config.inputConfig.input!!)).use {
+          it.read(parseContext)
+        }
+
       InputType.DSL -> {
         val kotlinEngine: ScriptEngine = ScriptEngineManager().getEngineByExtension("kts")
         kotlinEngine.eval(FileReader(config.inputConfig.input!!)) as XCFA
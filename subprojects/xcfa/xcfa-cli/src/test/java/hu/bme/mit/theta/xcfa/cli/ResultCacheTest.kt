@@ -0,0 +1,156 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xcfa.cli
+
+import hu.bme.mit.theta.analysis.EmptyCex
+import hu.bme.mit.theta.analysis.algorithm.EmptyProof
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult
+import hu.bme.mit.theta.analysis.expl.ExplPrec
+import hu.bme.mit.theta.analysis.ptr.PtrPrec
+import hu.bme.mit.theta.common.logging.NullLogger
+import hu.bme.mit.theta.core.type.inttype.IntExprs.Int
+import hu.bme.mit.theta.xcfa.analysis.LtlProperty
+import hu.bme.mit.theta.xcfa.analysis.XcfaPrec
+import hu.bme.mit.theta.xcfa.cli.params.*
+import hu.bme.mit.theta.xcfa.cli.utils.ResultCache
+import hu.bme.mit.theta.xcfa.model.xcfa
+import hu.bme.mit.theta.xcfa.utils.collectVars
+import java.io.File
+import kotlin.io.path.createTempDirectory
+import kotlin.io.path.createTempFile
+import org.junit.Assert
+import org.junit.Test
+
+class ResultCacheTest {
+
+  private val logger = NullLogger.getInstance()
+
+  private fun getXcfa(bound: String) =
+    xcfa("example") {
+      val main =
+        procedure("main") {
+          val x = "x" type Int()
+          (init to "L1") { x assign "0" }
+          ("L1" to final) { assume("(< x $bound)") }
+          ("L1" to err) { assume("(>= x $bound)") }
+        }
+
+      main.start()
+    }
+
+  private fun getConfig(domain: Domain, input: File? = null) =
+    XcfaConfig<SpecFrontendConfig, CegarConfig>(
+      inputConfig = InputConfig(input = input),
+      backendConfig =
+        BackendConfig(
+          backend = Backend.CEGAR,
+          specConfig = CegarConfig(abstractorConfig = CegarAbstractorConfig(domain = domain)),
+        ),
+      outputConfig = OutputConfig(resultFolder = createTempDirectory().toFile()),
+    )
+
+  @Test
+  fun testLookup() {
+    val cache = ResultCache(createTempDirectory().toFile(), 1024 * 1024)
+    val xcfa = getXcfa("1")
+    val config = getConfig(Domain.EXPL)
+    val artifactFolder = createTempDirectory().toFile()
+    artifactFolder.resolve("witness.yml").writeText("witness")
+    // Written to the shared result folder by another configuration
+    config.outputConfig.resultFolder.resolve("witness.graphml").writeText("other")
+
+    Assert.assertNull(cache.lookup(xcfa, config, logger))
+    cache.store(
+      xcfa,
+      config,
+      SafetyResult.safe<EmptyProof, EmptyCex>(EmptyProof.getInstance()),
+      null,
+      artifactFolder,
+      logger,
+    )
+
+    val otherConfig = getConfig(Domain.EXPL)
+    Assert.assertTrue(cache.lookup(getXcfa("1"), otherConfig, logger)!!.result.isSafe)
+    Assert.assertEquals(
+      "witness",
+      otherConfig.outputConfig.resultFolder.resolve("witness.yml").readText(),
+    )
+    Assert.assertFalse(otherConfig.outputConfig.resultFolder.resolve("witness.graphml").exists())
+    Assert.assertNull(cache.lookup(getXcfa("2"), config, logger))
+    Assert.assertNull(cache.lookup(xcfa, getConfig(Domain.PRED_CART), logger))
+  }
+
+  @Test
+  fun testEviction() {
+    val cache = ResultCache(createTempDirectory().toFile(), 0)
+    val xcfa = getXcfa("1")
+    val config = getConfig(Domain.EXPL)
+    cache.store(
+      xcfa,
+      config,
+      SafetyResult.unsafe(EmptyCex.getInstance(), EmptyProof.getInstance()),
+      null,
+      createTempDirectory().toFile(),
+      logger,
+    )
+    Assert.assertNull(cache.lookup(xcfa, config, logger))
+  }
+
+  @Test
+  fun testUnsafeProperty() {
+    val cache = ResultCache(createTempDirectory().toFile(), 1024 * 1024)
+    val xcfa = getXcfa("1")
+    val config = getConfig(Domain.EXPL)
+    val property = LtlProperty("valid-free", "CHECK( init(main()), LTL(G valid-free) )")
+    cache.store(
+      xcfa,
+      config,
+      SafetyResult.unsafe(EmptyCex.getInstance(), EmptyProof.getInstance()),
+      property,
+      createTempDirectory().toFile(),
+      logger,
+    )
+
+    val cached = cache.lookup(xcfa, config, logger)!!
+    Assert.assertTrue(cached.result.isUnsafe)
+    Assert.assertEquals(property, cached.property)
+  }
+
+  @Test
+  fun testWarmStart() {
+    val cache = ResultCache(createTempDirectory().toFile(), 1024 * 1024)
+    val xcfa = getXcfa("1")
+    val input = createTempFile().toFile().apply { writeText("int main() { return 0; }") }
+    val config = getConfig(Domain.EXPL, input)
+    Assert.assertNull(cache.warmStartPrec(xcfa, config, logger))
+
+    cache.storePrec(xcfa, config, XcfaPrec(PtrPrec(ExplPrec.of(xcfa.collectVars()))), logger)
+
+    // The model was edited, but its variables are still there
+    input.writeText("int main() { return 1; }")
+    val changed = getXcfa("2")
+    val prec = cache.warmStartPrec(changed, config, logger)
+    Assert.assertEquals(
+      changed.collectVars().map { it.name }.toSet(),
+      prec!!.usedVars.map { it.name }.toSet(),
+    )
+
+    // Another input, or no input file at all, does not reuse the precision
+    val otherInput = createTempFile().toFile().apply { writeText("int main() { return 0; }") }
+    Assert.assertNull(cache.warmStartPrec(xcfa, getConfig(Domain.EXPL, otherInput), logger))
+    Assert.assertNull(cache.warmStartPrec(xcfa, getConfig(Domain.EXPL), logger))
+  }
+}
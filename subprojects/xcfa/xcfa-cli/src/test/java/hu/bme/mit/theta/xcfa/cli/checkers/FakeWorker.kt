@@ -0,0 +1,48 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xcfa.cli.checkers
+
+import com.google.gson.Gson
+import java.io.File
+import java.io.PrintWriter
+import java.net.InetAddress
+import java.net.Socket
+import kotlin.system.exitProcess
+
+internal const val FAKE_WORKER_EXIT_CODE = 42
+
+/**
+ * A worker process of [WorkerPool] used by [WorkerPoolTest]. The configuration files of its jobs
+ * contain commands instead of configurations: `exit` makes the worker exit during the job, every
+ * other job is safe if it is the first job of the worker, and unsafe otherwise.
+ */
+fun main(args: Array<String>) {
+  val port = args[args.indexOf("--worker-port") + 1].toInt()
+  Socket(InetAddress.getLoopbackAddress(), port).use { socket ->
+    val reader = socket.getInputStream().bufferedReader()
+    val writer = PrintWriter(socket.getOutputStream().bufferedWriter(), true)
+    var jobs = 0
+    while (true) {
+      val job = reader.readLine()?.let { Gson().fromJson(it, Map::class.java) } ?: break
+      if (File(job["configFile"] as String).readText() == "exit") {
+        exitProcess(FAKE_WORKER_EXIT_CODE)
+      }
+      val verdict = if (jobs++ == 0) "SAFE" else "UNSAFE"
+      writer.println("{\"verdict\":\"$verdict\"}")
+    }
+  }
+  exitProcess(0)
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xcfa.cli.checkers
+
+import hu.bme.mit.theta.common.logging.NullLogger
+import hu.bme.mit.theta.xcfa.cli.params.ErrorCodeException
+import java.io.File
+import kotlin.io.path.createTempFile
+import org.junit.After
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+
+class WorkerPoolTest {
+
+  private val logger = NullLogger.getInstance()
+
+  private lateinit var workerClasspath: String
+  private lateinit var workerMainClass: String
+
+  @Before
+  fun startFakeWorkers() {
+    workerClasspath = WorkerPool.workerClasspath
+    workerMainClass = WorkerPool.workerMainClass
+    WorkerPool.workerClasspath = System.getProperty("java.class.path")
+    WorkerPool.workerMainClass = "hu.bme.mit.theta.xcfa.cli.checkers.FakeWorkerKt"
+  }
+
+  @After
+  fun restoreWorkers() {
+    WorkerPool.workerClasspath = workerClasspath
+    WorkerPool.workerMainClass = workerMainClass
+  }
+
+  private fun job(command: String): File =
+    createTempFile().toFile().also {
+      it.writeText(command)
+      it.deleteOnExit()
+    }
+
+  // every test uses its own property, so that they do not share workers
+  private fun run(command: String, property: String) =
+    WorkerPool.run(job(command), HEAP_SIZE, property, TIMEOUT_MS, logger)
+
+  @Test
+  fun testTwoJobsOnOneWorker() {
+    val first = run("run", "twoJobs")
+    val second = run("run", "twoJobs")
+
+    Assert.assertTrue(first.isSafe)
+    // only the first job of a worker is safe, so the second job reused the worker
+    Assert.assertTrue(second.isUnsafe)
+  }
+
+  @Test
+  fun testWorkerDiesDuringJob() {
+    val exception = Assert.assertThrows(ErrorCodeException::class.java) { run("exit", "dies") }
+    Assert.assertEquals(FAKE_WORKER_EXIT_CODE, exception.code)
+
+    // the next job runs in a new worker
+    Assert.assertTrue(run("run", "dies").isSafe)
+  }
+
+  companion object {
+
+    private const val HEAP_SIZE = "-Xmx64m"
+    private const val TIMEOUT_MS = 60_000L
+  }
+}
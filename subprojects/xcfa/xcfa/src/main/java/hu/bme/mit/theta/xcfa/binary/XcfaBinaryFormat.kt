@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xcfa.binary
+
+import java.io.DataInputStream
+import java.io.DataOutputStream
+
+/**
+ * Constants of the binary XCFA format written by [XcfaBinaryWriter] and read by
+ * [XcfaBinaryReader].
+ *
+ * The format is a stream: every shared element (strings, types, variables, expressions, operator
+ * templates and metadata) is written inline at its first occurrence and referred to by its id
+ * afterward. References are encoded as `id + 1`, and `0` marks an element defined in place. Ids
+ * are assigned in the order the definitions are completed, so nested definitions (e.g., the
+ * operands of an expression) precede their parents.
+ *
+ * Compound expressions are encoded as an operator template and the list of their operands. A
+ * template is the textual form of the expression with its operands replaced by placeholder
+ * variables, so each distinct operator is parsed only once when reading.
+ */
+internal object XcfaBinaryFormat {
+
+  const val MAGIC = 0x58434641 // "XCFA"
+  const val VERSION = 1
+
+  const val PLACEHOLDER = "__op"
+
+  const val EXPR_REF: Int = 0
+  const val EXPR_LEAF: Int = 1
+  const val EXPR_NODE: Int = 2
+
+  const val STMT_SKIP: Int = 0
+  const val STMT_ASSIGN: Int = 1
+  const val STMT_ASSUME: Int = 2
+  const val STMT_HAVOC: Int = 3
+  const val STMT_MEMORY_ASSIGN: Int = 4
+  const val STMT_TEXT: Int = 5
+
+  const val LABEL_NOP: Int = 0
+  const val LABEL_STMT: Int = 1
+  const val LABEL_INVOKE: Int = 2
+  const val LABEL_START: Int = 3
+  const val LABEL_JOIN: Int = 4
+  const val LABEL_SEQUENCE: Int = 5
+  const val LABEL_NONDET: Int = 6
+  const val LABEL_RETURN: Int = 7
+  const val LABEL_TEXT: Int = 8
+
+  const val VALUE_STRING: Int = 0
+  const val VALUE_BOOLEAN: Int = 1
+}
+
+internal fun DataOutputStream.writeVarInt(value: Int) {
+  var v = value
+  while (v and 0x7F.inv() != 0) {
+    writeByte((v and 0x7F) or 0x80)
+    v = v ushr 7
+  }
+  writeByte(v)
+}
+
+internal fun DataInputStream.readVarInt(): Int {
+  var value = 0
+  var shift = 0
+  while (true) {
+    val b = readUnsignedByte()
+    value = value or ((b and 0x7F) shl shift)
+    if (b and 0x80 == 0) return value
+    shift += 7
+  }
+}
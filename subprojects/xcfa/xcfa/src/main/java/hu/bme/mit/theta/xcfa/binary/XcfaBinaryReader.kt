@@ -0,0 +1,337 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xcfa.binary
+
+import hu.bme.mit.theta.common.dsl.Env
+import hu.bme.mit.theta.common.dsl.MutableScope
+import hu.bme.mit.theta.common.dsl.SymbolTable
+import hu.bme.mit.theta.core.decl.Decls.Var
+import hu.bme.mit.theta.core.decl.VarDecl
+import hu.bme.mit.theta.core.stmt.AssignStmt
+import hu.bme.mit.theta.core.stmt.AssumeStmt
+import hu.bme.mit.theta.core.stmt.HavocStmt
+import hu.bme.mit.theta.core.stmt.MemoryAssignStmt
+import hu.bme.mit.theta.core.stmt.SkipStmt
+import hu.bme.mit.theta.core.stmt.Stmt
+import hu.bme.mit.theta.core.type.Expr
+import hu.bme.mit.theta.core.type.LitExpr
+import hu.bme.mit.theta.core.type.Type
+import hu.bme.mit.theta.core.type.anytype.Dereference
+import hu.bme.mit.theta.core.type.booltype.BoolType
+import hu.bme.mit.theta.core.utils.TypeUtils.cast
+import hu.bme.mit.theta.frontend.ParseContext
+import hu.bme.mit.theta.frontend.transformation.ArchitectureConfig
+import hu.bme.mit.theta.frontend.transformation.grammar.preprocess.ArithmeticTrait
+import hu.bme.mit.theta.grammar.dsl.expr.ExpressionWrapper
+import hu.bme.mit.theta.grammar.dsl.stmt.StatementWrapper
+import hu.bme.mit.theta.grammar.dsl.type.TypeWrapper
+import hu.bme.mit.theta.xcfa.XcfaScope
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.EXPR_LEAF
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.EXPR_NODE
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.EXPR_REF
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_INVOKE
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_JOIN
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_NONDET
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_NOP
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_RETURN
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_SEQUENCE
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_START
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_STMT
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_TEXT
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.MAGIC
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.PLACEHOLDER
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.STMT_ASSIGN
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.STMT_ASSUME
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.STMT_HAVOC
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.STMT_MEMORY_ASSIGN
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.STMT_SKIP
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.STMT_TEXT
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.VALUE_BOOLEAN
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.VALUE_STRING
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.VERSION
+import hu.bme.mit.theta.xcfa.gson.MetaDataAdapter
+import hu.bme.mit.theta.xcfa.model.*
+import java.io.BufferedInputStream
+import java.io.Closeable
+import java.io.DataInputStream
+import java.io.IOException
+import java.io.InputStream
+import java.util.*
+import kotlin.reflect.full.companionObject
+import kotlin.reflect.full.functions
+
+/**
+ * Reads an [XCFA] written by [XcfaBinaryWriter].
+ *
+ * Variables are resolved in [scope] first: a variable already defined there with the same name and
+ * type is reused, otherwise a new one is created and added to the scope.
+ */
+class XcfaBinaryReader
+@JvmOverloads
+constructor(
+  inputStream: InputStream,
+  private val scope: MutableScope = XcfaScope(SymbolTable()),
+  private val env: Env = Env(),
+) : Closeable {
+
+  private val input = DataInputStream(BufferedInputStream(inputStream))
+
+  private val strings = ArrayList<String>()
+  private val types = ArrayList<Type>()
+  private val decls = ArrayList<VarDecl<*>>()
+  private val exprs = ArrayList<Expr<*>>()
+  private val templates = ArrayList<Expr<*>>()
+  private val metadata = ArrayList<MetaData>()
+
+  private val createdDecls: MutableSet<VarDecl<*>> = Collections.newSetFromMap(IdentityHashMap())
+
+  private val metaDataAdapter = MetaDataAdapter()
+
+  /**
+   * Reads the XCFA. If the input contains a parse context and [parseContext] is given, the
+   * contents are added to it.
+   *
+   * @throws IOException if the input is not in the expected format
+   */
+  @JvmOverloads
+  fun read(parseContext: ParseContext? = null): XCFA {
+    if (input.readInt() != MAGIC) throw IOException("Not a binary XCFA file")
+    val version = input.readInt()
+    if (version != VERSION) throw IOException("Unsupported binary XCFA version $version")
+
+    val name = readString()
+    val unsafeUnrollUsed = input.readBoolean()
+    val globalVars =
+      readList {
+          val decl = readDecl()
+          val initValue = if (input.readBoolean()) readExpr() as LitExpr<*> else null
+          XcfaGlobalVar(decl, initValue, input.readBoolean(), input.readBoolean())
+        }
+        .toSet()
+
+    val xcfa = XCFA(name, globalVars, unsafeUnrollUsed = unsafeUnrollUsed)
+    val procedures = LinkedHashMap<String, XcfaProcedure>()
+    repeat(input.readVarInt()) {
+      val procedure = readProcedure().also { it.parent = xcfa }
+      procedures[procedure.name] = procedure
+    }
+    val initProcedures = readList {
+      val procedure = checkNotNull(procedures[readString()])
+      Pair(procedure, readList(::readExpr))
+    }
+
+    if (input.readBoolean() && parseContext != null) {
+      readParseContext(parseContext)
+    }
+
+    return xcfa.recreate(procedures.values.toSet(), initProcedures)
+  }
+
+  override fun close() {
+    input.close()
+  }
+
+  private fun readProcedure(): XcfaProcedure {
+    val name = readString()
+    val params = readList { Pair(readDecl(), ParamDirection.entries[input.readUnsignedByte()]) }
+    val vars = readList(::readDecl).toSet()
+
+    val locs = readList {
+      XcfaLocation(
+        readString(),
+        initial = input.readBoolean(),
+        final = input.readBoolean(),
+        error = input.readBoolean(),
+        metadata = readMetaData(),
+      )
+    }
+    val edges = LinkedHashSet<XcfaEdge>()
+    repeat(input.readVarInt()) {
+      val source = locs[input.readVarInt()]
+      val target = locs[input.readVarInt()]
+      val edge = XcfaEdge(source, target, readLabel(), readMetaData())
+      edges.add(edge)
+      source.outgoingEdges.add(edge)
+      target.incomingEdges.add(edge)
+    }
+    val prop = cast(readExpr(), BoolType.getInstance())
+
+    return XcfaProcedure(
+      name,
+      params,
+      vars,
+      locs.toSet(),
+      edges,
+      locs.first { it.initial },
+      Optional.ofNullable(locs.find { it.final }),
+      Optional.ofNullable(locs.find { it.error }),
+      prop,
+    )
+  }
+
+  private fun readLabel(): XcfaLabel =
+    when (val tag = input.readUnsignedByte()) {
+      LABEL_NOP -> NopLabel
+      LABEL_STMT -> StmtLabel(readStmt(), ChoiceType.entries[input.readUnsignedByte()], readMetaData())
+      LABEL_INVOKE -> {
+        val name = readString()
+        val params = readList(::readExpr)
+        val tempLookup = readTempLookup()
+        val isLibraryFunction = input.readBoolean()
+        InvokeLabel(name, params, readMetaData(), tempLookup, isLibraryFunction)
+      }
+      LABEL_START -> {
+        val name = readString()
+        val params = readList(::readExpr)
+        val pidVar = readDecl()
+        val tempLookup = readTempLookup()
+        StartLabel(name, params, pidVar, readMetaData(), tempLookup)
+      }
+      LABEL_JOIN -> JoinLabel(readDecl(), readMetaData())
+      LABEL_SEQUENCE -> SequenceLabel(readList(::readLabel), readMetaData())
+      LABEL_NONDET -> NondetLabel(readList(::readLabel).toSet(), readMetaData())
+      LABEL_RETURN -> ReturnLabel(readLabel())
+      LABEL_TEXT -> {
+        val clazz = Class.forName(readString()).kotlin
+        val content = readString()
+        val metadata = readMetaData()
+        val fromString = clazz.companionObject?.functions?.find { it.name == "fromString" }
+        checkNotNull(fromString) { "${clazz.simpleName} has no fromString() method." }
+        fromString.call(clazz.companionObject!!.objectInstance, content, scope, env, metadata)
+          as XcfaLabel
+      }
+      else -> throw IOException("Unknown label tag $tag")
+    }
+
+  private fun readTempLookup(): Map<VarDecl<*>, VarDecl<*>> {
+    val tempLookup = LinkedHashMap<VarDecl<*>, VarDecl<*>>()
+    repeat(input.readVarInt()) {
+      val key = readDecl()
+      tempLookup[key] = readDecl()
+    }
+    return tempLookup
+  }
+
+  private fun readStmt(): Stmt =
+    when (val tag = input.readUnsignedByte()) {
+      STMT_SKIP -> SkipStmt.getInstance()
+      STMT_ASSIGN -> AssignStmt.create<Type>(readDecl(), readExpr())
+      STMT_ASSUME -> AssumeStmt.create(readExpr())
+      STMT_HAVOC -> HavocStmt.of(readDecl())
+      STMT_MEMORY_ASSIGN ->
+        MemoryAssignStmt.create(readExpr() as Dereference<Type, Type, *>, readExpr() as Expr<Type>)
+      STMT_TEXT -> StatementWrapper(readString(), scope).instantiate(env)
+      else -> throw IOException("Unknown statement tag $tag")
+    }
+
+  private fun readExpr(): Expr<*> =
+    readShared(exprs) {
+      when (val tag = input.readUnsignedByte()) {
+        EXPR_REF -> readDecl().ref
+        EXPR_LEAF -> ExpressionWrapper(scope, readString()).instantiate(env)
+        EXPR_NODE -> {
+          val template = readTemplate()
+          template.withOps(List(template.ops.size) { readExpr() })
+        }
+        else -> throw IOException("Unknown expression tag $tag")
+      }
+    }
+
+  private fun readTemplate(): Expr<*> =
+    readShared(templates) {
+      val text = readString()
+      val placeholderTypes = readList(::readType)
+      val templateScope = XcfaScope(SymbolTable())
+      val templateEnv = Env()
+      placeholderTypes.forEachIndexed { i, type ->
+        val symbol = NamedSymbol("$PLACEHOLDER$i")
+        templateScope.add(symbol)
+        templateEnv.define(symbol, Var(symbol.name, type))
+      }
+      ExpressionWrapper(templateScope, text).instantiate(templateEnv).also {
+        check(it.ops.size == placeholderTypes.size) { "Malformed operator template $text" }
+      }
+    }
+
+  private fun readDecl(): VarDecl<*> =
+    readShared(decls) {
+      val name = readString()
+      val type = readType()
+      val symbol = scope.resolve(name)
+      val known = symbol.map { env.eval(it) }.orElse(null)
+      if (known is VarDecl<*> && known.type == type && known !in createdDecls) {
+        known
+      } else {
+        val decl = Var(name, type)
+        createdDecls.add(decl)
+        if (symbol.isEmpty) {
+          val newSymbol = NamedSymbol(name)
+          scope.add(newSymbol)
+          env.define(newSymbol, decl)
+        }
+        decl
+      }
+    }
+
+  private fun readType(): Type = readShared(types) { TypeWrapper(readString()).instantiate() }
+
+  private fun readMetaData(): MetaData =
+    readShared(metadata) {
+      val value = metaDataAdapter.fromJson(readString())
+      if (value is EmptyMetaData) EmptyMetaData else value
+    }
+
+  private fun readParseContext(parseContext: ParseContext) {
+    repeat(input.readVarInt()) {
+      parseContext.addArithmeticTrait(ArithmeticTrait.valueOf(readString()))
+    }
+    parseContext.architecture = ArchitectureConfig.ArchitectureType.valueOf(readString())
+    parseContext.multiThreading = input.readBoolean()
+    parseContext.arithmetic = ArchitectureConfig.ArithmeticType.valueOf(readString())
+    repeat(input.readVarInt()) { parseContext.cStmtCounter.incrementForLoops() }
+    repeat(input.readVarInt()) { parseContext.cStmtCounter.incrementWhileLoops() }
+    repeat(input.readVarInt()) { parseContext.cStmtCounter.incrementBranches() }
+    repeat(input.readVarInt()) {
+      val owner = input.readInt()
+      val values = LinkedHashMap<String, Any>()
+      repeat(input.readVarInt()) {
+        val key = readString()
+        values[key] =
+          when (val tag = input.readUnsignedByte()) {
+            VALUE_STRING -> readString()
+            VALUE_BOOLEAN -> input.readBoolean()
+            else -> throw IOException("Unknown metadata value tag $tag")
+          }
+      }
+      parseContext.metadata.lookupKeyValue[owner] = values
+    }
+  }
+
+  private fun readString(): String =
+    readShared(strings) {
+      val bytes = ByteArray(input.readVarInt())
+      input.readFully(bytes)
+      String(bytes, Charsets.UTF_8)
+    }
+
+  private inline fun <T> readList(readElement: () -> T): List<T> =
+    List(input.readVarInt()) { readElement() }
+
+  private inline fun <T> readShared(table: MutableList<T>, readNew: () -> T): T {
+    val id = input.readVarInt()
+    return if (id > 0) table[id - 1] else readNew().also { table.add(it) }
+  }
+}
@@ -0,0 +1,314 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xcfa.binary
+
+import hu.bme.mit.theta.core.decl.Decls.Var
+import hu.bme.mit.theta.core.decl.VarDecl
+import hu.bme.mit.theta.core.stmt.AssignStmt
+import hu.bme.mit.theta.core.stmt.AssumeStmt
+import hu.bme.mit.theta.core.stmt.HavocStmt
+import hu.bme.mit.theta.core.stmt.MemoryAssignStmt
+import hu.bme.mit.theta.core.stmt.SkipStmt
+import hu.bme.mit.theta.core.stmt.Stmt
+import hu.bme.mit.theta.core.type.Expr
+import hu.bme.mit.theta.core.type.Type
+import hu.bme.mit.theta.core.type.anytype.RefExpr
+import hu.bme.mit.theta.frontend.ParseContext
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.EXPR_LEAF
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.EXPR_NODE
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.EXPR_REF
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_INVOKE
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_JOIN
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_NONDET
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_NOP
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_RETURN
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_SEQUENCE
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_START
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_STMT
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.LABEL_TEXT
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.MAGIC
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.PLACEHOLDER
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.STMT_ASSIGN
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.STMT_ASSUME
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.STMT_HAVOC
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.STMT_MEMORY_ASSIGN
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.STMT_SKIP
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.STMT_TEXT
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.VALUE_BOOLEAN
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.VALUE_STRING
+import hu.bme.mit.theta.xcfa.binary.XcfaBinaryFormat.VERSION
+import hu.bme.mit.theta.xcfa.gson.MetaDataAdapter
+import hu.bme.mit.theta.xcfa.model.*
+import java.io.BufferedOutputStream
+import java.io.Closeable
+import java.io.DataOutputStream
+import java.io.OutputStream
+import java.util.*
+
+/**
+ * Writes an [XCFA] and optionally its [ParseContext] in the binary format described in
+ * [XcfaBinaryFormat], to be read back by [XcfaBinaryReader].
+ */
+class XcfaBinaryWriter(outputStream: OutputStream) : Closeable {
+
+  private data class Template(val text: String, val types: List<Type>)
+
+  private val out = DataOutputStream(BufferedOutputStream(outputStream))
+
+  private val strings = HashMap<String, Int>()
+  private val types = HashMap<Type, Int>()
+  private val decls = IdentityHashMap<VarDecl<*>, Int>()
+  private val exprs = HashMap<Expr<*>, Int>()
+  private val templates = HashMap<Template, Int>()
+  private val metadata = HashMap<MetaData, Int>()
+
+  private val metaDataAdapter = MetaDataAdapter()
+
+  fun write(xcfa: XCFA, parseContext: ParseContext? = null) {
+    out.writeInt(MAGIC)
+    out.writeInt(VERSION)
+
+    writeString(xcfa.name)
+    out.writeBoolean(xcfa.unsafeUnrollUsed)
+    writeCollection(xcfa.globalVars) {
+      writeDecl(it.wrappedVar)
+      out.writeBoolean(it.initValue != null)
+      it.initValue?.let(::writeExpr)
+      out.writeBoolean(it.threadLocal)
+      out.writeBoolean(it.atomic)
+    }
+    writeCollection(xcfa.procedures, ::writeProcedure)
+    writeCollection(xcfa.initProcedures) { (procedure, params) ->
+      writeString(procedure.name)
+      writeCollection(params, ::writeExpr)
+    }
+
+    out.writeBoolean(parseContext != null)
+    parseContext?.let(::writeParseContext)
+    out.flush()
+  }
+
+  override fun close() {
+    out.close()
+  }
+
+  private fun writeProcedure(procedure: XcfaProcedure) {
+    writeString(procedure.name)
+    writeCollection(procedure.params) { (param, direction) ->
+      writeDecl(param)
+      out.writeByte(direction.ordinal)
+    }
+    writeCollection(procedure.vars, ::writeDecl)
+
+    val locIds = IdentityHashMap<XcfaLocation, Int>()
+    writeCollection(procedure.locs) {
+      locIds[it] = locIds.size
+      writeString(it.name)
+      out.writeBoolean(it.initial)
+      out.writeBoolean(it.final)
+      out.writeBoolean(it.error)
+      writeMetaData(it.metadata)
+    }
+    writeCollection(procedure.edges) {
+      out.writeVarInt(checkNotNull(locIds[it.source]))
+      out.writeVarInt(checkNotNull(locIds[it.target]))
+      writeLabel(it.label)
+      writeMetaData(it.metadata)
+    }
+    writeExpr(procedure.prop)
+  }
+
+  private fun writeLabel(label: XcfaLabel) {
+    when (label) {
+      is NopLabel -> out.writeByte(LABEL_NOP)
+      is StmtLabel -> {
+        out.writeByte(LABEL_STMT)
+        writeStmt(label.stmt)
+        out.writeByte(label.choiceType.ordinal)
+        writeMetaData(label.metadata)
+      }
+      is InvokeLabel -> {
+        out.writeByte(LABEL_INVOKE)
+        writeString(label.name)
+        writeCollection(label.params, ::writeExpr)
+        writeTempLookup(label.tempLookup)
+        out.writeBoolean(label.isLibraryFunction)
+        writeMetaData(label.metadata)
+      }
+      is StartLabel -> {
+        out.writeByte(LABEL_START)
+        writeString(label.name)
+        writeCollection(label.params, ::writeExpr)
+        writeDecl(label.pidVar)
+        writeTempLookup(label.tempLookup)
+        writeMetaData(label.metadata)
+      }
+      is JoinLabel -> {
+        out.writeByte(LABEL_JOIN)
+        writeDecl(label.pidVar)
+        writeMetaData(label.metadata)
+      }
+      is SequenceLabel -> {
+        out.writeByte(LABEL_SEQUENCE)
+        writeCollection(label.labels, ::writeLabel)
+        writeMetaData(label.metadata)
+      }
+      is NondetLabel -> {
+        out.writeByte(LABEL_NONDET)
+        writeCollection(label.labels, ::writeLabel)
+        writeMetaData(label.metadata)
+      }
+      is ReturnLabel -> {
+        out.writeByte(LABEL_RETURN)
+        writeLabel(label.enclosedLabel)
+      }
+      else -> {
+        // fence labels only refer to variables, their textual form is cheap to parse
+        out.writeByte(LABEL_TEXT)
+        writeString(label.javaClass.name)
+        writeString(label.toString())
+        writeMetaData(label.metadata)
+      }
+    }
+  }
+
+  private fun writeTempLookup(tempLookup: Map<VarDecl<*>, VarDecl<*>>) {
+    writeCollection(tempLookup.entries) {
+      writeDecl(it.key)
+      writeDecl(it.value)
+    }
+  }
+
+  private fun writeStmt(stmt: Stmt) {
+    when (stmt) {
+      is SkipStmt -> out.writeByte(STMT_SKIP)
+      is AssignStmt<*> -> {
+        out.writeByte(STMT_ASSIGN)
+        writeDecl(stmt.varDecl)
+        writeExpr(stmt.expr)
+      }
+      is AssumeStmt -> {
+        out.writeByte(STMT_ASSUME)
+        writeExpr(stmt.cond)
+      }
+      is HavocStmt<*> -> {
+        out.writeByte(STMT_HAVOC)
+        writeDecl(stmt.varDecl)
+      }
+      is MemoryAssignStmt<*, *, *> -> {
+        out.writeByte(STMT_MEMORY_ASSIGN)
+        writeExpr(stmt.deref)
+        writeExpr(stmt.expr)
+      }
+      else -> {
+        out.writeByte(STMT_TEXT)
+        writeString(stmt.toString())
+      }
+    }
+  }
+
+  private fun writeExpr(expr: Expr<*>) {
+    writeShared(exprs, expr) {
+      val decl = (expr as? RefExpr<*>)?.decl
+      if (decl is VarDecl<*>) {
+        out.writeByte(EXPR_REF)
+        writeDecl(decl)
+      } else if (expr.ops.isEmpty()) {
+        out.writeByte(EXPR_LEAF)
+        writeString(expr.toString())
+      } else {
+        out.writeByte(EXPR_NODE)
+        writeTemplate(expr)
+        expr.ops.forEach(::writeExpr)
+      }
+    }
+  }
+
+  private fun writeTemplate(expr: Expr<*>) {
+    val placeholders = expr.ops.mapIndexed { i, op -> Var("$PLACEHOLDER$i", op.type).ref }
+    val template = Template(expr.withOps(placeholders).toString(), expr.ops.map { it.type })
+    writeShared(templates, template) {
+      writeString(template.text)
+      writeCollection(template.types, ::writeType)
+    }
+  }
+
+  private fun writeDecl(decl: VarDecl<*>) {
+    writeShared(decls, decl) {
+      writeString(decl.name)
+      writeType(decl.type)
+    }
+  }
+
+  private fun writeType(type: Type) {
+    writeShared(types, type) { writeString(type.toString()) }
+  }
+
+  private fun writeMetaData(value: MetaData) {
+    writeShared(metadata, value) { writeString(metaDataAdapter.toJson(value)) }
+  }
+
+  private fun writeParseContext(parseContext: ParseContext) {
+    writeCollection(parseContext.arithmeticTraits) { writeString(it.name) }
+    writeString(parseContext.architecture.name)
+    out.writeBoolean(parseContext.multiThreading)
+    writeString(parseContext.arithmetic.name)
+    out.writeVarInt(parseContext.cStmtCounter.forLoops)
+    out.writeVarInt(parseContext.cStmtCounter.whileLoops)
+    out.writeVarInt(parseContext.cStmtCounter.branches)
+    writeCollection(parseContext.metadata.lookupKeyValue.entries) { (owner, values) ->
+      out.writeInt(owner)
+      // only strings and booleans are kept, similarly to the JSON format
+      writeCollection(values.entries.filter { it.value is String || it.value is Boolean }) {
+        writeString(it.key)
+        when (val value = it.value) {
+          is String -> {
+            out.writeByte(VALUE_STRING)
+            writeString(value)
+          }
+          is Boolean -> {
+            out.writeByte(VALUE_BOOLEAN)
+            out.writeBoolean(value)
+          }
+        }
+      }
+    }
+  }
+
+  private fun writeString(value: String) {
+    writeShared(strings, value) {
+      val bytes = value.toByteArray(Charsets.UTF_8)
+      out.writeVarInt(bytes.size)
+      out.write(bytes)
+    }
+  }
+
+  private inline fun <T> writeCollection(collection: Collection<T>, writeElement: (T) -> Unit) {
+    out.writeVarInt(collection.size)
+    collection.forEach(writeElement)
+  }
+
+  private inline fun <T> writeShared(table: MutableMap<T, Int>, value: T, writeNew: () -> Unit) {
+    val id = table[value]
+    if (id != null) {
+      out.writeVarInt(id + 1)
+    } else {
+      out.writeVarInt(0)
+      writeNew()
+      table[value] = table.size
+    }
+  }
+}
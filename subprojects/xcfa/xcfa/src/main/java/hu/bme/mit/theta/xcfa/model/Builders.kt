@@ -103,6 +103,7 @@ constructor(
   private lateinit var optimized: XcfaProcedureBuilder
   private lateinit var partlyOptimized: XcfaProcedureBuilder
   private var lastOptimized: Int = -1
+  private var nextPass: Int = 0
 
   fun getParams(): List<Pair<VarDecl<*>, ParamDirection>> =
     when {
@@ -145,25 +146,36 @@ constructor(
     if (!this::optimized.isInitialized) {
       var that = this
       for (pass in manager.passes.flatten()) {
-        that = pass.run(that)
+        that = manager.run(pass, that)
       }
       optimized = that
     }
   }
 
-  fun optimize(
-    phase: Int
-  ): Boolean { // true, if optimization is finished (no more phases to execute)
+  fun optimize(phase: Int): Boolean =
+    optimize(phase, manager.passes.getOrNull(phase)?.size ?: 0)
+
+  /**
+   * Runs the passes of the given phase that have not run yet, up to (but excluding) the pass at
+   * index [until]. This way, a phase can be run in several steps, e.g., when only some of its
+   * passes can be run concurrently on the procedures.
+   *
+   * @return true, if optimization is finished (no more phases to execute)
+   */
+  fun optimize(phase: Int, until: Int): Boolean {
     if (this::optimized.isInitialized || phase >= manager.passes.size) return true
     if (phase <= lastOptimized) return lastOptimized >= manager.passes.size - 1
     check(phase == lastOptimized + 1) { "Wrong optimization phase!" }
 
     var that = if (this::partlyOptimized.isInitialized) partlyOptimized else this
-    for (pass in manager.passes[phase]) {
-      that = pass.run(that)
+    val passes = manager.passes[phase]
+    while (nextPass < until.coerceAtMost(passes.size)) {
+      that = manager.run(passes[nextPass++], that)
     }
 
     partlyOptimized = that
+    if (nextPass < passes.size) return false
+    nextPass = 0
     lastOptimized = phase
     if (phase >= manager.passes.size - 1) optimized = that
     return phase >= manager.passes.size - 1
@@ -20,11 +20,13 @@ import hu.bme.mit.theta.core.type.Expr
 import hu.bme.mit.theta.core.type.LitExpr
 import hu.bme.mit.theta.core.type.booltype.BoolExprs.True
 import hu.bme.mit.theta.core.type.booltype.BoolType
+import hu.bme.mit.theta.xcfa.passes.ProcedurePassRunner
 import hu.bme.mit.theta.xcfa.utils.getAllLabels
 import hu.bme.mit.theta.xcfa.utils.getNonConcurrentEdges
 import hu.bme.mit.theta.xcfa.utils.getPointsToGraph
 import hu.bme.mit.theta.xcfa.utils.pointerPartitions
 import java.util.*
+import java.util.concurrent.atomic.AtomicInteger
 
 class XCFA(
   val name: String,
@@ -48,13 +50,7 @@ class XCFA(
     private set
 
   init {
-    var phase = 0
-    do {
-      var ready = true
-      procedureBuilders.toSet().forEach { ready = it.optimize(phase) && ready }
-      initProcedureBuilders.toSet().forEach { ready = it.first.optimize(phase) && ready }
-      phase++
-    } while (!ready)
+    ProcedurePassRunner.optimize { procedureBuilders + initProcedureBuilders.map { it.first } }
 
     procedures = procedureBuilders.toSet().map { it.build(this) }.toSet()
     initProcedures = initProcedureBuilders.toSet().map { Pair(it.first.build(this), it.second) }
@@ -156,9 +152,9 @@ constructor(
 
   companion object {
 
-    private var cnt: Int = 0
+    private val cnt = AtomicInteger(0)
 
-    fun uniqueCounter(): Int = cnt++
+    fun uniqueCounter(): Int = cnt.getAndIncrement()
   }
 
   override fun toString(): String {
@@ -23,6 +23,8 @@ import hu.bme.mit.theta.xcfa.utils.getFlatLabels
 /** Removes assume(false) statements and any consequently unreachable edges and locations. */
 class AssumeFalseRemovalPass : ProcedurePass {
 
+  override val isLocal = true
+
   override fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
     builder.getEdges().toSet().forEach { edge ->
       if (
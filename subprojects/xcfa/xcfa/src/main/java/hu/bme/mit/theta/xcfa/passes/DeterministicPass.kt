@@ -25,6 +25,8 @@ import hu.bme.mit.theta.xcfa.model.XcfaProcedureBuilder
  */
 class DeterministicPass : ProcedurePass {
 
+  override val isLocal = true
+
   override fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
     checkNotNull(builder.metaData["normal"])
     val edges = LinkedHashSet(builder.getEdges())
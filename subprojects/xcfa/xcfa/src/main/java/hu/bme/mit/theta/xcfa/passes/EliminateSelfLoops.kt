@@ -19,6 +19,8 @@ import hu.bme.mit.theta.xcfa.model.*
 
 class EliminateSelfLoops : ProcedurePass {
 
+  override val isLocal = true
+
   override fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
     while (true) {
       val selfLoop =
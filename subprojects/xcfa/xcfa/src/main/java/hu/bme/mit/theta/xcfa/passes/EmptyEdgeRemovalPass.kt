@@ -23,6 +23,8 @@ import hu.bme.mit.theta.xcfa.model.*
 /** Removes edges that only contain NopLabels (possibly nested) */
 class EmptyEdgeRemovalPass : ProcedurePass {
 
+  override val isLocal = true
+
   override fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
     while (true) {
       builder.getEdges().filter { it.label.isSureStuck() }.forEach { builder.removeEdge(it) }
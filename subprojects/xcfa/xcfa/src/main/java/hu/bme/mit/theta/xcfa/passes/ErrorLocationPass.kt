@@ -26,6 +26,8 @@ import hu.bme.mit.theta.xcfa.model.*
  */
 class ErrorLocationPass(property: XcfaProperty) : ProcedurePass {
 
+  override val isLocal = true
+
   private val checkOverflow: Boolean = property.inputProperty == ErrorDetection.OVERFLOW
 
   override fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
@@ -27,6 +27,8 @@ import hu.bme.mit.theta.xcfa.model.*
  */
 class FinalLocationPass(property: XcfaProperty) : ProcedurePass {
 
+  override val isLocal = true
+
   private val checkOverflow: Boolean = property.inputProperty == ErrorDetection.OVERFLOW
 
   override fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
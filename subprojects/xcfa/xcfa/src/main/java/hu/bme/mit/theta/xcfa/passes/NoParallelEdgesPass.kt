@@ -19,6 +19,8 @@ import hu.bme.mit.theta.xcfa.model.*
 
 class NoParallelEdgesPass : ProcedurePass {
 
+  override val isLocal = true
+
   override fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
     for (edge in LinkedHashSet(builder.getEdges())) {
       val otherEdges =
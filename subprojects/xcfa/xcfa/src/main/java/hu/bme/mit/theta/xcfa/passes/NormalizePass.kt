@@ -26,6 +26,8 @@ import hu.bme.mit.theta.xcfa.model.*
  */
 class NormalizePass : ProcedurePass {
 
+  override val isLocal = true
+
   override fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
     val edges = LinkedHashSet(builder.getEdges())
     for (edge in edges) {
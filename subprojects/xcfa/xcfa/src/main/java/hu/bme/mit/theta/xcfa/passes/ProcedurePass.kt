@@ -20,4 +20,12 @@ import hu.bme.mit.theta.xcfa.model.XcfaProcedureBuilder
 interface ProcedurePass {
 
   fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder
+
+  /**
+   * Whether the pass only accesses the procedure it is run on, so that it can be run on several
+   * procedures concurrently (see [ProcedurePassRunner]). Passes reading other procedures, writing
+   * the parse context or keeping state in their fields must not be local.
+   */
+  val isLocal: Boolean
+    get() = false
 }
@@ -18,11 +18,40 @@ package hu.bme.mit.theta.xcfa.passes
 import hu.bme.mit.theta.common.logging.Logger
 import hu.bme.mit.theta.frontend.ParseContext
 import hu.bme.mit.theta.xcfa.XcfaProperty
+import hu.bme.mit.theta.xcfa.model.XcfaProcedureBuilder
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.LongAdder
 
 open class ProcedurePassManager(val passes: List<List<ProcedurePass>>) {
 
   constructor(vararg passes: List<ProcedurePass>) : this(passes.toList())
 
+  private val passTimes = ConcurrentHashMap<String, LongAdder>()
+
+  /**
+   * The time spent in the passes of this manager in milliseconds, summed over the procedures and
+   * keyed by the name of the pass. The time of a pass includes the passes it runs on other
+   * procedures (e.g., when inlining).
+   */
+  val passTimesMs: Map<String, Long>
+    get() =
+      passTimes.entries.associate { (name, time) ->
+        name to TimeUnit.NANOSECONDS.toMillis(time.sum())
+      }
+
+  /** Runs a pass on a procedure, and records its running time. */
+  fun run(pass: ProcedurePass, builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
+    val start = System.nanoTime()
+    try {
+      return pass.run(builder)
+    } finally {
+      passTimes
+        .computeIfAbsent(pass.javaClass.simpleName) { LongAdder() }
+        .add(System.nanoTime() - start)
+    }
+  }
+
   operator fun plus(other: ProcedurePassManager): ProcedurePassManager =
     ProcedurePassManager(this.passes + other.passes)
 
@@ -0,0 +1,105 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xcfa.passes
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder
+import hu.bme.mit.theta.xcfa.model.XcfaProcedureBuilder
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * Runs the passes of procedures phase by phase: a phase is started on a procedure only after the
+ * previous phase was finished on every procedure. The procedures are read again at the start of
+ * each phase, as passes may remove procedures (e.g., inlined ones).
+ *
+ * With a [parallelism] above 1, consecutive [local][ProcedurePass.isLocal] passes within a phase are
+ * run on the procedures concurrently, while the other passes are run on one procedure after the
+ * other, as they may access the rest of the XCFA. Otherwise, each procedure runs its whole phase
+ * before the next procedure starts.
+ */
+object ProcedurePassRunner {
+
+  /** The number of threads running local passes, 1 runs every pass sequentially. */
+  var parallelism: Int = 1
+
+  fun optimize(builders: () -> Collection<XcfaProcedureBuilder>) {
+    var executor: ExecutorService? = null
+    try {
+      var phase = 0
+      do {
+        val procedures = builders().toSet()
+        if (parallelism > 1) {
+          val pool =
+            executor
+              ?: Executors.newFixedThreadPool(
+                  parallelism,
+                  ThreadFactoryBuilder()
+                    .setNameFormat("procedure-pass-%d")
+                    .setDaemon(true)
+                    .build(),
+                )
+                .also { executor = it }
+          optimizeInSegments(procedures, phase, pool)
+        }
+        val ready = procedures.fold(true) { ready, it -> it.optimize(phase) && ready }
+        phase++
+      } while (!ready)
+    } finally {
+      executor?.let {
+        it.shutdown()
+        while (!it.awaitTermination(1, TimeUnit.SECONDS)) {}
+      }
+    }
+  }
+
+  /**
+   * Runs a phase on the procedures in segments of consecutive local or non-local passes, each
+   * segment finishing on every procedure before the next one starts.
+   */
+  private fun optimizeInSegments(
+    procedures: Set<XcfaProcedureBuilder>,
+    phase: Int,
+    pool: ExecutorService,
+  ) {
+    for ((manager, group) in procedures.groupBy { it.manager }) {
+      val passes = manager.passes.getOrNull(phase) ?: continue
+      var from = 0
+      while (from < passes.size) {
+        val local = passes[from].isLocal
+        var until = from
+        while (until < passes.size && passes[until].isLocal == local) until++
+
+        if (local && group.size > 1) {
+          val end = until
+          group
+            .map { builder -> pool.submit { builder.optimize(phase, end) } }
+            .forEach {
+              try {
+                it.get()
+              } catch (e: ExecutionException) {
+                throw e.cause ?: e
+              }
+            }
+        } else {
+          group.forEach { it.optimize(phase, until) }
+        }
+        from = until
+      }
+    }
+  }
+}
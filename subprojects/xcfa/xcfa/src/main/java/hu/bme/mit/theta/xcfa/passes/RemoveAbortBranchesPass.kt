@@ -22,6 +22,8 @@ import hu.bme.mit.theta.xcfa.utils.getFlatLabels
 
 class RemoveAbortBranchesPass : ProcedurePass {
 
+  override val isLocal = true
+
   override fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
     builder
       .getLocs()
@@ -22,6 +22,8 @@ import java.util.stream.Collectors
 
 class RemoveDeadEnds(val parseContext: ParseContext) : ProcedurePass {
 
+  override val isLocal = true
+
   companion object {
 
     var enabled = true
@@ -27,6 +27,8 @@ import kotlin.jvm.optionals.getOrNull
 @OptIn(ExperimentalStdlibApi::class)
 class SvCompIntrinsicsPass : ProcedurePass {
 
+  override val isLocal = true
+
   override fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
     checkNotNull(builder.metaData["deterministic"])
     if (builder.name.startsWith("__VERIFIER_atomic")) {
@@ -20,6 +20,8 @@ import hu.bme.mit.theta.xcfa.model.XcfaProcedureBuilder
 /** Removes unused locations */
 class UnusedLocRemovalPass : ProcedurePass {
 
+  override val isLocal = true
+
   override fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
     builder.removeLocs { !it.final && !it.error && !it.initial && it.incomingEdges.isEmpty() }
     return builder
@@ -0,0 +1,105 @@
+/*
+ *  Copyright 2025 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xcfa.binary
+
+import hu.bme.mit.theta.common.dsl.Env
+import hu.bme.mit.theta.common.dsl.SymbolTable
+import hu.bme.mit.theta.core.type.inttype.IntExprs.Int
+import hu.bme.mit.theta.frontend.ParseContext
+import hu.bme.mit.theta.frontend.transformation.ArchitectureConfig
+import hu.bme.mit.theta.xcfa.XcfaScope
+import hu.bme.mit.theta.xcfa.model.*
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+
+class XcfaBinaryTest {
+
+  private fun roundtrip(
+    xcfa: XCFA,
+    parseContext: ParseContext? = null,
+    target: ParseContext? = null,
+  ): XCFA {
+    val symbolTable = XcfaScope(SymbolTable())
+    val env = Env()
+    xcfa.globalVars.forEach {
+      val symbol = NamedSymbol(it.wrappedVar.name)
+      symbolTable.add(symbol)
+      env.define(symbol, it.wrappedVar)
+    }
+    val bytes = ByteArrayOutputStream()
+    XcfaBinaryWriter(bytes).use { it.write(xcfa, parseContext) }
+    return XcfaBinaryReader(ByteArrayInputStream(bytes.toByteArray()), symbolTable, env).use {
+      it.read(target)
+    }
+  }
+
+  @Test
+  fun testRoundtrip() {
+    val xcfaSource =
+      xcfa("example") {
+        global { "x" type Int() init "0" }
+        procedure("main") {
+          (init to "L1") { "x".assign("(+ x 1)") }
+          ("L1" to final) { assume("(< x (* x 2))") }
+          ("L1" to err) { assume("(>= x (* x 2))") }
+          (init to final) { "proc1"("x") }
+        }
+        procedure("proc1") { (init to final) { assume("true") } }
+      }
+
+    val output = roundtrip(xcfaSource)
+    println(xcfaSource)
+    println(output)
+    assertEquals(xcfaSource, output)
+  }
+
+  @Test
+  fun testAsyncRoundtrip() {
+    val xcfaSource =
+      xcfa("example") {
+        global {
+          "x" type Int() init "0"
+          "thr1" type Int() init "0"
+        }
+        procedure("main") { (init to final) { "thr1".start("proc1", "(mod x 0)") } }
+        procedure("proc1") { (init to final) { assume("true") } }
+      }
+
+    val output = roundtrip(xcfaSource)
+    println(xcfaSource)
+    println(output)
+    assertEquals(xcfaSource, output)
+  }
+
+  @Test
+  fun testParseContextRoundTrip() {
+    val xcfaSource =
+      xcfa("example") { procedure("main") { (init to final) { assume("true") } } }
+    val parseContext = ParseContext()
+    parseContext.metadata.create("owner", "key", "value")
+    parseContext.metadata.create("owner", "flag", true)
+    parseContext.architecture = ArchitectureConfig.ArchitectureType.ILP32
+    parseContext.cStmtCounter.incrementBranches()
+
+    val target = ParseContext()
+    roundtrip(xcfaSource, parseContext, target)
+    assertEquals(parseContext.metadata.lookupKeyValue, target.metadata.lookupKeyValue)
+    assertEquals(parseContext.architecture, target.architecture)
+    assertEquals(1, target.cStmtCounter.branches)
+  }
+}
@@ -687,6 +687,72 @@ class PassTests {
     assertTrue(xcfaSource.procedures.none { it.name == "proc1" })
   }
 
+  @Test
+  fun testParallelPipeline() {
+    val passes = CPasses(property, parseContext, NullLogger.getInstance())
+    ProcedurePassRunner.parallelism = 4
+    val xcfaSource =
+      try {
+        xcfa("example") {
+          val main =
+            procedure("main", passes) {
+              (init to "L1") { "proc1"() }
+              ("L1" to final) { "proc2"() }
+            }
+          main.start()
+          procedure("proc1", passes) {
+            (init to "L1") { assume("1 == 1") }
+            ("L1" to final) { nop() }
+          }
+          procedure("proc2", passes) { (init to final) { "proc1"() } }
+        }
+      } finally {
+        ProcedurePassRunner.parallelism = 1
+      }
+
+    val main = xcfaSource.procedures.first { it.name == "main" }
+    assertTrue(main.edges.none { it.getFlatLabels().any { it is InvokeLabel } })
+    assertTrue(xcfaSource.procedures.none { it.name == "proc1" || it.name == "proc2" })
+    assertTrue(passes.passTimesMs.keys.containsAll(listOf("NormalizePass", "InlineProceduresPass")))
+  }
+
+  @Test
+  fun testSequentialPassOrder() {
+    val log = mutableListOf<String>()
+    class Record(val tag: String, override val isLocal: Boolean) : ProcedurePass {
+      override fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
+        log.add("$tag ${builder.name}")
+        return builder
+      }
+    }
+    val removeProc2 =
+      object : ProcedurePass {
+        override fun run(builder: XcfaProcedureBuilder): XcfaProcedureBuilder {
+          builder.parent
+            .getProcedures()
+            .firstOrNull { it.name == "proc2" }
+            ?.let { builder.parent.removeProcedure(it) }
+          return builder
+        }
+      }
+    val passes =
+      ProcedurePassManager(
+        listOf(Record("A", true), Record("B", false), removeProc2),
+        listOf(Record("C", true)),
+      )
+    xcfa("example") {
+      procedure("main", passes) { (init to final) { nop() } }.start()
+      procedure("proc1", passes) { (init to final) { nop() } }
+      procedure("proc2", passes) { (init to final) { nop() } }
+    }
+
+    // each procedure runs its whole phase in turn, and proc2 is not optimized after its removal
+    assertEquals(
+      listOf("A main", "B main", "A proc1", "B proc1", "A proc2", "B proc2", "C main", "C proc1"),
+      log,
+    )
+  }
+
   @Test
   fun testSplit() {
     lateinit var edge: XcfaEdge
@@ -22,6 +22,7 @@ import hu.bme.mit.theta.analysis.*;
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.arg.ARG;
 import hu.bme.mit.theta.analysis.algorithm.arg.ArgBuilder;
+import hu.bme.mit.theta.analysis.algorithm.arg.ArgNode;
 import hu.bme.mit.theta.analysis.algorithm.arg.ArgNodeComparators;
 import hu.bme.mit.theta.analysis.algorithm.cegar.ArgAbstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.ArgCegarChecker;
@@ -34,6 +35,7 @@ import hu.bme.mit.theta.analysis.expr.ExprState;
 import hu.bme.mit.theta.analysis.expr.ExprStatePredicate;
 import hu.bme.mit.theta.analysis.expr.StmtAction;
 import hu.bme.mit.theta.analysis.expr.refinement.*;
+import hu.bme.mit.theta.analysis.impl.PostCache;
 import hu.bme.mit.theta.analysis.multi.MultiAnalysisSide;
 import hu.bme.mit.theta.analysis.pred.*;
 import hu.bme.mit.theta.analysis.pred.PredAbstractors.PredAbstractor;
@@ -41,6 +43,10 @@ import hu.bme.mit.theta.analysis.prod2.Prod2Analysis;
 import hu.bme.mit.theta.analysis.prod2.Prod2Prec;
 import hu.bme.mit.theta.analysis.prod2.Prod2State;
 import hu.bme.mit.theta.analysis.prod2.prod2explpred.*;
+import hu.bme.mit.theta.analysis.reachedset.CoverIndex;
+import hu.bme.mit.theta.analysis.reachedset.ExplStateIndex;
+import hu.bme.mit.theta.analysis.reachedset.Partition;
+import hu.bme.mit.theta.analysis.reachedset.PredStateIndex;
 import hu.bme.mit.theta.analysis.stmtoptimizer.DefaultStmtOptimizer;
 import hu.bme.mit.theta.analysis.stmtoptimizer.StmtOptimizer;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
@@ -232,6 +238,8 @@ public class XstsConfigBuilder {
     private PruneStrategy pruneStrategy = PruneStrategy.LAZY;
     private OptimizeStmts optimizeStmts = OptimizeStmts.ON;
     private AutoExpl autoExpl = AutoExpl.NEWOPERANDS;
+    private int threads = 1;
+    private boolean incremental = false;
 
     public XstsConfigBuilder(
             final Domain domain,
@@ -284,6 +292,21 @@ public class XstsConfigBuilder {
         return this;
     }
 
+    public XstsConfigBuilder threads(final int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Caches the successors computed by the abstraction across the iterations of the CEGAR loop,
+     * so that subtrees of the ARG that are pruned but not affected by the refinement are rebuilt
+     * without querying the solver.
+     */
+    public XstsConfigBuilder incremental(final boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
     public XstsConfig<? extends State, ? extends Action, ? extends Prec> build(final XSTS xsts) {
         if (domain == Domain.EXPL) {
             return (new ExplStrategy(xsts)).buildConfig();
@@ -309,6 +332,7 @@ public class XstsConfigBuilder {
         protected final XSTS xsts;
         protected final Solver abstractionSolver;
         protected final Expr<BoolType> negProp;
+        private PostCache<S, StmtAction, P> postCache;
 
         @SuppressWarnings("java:S1699")
         protected BuilderStrategy(XSTS xsts) {
@@ -348,12 +372,36 @@ public class XstsConfigBuilder {
 
         public abstract Predicate<XstsState<S>> getPredicate();
 
-        public abstract Analysis<S, StmtAction, ? super P> getDataAnalysis();
+        public Analysis<S, StmtAction, ? super P> getDataAnalysis() {
+            return getDataAnalysis(abstractionSolver);
+        }
+
+        public abstract Analysis<S, StmtAction, ? super P> getDataAnalysis(Solver solver);
 
         public XstsAnalysis<S, P> getAnalysis() {
             return XstsAnalysis.create(getDataAnalysis());
         }
 
+        XstsAnalysis<S, P> getAnalysis(final Solver solver) {
+            if (incremental) {
+                return XstsAnalysis.create(getPostCache().wrap(getDataAnalysis(solver)));
+            }
+            return XstsAnalysis.create(getDataAnalysis(solver));
+        }
+
+        /** Creates the cache storing the successors of the data analysis. */
+        PostCache<S, StmtAction, P> createPostCache() {
+            return PostCache.create();
+        }
+
+        // Shared by the analyses of all threads
+        private PostCache<S, StmtAction, P> getPostCache() {
+            if (postCache == null) {
+                postCache = createPostCache();
+            }
+            return postCache;
+        }
+
         public abstract RefutationToPrec<P, ItpRefutation> getItpRefToPrec();
 
         public ArgRefiner<XstsState<S>, XstsAction, P> getRefiner() {
@@ -369,10 +417,15 @@ public class XstsConfigBuilder {
 
         public abstract P getInitPrec();
 
+        /** Creates the index in which the nodes that might cover an ARG node are looked up. */
+        public CoverIndex<ArgNode<XstsState<S>, XstsAction>> createCoverIndex() {
+            return Partition.of(n -> 0);
+        }
+
         XstsConfig<XstsState<S>, XstsAction, P> buildConfig() {
             final LTS<XstsState<S>, XstsAction> lts = getLts();
             final Predicate<XstsState<S>> target = getPredicate();
-            final Analysis<XstsState<S>, XstsAction, P> analysis = getAnalysis();
+            final Analysis<XstsState<S>, XstsAction, P> analysis = getAnalysis(abstractionSolver);
             final ArgBuilder<XstsState<S>, XstsAction, P> argBuilder =
                     ArgBuilder.create(lts, analysis, target, true);
             final ArgAbstractor<XstsState<S>, XstsAction, P> abstractor =
@@ -380,6 +433,18 @@ public class XstsConfigBuilder {
                             .waitlist(PriorityWaitlist.create(search.comparator))
                             .stopCriterion(refinement.getStopCriterion())
                             .logger(logger)
+                            .coverIndex(this::createCoverIndex)
+                            .parallel(
+                                    threads,
+                                    () ->
+                                            ArgBuilder.create(
+                                                    getLts(),
+                                                    getAnalysis(
+                                                            abstractionSolverFactory
+                                                                    .createSolver()),
+                                                    target,
+                                                    true))
+                            .postCache(incremental ? getPostCache() : null)
                             .build();
             final ArgRefiner<XstsState<S>, XstsAction, P> refiner = getRefiner();
             final SafetyChecker<ARG<XstsState<S>, XstsAction>, Trace<XstsState<S>, XstsAction>, P>
@@ -432,8 +497,13 @@ public class XstsConfigBuilder {
         }
 
         @Override
-        public Analysis<ExplState, StmtAction, ExplPrec> getDataAnalysis() {
-            return ExplStmtAnalysis.create(abstractionSolver, xsts.getInitFormula(), maxEnum);
+        PostCache<ExplState, StmtAction, ExplPrec> createPostCache() {
+            return PostCache.create(ExplStmtTransFunc::postCacheKey);
+        }
+
+        @Override
+        public Analysis<ExplState, StmtAction, ExplPrec> getDataAnalysis(final Solver solver) {
+            return ExplStmtAnalysis.create(solver, xsts.getInitFormula(), maxEnum);
         }
 
         @Override
@@ -460,6 +530,11 @@ public class XstsConfigBuilder {
         public ExplPrec getInitPrec() {
             return initPrec.builder.createExpl(xsts);
         }
+
+        @Override
+        public CoverIndex<ArgNode<XstsState<ExplState>, XstsAction>> createCoverIndex() {
+            return ExplStateIndex.create(n -> n.getState().getState());
+        }
     }
 
     public class PredStrategy extends BuilderStrategy<PredState, PredPrec> {
@@ -501,11 +576,9 @@ public class XstsConfigBuilder {
         }
 
         @Override
-        public Analysis<PredState, StmtAction, PredPrec> getDataAnalysis() {
+        public Analysis<PredState, StmtAction, PredPrec> getDataAnalysis(final Solver solver) {
             return PredAnalysis.create(
-                    abstractionSolver,
-                    domain.predAbstractorFunction.apply(abstractionSolver),
-                    xsts.getInitFormula());
+                    solver, domain.predAbstractorFunction.apply(solver), xsts.getInitFormula());
         }
 
         @Override
@@ -517,6 +590,11 @@ public class XstsConfigBuilder {
         public PredPrec getInitPrec() {
             return initPrec.builder.createPred(xsts);
         }
+
+        @Override
+        public CoverIndex<ArgNode<XstsState<PredState>, XstsAction>> createCoverIndex() {
+            return PredStateIndex.create(n -> n.getState().getState());
+        }
     }
 
     public class ProdStrategy
@@ -574,28 +652,27 @@ public class XstsConfigBuilder {
 
         @Override
         public Analysis<Prod2State<ExplState, PredState>, StmtAction, Prod2Prec<ExplPrec, PredPrec>>
-                getDataAnalysis() {
+                getDataAnalysis(final Solver solver) {
             if (domain == Domain.EXPL_PRED_BOOL
                     || domain == Domain.EXPL_PRED_CART
                     || domain == Domain.EXPL_PRED_SPLIT) {
                 final PredAbstractors.PredAbstractor predAbstractor =
-                        domain.predAbstractorFunction.apply(abstractionSolver);
+                        domain.predAbstractorFunction.apply(solver);
                 return Prod2Analysis.create(
-                        ExplStmtAnalysis.create(abstractionSolver, xsts.getInitFormula(), maxEnum),
-                        PredAnalysis.create(
-                                abstractionSolver, predAbstractor, xsts.getInitFormula()),
+                        ExplStmtAnalysis.create(solver, xsts.getInitFormula(), maxEnum),
+                        PredAnalysis.create(solver, predAbstractor, xsts.getInitFormula()),
                         Prod2ExplPredPreStrengtheningOperator.create(),
-                        Prod2ExplPredStrengtheningOperator.create(abstractionSolver));
+                        Prod2ExplPredStrengtheningOperator.create(solver));
             } else {
                 final Prod2ExplPredAbstractors.Prod2ExplPredAbstractor prodAbstractor =
-                        Prod2ExplPredAbstractors.booleanAbstractor(abstractionSolver);
+                        Prod2ExplPredAbstractors.booleanAbstractor(solver);
                 return Prod2ExplPredAnalysis.create(
-                        ExplAnalysis.create(abstractionSolver, xsts.getInitFormula()),
+                        ExplAnalysis.create(solver, xsts.getInitFormula()),
                         PredAnalysis.create(
-                                abstractionSolver,
-                                PredAbstractors.booleanAbstractor(abstractionSolver),
+                                solver,
+                                PredAbstractors.booleanAbstractor(solver),
                                 xsts.getInitFormula()),
-                        Prod2ExplPredStrengtheningOperator.create(abstractionSolver),
+                        Prod2ExplPredStrengtheningOperator.create(solver),
                         prodAbstractor);
             }
         }
@@ -16,6 +16,7 @@
 package hu.bme.mit.theta.xsts.cli
 
 import com.github.ajalt.clikt.parameters.options.default
+import com.github.ajalt.clikt.parameters.options.flag
 import com.github.ajalt.clikt.parameters.options.option
 import com.github.ajalt.clikt.parameters.types.enum
 import com.github.ajalt.clikt.parameters.types.int
@@ -60,6 +61,10 @@ class XstsCliCegar :
     option().enum<PruneStrategy>().default(PruneStrategy.LAZY)
   private val optimizestmts: OptimizeStmts by
     option().enum<OptimizeStmts>().default(OptimizeStmts.ON)
+  private val abstractionThreads: Int by
+    option(help = "Number of threads expanding the ARG in parallel").int().default(1)
+  private val incremental: Boolean by
+    option(help = "Reuse successors computed by the abstraction across refinements").flag()
 
   private fun printResult(
     status: SafetyResult<out ARG<*, *>?, out Trace<*, *>?>,
@@ -118,6 +123,8 @@ class XstsCliCegar :
         .search(search)
         .predSplit(predsplit)
         .optimizeStmts(optimizestmts)
+        .threads(abstractionThreads)
+        .incremental(incremental)
         .logger(logger)
         .build(xsts)
     val sw = Stopwatch.createStarted()
@@ -18,10 +18,12 @@ package hu.bme.mit.theta.xsts.cli
 import com.github.ajalt.clikt.parameters.options.default
 import com.github.ajalt.clikt.parameters.options.option
 import com.github.ajalt.clikt.parameters.types.boolean
+import com.github.ajalt.clikt.parameters.types.int
 import com.google.common.base.Stopwatch
 import hu.bme.mit.theta.analysis.algorithm.InvariantProof
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult
 import hu.bme.mit.theta.analysis.algorithm.ic3.Ic3Checker
+import hu.bme.mit.theta.analysis.algorithm.ic3.IncrementalIc3Checker
 import hu.bme.mit.theta.common.logging.Logger
 import hu.bme.mit.theta.solver.SolverManager
 import hu.bme.mit.theta.xsts.XSTS
@@ -36,6 +38,14 @@ class XstsCliIC3 :
   private val notBOpt: Boolean by option().boolean().default(true)
   private val propagateOpt: Boolean by option().boolean().default(true)
   private val filterOpt: Boolean by option().boolean().default(true)
+  private val incremental: Boolean by
+    option(help = "Assert the transition relation once and guard lemmas by activation literals")
+      .boolean()
+      .default(false)
+  private val propagationThreads: Int by
+    option(help = "Number of threads propagating clauses in parallel (incremental variant only)")
+      .int()
+      .default(1)
 
   private fun printResult(status: SafetyResult<InvariantProof, *>, xsts: XSTS, totalTimeMs: Long) {
     if (!outputOptions.benchmarkMode) {
@@ -62,17 +72,32 @@ class XstsCliIC3 :
     val sw = Stopwatch.createStarted()
     val checker =
       createChecker(xsts, solverFactory) {
-        Ic3Checker(
-          it,
-          solverFactory,
-          formerFramesOpt,
-          unSatOpt,
-          notBOpt,
-          propagateOpt,
-          filterOpt,
-          true,
-          logger,
-        )
+        if (incremental) {
+          IncrementalIc3Checker(
+            it,
+            solverFactory,
+            formerFramesOpt,
+            unSatOpt,
+            notBOpt,
+            propagateOpt,
+            filterOpt,
+            true,
+            propagationThreads,
+            logger,
+          )
+        } else {
+          Ic3Checker(
+            it,
+            solverFactory,
+            formerFramesOpt,
+            unSatOpt,
+            notBOpt,
+            propagateOpt,
+            filterOpt,
+            true,
+            logger,
+          )
+        }
       }
     val result = checker.check()
     sw.stop()
@@ -20,7 +20,7 @@ import com.github.ajalt.clikt.parameters.options.default
 import com.github.ajalt.clikt.parameters.options.option
 import com.github.ajalt.clikt.parameters.types.enum
 import com.github.ajalt.clikt.parameters.types.file
-import com.google.common.base.Preconditions.checkArgument
+import com.github.ajalt.clikt.parameters.types.int
 import hu.bme.mit.delta.java.mdd.JavaMddFactory
 import hu.bme.mit.delta.java.mdd.MddHandle
 import hu.bme.mit.delta.java.mdd.MddNode
@@ -32,13 +32,16 @@ import hu.bme.mit.theta.analysis.algorithm.mdd.MddChecker
 import hu.bme.mit.theta.analysis.algorithm.mdd.fixedpoint.*
 import hu.bme.mit.theta.common.logging.Logger
 import hu.bme.mit.theta.common.stopwatch.Stopwatch
+import hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.Not
 import hu.bme.mit.theta.frontend.petrinet.analysis.PetriNetForceVarOrdering
 import hu.bme.mit.theta.frontend.petrinet.analysis.PtNetDependency2Gxl
 import hu.bme.mit.theta.frontend.petrinet.analysis.PtNetSystem
+import hu.bme.mit.theta.frontend.petrinet.analysis.PtNetTarget
 import hu.bme.mit.theta.frontend.petrinet.analysis.VariableOrderingFactory
 import hu.bme.mit.theta.frontend.petrinet.model.PetriNet
 import hu.bme.mit.theta.frontend.petrinet.model.Place
 import hu.bme.mit.theta.frontend.petrinet.model.PropType
+import hu.bme.mit.theta.frontend.petrinet.xsts.PetriNetToXSTS
 import hu.bme.mit.theta.xsts.cli.optiongroup.PetrinetDependencyOutputOptions
 import java.io.File
 import java.io.PrintStream
@@ -57,21 +60,49 @@ class XstsCliPetrinetMdd :
       .file(mustExist = true, canBeDir = false, mustBeReadable = true)
   private val id: String by
     option(help = "ID of the input model. Used for symbolic output").default("")
-  private val iterationStrategy: MddChecker.IterationStrategy by
+  private val iterationStrategy: IterationStrategy by
     option(help = "The state space generation algorithm to use")
-      .enum<MddChecker.IterationStrategy>()
-      .default(MddChecker.IterationStrategy.GSAT)
+      .enum<IterationStrategy>()
+      .default(IterationStrategy.GSAT)
+  private val threads: Int by
+    option(help = "Number of threads used by parallel saturation (PGSAT)")
+      .int()
+      .default(Runtime.getRuntime().availableProcessors())
   private val dependencyOutput by PetrinetDependencyOutputOptions()
 
+  /**
+   * The strategies of [MddChecker.IterationStrategy], extended by parallel generalized saturation
+   * (see [ParallelSaturationProvider]), which is only supported for structural MDDs.
+   */
+  enum class IterationStrategy {
+    BFS,
+    SAT,
+    GSAT,
+    PGSAT,
+  }
+
   private fun loadOrdering(petriNet: PetriNet): List<Place> =
     if (ordering == null) PetriNetForceVarOrdering.orderVars(petriNet)
     else VariableOrderingFactory.fromFile(ordering, petriNet)
 
-  private fun petrinetAnalysis() {
-    checkArgument(inputOptions.pnProperty == PropType.FULL_EXPLORATION) {
-      "Only full exploration is supported for dedicated PN mode. Use XSTS-based analysis for other properties."
+  private fun createTarget(petriNet: PetriNet, system: PtNetSystem): PtNetTarget? =
+    when (inputOptions.pnProperty) {
+      PropType.FULL_EXPLORATION -> null
+      PropType.DEADLOCK -> PtNetTarget.deadlock(system)
+      else -> {
+        val placeIdToVar = PtNetTarget.createPlaceVars(system)
+        val invariant =
+          PetriNetToXSTS.createPropExpr(
+            petriNet,
+            inputOptions.loadPropertyStream(),
+            inputOptions.pnProperty,
+            placeIdToVar,
+          )
+        PtNetTarget.of(system, Not(invariant), placeIdToVar)
+      }
     }
 
+  private fun petrinetAnalysis() {
     val totalTimer = Stopwatch.createStarted()
     val petriNet = inputOptions.loadPetriNet()[0]
     val effectiveOrdering = loadOrdering(petriNet)
@@ -80,69 +111,87 @@ class XstsCliPetrinetMdd :
     createDepGxlGSat(system)
     createDepMat(system)
     createDepMatPng(system)
+    val target = createTarget(petriNet, system)
     val variableOrder =
       JavaMddFactory.getDefault().createMddVariableOrder(LatticeDefinition.forSets())
     effectiveOrdering.forEach { variableOrder.createOnTop(MddVariableDescriptor.create(it)) }
     val ssgTimer = Stopwatch.createStarted()
     val provider: StateSpaceEnumerationProvider =
       when (iterationStrategy) {
-        MddChecker.IterationStrategy.BFS -> BfsProvider(variableOrder)
-        MddChecker.IterationStrategy.SAT -> SimpleSaturationProvider(variableOrder)
-        MddChecker.IterationStrategy.GSAT -> GeneralizedSaturationProvider(variableOrder)
+        IterationStrategy.BFS -> BfsProvider(variableOrder)
+        IterationStrategy.SAT -> SimpleSaturationProvider(variableOrder)
+        IterationStrategy.GSAT -> GeneralizedSaturationProvider(variableOrder)
+        IterationStrategy.PGSAT -> ParallelSaturationProvider(variableOrder, threads)
       }
-    val stateSpace =
-      provider.compute(
-        system.initializer,
-        system.transitions,
-        variableOrder.defaultSetSignature.topVariableHandle,
-      )
-    ssgTimer.stop()
-    totalTimer.stop()
-
-    if (!outputOptions.benchmarkMode) {
-      val statistics =
-        MddAnalysisStatistics(
-          0,
-          MddInterpreter.calculateNonzeroCount(stateSpace),
-          provider.hitCount,
-          provider.queryCount,
-          provider.cacheSize,
-          ssgTimer.elapsedMillis(),
-          totalTimer.elapsedMillis(),
-        )
-      logger.writeln(Logger.Level.MAINSTEP, statistics.toString())
-      logger.writeln(Logger.Level.RESULT, "(SafetyResult Safe)")
-    } else {
-      val unionProvider = variableOrder.defaultUnionProvider
-      listOf(
-          id,
-          inputOptions.model.path,
-          system.name,
-          MddInterpreter.calculateNonzeroCount(stateSpace),
-          numberOfNodes(stateSpace),
-          totalTimer.elapsedNanos(),
-          ssgTimer.elapsedNanos(),
-          variableOrder.mddGraph.uniqueTableSize,
-          unionProvider.cacheSize,
-          unionProvider.queryCount,
-          unionProvider.hitCount,
+    try {
+      val stateSpace =
+        provider.compute(
+          system.initializer,
+          target?.onTheFly(system.transitions) ?: system.transitions,
+          variableOrder.defaultSetSignature.topVariableHandle,
         )
-        .forEach(writer::cell)
-      if (
-        iterationStrategy in
-          setOf(MddChecker.IterationStrategy.GSAT, MddChecker.IterationStrategy.SAT)
-      ) {
+      ssgTimer.stop()
+      val targetMarking = target?.findTarget(stateSpace)?.orElse(null)
+      val safe = target == null || (targetMarking == null && !target.isReached)
+      totalTimer.stop()
+
+      if (!outputOptions.benchmarkMode) {
+        val statistics =
+          MddAnalysisStatistics(
+            0,
+            MddInterpreter.calculateNonzeroCount(stateSpace),
+            provider.hitCount,
+            provider.queryCount,
+            provider.cacheSize,
+            ssgTimer.elapsedMillis(),
+            totalTimer.elapsedMillis(),
+          )
+        logger.writeln(Logger.Level.MAINSTEP, statistics.toString())
+        if (safe) {
+          logger.writeln(Logger.Level.RESULT, "(SafetyResult Safe)")
+        } else {
+          logger.writeln(Logger.Level.RESULT, "(SafetyResult Unsafe)")
+        }
+        if (targetMarking != null) {
+          val marking = targetMarking.entries.joinToString(" ") { "${it.key.id}=${it.value}" }
+          logger.writeln(Logger.Level.INFO, "Target marking: $marking")
+        }
+      } else {
+        val unionProvider = variableOrder.defaultUnionProvider
+        listOf(
+            id,
+            inputOptions.model.path,
+            system.name,
+            MddInterpreter.calculateNonzeroCount(stateSpace),
+            numberOfNodes(stateSpace),
+            totalTimer.elapsedNanos(),
+            ssgTimer.elapsedNanos(),
+            variableOrder.mddGraph.uniqueTableSize,
+            unionProvider.cacheSize,
+            unionProvider.queryCount,
+            unionProvider.hitCount,
+          )
+          .forEach(writer::cell)
+        if (
+          iterationStrategy in
+            setOf(IterationStrategy.GSAT, IterationStrategy.PGSAT, IterationStrategy.SAT)
+        ) {
+          listOf(provider.cacheSize, provider.queryCount, provider.hitCount).forEach(writer::cell)
+        }
         listOf(provider.cacheSize, provider.queryCount, provider.hitCount).forEach(writer::cell)
+        if (
+          iterationStrategy in
+            setOf(IterationStrategy.GSAT, IterationStrategy.PGSAT, IterationStrategy.SAT)
+        ) {
+          val collector: MutableSet<MddNode> = mutableSetOf()
+          provider.clear()
+          listOf(collector.size).forEach(writer::cell)
+        }
+        if (target != null) writer.cell(safe)
       }
-      listOf(provider.cacheSize, provider.queryCount, provider.hitCount).forEach(writer::cell)
-      if (
-        iterationStrategy in
-          setOf(MddChecker.IterationStrategy.GSAT, MddChecker.IterationStrategy.SAT)
-      ) {
-        val collector: MutableSet<MddNode> = mutableSetOf()
-        provider.clear()
-        listOf(collector.size).forEach(writer::cell)
-      }
+    } finally {
+      // shuts down the thread pool of parallel saturation
+      provider.dispose()
     }
   }
 
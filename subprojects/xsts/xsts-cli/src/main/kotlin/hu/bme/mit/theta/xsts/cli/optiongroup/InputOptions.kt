@@ -61,12 +61,14 @@ class InputOptions :
 
   fun isPnml() = model.path.endsWith("pnml")
 
+  fun loadPropertyStream(): InputStream? =
+    if (property != null) property
+    else
+      (if (inlineProperty != null) ByteArrayInputStream("prop { $inlineProperty }".toByteArray())
+      else null)
+
   fun loadXsts(): XSTS {
-    val propertyStream =
-      if (property != null) property
-      else
-        (if (inlineProperty != null) ByteArrayInputStream("prop { $inlineProperty }".toByteArray())
-        else null)
+    val propertyStream = loadPropertyStream()
     if (isPnml()) {
       val petriNet = XMLPnmlToPetrinet.parse(model.absolutePath, initialmarking)
       return PetriNetToXSTS.createXSTS(petriNet, propertyStream, pnProperty)
@@ -15,6 +15,7 @@
  */
 package hu.bme.mit.theta.xsts.dsl;
 
+import hu.bme.mit.theta.core.dsl.TwoStageParser;
 import hu.bme.mit.theta.xsts.XSTS;
 import hu.bme.mit.theta.xsts.dsl.gen.XstsDslLexer;
 import hu.bme.mit.theta.xsts.dsl.gen.XstsDslParser;
@@ -41,7 +42,7 @@ public final class XstsDslManager {
         final CommonTokenStream tokenStream = new CommonTokenStream(lexer);
         final XstsDslParser parser = new XstsDslParser(tokenStream);
         parser.setErrorHandler(new BailErrorStrategy());
-        final XstsDslParser.XstsContext model = parser.xsts();
+        final XstsDslParser.XstsContext model = TwoStageParser.parse(parser, XstsDslParser::xsts);
         final XstsSpecification xstsSpecification = new XstsSpecification(model);
 
         return xstsSpecification.instantiate();
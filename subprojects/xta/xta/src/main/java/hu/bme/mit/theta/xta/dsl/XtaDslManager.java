@@ -15,6 +15,7 @@
  */
 package hu.bme.mit.theta.xta.dsl;
 
+import hu.bme.mit.theta.core.dsl.TwoStageParser;
 import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.dsl.gen.XtaDslLexer;
 import hu.bme.mit.theta.xta.dsl.gen.XtaDslParser;
@@ -44,7 +45,7 @@ public final class XtaDslManager {
         final CommonTokenStream tokens = new CommonTokenStream(lexer);
         final XtaDslParser parser = new XtaDslParser(tokens);
 
-        final XtaContext context = parser.xta();
+        final XtaContext context = TwoStageParser.parse(parser, XtaDslParser::xta);
         final XtaSpecification scope = XtaSpecification.fromContext(context);
         final XtaSystem system = scope.getSystem();
 